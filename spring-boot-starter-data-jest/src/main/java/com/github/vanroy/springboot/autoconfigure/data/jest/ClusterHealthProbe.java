@@ -0,0 +1,259 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.cluster.Health;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Probe cluster health (and health of some indices) on a schedule, in background.
+ * Last result is cached, so health checks never wait for the cluster.
+ *
+ * First probe runs one interval after start, or earlier in background on first read of result, so a lazily
+ * initialized client is not created by the probe while the application starts.
+ * @author Julien Roy
+ */
+public class ClusterHealthProbe implements SmartLifecycle {
+
+	private static final Log logger = LogFactory.getLog(ClusterHealthProbe.class);
+
+	private final JestClient client;
+	private final List<String> indices;
+	private final long intervalMillis;
+	private final Set<Consumer<Result>> listeners = new CopyOnWriteArraySet<>();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final AtomicBoolean firstProbeRequested = new AtomicBoolean();
+
+	private volatile Result result;
+	private volatile ScheduledExecutorService scheduler;
+
+	/**
+	 * @param client Jest client
+	 * @param indices Indices (or aliases) whose health is probed, in addition to cluster health
+	 * @param interval Delay between end of a probe and start of next one
+	 * @param unit Unit of interval
+	 */
+	public ClusterHealthProbe(JestClient client, List<String> indices, long interval, TimeUnit unit) {
+		this.client = client;
+		this.indices = indices != null ? indices : Collections.emptyList();
+		this.intervalMillis = unit.toMillis(interval);
+	}
+
+	/**
+	 * @return result of last probe, null if not probed yet (first probe is then requested in background)
+	 */
+	public Result getResult() {
+		Result result = this.result;
+		if (result == null) {
+			requestFirstProbe();
+		}
+		return result;
+	}
+
+	private void requestFirstProbe() {
+		ScheduledExecutorService scheduler = this.scheduler;
+		if (scheduler != null && firstProbeRequested.compareAndSet(false, true)) {
+			scheduler.execute(this::probe);
+		}
+	}
+
+	/**
+	 * @param listener Listener called with result of each probe
+	 */
+	public void addListener(Consumer<Result> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void start() {
+		lock.lock();
+		try {
+			if (scheduler == null) {
+				scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+					Thread thread = new Thread(runnable, "jest-health-probe");
+					thread.setDaemon(true);
+					return thread;
+				});
+				scheduler.scheduleWithFixedDelay(this::probe, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void stop() {
+		lock.lock();
+		try {
+			if (scheduler != null) {
+				scheduler.shutdownNow();
+				scheduler = null;
+				firstProbeRequested.set(false);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return scheduler != null;
+	}
+
+	/**
+	 * Probe health now and cache result.
+	 * @return result of probe
+	 */
+	public Result probe() {
+		long start = System.nanoTime();
+		Result probed;
+		try {
+			JsonObject cluster = health(new Health.Builder().build());
+			Map<String, String> indicesStatus = new LinkedHashMap<>();
+			String status = cluster.get("status").getAsString();
+			if (!indices.isEmpty()) {
+				Health.Builder builder = new Health.Builder().setParameter("level", "indices");
+				indices.forEach(builder::addIndex);
+				JsonObject indicesHealth = health(builder.build());
+				if (indicesHealth.has("indices")) {
+					for (Map.Entry<String, JsonElement> index : indicesHealth.getAsJsonObject("indices").entrySet()) {
+						indicesStatus.put(index.getKey(), index.getValue().getAsJsonObject().get("status").getAsString());
+					}
+				}
+				status = worst(status, indicesHealth.get("status").getAsString());
+			}
+			probed = new Result(status, details(cluster), indicesStatus, null, System.nanoTime() - start);
+		} catch (Exception e) {
+			logger.debug("Elasticsearch health probe failed", e);
+			probed = new Result(null, Collections.emptyMap(), Collections.emptyMap(), e, System.nanoTime() - start);
+		}
+
+		result = probed;
+		for (Consumer<Result> listener : listeners) {
+			try {
+				listener.accept(probed);
+			} catch (RuntimeException e) {
+				// Never stop scheduled probes
+				logger.warn("Elasticsearch health probe listener failed", e);
+			}
+		}
+		return probed;
+	}
+
+	private JsonObject health(Health health) throws IOException {
+		JestResult healthResult = client.execute(health);
+		// A missing index is reported as red with a 408 status code
+		JsonObject json = healthResult.getJsonObject();
+		if (json == null || !json.has("status")) {
+			throw new IllegalStateException("Cannot get health: " + healthResult.getErrorMessage());
+		}
+		return json;
+	}
+
+	private static Map<String, Object> details(JsonObject cluster) {
+		Map<String, Object> details = new LinkedHashMap<>();
+		for (Map.Entry<String, JsonElement> entry : cluster.entrySet()) {
+			JsonElement value = entry.getValue();
+			if (value.isJsonPrimitive()) {
+				details.put(entry.getKey(), value.getAsJsonPrimitive().isNumber() ? value.getAsNumber() : value.getAsString());
+			}
+		}
+		return details;
+	}
+
+	private static String worst(String status, String other) {
+		return rank(other) > rank(status) ? other : status;
+	}
+
+	private static int rank(String status) {
+		switch (status) {
+			case "green":
+				return 0;
+			case "yellow":
+				return 1;
+			default:
+				return 2;
+		}
+	}
+
+	/**
+	 * Result of a health probe.
+	 */
+	public static final class Result {
+
+		private final String status;
+		private final Map<String, Object> details;
+		private final Map<String, String> indices;
+		private final Exception error;
+		private final long latencyNanos;
+		private final long timestamp = System.currentTimeMillis();
+
+		private Result(String status, Map<String, Object> details, Map<String, String> indices, Exception error, long latencyNanos) {
+			this.status = status;
+			this.details = Collections.unmodifiableMap(details);
+			this.indices = Collections.unmodifiableMap(indices);
+			this.error = error;
+			this.latencyNanos = latencyNanos;
+		}
+
+		/**
+		 * @return worst status of cluster and probed indices (green, yellow or red), null if probe failed
+		 */
+		public String getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return cluster health fields (cluster name, number of nodes, shards...)
+		 */
+		public Map<String, Object> getDetails() {
+			return details;
+		}
+
+		/**
+		 * @return status of probed indices, by index name
+		 */
+		public Map<String, String> getIndices() {
+			return indices;
+		}
+
+		/**
+		 * @return failure of probe, null if probe succeeded
+		 */
+		public Exception getError() {
+			return error;
+		}
+
+		/**
+		 * @return duration of probe in nanoseconds
+		 */
+		public long getLatencyNanos() {
+			return latencyNanos;
+		}
+
+		/**
+		 * @return end of probe, in milliseconds since epoch
+		 */
+		public long getTimestamp() {
+			return timestamp;
+		}
+	}
+}
@@ -1,13 +1,18 @@
 package com.github.vanroy.springboot.autoconfigure.data.jest;
 
-import java.io.Closeable;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import com.github.vanroy.springdata.jest.client.CircuitBreakerConfig;
+import com.github.vanroy.springdata.jest.client.CircuitBreakingJestClient;
+import com.github.vanroy.springdata.jest.client.ConcurrencyLimiter;
+import com.github.vanroy.springdata.jest.client.ConcurrencyLimitingJestClient;
+import com.github.vanroy.springdata.jest.client.ConnectionPoolWarmer;
+import com.github.vanroy.springdata.jest.client.LazyJestClient;
 import com.google.common.collect.Lists;
 import io.searchbox.client.JestClient;
 import io.searchbox.client.JestClientFactory;
@@ -15,29 +20,22 @@ import io.searchbox.client.config.HttpClientConfig;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.http.HttpHost;
-import org.elasticsearch.common.settings.Settings;
 import org.elasticsearch.node.Node;
 import org.elasticsearch.node.NodeValidationException;
-import org.elasticsearch.plugins.Plugin;
-import org.elasticsearch.transport.Netty4Plugin;
 import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchProperties;
 import org.springframework.boot.autoconfigure.elasticsearch.jest.HttpClientConfigBuilderCustomizer;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.type.filter.AssignableTypeFilter;
-import org.springframework.data.elasticsearch.client.NodeClientFactoryBean;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.SocketUtils;
 import org.springframework.util.StringUtils;
 
 /**
@@ -50,8 +48,6 @@ public class ElasticsearchJestAutoConfiguration implements DisposableBean {
 
 	private static final Log logger = LogFactory.getLog(ElasticsearchJestAutoConfiguration.class);
 
-	private static final String INTERNAL_TEST_CLUSTER_NAME = "internal-test-cluster-name";
-
 	@Autowired
 	private ElasticsearchJestProperties properties;
 
@@ -64,7 +60,7 @@ public class ElasticsearchJestAutoConfiguration implements DisposableBean {
 	@Autowired(required = false)
 	private ObjectProvider<List<HttpClientConfigBuilderCustomizer>> builderCustomizers;
 
-	private Closeable node;
+	private InternalNodes.StartedNode node;
 
 	@Bean
 	@ConditionalOnMissingBean(JestClient.class)
@@ -86,29 +82,64 @@ public class ElasticsearchJestAutoConfiguration implements DisposableBean {
 		}
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "spring.data.jest.connection-warm-up", name = "enabled", havingValue = "true")
+	public JestConnectionWarmUp jestConnectionWarmUp(JestClient client) {
+		ElasticsearchJestProperties.ConnectionWarmUp warmUp = this.properties.getConnectionWarmUp();
+		int connectionsPerNode = Math.min(warmUp.getConnectionsPerNode(), properties.getDefaultMaxTotalConnectionPerRoute());
+		int maxConnections = Math.min(ConnectionPoolWarmer.DEFAULT_MAX_CONNECTIONS, properties.getMaxTotalConnection());
+		ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(client, connectionsPerNode, maxConnections, warmUp.getTimeout(), TimeUnit.MILLISECONDS);
+
+		// Warm up discovered nodes, or configured ones (internal node if none)
+		int nodes = 0;
+		if (!Boolean.parseBoolean(properties.getDiscoveryEnabled())) {
+			nodes = CollectionUtils.isEmpty(properties.getUris()) ? 1 : properties.getUris().size();
+		}
+		return new JestConnectionWarmUp(warmer, nodes);
+	}
+
 	@Override
 	public void destroy() throws Exception {
 		if (this.node != null) {
-			try {
-				if (logger.isInfoEnabled()) {
-					logger.info("Closing Elasticsearch client");
-				}
-				this.node.close();
-			} catch (Exception ex) {
-				if (logger.isErrorEnabled()) {
-					logger.error("Error closing Elasticsearch client: ", ex);
-				}
-			}
+			this.node.close();
 		}
 	}
 
 	/**
-	 * Create Jest client with URI
+	 * Create Jest client with URI, lazily if configured
 	 * @param uris URI list of Elasticsearch
 	 * @return JestClient
 	 */
 	private JestClient createJestClient(List<String> uris) {
 
+		ElasticsearchJestProperties.LazyInitialization lazyInitialization = this.properties.getLazyInitialization();
+		if (!lazyInitialization.isEnabled()) {
+			return decorateJestClient(buildJestClient(uris));
+		}
+
+		LazyJestClient client = new LazyJestClient(() -> buildJestClient(uris));
+		if (lazyInitialization.isBackground()) {
+			client.initializeAsync(runnable -> {
+				Thread thread = new Thread(runnable, "jest-client-initialization");
+				thread.setDaemon(true);
+				thread.start();
+			}).whenComplete((created, ex) -> {
+				if (ex != null) {
+					logger.warn("Background initialization of Jest client failed, it will be retried on first request", ex);
+				}
+			});
+		}
+		return decorateJestClient(client);
+	}
+
+	/**
+	 * Build Jest client with URI
+	 * @param uris URI list of Elasticsearch
+	 * @return JestClient
+	 */
+	private JestClient buildJestClient(List<String> uris) {
+
 		HttpClientConfig.Builder builder = new HttpClientConfig.Builder(uris)
 			.maxTotalConnection(properties.getMaxTotalConnection())
 			.defaultMaxTotalConnectionPerRoute(properties.getDefaultMaxTotalConnectionPerRoute())
@@ -145,62 +176,61 @@ public class ElasticsearchJestAutoConfiguration implements DisposableBean {
 	}
 
 	/**
-	 * Create internal Elasticsearch node.
-	 * @return HTTP port of node
+	 * Apply configured decorators on Jest client.
+	 * @param client Jest client
+	 * @return decorated Jest client
 	 */
-	private int createInternalNode() throws NodeValidationException {
+	private JestClient decorateJestClient(JestClient client) {
 
-		if (logger.isInfoEnabled()) {
-			logger.info("Create test ES node");
+		ElasticsearchJestProperties.ConcurrencyLimit concurrencyLimit = this.properties.getConcurrencyLimit();
+		if (concurrencyLimit.isEnabled()) {
+			client = new ConcurrencyLimitingJestClient(client,
+					createConcurrencyLimiter("read", concurrencyLimit.getRead()),
+					createConcurrencyLimiter("write", concurrencyLimit.getWrite()));
 		}
 
-		int port = SocketUtils.findAvailableTcpPort();
-		String clusterName = INTERNAL_TEST_CLUSTER_NAME + UUID.randomUUID();
-
-		Settings.Builder settingsBuilder = Settings.builder()
-				.put("cluster.name", clusterName)
-				.put("http.type", "netty4")
-				.put("http.port", String.valueOf(port));
-
-		if (this.esNodeproperties != null) {
-			this.esNodeproperties.getProperties().forEach(settingsBuilder::put);
+		// Circuit breaker wraps limiter, so an open circuit never waits for a permit
+		ElasticsearchJestProperties.CircuitBreaker circuitBreaker = this.properties.getCircuitBreaker();
+		if (circuitBreaker.isEnabled()) {
+			CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+					.failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+					.slowCallRateThreshold(circuitBreaker.getSlowCallRateThreshold())
+					.slowCallDurationThreshold(circuitBreaker.getSlowCallDurationThreshold(), TimeUnit.MILLISECONDS)
+					.slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+					.minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+					.waitDurationInOpenState(circuitBreaker.getWaitDurationInOpenState(), TimeUnit.MILLISECONDS)
+					.permittedCallsInHalfOpenState(circuitBreaker.getPermittedCallsInHalfOpenState())
+					.build();
+			client = new CircuitBreakingJestClient(client, "elasticsearch", config, circuitBreaker.isPerIndex(), circuitBreaker.getMaxIndexCircuitBreakers());
 		}
 
-		Collection<Class<? extends Plugin>> plugins = scanPlugins();
-		plugins.add(Netty4Plugin.class);
-
-		this.node = new NodeClientFactoryBean.TestNode(settingsBuilder.build(), plugins).start();
+		return client;
+	}
 
-		return Integer.parseInt(settingsBuilder.get("http.port"));
+	private static ConcurrencyLimiter createConcurrencyLimiter(String name, ElasticsearchJestProperties.ConcurrencyLimit.Limit limit) {
+		return ConcurrencyLimiter.builder(name)
+				.initialLimit(limit.getInitialLimit())
+				.minLimit(limit.getMinLimit())
+				.maxLimit(limit.getMaxLimit())
+				.backoffRatio(limit.getBackoffRatio())
+				.latencyThreshold(limit.getLatencyThreshold(), TimeUnit.MILLISECONDS)
+				.maxQueueDepth(limit.getMaxQueueDepth())
+				.maxWait(limit.getMaxWait(), TimeUnit.MILLISECONDS)
+				.build();
 	}
 
 	/**
-	 * List all official ES plugins available on ClassPath.
-	 * @return List of plugins class
+	 * Create internal Elasticsearch node, or reuse shared one.
+	 * @return HTTP port of node
 	 */
-	@SuppressWarnings("unchecked")
-	private Collection<Class<? extends Plugin>> scanPlugins() {
-		ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(false);
-		componentProvider.addIncludeFilter(new AssignableTypeFilter(Plugin.class));
-
-		List<String> pluginPackages = getPluginPackages();
-		return pluginPackages.stream()
-				.map(p -> {
-					logger.debug("Scanning " + p + " for plugins ...");
-					return componentProvider.findCandidateComponents(p);
-				})
-				.flatMap(Collection::stream)
-				.map(BeanDefinition::getBeanClassName)
-				.map(name -> {
-					try {
-						logger.debug("Instanciating plugin " + name);
-						return (Class<? extends Plugin>) Class.forName(name);
-					} catch (ClassNotFoundException e) {
-						logger.warn("Cannot load class on plugin detection", e);
-						return null;
-					}
-				})
-				.collect(Collectors.toSet());
+	private int createInternalNode() throws NodeValidationException {
+		Map<String, String> nodeProperties = this.esNodeproperties != null ? this.esNodeproperties.getProperties() : Collections.emptyMap();
+		if (this.properties.getInternalNode().isShared()) {
+			return InternalNodes.shared(nodeProperties, getPluginPackages()).getHttpPort();
+		}
+
+		this.node = InternalNodes.start(nodeProperties, getPluginPackages());
+		return this.node.getHttpPort();
 	}
 
 	/**
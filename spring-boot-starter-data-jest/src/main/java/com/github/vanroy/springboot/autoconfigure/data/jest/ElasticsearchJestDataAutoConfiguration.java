@@ -1,9 +1,23 @@
 package com.github.vanroy.springboot.autoconfigure.data.jest;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.IndexBootstrapper;
+import com.github.vanroy.springdata.jest.IndexNameResolver;
 import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
+import com.github.vanroy.springdata.jest.RoutingResolver;
+import com.github.vanroy.springdata.jest.execution.ExecutionStrategy;
+import com.github.vanroy.springdata.jest.query.SearchOptions;
+import com.github.vanroy.springdata.jest.query.SearchOptionsPolicy;
 import io.searchbox.client.JestClient;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
@@ -16,13 +30,74 @@ import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMa
  * @author Julien Roy
  */
 @Configuration
+@EnableConfigurationProperties(ElasticsearchJestProperties.class)
 @AutoConfigureAfter(ElasticsearchJestAutoConfiguration.class)
 public class ElasticsearchJestDataAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean
-	public ElasticsearchOperations elasticsearchTemplate(JestClient client) {
-		return new JestElasticsearchTemplate(client);
+	public ElasticsearchOperations elasticsearchTemplate(JestClient client, ExecutionStrategy executionStrategy, ElasticsearchJestProperties properties,
+			ObjectProvider<SearchOptionsPolicy> searchOptionsPolicy, ObjectProvider<RoutingResolver> routingResolver,
+			ObjectProvider<IndexNameResolver> indexNameResolver, BeanFactory beanFactory) {
+		JestElasticsearchTemplate template = new JestElasticsearchTemplate(client);
+		template.setExecutionStrategy(executionStrategy);
+		template.setFilterMode(properties.getFilterMode());
+		template.setCriteriaQueryCacheSize(properties.getCriteriaQueryCacheSize());
+		template.setClusterMetadataCacheTtl(properties.getClusterMetadataCacheTtl(), TimeUnit.MILLISECONDS);
+		template.setSearchOptionsPolicy(searchOptionsPolicy.getIfAvailable(() -> searchOptionsPolicy(properties.getSearchOptions())));
+		routingResolver.ifAvailable(template::setRoutingResolver);
+		indexNameResolver.ifAvailable(template::setIndexNameResolver);
+
+		ElasticsearchJestProperties.SearchBatching searchBatching = properties.getSearchBatching();
+		if (searchBatching.isEnabled()) {
+			template.enableSearchBatching(searchBatching.getMaxBatchSize(), searchBatching.getWindow(), TimeUnit.MILLISECONDS);
+		}
+
+		// Repositories created before bootstrap skip creation of deferred indices, no request is sent here
+		ElasticsearchJestProperties.IndexBootstrap indexBootstrap = properties.getIndexBootstrap();
+		if (indexBootstrap.isEnabled()) {
+			List<String> packages = indexBootstrap.getPackages() != null ? indexBootstrap.getPackages() : AutoConfigurationPackages.get(beanFactory);
+			new IndexBootstrapper(template, indexBootstrap.getConcurrency()).defer(packages.toArray(new String[0]));
+		}
+		return template;
+	}
+
+	/**
+	 * Bootstrap deferred indices once all singletons, and so repositories, are created.
+	 */
+	@Bean
+	public SmartInitializingSingleton jestIndexBootstrap(ElasticsearchOperations elasticsearchTemplate, ElasticsearchJestProperties properties) {
+		return () -> {
+			if (elasticsearchTemplate instanceof JestElasticsearchTemplate) {
+				new IndexBootstrapper((JestElasticsearchTemplate) elasticsearchTemplate, properties.getIndexBootstrap().getConcurrency()).bootstrapDeferred();
+			}
+		};
+	}
+
+	private static SearchOptionsPolicy searchOptionsPolicy(ElasticsearchJestProperties.SearchOptions properties) {
+		SearchOptionsPolicy policy = SearchOptionsPolicy.of(SearchOptions.builder()
+				.requestCache(properties.getRequestCache())
+				.preference(properties.getPreference())
+				.batchedReduceSize(properties.getBatchedReduceSize())
+				.build());
+		if (properties.isRequestCacheForAggregations() && properties.getRequestCache() == null) {
+			policy = policy.andThen(SearchOptionsPolicy.requestCacheForAggregations());
+		}
+		return policy;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ExecutionStrategy jestExecutionStrategy(ElasticsearchJestProperties properties) {
+		ElasticsearchJestProperties.Execution execution = properties.getExecution();
+		switch (execution.getMode()) {
+			case PLATFORM:
+				return ExecutionStrategy.platformThreads(execution.getPoolSize());
+			case VIRTUAL:
+				return ExecutionStrategy.virtualThreads();
+			default:
+				return ExecutionStrategy.callerThread();
+		}
 	}
 
 	@Bean
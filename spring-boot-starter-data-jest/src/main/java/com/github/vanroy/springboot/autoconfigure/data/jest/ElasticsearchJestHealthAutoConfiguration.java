@@ -0,0 +1,42 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import java.util.concurrent.TimeUnit;
+
+import io.searchbox.client.JestClient;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Jest Elasticsearch health configuration, replacing the Spring Boot one which requests the cluster on each health check.
+ * @author Julien Roy
+ */
+@Configuration
+@ConditionalOnClass(HealthIndicator.class)
+@ConditionalOnBean(JestClient.class)
+@ConditionalOnProperty(prefix = "management.health.elasticsearch", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ElasticsearchJestProperties.class)
+@AutoConfigureAfter(ElasticsearchJestAutoConfiguration.class)
+@AutoConfigureBefore(name = "org.springframework.boot.actuate.autoconfigure.elasticsearch.ElasticSearchJestHealthContributorAutoConfiguration")
+public class ElasticsearchJestHealthAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ClusterHealthProbe jestClusterHealthProbe(JestClient client, ElasticsearchJestProperties properties) {
+		ElasticsearchJestProperties.HealthProbe healthProbe = properties.getHealthProbe();
+		return new ClusterHealthProbe(client, healthProbe.getIndices(), healthProbe.getInterval(), TimeUnit.MILLISECONDS);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean(name = "elasticsearchHealthIndicator")
+	public JestHealthIndicator elasticsearchHealthIndicator(ClusterHealthProbe probe) {
+		return new JestHealthIndicator(probe);
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.searchbox.client.JestClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+
+/**
+ * Jest Elasticsearch metrics configuration.
+ * @author Julien Roy
+ */
+@Configuration
+@ConditionalOnClass(MeterBinder.class)
+@ConditionalOnBean(JestClient.class)
+@AutoConfigureAfter({ElasticsearchJestAutoConfiguration.class, ElasticsearchJestDataAutoConfiguration.class, ElasticsearchJestHealthAutoConfiguration.class})
+public class ElasticsearchJestMetricsAutoConfiguration {
+
+	@Bean
+	@ConditionalOnMissingBean
+	public JestClientMetrics jestClientMetrics(JestClient client) {
+		return new JestClientMetrics(client);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public JestReindexMetrics jestReindexMetrics(ObjectProvider<ElasticsearchOperations> elasticsearchOperations) {
+		JestReindexMetrics metrics = new JestReindexMetrics();
+		elasticsearchOperations.ifAvailable(operations -> {
+			if (operations instanceof JestElasticsearchTemplate) {
+				((JestElasticsearchTemplate) operations).setReindexProgressListener(metrics);
+			}
+		});
+		return metrics;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public JestHealthMetrics jestHealthMetrics(ObjectProvider<ClusterHealthProbe> healthProbe) {
+		JestHealthMetrics metrics = new JestHealthMetrics();
+		healthProbe.ifAvailable(probe -> probe.addListener(metrics));
+		return metrics;
+	}
+}
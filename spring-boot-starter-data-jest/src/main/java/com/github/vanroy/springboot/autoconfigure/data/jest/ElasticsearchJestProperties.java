@@ -1,5 +1,8 @@
 package com.github.vanroy.springboot.autoconfigure.data.jest;
 
+import com.github.vanroy.springdata.jest.FilterMode;
+import com.github.vanroy.springdata.jest.client.CircuitBreakingJestClient;
+import com.github.vanroy.springdata.jest.client.ConcurrencyLimiter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 import java.util.Collections;
@@ -26,13 +29,76 @@ public class ElasticsearchJestProperties {
 	private boolean multiThreaded = true;
 	private boolean preemptiveAuth = false;
 	private List<String> pluginPackages;
+	private FilterMode filterMode = FilterMode.POST_FILTER;
+	private int criteriaQueryCacheSize = 0; // Criteria query cache disabled by default
+	private long clusterMetadataCacheTtl = 0L; // Cluster metadata cache disabled by default
 
 	private final Proxy proxy = new Proxy();
+
+	private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+	private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+	private final Execution execution = new Execution();
+
+	private final SearchBatching searchBatching = new SearchBatching();
+
+	private final SearchOptions searchOptions = new SearchOptions();
+
+	private final IndexBootstrap indexBootstrap = new IndexBootstrap();
+
+	private final InternalNode internalNode = new InternalNode();
+
+	private final LazyInitialization lazyInitialization = new LazyInitialization();
+
+	private final ConnectionWarmUp connectionWarmUp = new ConnectionWarmUp();
+
+	private final HealthProbe healthProbe = new HealthProbe();
 	
 	public Proxy getProxy() {
 		return this.proxy;
 	}
 
+	public ConcurrencyLimit getConcurrencyLimit() {
+		return this.concurrencyLimit;
+	}
+
+	public CircuitBreaker getCircuitBreaker() {
+		return this.circuitBreaker;
+	}
+
+	public Execution getExecution() {
+		return this.execution;
+	}
+
+	public SearchBatching getSearchBatching() {
+		return this.searchBatching;
+	}
+
+	public SearchOptions getSearchOptions() {
+		return this.searchOptions;
+	}
+
+	public IndexBootstrap getIndexBootstrap() {
+		return this.indexBootstrap;
+	}
+
+	public InternalNode getInternalNode() {
+		return this.internalNode;
+	}
+
+	public LazyInitialization getLazyInitialization() {
+		return this.lazyInitialization;
+	}
+
+	public ConnectionWarmUp getConnectionWarmUp() {
+		return this.connectionWarmUp;
+	}
+
+	public HealthProbe getHealthProbe() {
+		return this.healthProbe;
+	}
+
 	public List<String> getUris() {
 		return uris;
 	}
@@ -138,6 +204,30 @@ public class ElasticsearchJestProperties {
 
 	public void setPluginPackages(List<String> pluginPackages) { this.pluginPackages = pluginPackages; }
 
+	public FilterMode getFilterMode() {
+		return filterMode;
+	}
+
+	public void setFilterMode(FilterMode filterMode) {
+		this.filterMode = filterMode;
+	}
+
+	public int getCriteriaQueryCacheSize() {
+		return criteriaQueryCacheSize;
+	}
+
+	public void setCriteriaQueryCacheSize(int criteriaQueryCacheSize) {
+		this.criteriaQueryCacheSize = criteriaQueryCacheSize;
+	}
+
+	public long getClusterMetadataCacheTtl() {
+		return clusterMetadataCacheTtl;
+	}
+
+	public void setClusterMetadataCacheTtl(long clusterMetadataCacheTtl) {
+		this.clusterMetadataCacheTtl = clusterMetadataCacheTtl;
+	}
+
 	public static class Proxy {
 
 		/**
@@ -167,4 +257,567 @@ public class ElasticsearchJestProperties {
 		}
 
 	}
+
+	public static class ConcurrencyLimit {
+
+		/**
+		 * Enable adaptive concurrency limit of requests sent to Elasticsearch.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Limit of read requests (search, count, get).
+		 */
+		private final Limit read = new Limit();
+
+		/**
+		 * Limit of write requests (index, update, delete, admin).
+		 */
+		private final Limit write = new Limit();
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Limit getRead() {
+			return this.read;
+		}
+
+		public Limit getWrite() {
+			return this.write;
+		}
+
+		public static class Limit {
+
+			/**
+			 * Initial number of concurrent requests.
+			 */
+			private int initialLimit = ConcurrencyLimiter.DEFAULT_INITIAL_LIMIT;
+
+			/**
+			 * Minimal number of concurrent requests.
+			 */
+			private int minLimit = ConcurrencyLimiter.DEFAULT_MIN_LIMIT;
+
+			/**
+			 * Maximal number of concurrent requests.
+			 */
+			private int maxLimit = ConcurrencyLimiter.DEFAULT_MAX_LIMIT;
+
+			/**
+			 * Ratio applied to the limit when a request is dropped or too slow.
+			 */
+			private double backoffRatio = ConcurrencyLimiter.DEFAULT_BACKOFF_RATIO;
+
+			/**
+			 * Latency in milliseconds above which a request is considered as too slow.
+			 */
+			private long latencyThreshold = ConcurrencyLimiter.DEFAULT_LATENCY_THRESHOLD_MILLIS;
+
+			/**
+			 * Number of requests allowed to wait for a permit when limit is reached.
+			 */
+			private int maxQueueDepth = 0;
+
+			/**
+			 * Maximal waiting time in milliseconds for a permit.
+			 */
+			private long maxWait = 0;
+
+			public int getInitialLimit() {
+				return this.initialLimit;
+			}
+
+			public void setInitialLimit(int initialLimit) {
+				this.initialLimit = initialLimit;
+			}
+
+			public int getMinLimit() {
+				return this.minLimit;
+			}
+
+			public void setMinLimit(int minLimit) {
+				this.minLimit = minLimit;
+			}
+
+			public int getMaxLimit() {
+				return this.maxLimit;
+			}
+
+			public void setMaxLimit(int maxLimit) {
+				this.maxLimit = maxLimit;
+			}
+
+			public double getBackoffRatio() {
+				return this.backoffRatio;
+			}
+
+			public void setBackoffRatio(double backoffRatio) {
+				this.backoffRatio = backoffRatio;
+			}
+
+			public long getLatencyThreshold() {
+				return this.latencyThreshold;
+			}
+
+			public void setLatencyThreshold(long latencyThreshold) {
+				this.latencyThreshold = latencyThreshold;
+			}
+
+			public int getMaxQueueDepth() {
+				return this.maxQueueDepth;
+			}
+
+			public void setMaxQueueDepth(int maxQueueDepth) {
+				this.maxQueueDepth = maxQueueDepth;
+			}
+
+			public long getMaxWait() {
+				return this.maxWait;
+			}
+
+			public void setMaxWait(long maxWait) {
+				this.maxWait = maxWait;
+			}
+		}
+	}
+
+	public static class CircuitBreaker {
+
+		/**
+		 * Enable circuit breaker on requests sent to Elasticsearch.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Use a circuit breaker per index in addition to the cluster one.
+		 */
+		private boolean perIndex = false;
+
+		/**
+		 * Max number of index circuit breakers, least recently used are evicted beyond.
+		 */
+		private int maxIndexCircuitBreakers = CircuitBreakingJestClient.DEFAULT_MAX_INDEX_CIRCUIT_BREAKERS;
+
+		/**
+		 * Failure rate, in percent, above which circuit is opened.
+		 */
+		private float failureRateThreshold = 50;
+
+		/**
+		 * Slow call rate, in percent, above which circuit is opened.
+		 */
+		private float slowCallRateThreshold = 100;
+
+		/**
+		 * Duration in milliseconds above which a call is considered as slow.
+		 */
+		private long slowCallDurationThreshold = 5000;
+
+		/**
+		 * Number of last calls used to compute failure and slow call rates.
+		 */
+		private int slidingWindowSize = 100;
+
+		/**
+		 * Number of calls required before rates are evaluated.
+		 */
+		private int minimumNumberOfCalls = 20;
+
+		/**
+		 * Time in milliseconds the circuit stays open before allowing probe calls.
+		 */
+		private long waitDurationInOpenState = 10000;
+
+		/**
+		 * Number of probe calls permitted when circuit is half open.
+		 */
+		private int permittedCallsInHalfOpenState = 5;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public boolean isPerIndex() {
+			return this.perIndex;
+		}
+
+		public void setPerIndex(boolean perIndex) {
+			this.perIndex = perIndex;
+		}
+
+		public int getMaxIndexCircuitBreakers() {
+			return this.maxIndexCircuitBreakers;
+		}
+
+		public void setMaxIndexCircuitBreakers(int maxIndexCircuitBreakers) {
+			this.maxIndexCircuitBreakers = maxIndexCircuitBreakers;
+		}
+
+		public float getFailureRateThreshold() {
+			return this.failureRateThreshold;
+		}
+
+		public void setFailureRateThreshold(float failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+		}
+
+		public float getSlowCallRateThreshold() {
+			return this.slowCallRateThreshold;
+		}
+
+		public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+			this.slowCallRateThreshold = slowCallRateThreshold;
+		}
+
+		public long getSlowCallDurationThreshold() {
+			return this.slowCallDurationThreshold;
+		}
+
+		public void setSlowCallDurationThreshold(long slowCallDurationThreshold) {
+			this.slowCallDurationThreshold = slowCallDurationThreshold;
+		}
+
+		public int getSlidingWindowSize() {
+			return this.slidingWindowSize;
+		}
+
+		public void setSlidingWindowSize(int slidingWindowSize) {
+			this.slidingWindowSize = slidingWindowSize;
+		}
+
+		public int getMinimumNumberOfCalls() {
+			return this.minimumNumberOfCalls;
+		}
+
+		public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+			this.minimumNumberOfCalls = minimumNumberOfCalls;
+		}
+
+		public long getWaitDurationInOpenState() {
+			return this.waitDurationInOpenState;
+		}
+
+		public void setWaitDurationInOpenState(long waitDurationInOpenState) {
+			this.waitDurationInOpenState = waitDurationInOpenState;
+		}
+
+		public int getPermittedCallsInHalfOpenState() {
+			return this.permittedCallsInHalfOpenState;
+		}
+
+		public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+			this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+		}
+	}
+
+	public static class Execution {
+
+		/**
+		 * Threads used to run asynchronous template operations.
+		 */
+		private Mode mode = Mode.CALLER;
+
+		/**
+		 * Number of threads when mode is platform.
+		 */
+		private int poolSize = 10;
+
+		public Mode getMode() {
+			return this.mode;
+		}
+
+		public void setMode(Mode mode) {
+			this.mode = mode;
+		}
+
+		public int getPoolSize() {
+			return this.poolSize;
+		}
+
+		public void setPoolSize(int poolSize) {
+			this.poolSize = poolSize;
+		}
+
+		public enum Mode {
+
+			/**
+			 * Run operations on caller thread.
+			 */
+			CALLER,
+
+			/**
+			 * Run operations on a dedicated pool of platform threads.
+			 */
+			PLATFORM,
+
+			/**
+			 * Run each operation on a new virtual thread (Java 21+).
+			 */
+			VIRTUAL
+		}
+	}
+
+	public static class SearchBatching {
+
+		/**
+		 * Send concurrent searches as a single multi search.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Max number of searches in a multi search.
+		 */
+		private int maxBatchSize = 50;
+
+		/**
+		 * Max time (in ms) a search waits for other searches while another batch is in flight.
+		 */
+		private long window = 2;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxBatchSize() {
+			return this.maxBatchSize;
+		}
+
+		public void setMaxBatchSize(int maxBatchSize) {
+			this.maxBatchSize = maxBatchSize;
+		}
+
+		public long getWindow() {
+			return this.window;
+		}
+
+		public void setWindow(long window) {
+			this.window = window;
+		}
+	}
+
+	public static class SearchOptions {
+
+		/**
+		 * Use shard request cache for all searches (index setting if not set).
+		 */
+		private Boolean requestCache;
+
+		/**
+		 * Use shard request cache for searches with aggregations.
+		 */
+		private boolean requestCacheForAggregations = false;
+
+		/**
+		 * Shards or replicas preference of searches (_local, custom string...).
+		 */
+		private String preference;
+
+		/**
+		 * Number of shard results reduced at once on coordinating node.
+		 */
+		private Integer batchedReduceSize;
+
+		public Boolean getRequestCache() {
+			return this.requestCache;
+		}
+
+		public void setRequestCache(Boolean requestCache) {
+			this.requestCache = requestCache;
+		}
+
+		public boolean isRequestCacheForAggregations() {
+			return this.requestCacheForAggregations;
+		}
+
+		public void setRequestCacheForAggregations(boolean requestCacheForAggregations) {
+			this.requestCacheForAggregations = requestCacheForAggregations;
+		}
+
+		public String getPreference() {
+			return this.preference;
+		}
+
+		public void setPreference(String preference) {
+			this.preference = preference;
+		}
+
+		public Integer getBatchedReduceSize() {
+			return this.batchedReduceSize;
+		}
+
+		public void setBatchedReduceSize(Integer batchedReduceSize) {
+			this.batchedReduceSize = batchedReduceSize;
+		}
+	}
+
+	public static class IndexBootstrap {
+
+		/**
+		 * Create indices and mappings of all entities at startup, once repositories are created.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Packages scanned for entities (auto-configuration packages if not set).
+		 */
+		private List<String> packages;
+
+		/**
+		 * Max number of concurrent index creations.
+		 */
+		private int concurrency = 8;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public List<String> getPackages() {
+			return this.packages;
+		}
+
+		public void setPackages(List<String> packages) {
+			this.packages = packages;
+		}
+
+		public int getConcurrency() {
+			return this.concurrency;
+		}
+
+		public void setConcurrency(int concurrency) {
+			this.concurrency = concurrency;
+		}
+	}
+
+	public static class InternalNode {
+
+		/**
+		 * Share internal node between application contexts of the JVM, indices are deleted when a context reuses it.
+		 */
+		private boolean shared = false;
+
+		public boolean isShared() {
+			return this.shared;
+		}
+
+		public void setShared(boolean shared) {
+			this.shared = shared;
+		}
+	}
+
+	public static class LazyInitialization {
+
+		/**
+		 * Create HTTP client and start node discovery on first request, instead of at startup.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Create lazy client in background right after its bean creation.
+		 */
+		private boolean background = false;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public boolean isBackground() {
+			return this.background;
+		}
+
+		public void setBackground(boolean background) {
+			this.background = background;
+		}
+	}
+
+	public static class ConnectionWarmUp {
+
+		/**
+		 * Open pooled connections to each node at startup, before application is ready.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of connections opened per node.
+		 */
+		private int connectionsPerNode = 2;
+
+		/**
+		 * Max duration of warm-up in milliseconds.
+		 */
+		private long timeout = 10000;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getConnectionsPerNode() {
+			return this.connectionsPerNode;
+		}
+
+		public void setConnectionsPerNode(int connectionsPerNode) {
+			this.connectionsPerNode = connectionsPerNode;
+		}
+
+		public long getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(long timeout) {
+			this.timeout = timeout;
+		}
+	}
+
+	public static class HealthProbe {
+
+		/**
+		 * Delay between health probes in milliseconds, health checks are served the last probe result.
+		 */
+		private long interval = 10000;
+
+		/**
+		 * Indices (or aliases) whose health is probed and reported, in addition to cluster health.
+		 */
+		private List<String> indices;
+
+		public long getInterval() {
+			return this.interval;
+		}
+
+		public void setInterval(long interval) {
+			this.interval = interval;
+		}
+
+		public List<String> getIndices() {
+			return this.indices;
+		}
+
+		public void setIndices(List<String> indices) {
+			this.indices = indices;
+		}
+	}
 }
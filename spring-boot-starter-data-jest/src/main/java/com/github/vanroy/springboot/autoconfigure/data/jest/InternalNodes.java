@@ -0,0 +1,173 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.node.NodeValidationException;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.transport.Netty4Plugin;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.elasticsearch.client.NodeClientFactoryBean;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.util.SocketUtils;
+
+/**
+ * Internal Elasticsearch test nodes, with plugins scanned once per class loader.
+ *
+ * Shared nodes are started once per JVM for each node configuration, reused by all application contexts
+ * and closed on JVM shutdown. Indices of a shared node are deleted when it is reused by another context.
+ *
+ * @author Julien Roy
+ */
+final class InternalNodes {
+
+	private static final Log logger = LogFactory.getLog(InternalNodes.class);
+
+	private static final String INTERNAL_TEST_CLUSTER_NAME = "internal-test-cluster-name";
+
+	/** Plugins by class loader and scanned packages, softly referenced to not retain class loaders. */
+	private static final Map<ClassLoader, Map<List<String>, Collection<Class<? extends Plugin>>>> PLUGINS = new ConcurrentReferenceHashMap<>();
+
+	/** Shared nodes by node properties and plugin packages. */
+	private static final Map<String, StartedNode> SHARED_NODES = new ConcurrentHashMap<>();
+
+	private InternalNodes() {
+	}
+
+	/**
+	 * Start a node for an application context.
+	 * @param properties Node properties
+	 * @param pluginPackages Packages scanned for plugins
+	 * @return started node, to close with context
+	 */
+	static StartedNode start(Map<String, String> properties, List<String> pluginPackages) throws NodeValidationException {
+		return doStart(properties, pluginPackages);
+	}
+
+	/**
+	 * Get shared node of configuration, started on first call, indices deleted on following calls.
+	 * @param properties Node properties
+	 * @param pluginPackages Packages scanned for plugins
+	 * @return shared node, closed on JVM shutdown
+	 */
+	static synchronized StartedNode shared(Map<String, String> properties, List<String> pluginPackages) throws NodeValidationException {
+		String key = new TreeMap<>(properties) + "|" + pluginPackages;
+		StartedNode node = SHARED_NODES.get(key);
+		if (node != null) {
+			node.reset();
+			return node;
+		}
+
+		node = doStart(properties, pluginPackages);
+		SHARED_NODES.put(key, node);
+		StartedNode shutdownNode = node;
+		Runtime.getRuntime().addShutdownHook(new Thread(shutdownNode::close, "jest-internal-node-shutdown"));
+		return node;
+	}
+
+	private static StartedNode doStart(Map<String, String> properties, List<String> pluginPackages) throws NodeValidationException {
+		if (logger.isInfoEnabled()) {
+			logger.info("Create test ES node");
+		}
+
+		int port = SocketUtils.findAvailableTcpPort();
+		Settings.Builder settingsBuilder = Settings.builder()
+				.put("cluster.name", INTERNAL_TEST_CLUSTER_NAME + UUID.randomUUID())
+				.put("http.type", "netty4")
+				.put("http.port", String.valueOf(port));
+		properties.forEach(settingsBuilder::put);
+
+		Collection<Class<? extends Plugin>> plugins = new HashSet<>(scanPlugins(pluginPackages));
+		plugins.add(Netty4Plugin.class);
+
+		Node node = new NodeClientFactoryBean.TestNode(settingsBuilder.build(), plugins).start();
+		return new StartedNode(node, port);
+	}
+
+	/**
+	 * List plugins available on classpath in packages, scanned once per class loader.
+	 * @param pluginPackages Packages scanned for plugins
+	 * @return plugin classes
+	 */
+	static Collection<Class<? extends Plugin>> scanPlugins(List<String> pluginPackages) {
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		return PLUGINS.computeIfAbsent(classLoader, loader -> new ConcurrentHashMap<>())
+				.computeIfAbsent(new ArrayList<>(pluginPackages), packages -> doScanPlugins(classLoader, packages));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Collection<Class<? extends Plugin>> doScanPlugins(ClassLoader classLoader, List<String> pluginPackages) {
+		ClassPathScanningCandidateComponentProvider componentProvider = new ClassPathScanningCandidateComponentProvider(false);
+		componentProvider.addIncludeFilter(new AssignableTypeFilter(Plugin.class));
+
+		Set<Class<? extends Plugin>> plugins = new HashSet<>();
+		for (String pluginPackage : pluginPackages) {
+			logger.debug("Scanning " + pluginPackage + " for plugins ...");
+			for (BeanDefinition candidate : componentProvider.findCandidateComponents(pluginPackage)) {
+				try {
+					logger.debug("Instanciating plugin " + candidate.getBeanClassName());
+					plugins.add((Class<? extends Plugin>) ClassUtils.forName(candidate.getBeanClassName(), classLoader));
+				} catch (ClassNotFoundException e) {
+					logger.warn("Cannot load class on plugin detection", e);
+				}
+			}
+		}
+		return Collections.unmodifiableSet(plugins);
+	}
+
+	/**
+	 * Started node with its HTTP port.
+	 */
+	static final class StartedNode {
+
+		private final Node node;
+		private final int httpPort;
+
+		private StartedNode(Node node, int httpPort) {
+			this.node = node;
+			this.httpPort = httpPort;
+		}
+
+		int getHttpPort() {
+			return httpPort;
+		}
+
+		/**
+		 * Delete all indices of node.
+		 */
+		void reset() {
+			if (logger.isInfoEnabled()) {
+				logger.info("Reuse shared test ES node, deleting all indices");
+			}
+			node.client().admin().indices().prepareDelete("_all").get();
+		}
+
+		void close() {
+			try {
+				if (logger.isInfoEnabled()) {
+					logger.info("Closing Elasticsearch client");
+				}
+				node.close();
+			} catch (Exception ex) {
+				if (logger.isErrorEnabled()) {
+					logger.error("Error closing Elasticsearch client: ", ex);
+				}
+			}
+		}
+	}
+}
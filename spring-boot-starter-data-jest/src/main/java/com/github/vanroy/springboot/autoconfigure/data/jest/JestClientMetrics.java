@@ -0,0 +1,121 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.client.CircuitBreaker;
+import com.github.vanroy.springdata.jest.client.CircuitBreakingJestClient;
+import com.github.vanroy.springdata.jest.client.ConcurrencyLimiter;
+import com.github.vanroy.springdata.jest.client.ConcurrencyLimitingJestClient;
+import com.github.vanroy.springdata.jest.client.ForwardingJestClient;
+import com.github.vanroy.springdata.jest.client.LazyJestClient;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.searchbox.client.JestClient;
+
+/**
+ * Micrometer metrics of Jest client decorators.
+ * @author Julien Roy
+ */
+public class JestClientMetrics implements MeterBinder {
+
+	private final JestClient client;
+
+	public JestClientMetrics(JestClient client) {
+		this.client = client;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+
+		ConcurrencyLimitingJestClient limitingClient = ForwardingJestClient.unwrap(client, ConcurrencyLimitingJestClient.class);
+		if (limitingClient != null) {
+			bindConcurrencyLimiter(registry, limitingClient.getReadLimiter());
+			bindConcurrencyLimiter(registry, limitingClient.getWriteLimiter());
+		}
+
+		CircuitBreakingJestClient circuitBreakingClient = ForwardingJestClient.unwrap(client, CircuitBreakingJestClient.class);
+		if (circuitBreakingClient != null) {
+			circuitBreakingClient.onCircuitBreakerCreated(circuitBreaker -> bindCircuitBreaker(registry, circuitBreaker));
+			circuitBreakingClient.onCircuitBreakerEvicted(circuitBreaker -> unbindCircuitBreaker(registry, circuitBreaker));
+		}
+
+		LazyJestClient lazyClient = ForwardingJestClient.unwrap(client, LazyJestClient.class);
+		if (lazyClient != null) {
+			bindLazyClient(registry, lazyClient);
+		}
+	}
+
+	private static void bindLazyClient(MeterRegistry registry, LazyJestClient lazyClient) {
+
+		Gauge.builder("jest.client.initialized", lazyClient, c -> c.isInitialized() ? 1 : 0)
+				.description("Lazy client creation state (1 if created)")
+				.register(registry);
+
+		TimeGauge.builder("jest.client.initialization.time", lazyClient, TimeUnit.NANOSECONDS,
+				c -> c.isInitialized() ? c.getInitializationNanos() : Double.NaN)
+				.description("Duration of lazy client creation, including node discovery start")
+				.register(registry);
+	}
+
+	private static void bindCircuitBreaker(MeterRegistry registry, CircuitBreaker circuitBreaker) {
+
+		for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+			Gauge.builder("jest.client.circuit.breaker.state", circuitBreaker, c -> c.getState() == state ? 1 : 0)
+					.tag("name", circuitBreaker.getName())
+					.tag("state", state.name().toLowerCase())
+					.description("State of circuit breaker (1 if in this state)")
+					.register(registry);
+		}
+
+		Gauge.builder("jest.client.circuit.breaker.failure.rate", circuitBreaker, CircuitBreaker::getFailureRate)
+				.tag("name", circuitBreaker.getName())
+				.description("Failure rate of circuit breaker, in percent")
+				.register(registry);
+
+		Gauge.builder("jest.client.circuit.breaker.slow.call.rate", circuitBreaker, CircuitBreaker::getSlowCallRate)
+				.tag("name", circuitBreaker.getName())
+				.description("Slow call rate of circuit breaker, in percent")
+				.register(registry);
+
+		FunctionCounter.builder("jest.client.circuit.breaker.not.permitted", circuitBreaker, CircuitBreaker::getNotPermittedCount)
+				.tag("name", circuitBreaker.getName())
+				.description("Number of calls not permitted by circuit breaker")
+				.register(registry);
+	}
+
+	private static void unbindCircuitBreaker(MeterRegistry registry, CircuitBreaker circuitBreaker) {
+		registry.getMeters().stream()
+				.filter(meter -> meter.getId().getName().startsWith("jest.client.circuit.breaker."))
+				.filter(meter -> circuitBreaker.getName().equals(meter.getId().getTag("name")))
+				.forEach(registry::remove);
+	}
+
+	private static void bindConcurrencyLimiter(MeterRegistry registry, ConcurrencyLimiter limiter) {
+		if (limiter == null) {
+			return;
+		}
+
+		Gauge.builder("jest.client.concurrency.limit", limiter, ConcurrencyLimiter::getLimit)
+				.tag("limiter", limiter.getName())
+				.description("Current concurrency limit")
+				.register(registry);
+
+		Gauge.builder("jest.client.concurrency.in.flight", limiter, ConcurrencyLimiter::getInFlight)
+				.tag("limiter", limiter.getName())
+				.description("Number of requests in flight")
+				.register(registry);
+
+		Gauge.builder("jest.client.concurrency.queue.depth", limiter, ConcurrencyLimiter::getQueueDepth)
+				.tag("limiter", limiter.getName())
+				.description("Number of requests waiting for a permit")
+				.register(registry);
+
+		FunctionCounter.builder("jest.client.concurrency.rejected", limiter, ConcurrencyLimiter::getRejectedCount)
+				.tag("limiter", limiter.getName())
+				.description("Number of requests rejected by the limiter")
+				.register(registry);
+	}
+}
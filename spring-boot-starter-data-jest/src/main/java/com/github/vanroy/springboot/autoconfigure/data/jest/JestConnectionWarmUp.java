@@ -0,0 +1,58 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import com.github.vanroy.springdata.jest.client.ConnectionPoolWarmer;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Warm up connection pool of Jest client on context startup.
+ *
+ * Warm-up blocks context startup, so web server is started and application reported ready only once it's completed.
+ * @author Julien Roy
+ */
+public class JestConnectionWarmUp implements SmartLifecycle {
+
+	private final ConnectionPoolWarmer warmer;
+	private final int nodes;
+
+	private volatile boolean running;
+	private volatile boolean completed;
+
+	/**
+	 * @param warmer Connection pool warmer
+	 * @param nodes Number of nodes used by client, 0 to warm up discovered nodes
+	 */
+	public JestConnectionWarmUp(ConnectionPoolWarmer warmer, int nodes) {
+		this.warmer = warmer;
+		this.nodes = nodes;
+	}
+
+	@Override
+	public void start() {
+		if (!completed) {
+			if (nodes > 0) {
+				warmer.warmUp(nodes);
+			} else {
+				warmer.warmUpDiscoveredNodes();
+			}
+			completed = true;
+		}
+		running = true;
+	}
+
+	@Override
+	public void stop() {
+		running = false;
+	}
+
+	@Override
+	public boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * @return true once warm-up is completed
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+}
@@ -0,0 +1,46 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+/**
+ * Elasticsearch health indicator serving last result of {@link ClusterHealthProbe}, without request to the cluster.
+ * Red cluster or index is reported out of service, failed probe is reported down.
+ * @author Julien Roy
+ */
+public class JestHealthIndicator implements HealthIndicator {
+
+	private final ClusterHealthProbe probe;
+
+	public JestHealthIndicator(ClusterHealthProbe probe) {
+		this.probe = probe;
+	}
+
+	@Override
+	public Health health() {
+		ClusterHealthProbe.Result result = probe.getResult();
+		if (result == null) {
+			return Health.unknown().withDetail("reason", "Elasticsearch health not probed yet").build();
+		}
+
+		Health.Builder builder;
+		if (result.getError() != null) {
+			builder = Health.down(result.getError());
+		} else if ("red".equals(result.getStatus())) {
+			builder = Health.outOfService();
+		} else {
+			builder = Health.up();
+		}
+
+		builder.withDetails(result.getDetails());
+		if (!result.getIndices().isEmpty()) {
+			builder.withDetail("indices", result.getIndices());
+		}
+		return builder
+				.withDetail("probeLatency", TimeUnit.NANOSECONDS.toMillis(result.getLatencyNanos()))
+				.withDetail("probeTimestamp", result.getTimestamp())
+				.build();
+	}
+}
@@ -0,0 +1,37 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics of Elasticsearch health probes.
+ * @author Julien Roy
+ */
+public class JestHealthMetrics implements MeterBinder, Consumer<ClusterHealthProbe.Result> {
+
+	private volatile MeterRegistry registry;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void accept(ClusterHealthProbe.Result result) {
+		MeterRegistry meterRegistry = this.registry;
+		if (meterRegistry == null) {
+			return;
+		}
+
+		Timer.builder("jest.health.probe")
+				.tag("outcome", result.getError() == null ? "success" : "failure")
+				.tag("status", result.getStatus() != null ? result.getStatus() : "unknown")
+				.description("Duration of Elasticsearch health probes")
+				.register(meterRegistry)
+				.record(result.getLatencyNanos(), TimeUnit.NANOSECONDS);
+	}
+}
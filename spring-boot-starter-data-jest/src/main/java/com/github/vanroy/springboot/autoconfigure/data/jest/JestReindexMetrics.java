@@ -0,0 +1,50 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+import com.github.vanroy.springdata.jest.ReindexProgress;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics of reindexes, progress of last reindex of each alias.
+ * @author Julien Roy
+ */
+public class JestReindexMetrics implements MeterBinder, Consumer<ReindexProgress> {
+
+	private final ConcurrentMap<String, ReindexProgress> progresses = new ConcurrentHashMap<>();
+	private volatile MeterRegistry registry;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+		progresses.keySet().forEach(this::bindAlias);
+	}
+
+	@Override
+	public void accept(ReindexProgress progress) {
+		if (progresses.put(progress.getAlias(), progress) == null && registry != null) {
+			bindAlias(progress.getAlias());
+		}
+	}
+
+	private void bindAlias(String alias) {
+		gauge(alias, "jest.reindex.documents.total", "Number of documents to reindex", ReindexProgress::getTotal);
+		gauge(alias, "jest.reindex.documents.processed", "Number of documents created, updated or deleted in new index", ReindexProgress::getProcessed);
+		gauge(alias, "jest.reindex.version.conflicts", "Number of version conflicts", ReindexProgress::getVersionConflicts);
+		gauge(alias, "jest.reindex.ratio", "Ratio of processed documents", ReindexProgress::getRatio);
+		gauge(alias, "jest.reindex.duration", "Duration of reindex, in milliseconds", ReindexProgress::getElapsedMillis);
+		gauge(alias, "jest.reindex.completed", "Reindex completed and alias swapped (1 if completed)", progress -> progress.isCompleted() ? 1 : 0);
+	}
+
+	private void gauge(String alias, String name, String description, ToDoubleFunction<ReindexProgress> value) {
+		Gauge.builder(name, progresses, p -> p.containsKey(alias) ? value.applyAsDouble(p.get(alias)) : Double.NaN)
+				.tag("alias", alias)
+				.description(description)
+				.register(registry);
+	}
+}
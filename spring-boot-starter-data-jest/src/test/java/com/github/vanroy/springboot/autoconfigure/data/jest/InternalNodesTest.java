@@ -0,0 +1,26 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collection;
+import java.util.Collections;
+
+import org.elasticsearch.plugins.Plugin;
+import org.junit.Test;
+
+public class InternalNodesTest {
+
+	@Test
+	public void should_scan_plugins_once_per_packages() {
+		// given
+		String pluginPackage = MockPlugin.class.getPackage().getName();
+
+		// when
+		Collection<Class<? extends Plugin>> plugins = InternalNodes.scanPlugins(Collections.singletonList(pluginPackage));
+
+		// then
+		assertThat(plugins, hasItem(MockPlugin.class));
+		assertThat(InternalNodes.scanPlugins(Collections.singletonList(pluginPackage)), sameInstance(plugins));
+	}
+}
@@ -0,0 +1,127 @@
+package com.github.vanroy.springboot.autoconfigure.data.jest;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.cluster.Health;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Status;
+
+public class JestHealthIndicatorTest {
+
+	private final JestClient client = mock(JestClient.class);
+
+	@Test
+	public void should_report_unknown_before_first_probe() {
+		// given
+		JestHealthIndicator indicator = new JestHealthIndicator(new ClusterHealthProbe(client, null, 10, TimeUnit.SECONDS));
+
+		// when
+		Status status = indicator.health().getStatus();
+
+		// then
+		assertThat(status, is(Status.UNKNOWN));
+	}
+
+	@Test
+	public void should_report_cached_cluster_health() throws Exception {
+		// given
+		when(client.execute(isA(Health.class))).thenReturn(result("{\"cluster_name\":\"test\",\"status\":\"yellow\",\"number_of_nodes\":3}"));
+		ClusterHealthProbe probe = new ClusterHealthProbe(client, null, 10, TimeUnit.SECONDS);
+		JestHealthIndicator indicator = new JestHealthIndicator(probe);
+		probe.probe();
+
+		// when
+		org.springframework.boot.actuate.health.Health health = indicator.health();
+		indicator.health();
+
+		// then
+		assertThat(health.getStatus(), is(Status.UP));
+		assertThat(health.getDetails(), hasEntry("cluster_name", (Object) "test"));
+		assertThat(health.getDetails(), hasKey("probeLatency"));
+		verify(client, times(1)).execute(isA(Health.class));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void should_report_red_index_out_of_service() throws Exception {
+		// given
+		when(client.execute(isA(Health.class)))
+				.thenReturn(result("{\"status\":\"green\"}"))
+				.thenReturn(result("{\"status\":\"red\",\"indices\":{\"products\":{\"status\":\"red\"}}}"));
+		ClusterHealthProbe probe = new ClusterHealthProbe(client, Collections.singletonList("products"), 10, TimeUnit.SECONDS);
+		probe.probe();
+
+		// when
+		org.springframework.boot.actuate.health.Health health = new JestHealthIndicator(probe).health();
+
+		// then
+		assertThat(health.getStatus(), is(Status.OUT_OF_SERVICE));
+		assertThat((Map<String, String>) health.getDetails().get("indices"), hasEntry("products", "red"));
+	}
+
+	@Test
+	public void should_report_failed_probe_down() throws Exception {
+		// given
+		when(client.execute(isA(Health.class))).thenThrow(new IOException("Connection refused"));
+		ClusterHealthProbe probe = new ClusterHealthProbe(client, null, 10, TimeUnit.SECONDS);
+		probe.probe();
+
+		// when
+		Status status = new JestHealthIndicator(probe).health().getStatus();
+
+		// then
+		assertThat(status, is(Status.DOWN));
+	}
+
+	@Test
+	public void should_not_probe_on_start() throws Exception {
+		// given
+		ClusterHealthProbe probe = new ClusterHealthProbe(client, null, 10, TimeUnit.SECONDS);
+
+		// when
+		probe.start();
+		Thread.sleep(100);
+		probe.stop();
+
+		// then
+		verifyZeroInteractions(client);
+	}
+
+	@Test
+	public void should_probe_on_first_health_check() throws Exception {
+		// given
+		when(client.execute(isA(Health.class))).thenReturn(result("{\"status\":\"green\"}"));
+		ClusterHealthProbe probe = new ClusterHealthProbe(client, null, 10, TimeUnit.SECONDS);
+		JestHealthIndicator indicator = new JestHealthIndicator(probe);
+		probe.start();
+
+		// when
+		Status first = indicator.health().getStatus();
+		verify(client, timeout(1000)).execute(isA(Health.class));
+		probe.stop();
+
+		// then
+		assertThat(first, is(Status.UNKNOWN));
+	}
+
+	private static JestResult result(String json) {
+		JestResult result = new JestResult(new Gson());
+		result.setJsonObject(new JsonParser().parse(json).getAsJsonObject());
+		result.setJsonString(json);
+		result.setResponseCode(200);
+		result.setSucceeded(true);
+		return result;
+	}
+}
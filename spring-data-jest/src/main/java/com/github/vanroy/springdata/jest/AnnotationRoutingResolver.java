@@ -0,0 +1,36 @@
+package com.github.vanroy.springdata.jest;
+
+import com.github.vanroy.springdata.jest.annotations.Routing;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.mapping.context.MappingContext;
+
+/**
+ * Resolve routing of entities from their property annotated with {@link Routing}.
+ *
+ * @author Julien Roy
+ */
+public class AnnotationRoutingResolver implements RoutingResolver {
+
+	private final MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext;
+
+	public AnnotationRoutingResolver(MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext) {
+		this.mappingContext = mappingContext;
+	}
+
+	@Override
+	public String resolveRouting(Object entity) {
+		ElasticsearchPersistentEntity<?> persistentEntity = entity != null ? mappingContext.getPersistentEntity(entity.getClass()) : null;
+		if (persistentEntity == null) {
+			return null;
+		}
+
+		ElasticsearchPersistentProperty routingProperty = persistentEntity.getPersistentProperty(Routing.class);
+		if (routingProperty == null) {
+			return null;
+		}
+
+		Object routing = persistentEntity.getPropertyAccessor(entity).getProperty(routingProperty);
+		return routing != null ? routing.toString() : null;
+	}
+}
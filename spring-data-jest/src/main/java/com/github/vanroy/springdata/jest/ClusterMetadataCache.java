@@ -0,0 +1,201 @@
+package com.github.vanroy.springdata.jest;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.springframework.util.Assert;
+
+/**
+ * Cache of cluster metadata lookups (index existence, type existence, indices of alias), expired after a time to live.
+ *
+ * Lookups are cached one by one, or answered from a snapshot of all indices and aliases of the cluster when loaded.
+ * Names with wildcards or several names are never answered from snapshot.
+ *
+ * Each invalidation starts a new generation: lookups and snapshots started before are neither cached nor answered,
+ * so a lookup racing with a change never brings back stale metadata.
+ * Lookups are bounded by name kind, least recently used are evicted beyond max entries.
+ *
+ * @author Julien Roy
+ */
+class ClusterMetadataCache {
+
+	static final int DEFAULT_MAX_ENTRIES = 1024;
+
+	private final long ttlNanos;
+	private final LongSupplier nanoClock;
+
+	private final AtomicLong generation = new AtomicLong();
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Map<String, Entry<Boolean>> indices;
+	private final Map<String, Entry<Boolean>> types;
+	private final Map<String, Entry<Set<String>>> aliases;
+	private volatile Entry<Map<String, Set<String>>> snapshot;
+
+	/**
+	 * @param ttlNanos Time to live of lookups, in nanoseconds
+	 * @param nanoClock Clock, in nanoseconds
+	 */
+	ClusterMetadataCache(long ttlNanos, LongSupplier nanoClock) {
+		this(ttlNanos, DEFAULT_MAX_ENTRIES, nanoClock);
+	}
+
+	/**
+	 * @param ttlNanos Time to live of lookups, in nanoseconds
+	 * @param maxEntries Max number of cached lookups of each kind (index, type, alias)
+	 * @param nanoClock Clock, in nanoseconds
+	 */
+	ClusterMetadataCache(long ttlNanos, int maxEntries, LongSupplier nanoClock) {
+		Assert.isTrue(ttlNanos > 0, "Time to live must be greater than 0");
+		Assert.isTrue(maxEntries > 0, "Max entries must be greater than 0");
+		this.ttlNanos = ttlNanos;
+		this.nanoClock = nanoClock;
+		this.indices = boundedMap(maxEntries);
+		this.types = boundedMap(maxEntries);
+		this.aliases = boundedMap(maxEntries);
+	}
+
+	private static <V> Map<String, Entry<V>> boundedMap(int maxEntries) {
+		return new LinkedHashMap<String, Entry<V>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+				return size() > maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * @return current generation, to read before a request whose response is loaded
+	 */
+	long generation() {
+		return generation.get();
+	}
+
+	boolean indexExists(String indexName, Supplier<Boolean> lookup) {
+		Map<String, Set<String>> snapshot = snapshot(indexName);
+		if (snapshot != null) {
+			return snapshot.containsKey(indexName);
+		}
+		return get(indices, indexName, lookup);
+	}
+
+	boolean typeExists(String indexName, String type, Supplier<Boolean> lookup) {
+		return get(types, indexName + '/' + type, lookup);
+	}
+
+	Set<String> getIndicesFromAlias(String aliasName, Supplier<Set<String>> lookup) {
+		Map<String, Set<String>> snapshot = snapshot(aliasName);
+		if (snapshot != null) {
+			return snapshot.getOrDefault(aliasName, Collections.emptySet());
+		}
+		return get(aliases, aliasName, lookup);
+	}
+
+	/**
+	 * Replace cached lookups by a snapshot of all indices and aliases, ignored if cache was invalidated since request was sent.
+	 * @param response Response of _aliases, indices with their aliases
+	 * @param requestGeneration Generation read before request was sent
+	 */
+	void load(JsonObject response, long requestGeneration) {
+		Map<String, Set<String>> indicesByName = new HashMap<>();
+		for (Map.Entry<String, JsonElement> index : response.entrySet()) {
+			indicesByName.computeIfAbsent(index.getKey(), name -> new HashSet<>()).add(index.getKey());
+			JsonObject indexAliases = index.getValue().getAsJsonObject().getAsJsonObject("aliases");
+			if (indexAliases != null) {
+				for (Map.Entry<String, JsonElement> alias : indexAliases.entrySet()) {
+					indicesByName.computeIfAbsent(alias.getKey(), name -> new HashSet<>()).add(index.getKey());
+				}
+			}
+		}
+
+		lock.lock();
+		try {
+			if (generation.get() != requestGeneration) {
+				return;
+			}
+			indices.clear();
+			types.clear();
+			aliases.clear();
+			this.snapshot = new Entry<>(Collections.unmodifiableMap(indicesByName), nanoClock.getAsLong() + ttlNanos, requestGeneration);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Invalidate all cached lookups and snapshot, lookups in progress are not cached.
+	 */
+	void invalidate() {
+		lock.lock();
+		try {
+			generation.incrementAndGet();
+			snapshot = null;
+			indices.clear();
+			types.clear();
+			aliases.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Map<String, Set<String>> snapshot(String name) {
+		Entry<Map<String, Set<String>>> snapshot = this.snapshot;
+		if (snapshot == null || name.indexOf('*') >= 0 || name.indexOf(',') >= 0) {
+			return null;
+		}
+		return snapshot.isValid(nanoClock.getAsLong(), generation.get()) ? snapshot.value : null;
+	}
+
+	private <V> V get(Map<String, Entry<V>> cache, String key, Supplier<V> lookup) {
+		long now = nanoClock.getAsLong();
+		long lookupGeneration;
+		lock.lock();
+		try {
+			Entry<V> entry = cache.get(key);
+			lookupGeneration = generation.get();
+			if (entry != null && entry.isValid(now, lookupGeneration)) {
+				return entry.value;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		// Looked up outside of lock, result is dropped if cache was invalidated meanwhile
+		V value = lookup.get();
+		lock.lock();
+		try {
+			if (generation.get() == lookupGeneration) {
+				cache.put(key, new Entry<>(value, now + ttlNanos, lookupGeneration));
+			}
+		} finally {
+			lock.unlock();
+		}
+		return value;
+	}
+
+	private static final class Entry<V> {
+
+		private final V value;
+		private final long expiresAt;
+		private final long generation;
+
+		private Entry(V value, long expiresAt, long generation) {
+			this.value = value;
+			this.expiresAt = expiresAt;
+			this.generation = generation;
+		}
+
+		private boolean isValid(long now, long currentGeneration) {
+			return generation == currentGeneration && now - expiresAt < 0;
+		}
+	}
+}
@@ -0,0 +1,357 @@
+package com.github.vanroy.springdata.jest;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.lucene.queryparser.flexible.core.util.StringUtils;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.util.Assert;
+
+/**
+ * Cache of queries compiled from criteria, by criteria shape (fields, operations and structure, without values).
+ *
+ * Each shape is compiled once into a JSON template with a slot per criteria value,
+ * following queries with same shape are rendered by writing their values into the template.
+ * Only criteria without filter (geo) and with string, number or boolean values are cached,
+ * shapes which cannot be compiled are cached too, so they are not compiled again.
+ * Least recently used shapes are evicted when max size is reached.
+ *
+ * @author Julien Roy
+ */
+class CriteriaQueryCache {
+
+	private static final String SLOT_PREFIX = "__jest_param_";
+	private static final String SLOT_SUFFIX = "__";
+
+	private static final CompiledQuery NOT_CACHEABLE = new CompiledQuery(new String[0], new int[0], new boolean[0]);
+
+	private final Map<String, CompiledQuery> cache;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	/**
+	 * @param maxSize Max number of cached shapes, least recently used are evicted beyond
+	 */
+	CriteriaQueryCache(int maxSize) {
+		Assert.isTrue(maxSize > 0, "Max size must be greater than 0");
+		this.cache = new LinkedHashMap<String, CompiledQuery>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CompiledQuery> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Render query of criteria as JSON.
+	 * @param criteria Criteria
+	 * @param filterMode Filter mode
+	 * @return query as JSON, or null if criteria cannot be rendered from cache
+	 */
+	String render(Criteria criteria, FilterMode filterMode) {
+		if (criteria == null) {
+			return null;
+		}
+
+		StringBuilder shape = new StringBuilder(64).append(filterMode.name());
+		List<Object> values = new ArrayList<>();
+		for (Criteria chainedCriteria : criteria.getCriteriaChain()) {
+			if (!appendShape(chainedCriteria, shape, values)) {
+				return null;
+			}
+		}
+
+		String key = shape.toString();
+		CompiledQuery compiledQuery = get(key);
+		if (compiledQuery == null) {
+			// Compiled outside of lock, a shape compiled concurrently is only compiled twice
+			compiledQuery = compile(criteria, filterMode, values.size());
+			put(key, compiledQuery);
+		}
+
+		return compiledQuery == NOT_CACHEABLE ? null : compiledQuery.render(values);
+	}
+
+	int size() {
+		lock.lock();
+		try {
+			return cache.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	void clear() {
+		lock.lock();
+		try {
+			cache.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private CompiledQuery get(String key) {
+		lock.lock();
+		try {
+			return cache.get(key);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void put(String key, CompiledQuery compiledQuery) {
+		lock.lock();
+		try {
+			cache.put(key, compiledQuery);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Append shape of criteria to key and collect its values, in order used by {@link CriteriaQueryProcessor}.
+	 * @return false if criteria is not cacheable
+	 */
+	@SuppressWarnings("unchecked")
+	private static boolean appendShape(Criteria criteria, StringBuilder shape, List<Object> values) {
+		if (!criteria.getFilterCriteriaEntries().isEmpty() || criteria.getField() == null) {
+			return false;
+		}
+		if (criteria.getQueryCriteriaEntries().isEmpty()) {
+			shape.append(";-");
+			return true;
+		}
+
+		shape.append(';').append(criteria.getField().getName())
+				.append(criteria.isOr() ? "|or" : "")
+				.append(criteria.isNegating() ? "|not" : "")
+				.append('|').append(criteria.getBoost());
+
+		for (Criteria.CriteriaEntry entry : criteria.getQueryCriteriaEntries()) {
+			Object value = entry.getValue();
+			shape.append('|').append(entry.getKey().name());
+			if (value == null) {
+				shape.append(":null");
+				continue;
+			}
+
+			switch (entry.getKey()) {
+				case EQUALS:
+				case CONTAINS:
+				case STARTS_WITH:
+				case ENDS_WITH:
+				case EXPRESSION:
+				case FUZZY:
+					values.add(StringUtils.toString(value));
+					break;
+				case LESS:
+				case LESS_EQUAL:
+				case GREATER:
+				case GREATER_EQUAL:
+					if (!appendRawValue(value, shape, values)) {
+						return false;
+					}
+					break;
+				case BETWEEN:
+					for (Object bound : (Object[]) value) {
+						if (bound == null) {
+							shape.append(":null");
+						} else if (!appendRawValue(bound, shape, values)) {
+							return false;
+						}
+					}
+					break;
+				case IN:
+				case NOT_IN:
+					int size = 0;
+					for (Object item : (Iterable<Object>) value) {
+						values.add(item.toString());
+						size++;
+					}
+					shape.append(':').append(size);
+					break;
+				default:
+					return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean appendRawValue(Object value, StringBuilder shape, List<Object> values) {
+		if (value instanceof String) {
+			shape.append(":s");
+		} else if (value instanceof Boolean) {
+			shape.append(":b");
+		} else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+				|| value instanceof Float || value instanceof Double || value instanceof BigInteger || value instanceof BigDecimal) {
+			shape.append(":n");
+		} else {
+			return false;
+		}
+		values.add(value);
+		return true;
+	}
+
+	/**
+	 * Build query with slot names as values, and split rendered JSON around slots.
+	 */
+	private static CompiledQuery compile(Criteria criteria, FilterMode filterMode, int slotCount) {
+		List<Boolean> rawSlots = new ArrayList<>(slotCount);
+		CriteriaQueryProcessor queryProcessor = new CriteriaQueryProcessor((key, value) -> {
+			switch (key) {
+				case LESS:
+				case LESS_EQUAL:
+				case GREATER:
+				case GREATER_EQUAL:
+					return slot(rawSlots, true);
+				case BETWEEN:
+					Object[] bounds = (Object[]) value;
+					return new Object[]{
+							bounds[0] == null ? null : slot(rawSlots, true),
+							bounds[1] == null ? null : slot(rawSlots, true)
+					};
+				case IN:
+				case NOT_IN:
+					List<Object> items = new ArrayList<>();
+					for (Object ignored : (Iterable<?>) value) {
+						items.add(slot(rawSlots, false));
+					}
+					return items;
+				default:
+					return slot(rawSlots, false);
+			}
+		});
+
+		QueryBuilder query = QueryPlan.of(criteria, filterMode, queryProcessor).getQuery();
+		String json = Strings.toString(query != null ? query : QueryBuilders.matchAllQuery());
+		if (rawSlots.size() != slotCount) {
+			return NOT_CACHEABLE;
+		}
+
+		// Locate slots in JSON, a raw slot includes its quotes
+		int[] starts = new int[slotCount];
+		int[] ends = new int[slotCount];
+		for (int i = 0; i < slotCount; i++) {
+			String slot = SLOT_PREFIX + i + SLOT_SUFFIX;
+			int start = json.indexOf(slot);
+			if (start < 0 || start != json.lastIndexOf(slot)) {
+				return NOT_CACHEABLE;
+			}
+			int end = start + slot.length();
+			if (rawSlots.get(i)) {
+				if (start == 0 || end == json.length() || json.charAt(start - 1) != '"' || json.charAt(end) != '"') {
+					return NOT_CACHEABLE;
+				}
+				start--;
+				end++;
+			}
+			starts[i] = start;
+			ends[i] = end;
+		}
+
+		// Order slots by position in JSON
+		Integer[] order = new Integer[slotCount];
+		for (int i = 0; i < slotCount; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Integer.compare(starts[a], starts[b]));
+
+		String[] fragments = new String[slotCount + 1];
+		int[] slots = new int[slotCount];
+		boolean[] raw = new boolean[slotCount];
+		int position = 0;
+		for (int i = 0; i < slotCount; i++) {
+			int slot = order[i];
+			fragments[i] = json.substring(position, starts[slot]);
+			slots[i] = slot;
+			raw[i] = rawSlots.get(slot);
+			position = ends[slot];
+		}
+		fragments[slotCount] = json.substring(position);
+
+		return new CompiledQuery(fragments, slots, raw);
+	}
+
+	private static String slot(List<Boolean> rawSlots, boolean raw) {
+		String slot = SLOT_PREFIX + rawSlots.size() + SLOT_SUFFIX;
+		rawSlots.add(raw);
+		return slot;
+	}
+
+	/**
+	 * JSON fragments, separated by value slots.
+	 */
+	private static final class CompiledQuery {
+
+		private final String[] fragments;
+		private final int[] slots;
+		private final boolean[] raw;
+		private final int length;
+
+		private CompiledQuery(String[] fragments, int[] slots, boolean[] raw) {
+			this.fragments = fragments;
+			this.slots = slots;
+			this.raw = raw;
+			int length = 0;
+			for (String fragment : fragments) {
+				length += fragment.length();
+			}
+			this.length = length;
+		}
+
+		String render(List<Object> values) {
+			StringBuilder json = new StringBuilder(length + 16 * slots.length);
+			for (int i = 0; i < slots.length; i++) {
+				json.append(fragments[i]);
+				Object value = values.get(slots[i]);
+				if (!raw[i]) {
+					appendEscaped(json, value.toString());
+				} else if (value instanceof String) {
+					json.append('"');
+					appendEscaped(json, (String) value);
+					json.append('"');
+				} else {
+					json.append(value);
+				}
+			}
+			return json.append(fragments[slots.length]).toString();
+		}
+
+		private static void appendEscaped(StringBuilder json, String value) {
+			for (int i = 0; i < value.length(); i++) {
+				char c = value.charAt(i);
+				switch (c) {
+					case '"':
+						json.append("\\\"");
+						break;
+					case '\\':
+						json.append("\\\\");
+						break;
+					case '\n':
+						json.append("\\n");
+						break;
+					case '\r':
+						json.append("\\r");
+						break;
+					case '\t':
+						json.append("\\t");
+						break;
+					default:
+						if (c < 0x20) {
+							json.append(String.format("\\u%04x", (int) c));
+						} else {
+							json.append(c);
+						}
+				}
+			}
+		}
+	}
+}
@@ -19,10 +19,13 @@ import static org.elasticsearch.index.query.Operator.AND;
 import static org.elasticsearch.index.query.QueryBuilders.*;
 import static org.springframework.data.elasticsearch.core.query.Criteria.*;
 
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 import org.apache.lucene.queryparser.flexible.core.util.StringUtils;
 import org.elasticsearch.index.query.*;
@@ -39,11 +42,38 @@ import org.springframework.util.Assert;
  */
 class CriteriaQueryProcessor {
 
+	private static final Set<OperationKey> NON_SCORING_OPERATIONS = EnumSet.of(OperationKey.EQUALS, OperationKey.IN,
+			OperationKey.BETWEEN, OperationKey.LESS, OperationKey.LESS_EQUAL, OperationKey.GREATER, OperationKey.GREATER_EQUAL);
+
+	private final BiFunction<OperationKey, Object, Object> valueMapper;
+
+	CriteriaQueryProcessor() {
+		this((key, value) -> value);
+	}
+
+	/**
+	 * @param valueMapper Function applied on each non null criteria value before building query
+	 */
+	CriteriaQueryProcessor(BiFunction<OperationKey, Object, Object> valueMapper) {
+		this.valueMapper = valueMapper;
+	}
 
 	QueryBuilder createQueryFromCriteria(Criteria criteria) {
+		return createQueryFromCriteria(criteria, null);
+	}
+
+	/**
+	 * Create query from criteria, moving non scoring criteria (equals, in, range) of a conjunction into filter clauses.
+	 * @param criteria Criteria
+	 * @param filterClauses List receiving non scoring queries, or null to keep all criteria in query
+	 * @return query, or null if no criteria remains in query
+	 */
+	QueryBuilder createQueryFromCriteria(Criteria criteria, List<QueryBuilder> filterClauses) {
 		if (criteria == null)
 			return null;
 
+		boolean extractFilters = filterClauses != null && !hasDisjunction(criteria);
+
 		List<QueryBuilder> shouldQueryBuilderList = new LinkedList<>();
 		List<QueryBuilder> mustNotQueryBuilderList = new LinkedList<>();
 		List<QueryBuilder> mustQueryBuilderList = new LinkedList<>();
@@ -57,6 +87,10 @@ class CriteriaQueryProcessor {
 			Criteria chainedCriteria = chainIterator.next();
 			QueryBuilder queryFragmentForCriteria = createQueryFragmentForCriteria(chainedCriteria);
 			if (queryFragmentForCriteria != null) {
+				if (extractFilters && !chainedCriteria.isNegating() && isNonScoring(chainedCriteria)) {
+					filterClauses.add(queryFragmentForCriteria);
+					continue;
+				}
 				if (firstQuery == null) {
 					firstQuery = queryFragmentForCriteria;
 					negateFirstQuery = chainedCriteria.isNegating();
@@ -104,6 +138,27 @@ class CriteriaQueryProcessor {
 		return query;
 	}
 
+	private static boolean hasDisjunction(Criteria criteria) {
+		for (Criteria chainedCriteria : criteria.getCriteriaChain()) {
+			if (chainedCriteria.isOr()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean isNonScoring(Criteria chainedCriteria) {
+		if (!Float.isNaN(chainedCriteria.getBoost())) {
+			return false;
+		}
+		for (Criteria.CriteriaEntry entry : chainedCriteria.getQueryCriteriaEntries()) {
+			if (!NON_SCORING_OPERATIONS.contains(entry.getKey())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 
 	private QueryBuilder createQueryFragmentForCriteria(Criteria chainedCriteria) {
 		if (chainedCriteria.getQueryCriteriaEntries().isEmpty())
@@ -139,6 +194,7 @@ class CriteriaQueryProcessor {
 			return null;
 		}
 		OperationKey key = entry.getKey();
+		value = valueMapper.apply(key, value);
 		QueryBuilder query = null;
 
 		String searchText = StringUtils.toString(value);
@@ -0,0 +1,21 @@
+package com.github.vanroy.springdata.jest;
+
+/**
+ * Placement of query filters in search requests.
+ *
+ * @author Julien Roy
+ */
+public enum FilterMode {
+
+	/**
+	 * Filters are sent as post filter, applied on hits after query execution.
+	 */
+	POST_FILTER,
+
+	/**
+	 * Filters, and non scoring criteria (equals, in, range), are sent as filter clauses of a bool query.
+	 * Filter clauses are cached by Elasticsearch and reduce the number of documents to score.
+	 * Post filter is still used when query has aggregations, as they must not be filtered.
+	 */
+	FILTER_CONTEXT
+}
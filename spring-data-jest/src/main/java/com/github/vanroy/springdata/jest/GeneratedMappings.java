@@ -0,0 +1,88 @@
+package com.github.vanroy.springdata.jest;
+
+import static org.springframework.util.StringUtils.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Mappings generated at build time by {@link MappingGenerator}, read from classpath.
+ *
+ * Generated entities are listed in index resources, so entities without generated mapping are not looked up on classpath.
+ *
+ * @author Julien Roy
+ */
+class GeneratedMappings {
+
+	static final String INDEX_LOCATION = "META-INF/spring-data-jest/mappings.index";
+	static final String MAPPINGS_LOCATION = "META-INF/spring-data-jest/mappings/";
+
+	private static final Logger logger = LoggerFactory.getLogger(GeneratedMappings.class);
+
+	private final ClassLoader classLoader;
+	private volatile Set<String> entities;
+
+	GeneratedMappings(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * @param clazz Entity class
+	 * @return mapping generated for entity class, or null if not generated
+	 */
+	String get(Class<?> clazz) {
+		if (classLoader == null || !entities().contains(clazz.getName())) {
+			return null;
+		}
+
+		String location = MAPPINGS_LOCATION + clazz.getName() + ".json";
+		try (InputStream input = classLoader.getResourceAsStream(location)) {
+			if (input == null) {
+				logger.warn("Generated mapping of {} not found at {}", clazz.getName(), location);
+				return null;
+			}
+			return StreamUtils.copyToString(input, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			logger.warn("Failed to read generated mapping of {}", clazz.getName(), e);
+			return null;
+		}
+	}
+
+	private Set<String> entities() {
+		Set<String> entities = this.entities;
+		if (entities == null) {
+			entities = readIndex();
+			this.entities = entities;
+		}
+		return entities;
+	}
+
+	private Set<String> readIndex() {
+		Set<String> entities = new HashSet<>();
+		try {
+			Enumeration<URL> indices = classLoader.getResources(INDEX_LOCATION);
+			while (indices.hasMoreElements()) {
+				try (InputStream input = indices.nextElement().openStream()) {
+					for (String line : StreamUtils.copyToString(input, StandardCharsets.UTF_8).split("\n")) {
+						if (hasText(line)) {
+							entities.add(line.trim());
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			logger.warn("Failed to read generated mappings index", e);
+		}
+		return entities.isEmpty() ? Collections.emptySet() : entities;
+	}
+}
@@ -0,0 +1,53 @@
+package com.github.vanroy.springdata.jest;
+
+/**
+ * Number of documents matching a query, exact or lower bound when counting stopped early.
+ *
+ * @author Julien Roy
+ */
+public final class HitCount {
+
+	private final long count;
+	private final boolean exact;
+
+	public HitCount(long count, boolean exact) {
+		this.count = count;
+		this.exact = exact;
+	}
+
+	/**
+	 * @return number of counted documents
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return true if all matching documents were counted, false if count is a lower bound
+	 */
+	public boolean isExact() {
+		return exact;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		HitCount hitCount = (HitCount) o;
+		return count == hitCount.count && exact == hitCount.exact;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Long.hashCode(count) + (exact ? 1 : 0);
+	}
+
+	@Override
+	public String toString() {
+		return exact ? Long.toString(count) : count + "+";
+	}
+}
@@ -0,0 +1,149 @@
+package com.github.vanroy.springdata.jest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.util.Assert;
+
+/**
+ * Create indices and mappings of many entities at startup.
+ *
+ * Existing indices and aliases are read in a single request, then missing indices are created with their mapping inlined
+ * in create request, and missing fields of existing index mappings are put, in parallel with bounded concurrency.
+ * Entities written in several indices by the index name resolver of template (time based indices) get an index template instead,
+ * so their indices are created by Elasticsearch with entity settings, mapping and read alias.
+ *
+ * Index and mapping creations of entities by the template, for example by repositories while the context starts, can be
+ * deferred to the bootstrap with {@link #defer(String...)}: they are skipped until entities are bootstrapped, then sent again.
+ * Bootstrap should then run once all repositories are created, for example from a {@code SmartInitializingSingleton}.
+ *
+ * @author Julien Roy
+ */
+public class IndexBootstrapper {
+
+	private static final Logger logger = LoggerFactory.getLogger(IndexBootstrapper.class);
+
+	private final JestElasticsearchTemplate template;
+	private final int concurrency;
+
+	/**
+	 * @param template Template
+	 * @param concurrency Max number of concurrent index creations
+	 */
+	public IndexBootstrapper(JestElasticsearchTemplate template, int concurrency) {
+		Assert.notNull(template, "Template must not be null");
+		Assert.isTrue(concurrency > 0, "Concurrency must be greater than 0");
+		this.template = template;
+		this.concurrency = concurrency;
+	}
+
+	/**
+	 * Defer index and mapping creations of @Document entities found in packages to the bootstrap, no request is sent.
+	 * @param basePackages Packages scanned for entities
+	 * @return deferred entities
+	 */
+	public List<Class<?>> defer(String... basePackages) {
+		List<Class<?>> entities = MappingGenerator.findEntities(basePackages);
+		template.deferIndexCreation(entities);
+		return entities;
+	}
+
+	/**
+	 * Bootstrap indices of entities whose creations are deferred.
+	 * @return entities with created index
+	 */
+	public List<Class<?>> bootstrapDeferred() {
+		return bootstrap(template.getDeferredEntities());
+	}
+
+	/**
+	 * Bootstrap indices of @Document entities found in packages.
+	 * @param basePackages Packages scanned for entities
+	 * @return entities with created index
+	 */
+	public List<Class<?>> bootstrap(String... basePackages) {
+		return bootstrap(MappingGenerator.findEntities(basePackages));
+	}
+
+	/**
+	 * Bootstrap indices of entities.
+	 * @param entities Entity classes
+	 * @return entities with created index
+	 */
+	public List<Class<?>> bootstrap(Collection<Class<?>> entities) {
+		if (entities.isEmpty()) {
+			return new ArrayList<>();
+		}
+
+		try {
+			return doBootstrap(entities);
+		} finally {
+			// Even on failure, never skip later creations
+			template.endIndexCreationDeferral(entities);
+		}
+	}
+
+	private List<Class<?>> doBootstrap(Collection<Class<?>> entities) {
+		long start = System.currentTimeMillis();
+		Set<String> existing = template.getIndicesAndAliases();
+		List<Class<?>> created = new ArrayList<>();
+		List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "jest-index-bootstrap-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(concurrency, entities.size()), threadFactory);
+		try {
+			for (Class<?> entity : entities) {
+				if (template.resolvesIndexNames(entity)) {
+					// Indices are created on first write, index name of entity is their alias
+					tasks.add(CompletableFuture.runAsync(() -> template.putIndexTemplate(entity), executor));
+				} else if (existing.contains(template.getPersistentEntityFor(entity).getIndexName())) {
+					tasks.add(CompletableFuture.runAsync(() -> template.ensureMapping(entity), executor));
+				} else {
+					created.add(entity);
+					tasks.add(CompletableFuture.runAsync(() -> template.createIndexWithMapping(entity), executor));
+				}
+			}
+			await(tasks);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		logger.info("Bootstrapped indices of {} entities in {} ms, {} indices created", entities.size(), System.currentTimeMillis() - start, created.size());
+		return created;
+	}
+
+	private static void await(List<CompletableFuture<Void>> tasks) {
+		RuntimeException failure = null;
+		for (CompletableFuture<Void> task : tasks) {
+			try {
+				task.join();
+			} catch (CompletionException e) {
+				RuntimeException cause = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+				if (failure == null) {
+					failure = new ElasticsearchException("Failed to bootstrap indices", cause);
+				} else {
+					failure.addSuppressed(cause);
+				}
+			}
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+}
@@ -0,0 +1,50 @@
+package com.github.vanroy.springdata.jest;
+
+import org.springframework.data.elasticsearch.core.query.Query;
+
+/**
+ * Resolve index names of entities, when they are not in a single static index.
+ *
+ * @author Julien Roy
+ */
+public interface IndexNameResolver {
+
+	/**
+	 * @param entity Entity to index
+	 * @return name of index where entity is written, or null for index of entity class
+	 */
+	String resolveIndexName(Object entity);
+
+	/**
+	 * @param clazz Entity class
+	 * @param query Query without indices
+	 * @return names of indices searched by query, or null for index of entity class
+	 */
+	default String[] resolveSearchIndexNames(Class<?> clazz, Query query) {
+		return null;
+	}
+
+	/**
+	 * @param clazz Entity class
+	 * @return true if entities of class are written in several indices, index of class is then a read alias
+	 */
+	default boolean resolvesIndexNames(Class<?> clazz) {
+		return false;
+	}
+
+	/**
+	 * @param clazz Entity class
+	 * @return wildcard pattern of all indices of entities of class, used by their index template, or null if class has no resolved index names
+	 */
+	default String getIndexPattern(Class<?> clazz) {
+		return null;
+	}
+
+	/**
+	 * @param indexName Index name
+	 * @return true if index name was resolved by this resolver and may not exist, searches then ignore it when missing
+	 */
+	default boolean isResolvedIndexName(String indexName) {
+		return false;
+	}
+}
@@ -11,16 +11,42 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
+import com.github.vanroy.springdata.jest.action.CancelTask;
+import com.github.vanroy.springdata.jest.action.GetTask;
+import com.github.vanroy.springdata.jest.action.ListAliases;
+import com.github.vanroy.springdata.jest.action.MultiSearchTemplate;
+import com.github.vanroy.springdata.jest.action.Reindex;
+import com.github.vanroy.springdata.jest.action.SearchTemplate;
 import com.github.vanroy.springdata.jest.aggregation.AggregatedPage;
+import com.github.vanroy.springdata.jest.aggregation.CompositeAggregation;
 import com.github.vanroy.springdata.jest.aggregation.impl.AggregatedPageImpl;
+import com.github.vanroy.springdata.jest.exception.JestElasticsearchException;
+import com.github.vanroy.springdata.jest.exception.MultiSearchException;
+import com.github.vanroy.springdata.jest.execution.ExecutionStrategy;
 import com.github.vanroy.springdata.jest.internal.ExtendedSearchResult;
 import com.github.vanroy.springdata.jest.internal.MultiDocumentResult;
 import com.github.vanroy.springdata.jest.internal.SearchScrollResult;
 import com.github.vanroy.springdata.jest.mapper.*;
+import com.github.vanroy.springdata.jest.query.SearchOptions;
+import com.github.vanroy.springdata.jest.query.SearchOptionsPolicy;
+import com.github.vanroy.springdata.jest.query.SearchTemplateQuery;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import io.searchbox.action.Action;
 import io.searchbox.client.JestClient;
 import io.searchbox.client.JestResult;
@@ -30,12 +56,14 @@ import io.searchbox.indices.DeleteIndex;
 import io.searchbox.indices.IndicesExists;
 import io.searchbox.indices.Refresh;
 import io.searchbox.indices.aliases.AddAliasMapping;
+import io.searchbox.indices.aliases.AliasMapping;
 import io.searchbox.indices.aliases.GetAliases;
 import io.searchbox.indices.aliases.ModifyAliases;
 import io.searchbox.indices.aliases.RemoveAliasMapping;
 import io.searchbox.indices.mapping.GetMapping;
 import io.searchbox.indices.mapping.PutMapping;
 import io.searchbox.indices.settings.GetSettings;
+import io.searchbox.indices.template.PutTemplate;
 import io.searchbox.indices.type.TypeExist;
 import io.searchbox.params.Parameters;
 import io.searchbox.params.SearchType;
@@ -43,6 +71,7 @@ import org.elasticsearch.action.DocWriteResponse;
 import org.elasticsearch.action.update.UpdateResponse;
 import org.elasticsearch.cluster.metadata.AliasMetaData;
 import org.elasticsearch.common.Nullable;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.common.collect.MapBuilder;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.common.xcontent.XContentBuilder;
@@ -50,10 +79,12 @@ import org.elasticsearch.common.xcontent.XContentFactory;
 import org.elasticsearch.common.xcontent.XContentType;
 import org.elasticsearch.index.mapper.DocumentMapper;
 import org.elasticsearch.index.query.MoreLikeThisQueryBuilder;
+import org.elasticsearch.common.Strings;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.shard.ShardId;
 import org.elasticsearch.search.aggregations.AbstractAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
 import org.elasticsearch.search.fetch.subphase.highlight.HighlightBuilder;
 import org.elasticsearch.search.sort.SortBuilder;
@@ -81,6 +112,7 @@ import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMa
 import org.springframework.data.elasticsearch.core.query.*;
 import org.springframework.data.util.CloseableIterator;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 /**
  * Jest implementation of ElasticsearchOperations.
@@ -91,11 +123,36 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 	private static final Logger logger = LoggerFactory.getLogger(JestElasticsearchTemplate.class);
 
+	private static final Executor CALLER_THREAD = Runnable::run;
+
+	private static final String REQUEST_CACHE = "request_cache";
+	private static final String PREFERENCE = "preference";
+	private static final String ROUTING = "routing";
+	private static final String BATCHED_REDUCE_SIZE = "batched_reduce_size";
+	private static final String IGNORE_UNAVAILABLE = "ignore_unavailable";
+
+	/** Size of scroll requests of {@link #streamIds(SearchQuery, Class)} for unpaged queries. */
+	private static final int DEFAULT_STREAM_IDS_PAGE_SIZE = 1000;
+
 	private final JestClient client;
 	private final ElasticsearchConverter elasticsearchConverter;
 	private final JestResultsMapper resultsMapper;
 	private final ErrorMapper errorMapper;
 	private final Supplier<SearchSourceBuilder> searchSourceBuilderProvider;
+	private ExecutionStrategy executionStrategy = ExecutionStrategy.callerThread();
+	private volatile MultiSearchBatcher searchBatcher;
+	private Executor multiSearchMappingExecutor = CALLER_THREAD;
+	private FilterMode filterMode = FilterMode.POST_FILTER;
+	private volatile CriteriaQueryCache criteriaQueryCache;
+	private SearchOptionsPolicy searchOptionsPolicy = SearchOptionsPolicy.of(SearchOptions.none());
+	private final ThreadLocal<SearchOptions> scopedSearchOptions = new ThreadLocal<>();
+	private RoutingResolver routingResolver;
+	private IndexNameResolver indexNameResolver;
+	private Consumer<ReindexProgress> reindexProgressListener;
+	private final ConcurrentMap<Class<?>, String> mappings = new ConcurrentHashMap<>();
+	private final Set<Class<?>> deferredEntities = ConcurrentHashMap.newKeySet();
+	private volatile ClusterMetadataCache clusterMetadataCache;
+	private final GeneratedMappings generatedMappings = new GeneratedMappings(ClassUtils.getDefaultClassLoader());
 
 	public JestElasticsearchTemplate(JestClient client) {
 		this(client, null, null, null, null);
@@ -123,6 +180,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		this.resultsMapper = (resultsMapper == null) ? new DefaultJestResultsMapper(this.elasticsearchConverter.getMappingContext()) : resultsMapper;
 		this.errorMapper = (errorMapper == null) ? new DefaultErrorMapper() : errorMapper;
 		this.searchSourceBuilderProvider = (searchSourceBuilderProvider == null) ? SearchSourceBuilder::new : searchSourceBuilderProvider;
+		this.routingResolver = new AnnotationRoutingResolver(this.elasticsearchConverter.getMappingContext());
 	}
 
 	public static String readFileFromClasspath(String url) {
@@ -167,14 +225,407 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		return elasticsearchConverter;
 	}
 
+	public ExecutionStrategy getExecutionStrategy() {
+		return executionStrategy;
+	}
+
+	/**
+	 * Set strategy used to run asynchronous operations ({@link #executeAsync(Function)}), default run on caller thread.
+	 * @param executionStrategy Execution strategy
+	 */
+	public void setExecutionStrategy(ExecutionStrategy executionStrategy) {
+		Assert.notNull(executionStrategy, "ExecutionStrategy must not be null");
+		this.executionStrategy = executionStrategy;
+	}
+
+	/**
+	 * Run a blocking operation of this template with the configured execution strategy.
+	 * @param operation Operation to run
+	 * @param <R> Type of result
+	 * @return Future completed with operation result
+	 */
+	public <R> CompletableFuture<R> executeAsync(Function<? super JestElasticsearchTemplate, ? extends R> operation) {
+		return executionStrategy.submit(() -> operation.apply(this));
+	}
+
+	public <T> CompletableFuture<AggregatedPage<T>> queryForPageAsync(SearchQuery query, Class<T> clazz) {
+		return executeAsync(template -> template.queryForPage(query, clazz));
+	}
+
+	public <T> CompletableFuture<Long> countAsync(SearchQuery query, Class<T> clazz) {
+		return executeAsync(template -> template.count(query, clazz));
+	}
+
+	/**
+	 * Collect searches issued concurrently by different threads, and send them as a single MultiSearch.
+	 * A search is sent immediately when no batch is in flight, otherwise it waits at most the batch window for other searches.
+	 * A batch is sent immediately when full.
+	 * Counts (sent to _count endpoint), scroll searches and searches with a batched reduce size are never batched.
+	 * @param maxBatchSize Max number of searches sent in one MultiSearch
+	 * @param window Time to wait for other searches
+	 * @param unit Unit of window
+	 */
+	public void enableSearchBatching(int maxBatchSize, long window, TimeUnit unit) {
+		this.searchBatcher = new MultiSearchBatcher(maxBatchSize, unit.toNanos(window), this::executeMultiSearch);
+	}
+
+	public void disableSearchBatching() {
+		this.searchBatcher = null;
+	}
+
+	public boolean isSearchBatchingEnabled() {
+		return searchBatcher != null;
+	}
+
+	public FilterMode getFilterMode() {
+		return filterMode;
+	}
+
+	/**
+	 * Set placement of query filters, default send them as post filter.
+	 * @param filterMode Filter mode
+	 */
+	public void setFilterMode(FilterMode filterMode) {
+		Assert.notNull(filterMode, "FilterMode must not be null");
+		this.filterMode = filterMode;
+	}
+
+	/**
+	 * Enable cache of queries compiled from criteria, by criteria shape.
+	 * Queries with a cached shape are rendered by writing their values into the compiled JSON, without building query.
+	 * @param maxSize Max number of cached shapes (least recently used are evicted beyond), 0 to disable cache
+	 */
+	public void setCriteriaQueryCacheSize(int maxSize) {
+		this.criteriaQueryCache = maxSize > 0 ? new CriteriaQueryCache(maxSize) : null;
+	}
+
+	/**
+	 * Enable cache of cluster metadata lookups (indexExists, typeExists, getIndicesFromAlias).
+	 * Cache is invalidated by index, mapping and alias changes made by this template, changes made by others are seen after time to live.
+	 * Up to 1024 lookups of each kind are cached, least recently used are evicted beyond.
+	 * @param ttl Time to live of lookups, 0 to disable cache
+	 * @param unit Unit of time to live
+	 */
+	public void setClusterMetadataCacheTtl(long ttl, TimeUnit unit) {
+		this.clusterMetadataCache = ttl > 0 ? new ClusterMetadataCache(unit.toNanos(ttl), System::nanoTime) : null;
+	}
+
+	/**
+	 * Load all indices and aliases of cluster in a single request, following lookups are answered from them until time to live.
+	 * Does nothing if cluster metadata cache is disabled.
+	 */
+	public void refreshClusterMetadata() {
+		if (clusterMetadataCache != null) {
+			getIndicesAndAliases();
+		}
+	}
+
+	/**
+	 * Set default search options of template, resolved for each query.
+	 * @param searchOptionsPolicy Policy, or null to send no option
+	 */
+	public void setSearchOptionsPolicy(SearchOptionsPolicy searchOptionsPolicy) {
+		this.searchOptionsPolicy = (searchOptionsPolicy == null) ? SearchOptionsPolicy.of(SearchOptions.none()) : searchOptionsPolicy;
+	}
+
+	/**
+	 * Execute action with search options overriding default options of template, for searches run by current thread.
+	 * Searches with options can be batched in a multi search, their options are sent in multi search headers,
+	 * except searches with a batched reduce size which is not allowed in a header.
+	 * @param options Search options
+	 * @param action Action
+	 * @return result of action
+	 */
+	public <T> T withSearchOptions(SearchOptions options, Supplier<T> action) {
+		Assert.notNull(options, "Search options must not be null");
+		SearchOptions previous = scopedSearchOptions.get();
+		scopedSearchOptions.set(previous != null ? previous.merge(options) : options);
+		try {
+			return action.get();
+		} finally {
+			if (previous != null) {
+				scopedSearchOptions.set(previous);
+			} else {
+				scopedSearchOptions.remove();
+			}
+		}
+	}
+
+	/**
+	 * Execute action with routing, for all operations run by current thread (search, count, get, multi get, update and delete).
+	 * Documents indexed by action are routed with routing of their entity if any, this routing otherwise.
+	 * Operations by id (get, multi get, update and delete) cannot resolve routing of an entity, they must run with this routing
+	 * when entities are routed (except {@link #deleteEntity(Object)} and updates whose request has a routing).
+	 * @param routing Routing values (comma separated for searches)
+	 * @param action Action
+	 * @return result of action
+	 */
+	public <T> T withRouting(String routing, Supplier<T> action) {
+		Assert.hasText(routing, "Routing must not be empty");
+		return withSearchOptions(SearchOptions.builder().routing(routing).build(), action);
+	}
+
+	/**
+	 * Set resolver of entities routing, used when entities are indexed. Default use property annotated with {@link com.github.vanroy.springdata.jest.annotations.Routing}.
+	 * @param routingResolver Routing resolver, or null to not route entities
+	 */
+	public void setRoutingResolver(RoutingResolver routingResolver) {
+		this.routingResolver = (routingResolver == null) ? entity -> null : routingResolver;
+	}
+
+	/**
+	 * Set resolver of index names of entities, used to write entities and to narrow indices searched by queries without indices.
+	 * Searches of indices resolved by resolver (time based indices) ignore missing ones.
+	 * Operations by id (get, multi get, update and delete) fail for entities written in several indices, unless an index name is given.
+	 * @param indexNameResolver Index name resolver, or null to use index of entity class
+	 */
+	public void setIndexNameResolver(IndexNameResolver indexNameResolver) {
+		this.indexNameResolver = indexNameResolver;
+	}
+
+	/**
+	 * Set executor used to map responses of a multi search in parallel, default map them one after another on caller thread.
+	 * @param multiSearchMappingExecutor Executor, or null to map on caller thread
+	 */
+	public void setMultiSearchMappingExecutor(Executor multiSearchMappingExecutor) {
+		this.multiSearchMappingExecutor = (multiSearchMappingExecutor == null) ? CALLER_THREAD : multiSearchMappingExecutor;
+	}
+
 	@Override
 	public <T> boolean createIndex(Class<T> clazz) {
-		return createIndexIfNotCreated(clazz);
+		return deferredEntities.contains(clazz) || createIndexIfNotCreated(clazz);
+	}
+
+	/**
+	 * Create index of an entity with its settings and mapping in a single request.
+	 * @param clazz Entity class
+	 * @return true if index is created
+	 */
+	public <T> boolean createIndexWithMapping(Class<T> clazz) {
+		return createIndexWithMapping(getPersistentEntityFor(clazz).getIndexName(), clazz);
+	}
+
+	/**
+	 * Create an index with settings and mapping of an entity in a single request.
+	 * @param indexName Index name
+	 * @param clazz Entity class
+	 * @return true if index is created
+	 */
+	public <T> boolean createIndexWithMapping(String indexName, Class<T> clazz) {
+		return executeWithInvalidation(new CreateIndex.Builder(indexName).payload(buildIndexPayload(clazz).toString()).build());
+	}
+
+	/**
+	 * Put index template of an entity written in several indices by index name resolver (time based indices).
+	 * Indices matching pattern of resolver are then created by Elasticsearch with entity settings and mapping,
+	 * and added to entity index name, which is their read alias. Template is named after alias, and replaced if it exists.
+	 * @param clazz Entity class
+	 * @return true if template is put
+	 */
+	public <T> boolean putIndexTemplate(Class<T> clazz) {
+		IndexNameResolver resolver = this.indexNameResolver;
+		String indexPattern = resolver != null ? resolver.getIndexPattern(clazz) : null;
+		Assert.notNull(indexPattern, "No index pattern resolved for " + clazz.getSimpleName());
+
+		String alias = getPersistentEntityFor(clazz).getIndexName();
+		JsonObject aliases = new JsonObject();
+		aliases.add(alias, new JsonObject());
+
+		JsonArray indexPatterns = new JsonArray();
+		indexPatterns.add(indexPattern);
+		JsonObject payload = buildIndexPayload(clazz);
+		payload.add("index_patterns", indexPatterns);
+		payload.add("aliases", aliases);
+
+		return executeWithAcknowledge(new PutTemplate.Builder(alias, payload.toString()).build());
+	}
+
+	/**
+	 * @return body of index creation or index template, with entity settings and mapping
+	 */
+	private JsonObject buildIndexPayload(Class<?> clazz) {
+		ElasticsearchPersistentEntity<Object> persistentEntity = getPersistentEntityFor(clazz);
+		Object settings = getSettings(clazz);
+
+		JsonObject mappings = new JsonObject();
+		mappings.add(persistentEntity.getIndexType(), buildTypeMappingForClass(clazz, persistentEntity.getIndexType()));
+
+		JsonObject payload = new JsonObject();
+		payload.add("settings", settings instanceof String ? new JsonParser().parse((String) settings) : new Gson().toJsonTree(settings));
+		payload.add("mappings", mappings);
+		return payload;
+	}
+
+	/**
+	 * @param clazz Entity class
+	 * @return true if entities of class are written in several indices by index name resolver, index of class is then a read alias
+	 */
+	boolean resolvesIndexNames(Class<?> clazz) {
+		IndexNameResolver resolver = this.indexNameResolver;
+		return resolver != null && resolver.resolvesIndexNames(clazz);
+	}
+
+	/**
+	 * Listen progress of reindexes, notified at each poll of reindex tasks.
+	 * @param reindexProgressListener Listener, or null
+	 */
+	public void setReindexProgressListener(Consumer<ReindexProgress> reindexProgressListener) {
+		this.reindexProgressListener = reindexProgressListener;
+	}
+
+	/**
+	 * Reindex documents of an entity in a new versioned index, then swap entity alias to new index.
+	 * Index name of entity must be an alias. New index is created with entity settings and mapping,
+	 * documents are copied on server side by a reindex task polled until completion, then alias is swapped in a single atomic request.
+	 * Writes made during reindex in previous indices are not copied.
+	 * If reindex fails or waiting thread is interrupted (reindex task is then cancelled), new index is deleted and alias is left unchanged.
+	 * If alias swap itself fails, new index is complete and kept.
+	 * @param clazz Entity class
+	 * @param options Reindex options
+	 * @return name of new index
+	 */
+	public <T> String reindexAndSwapAlias(Class<T> clazz, ReindexOptions options) {
+		Assert.notNull(options, "Reindex options must not be null");
+		String alias = getPersistentEntityFor(clazz).getIndexName();
+		Set<String> sourceIndices = getIndicesFromAlias(alias);
+		if (sourceIndices.contains(alias)) {
+			throw new IllegalStateException("Index name of " + clazz.getSimpleName() + " must be an alias, " + alias + " is an index");
+		}
+
+		String destIndex = alias + "_" + System.currentTimeMillis();
+		createIndexWithMapping(destIndex, clazz);
+
+		ReindexProgress progress = new ReindexProgress(alias, new HashSet<>(sourceIndices), destIndex);
+		try {
+			if (!sourceIndices.isEmpty()) {
+				JestResult started = execute(new Reindex.Builder(sourceIndices, destIndex)
+						.slices(options.getSlices())
+						.requestsPerSecond(options.getRequestsPerSecond())
+						.waitForCompletion(false)
+						.build());
+				JsonElement taskId = started.getJsonObject() != null ? started.getJsonObject().get("task") : null;
+				if (taskId == null || taskId.isJsonNull()) {
+					throw new JestElasticsearchException("Reindex of " + alias + " in " + destIndex + " did not return a task", started);
+				}
+				awaitReindex(taskId.getAsString(), progress, options.getPollIntervalMillis());
+			}
+			refresh(destIndex);
+		} catch (RuntimeException e) {
+			// Alias is not swapped yet, new index is partial
+			try {
+				deleteIndex(destIndex);
+			} catch (RuntimeException deleteFailure) {
+				e.addSuppressed(deleteFailure);
+			}
+			throw e;
+		}
+
+		// Alias is moved in a single request, searches never see both or no index
+		List<AliasMapping> aliasMappings = new ArrayList<>();
+		aliasMappings.add(new AddAliasMapping.Builder(destIndex, alias).build());
+		for (String sourceIndex : sourceIndices) {
+			aliasMappings.add(new RemoveAliasMapping.Builder(sourceIndex, alias).build());
+		}
+		executeWithInvalidation(new ModifyAliases.Builder(aliasMappings).build());
+		progress.complete();
+		notifyReindexProgress(progress);
+
+		if (options.isDeleteSourceIndices()) {
+			for (String sourceIndex : sourceIndices) {
+				deleteIndex(sourceIndex);
+			}
+		}
+		return destIndex;
+	}
+
+	private void awaitReindex(String taskId, ReindexProgress progress, long pollIntervalMillis) {
+		while (true) {
+			JsonObject task = execute(new GetTask.Builder(taskId).build()).getJsonObject();
+			progress.update(task.getAsJsonObject("task").getAsJsonObject("status"));
+
+			if (task.has("completed") && task.get("completed").getAsBoolean()) {
+				JsonObject response = task.getAsJsonObject("response");
+				if (task.has("error") || (response != null && response.has("failures") && response.getAsJsonArray("failures").size() > 0)) {
+					throw new ElasticsearchException("Reindex of " + progress.getAlias() + " in " + progress.getDestIndex()
+							+ " failed, alias is not swapped : " + (task.has("error") ? task.get("error") : response.get("failures")));
+				}
+				if (response != null) {
+					progress.update(response);
+				}
+				return;
+			}
+			notifyReindexProgress(progress);
+
+			try {
+				Thread.sleep(pollIntervalMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				ElasticsearchException interrupted = new ElasticsearchException("Interrupted while waiting for reindex task " + taskId + ", task is cancelled", e);
+				try {
+					execute(new CancelTask.Builder(taskId).build());
+				} catch (RuntimeException cancelFailure) {
+					interrupted.addSuppressed(cancelFailure);
+				}
+				throw interrupted;
+			}
+		}
+	}
+
+	private void notifyReindexProgress(ReindexProgress progress) {
+		Consumer<ReindexProgress> listener = this.reindexProgressListener;
+		if (listener != null) {
+			listener.accept(progress);
+		}
+	}
+
+	/**
+	 * @return names of all indices and aliases of cluster, read in a single request
+	 */
+	public Set<String> getIndicesAndAliases() {
+		ClusterMetadataCache cache = this.clusterMetadataCache;
+		long generation = cache != null ? cache.generation() : 0;
+		JestResult result = execute(new ListAliases.Builder().build());
+		if (cache != null) {
+			cache.load(result.getJsonObject(), generation);
+		}
+
+		Set<String> names = new HashSet<>();
+		for (Map.Entry<String, JsonElement> index : result.getJsonObject().entrySet()) {
+			names.add(index.getKey());
+			JsonObject aliases = index.getValue().getAsJsonObject().getAsJsonObject("aliases");
+			if (aliases != null) {
+				for (Map.Entry<String, JsonElement> alias : aliases.entrySet()) {
+					names.add(alias.getKey());
+				}
+			}
+		}
+		return names;
+	}
+
+	/**
+	 * Defer index and mapping creations of entities to {@link IndexBootstrapper}, they are skipped until entities are bootstrapped.
+	 */
+	void deferIndexCreation(Collection<Class<?>> entities) {
+		deferredEntities.addAll(entities);
+	}
+
+	/**
+	 * @return entities whose index and mapping creations are deferred
+	 */
+	Set<Class<?>> getDeferredEntities() {
+		return new LinkedHashSet<>(deferredEntities);
+	}
+
+	/**
+	 * End deferral of index and mapping creations of entities, following creations are sent again.
+	 */
+	void endIndexCreationDeferral(Collection<Class<?>> entities) {
+		deferredEntities.removeAll(entities);
 	}
 
 	@Override
 	public boolean createIndex(String indexName) {
-		return executeWithAcknowledge(new CreateIndex.Builder(indexName).build());
+		return executeWithInvalidation(new CreateIndex.Builder(indexName).build());
 	}
 
 	@Override
@@ -188,7 +639,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 			createIndexBuilder.payload((Map) settings);
 		}
 
-		return executeWithAcknowledge(createIndexBuilder.build());
+		return executeWithInvalidation(createIndexBuilder.build());
 	}
 
 	@Override
@@ -198,7 +649,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 	@Override
 	public <T> boolean putMapping(Class<T> clazz) {
-		return putMapping(clazz, buildMappingForClass(clazz));
+		return deferredEntities.contains(clazz) || putMapping(clazz, buildMappingForClass(clazz));
 	}
 
 	@Override
@@ -228,13 +679,80 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 			PutMapping.Builder requestBuilder = new PutMapping.Builder(indexName, type, source);
 
-			return executeWithAcknowledge(requestBuilder.build());
+			return executeWithInvalidation(requestBuilder.build());
 		} catch (Exception e) {
 			throw new ElasticsearchException("Failed to build mapping for " + indexName + ":" + type, e);
 		}
 	}
 
+	/**
+	 * Put only fields of entity mapping missing in index mapping, nothing is sent if index mapping has all fields.
+	 * Fields are compared structurally, with their sub fields and object properties, existing fields are never changed.
+	 * @param clazz Entity class
+	 * @return true if index mapping is up to date
+	 */
+	public <T> boolean ensureMapping(Class<T> clazz) {
+		ElasticsearchPersistentEntity<Object> persistentEntity = getPersistentEntityFor(clazz);
+		return ensureMapping(persistentEntity.getIndexName(), persistentEntity.getIndexType(), clazz);
+	}
+
+	/**
+	 * Put only fields of entity mapping missing in index mapping, nothing is sent if index mapping has all fields.
+	 * @param indexName Index name
+	 * @param type Type
+	 * @param clazz Entity class
+	 * @return true if index mapping is up to date
+	 */
+	public <T> boolean ensureMapping(String indexName, String type, Class<T> clazz) {
+		JsonObject mapping = buildTypeMappingForClass(clazz, type);
+		Map<?, ?> liveMapping = getMapping(indexName, type);
+
+		JsonObject missing = liveMapping == null ? mapping : MappingDiff.missing(mapping, new Gson().toJsonTree(liveMapping).getAsJsonObject());
+		if (missing == null) {
+			logger.debug("Mapping of {}:{} is up to date", indexName, type);
+			return true;
+		}
+		return putMapping(indexName, type, missing.toString());
+	}
+
+	/**
+	 * Evict cached mapping of an entity class, rebuilt on next use.
+	 * Mappings are built once per entity class, from @Mapping resource or from annotated fields.
+	 * @param clazz Entity class
+	 */
+	public void evictMapping(Class<?> clazz) {
+		mappings.remove(clazz);
+	}
+
+	/**
+	 * Evict all cached mappings, rebuilt on next use.
+	 */
+	public void clearMappings() {
+		mappings.clear();
+	}
+
 	private <T> String buildMappingForClass(Class<T> clazz) {
+		return mappings.computeIfAbsent(clazz, this::doBuildMappingForClass);
+	}
+
+	private JsonObject buildTypeMappingForClass(Class<?> clazz, String type) {
+		JsonObject mapping = new JsonParser().parse(buildMappingForClass(clazz)).getAsJsonObject();
+		// Mapping may be wrapped in its type
+		return mapping.entrySet().size() == 1 && mapping.has(type) ? mapping.getAsJsonObject(type) : mapping;
+	}
+
+	private String doBuildMappingForClass(Class<?> clazz) {
+		String mapping = generatedMappings.get(clazz);
+		return mapping != null ? mapping : buildMappingForEntity(clazz, getPersistentEntityFor(clazz));
+	}
+
+	/**
+	 * Build mapping of an entity, from its @Mapping resource or from its annotated fields.
+	 * @param clazz Entity class
+	 * @param persistentEntity Persistent entity of class
+	 * @return mapping as JSON
+	 */
+	static String buildMappingForEntity(Class<?> clazz, ElasticsearchPersistentEntity<?> persistentEntity) {
 		if (clazz.isAnnotationPresent(Mapping.class)) {
 			String mappingPath = clazz.getAnnotation(Mapping.class).mappingPath();
 			if (hasText(mappingPath)) {
@@ -246,7 +764,6 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 				logger.info("mappingPath in @Mapping has to be defined. Building mappings using @Field");
 			}
 		}
-		ElasticsearchPersistentEntity<Object> persistentEntity = getPersistentEntityFor(clazz);
 
 		try {
 
@@ -266,7 +783,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		}
 	}
 
-	private String xContentBuilderToString(XContentBuilder builder) {
+	private static String xContentBuilderToString(XContentBuilder builder) {
 		builder.close();
 		ByteArrayOutputStream bos = (ByteArrayOutputStream) builder.getOutputStream();
 		return bos.toString();
@@ -376,9 +893,10 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 		ElasticsearchPersistentEntity<Object> persistentEntity = getPersistentEntityFor(clazz);
 
-		String index = indexName == null ? persistentEntity.getIndexName() : indexName;
+		String index = indexName == null ? retrieveIndexNameForId(clazz, "get") : indexName;
 
 		Get.Builder build = new Get.Builder(index, query.getId()).type(persistentEntity.getIndexType());
+		applyRouting(build::setParameter, getScopedRouting());
 
 		DocumentResult result = execute(build.build(), true);
 
@@ -428,6 +946,28 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		return doMultiSearch(queries, clazz, request, mapper);
 	}
 
+	public <T> List<MultiSearchItem<Page<T>>> queryForPageItems(List<SearchQuery> queries, Class<T> clazz) {
+		return queryForPageItems(queries, clazz, resultsMapper);
+	}
+
+	/**
+	 * Execute queries in a single multi search, without failing when some of them fail.
+	 * @param queries Queries
+	 * @param clazz Entity class
+	 * @param mapper Mapper of each search result
+	 * @return page or failure of each query, in order of queries
+	 */
+	public <T> List<MultiSearchItem<Page<T>>> queryForPageItems(List<SearchQuery> queries, Class<T> clazz, JestSearchResultMapper mapper) {
+		List<SearchQuery> queryList = new ArrayList<>(queries);
+		List<Search> searches = new ArrayList<>(queryList.size());
+		for (SearchQuery query : queryList) {
+			searches.add(prepareSearch(prepareSearch(query, clazz), query));
+		}
+		MultiSearchResult result = executeMultiSearch(new MultiSearch.Builder(searches).build());
+		return mapMultiSearchItems(result, queryList.size(),
+				(index, response) -> mapper.mapResults(response, clazz, queryList.get(index).getPageable()));
+	}
+
 	@Override
 	public List<Page<?>> queryForPage(List<SearchQuery> queries, List<Class<?>> classes) {
 		return queryForPage(queries, classes, resultsMapper);
@@ -450,24 +990,77 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	}
 
 	private <T> List<Page<T>> doMultiSearch(List<SearchQuery> queries, Class<T> clazz, MultiSearch request, JestSearchResultMapper resultsMapper) {
-		List<MultiSearchResult.MultiSearchResponse> results = executeMultiSearch(request).getResponses();
-		List<Page<T>> res = new ArrayList<>(queries.size());
-		int c = 0;
-		for (SearchQuery query : queries) {
-			res.add(resultsMapper.mapResults(new ExtendedSearchResult(results.get(c++).searchResult), clazz, query.getPageable()));
-		}
-		return res;
+		List<SearchQuery> queryList = new ArrayList<>(queries);
+		return mapMultiSearchResponses(executeMultiSearch(request), queryList.size(),
+				(index, result) -> resultsMapper.mapResults(result, clazz, queryList.get(index).getPageable()));
 	}
 
 	private List<Page<?>> doMultiSearch(List<SearchQuery> queries, List<Class<?>> classes, MultiSearch request, JestSearchResultMapper resultsMapper) {
-		List<MultiSearchResult.MultiSearchResponse> results = executeMultiSearch(request).getResponses();
-		List<Page<?>> res = new ArrayList<>(queries.size());
-		int c = 0;
-		Iterator<Class<?>> it = classes.iterator();
-		for (SearchQuery query : queries) {
-			res.add(resultsMapper.mapResults(new ExtendedSearchResult(results.get(c++).searchResult), it.next(), query.getPageable()));
+		List<SearchQuery> queryList = new ArrayList<>(queries);
+		List<Class<?>> classList = new ArrayList<>(classes);
+		return mapMultiSearchResponses(executeMultiSearch(request), queryList.size(),
+				(index, result) -> resultsMapper.mapResults(result, classList.get(index), queryList.get(index).getPageable()));
+	}
+
+	/**
+	 * Map each response of multi search, failed responses are reported together in a {@link MultiSearchException}.
+	 */
+	private <P> List<P> mapMultiSearchResponses(MultiSearchResult result, int size, BiFunction<Integer, SearchResult, P> mapper) {
+		List<MultiSearchItem<P>> items = mapMultiSearchItems(result, size, mapper);
+
+		List<P> pages = new ArrayList<>(size);
+		Map<Integer, RuntimeException> failures = new TreeMap<>();
+		for (int i = 0; i < size; i++) {
+			MultiSearchItem<P> item = items.get(i);
+			pages.add(item.getResult());
+			if (item.isFailed()) {
+				failures.put(i, item.getFailure());
+			}
+		}
+
+		if (!failures.isEmpty()) {
+			throw new MultiSearchException(pages, failures);
+		}
+		return pages;
+	}
+
+	/**
+	 * Map each response of multi search with the configured mapping executor, preserving request order.
+	 * Failed responses do not prevent mapping of others.
+	 */
+	private <P> List<MultiSearchItem<P>> mapMultiSearchItems(MultiSearchResult result, int size, BiFunction<Integer, SearchResult, P> mapper) {
+		List<MultiSearchResult.MultiSearchResponse> responses = result.getResponses();
+		Executor executor = size > 1 ? multiSearchMappingExecutor : CALLER_THREAD;
+
+		List<CompletableFuture<P>> futures = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			int index = i;
+			MultiSearchResult.MultiSearchResponse response = index < responses.size() ? responses.get(index) : null;
+			futures.add(CompletableFuture.supplyAsync(() -> mapMultiSearchResponse(result, response, index, mapper), executor));
+		}
+
+		List<MultiSearchItem<P>> items = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			try {
+				items.add(MultiSearchItem.success(futures.get(i).join()));
+			} catch (CompletionException e) {
+				if (!(e.getCause() instanceof RuntimeException)) {
+					throw e;
+				}
+				items.add(MultiSearchItem.failure((RuntimeException) e.getCause()));
+			}
+		}
+		return items;
+	}
+
+	private static <P> P mapMultiSearchResponse(MultiSearchResult result, MultiSearchResult.MultiSearchResponse response, int index, BiFunction<Integer, SearchResult, P> mapper) {
+		if (response == null) {
+			throw new ElasticsearchException("No response for search " + index + " of multi search");
+		}
+		if (response.isError) {
+			throw new JestElasticsearchException("Search " + index + " failed in multi search : " + response.errorMessage, result);
 		}
-		return res;
+		return mapper.apply(index, new ExtendedSearchResult(response.searchResult));
 	}
 
 	public <T> AggregatedPage<T> queryForPage(SearchQuery query, Class<T> clazz, JestSearchResultMapper mapper) {
@@ -502,21 +1095,132 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 	@Override
 	public <T> List<String> queryForIds(SearchQuery query) {
-		SearchSourceBuilder search = prepareSearch(query).query(query.getQuery()).fetchSource(false);
-		if (query.getFilter() != null) {
-			search.postFilter(query.getFilter());
+		return queryForHitIds(query).getIdList();
+	}
+
+	/**
+	 * Search ids and scores of hits, without source nor stored fields.
+	 * Ids and scores are read from response without mapping hits.
+	 * @param query Query
+	 * @return ids and scores of hits
+	 */
+	public SearchHitIds queryForHitIds(SearchQuery query) {
+		QueryPlan plan = QueryPlan.of(query, filterMode);
+		SearchSourceBuilder search = prepareIdsOnly(prepareSearch(query)).query(plan.getQuery());
+		if (plan.getPostFilter() != null) {
+			search.postFilter(plan.getPostFilter());
 		}
 
 		SearchResult result = executeSearch(query, search);
-		return extractIds(result);
+		return SearchHitIds.from(result.getJsonObject());
+	}
+
+	/**
+	 * Stream ids of all hits of query with a scroll, without source nor stored fields.
+	 * Hits are not sorted unless query has a sort, page size of query is the size of each scroll request.
+	 * @param query Query
+	 * @param clazz Entity class, used for index and type when query has none
+	 * @return iterator of ids
+	 */
+	public <T> CloseableIterator<String> streamIds(SearchQuery query, Class<T> clazz) {
+		final long scrollTimeInMillis = TimeValue.timeValueMinutes(1).millis();
+		// Query is left untouched, indices, types and page size are only set on the scroll request
+		int pageSize = query.getPageable() != null && query.getPageable().isPaged() ? query.getPageable().getPageSize() : DEFAULT_STREAM_IDS_PAGE_SIZE;
+		List<String> indices = !isEmpty(query.getIndices()) ? query.getIndices() : Arrays.asList(retrieveSearchIndexNames(query, clazz));
+		List<String> types = !isEmpty(query.getTypes()) ? query.getTypes() : Arrays.asList(retrieveTypeFromPersistentEntity(clazz));
+
+		SearchSourceBuilder searchSourceBuilder = prepareIdsOnly(prepareScroll(query)).size(pageSize);
+		if (isEmpty(searchSourceBuilder.sorts()) && isEmpty(query.getElasticsearchSorts())) {
+			// Cheapest scroll order
+			searchSourceBuilder.sort("_doc");
+		} else if (!isEmpty(query.getElasticsearchSorts())) {
+			for (SortBuilder sort : query.getElasticsearchSorts()) {
+				searchSourceBuilder.sort(sort);
+			}
+		}
+		final SearchResult firstPage = doScroll(searchSourceBuilder, query, indices, types, pageSize, scrollTimeInMillis);
+
+		return new CloseableIterator<String>() {
+
+			/** Ids of current page. */
+			private SearchHitIds currentIds = SearchHitIds.from(firstPage.getJsonObject());
+
+			/** Position in current page. */
+			private int position;
+
+			/** The scroll id. */
+			private String scrollId = ((ExtendedSearchResult) firstPage).getScrollId();
+
+			/** If all pages are read. */
+			private boolean finished = currentIds.size() == 0;
+
+			@Override
+			public void close() {
+				try {
+					// Clear scroll on cluster only when stream is not finished
+					if (!finished && scrollId != null) {
+						clearScroll(scrollId);
+					}
+				} finally {
+					finished = true;
+					scrollId = null;
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				if (finished) {
+					return false;
+				}
+				if (position == currentIds.size()) {
+					JestResult page = execute(new SearchScroll.Builder(scrollId, scrollTimeInMillis + "ms").build());
+					currentIds = SearchHitIds.from(page.getJsonObject());
+					position = 0;
+					finished = currentIds.size() == 0;
+					if (page.getJsonObject().has("_scroll_id")) {
+						scrollId = page.getJsonObject().get("_scroll_id").getAsString();
+					}
+				}
+				return !finished;
+			}
+
+			@Override
+			public String next() {
+				if (hasNext()) {
+					return currentIds.getIds()[position++];
+				}
+				throw new NoSuchElementException();
+			}
+		};
+	}
+
+	private static SearchSourceBuilder prepareIdsOnly(SearchSourceBuilder searchSourceBuilder) {
+		return searchSourceBuilder.fetchSource(false);
 	}
 
 	@Override
 	public <T> Page<T> queryForPage(CriteriaQuery criteriaQuery, Class<T> clazz) {
-		QueryBuilder elasticsearchQuery = new CriteriaQueryProcessor().createQueryFromCriteria(criteriaQuery.getCriteria());
-		QueryBuilder elasticsearchFilter = new CriteriaFilterProcessor().createFilterFromCriteria(criteriaQuery.getCriteria());
-
 		SearchSourceBuilder searchRequestBuilder = prepareSearch(criteriaQuery, clazz);
+		if (criteriaQuery.getMinScore() > 0) {
+			searchRequestBuilder.minScore(criteriaQuery.getMinScore());
+		}
+
+		SearchResult response = executeSearch(prepareCriteriaSearch(criteriaQuery, searchRequestBuilder));
+		return resultsMapper.mapResults(response, clazz, criteriaQuery.getPageable());
+	}
+
+	/**
+	 * Set query and filter of criteria into search, query is rendered from cache when possible.
+	 */
+	private Search prepareCriteriaSearch(CriteriaQuery criteriaQuery, SearchSourceBuilder searchRequestBuilder) {
+		String cachedQuery = renderCachedQuery(criteriaQuery);
+		if (cachedQuery != null) {
+			return prepareQuery(withQuery(searchRequestBuilder.toString(), cachedQuery), criteriaQuery);
+		}
+
+		QueryPlan plan = QueryPlan.of(criteriaQuery, filterMode);
+		QueryBuilder elasticsearchQuery = plan.getQuery();
+		QueryBuilder elasticsearchFilter = plan.getPostFilter();
 
 		if (elasticsearchQuery != null) {
 			searchRequestBuilder.query(elasticsearchQuery);
@@ -524,15 +1228,10 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 			searchRequestBuilder.query(QueryBuilders.matchAllQuery());
 		}
 
-		if (criteriaQuery.getMinScore() > 0) {
-			searchRequestBuilder.minScore(criteriaQuery.getMinScore());
-		}
-
 		if (elasticsearchFilter != null)
 			searchRequestBuilder.postFilter(elasticsearchFilter);
 
-		SearchResult response = executeSearch(criteriaQuery, searchRequestBuilder);
-		return resultsMapper.mapResults(response, clazz, criteriaQuery.getPageable());
+		return prepareQuery(searchRequestBuilder, criteriaQuery);
 	}
 
 	@Override
@@ -550,6 +1249,31 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		return mapper.mapResults(response, clazz, query.getPageable());
 	}
 
+	public <T> AggregatedPage<T> queryForPage(SearchTemplateQuery query, Class<T> clazz) {
+		return queryForPage(query, clazz, resultsMapper);
+	}
+
+	public <T> AggregatedPage<T> queryForPage(SearchTemplateQuery query, Class<T> clazz, JestSearchResultMapper mapper) {
+		SearchResult response = new ExtendedSearchResult(execute(prepareSearchTemplate(query, clazz)));
+		return mapper.mapResults(response, clazz, query.getPageable());
+	}
+
+	public <T> List<Page<T>> queryForPageWithTemplates(List<SearchTemplateQuery> queries, Class<T> clazz) {
+		return queryForPageWithTemplates(queries, clazz, resultsMapper);
+	}
+
+	public <T> List<Page<T>> queryForPageWithTemplates(List<SearchTemplateQuery> queries, Class<T> clazz, JestSearchResultMapper mapper) {
+		List<SearchTemplateQuery> queryList = new ArrayList<>(queries);
+		List<SearchTemplate> searches = new ArrayList<>(queryList.size());
+		for (SearchTemplateQuery query : queryList) {
+			searches.add(prepareSearchTemplate(query, clazz));
+		}
+
+		MultiSearchResult result = execute(new MultiSearchTemplate.Builder(searches).build());
+		return mapMultiSearchResponses(result, queryList.size(),
+				(index, response) -> mapper.mapResults(response, clazz, queryList.get(index).getPageable()));
+	}
+
 
 	@Override
 	public <T> CloseableIterator<T> stream(CriteriaQuery query, Class<T> clazz) {
@@ -572,6 +1296,93 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		return doStream(scrollTimeInMillis, (ScrolledPage<T>) startScroll(scrollTimeInMillis, query, clazz, mapper), clazz, mapper);
 	}
 
+	/**
+	 * Stream all buckets of a composite aggregation, requested page by page after key of last bucket.
+	 * Only one page of buckets is kept in memory, aggregation size is the number of buckets of a page.
+	 * Filter of query is applied to aggregated documents. Aggregation is not modified, it can be streamed again.
+	 * @param query Query selecting aggregated documents
+	 * @param clazz Entity class
+	 * @param aggregation Composite aggregation
+	 * @return iterator of buckets
+	 */
+	public <T> CloseableIterator<CompositeAggregation.Entry> streamCompositeAggregation(final SearchQuery query, final Class<T> clazz, final CompositeAggregationBuilder aggregation) {
+		Assert.notNull(aggregation, "Aggregation must not be null");
+		final int pageSize = getCompositeSize(aggregation);
+		return new CloseableIterator<CompositeAggregation.Entry>() {
+
+			/** Buckets of current page. */
+			private Iterator<CompositeAggregation.Entry> currentBuckets = Collections.emptyIterator();
+
+			/** Key of last bucket of current page. */
+			private Map<String, Object> afterKey;
+
+			/** If all pages are read. */
+			private boolean finished;
+
+			@Override
+			public void close() {
+				finished = true;
+				currentBuckets = Collections.emptyIterator();
+			}
+
+			@Override
+			public boolean hasNext() {
+				while (!finished && !currentBuckets.hasNext()) {
+					CompositeAggregation page = doCompositeAggregation(query, clazz, aggregation, afterKey);
+					currentBuckets = page.getBuckets().iterator();
+					afterKey = page.getAfterKey();
+					// A partial page is the last one, don't request an empty page
+					finished = afterKey == null || page.getBuckets().size() < pageSize;
+				}
+				return currentBuckets.hasNext();
+			}
+
+			@Override
+			public CompositeAggregation.Entry next() {
+				if (hasNext()) {
+					return currentBuckets.next();
+				}
+				throw new NoSuchElementException();
+			}
+		};
+	}
+
+	/**
+	 * @return number of buckets of a page of composite aggregation
+	 */
+	private static int getCompositeSize(CompositeAggregationBuilder aggregation) {
+		JsonObject composite = new JsonParser().parse(Strings.toString(aggregation)).getAsJsonObject()
+				.getAsJsonObject(aggregation.getName()).getAsJsonObject("composite");
+		return composite.has("size") ? composite.get("size").getAsInt() : 10;
+	}
+
+	private <T> CompositeAggregation doCompositeAggregation(SearchQuery query, Class<T> clazz, CompositeAggregationBuilder aggregation, Map<String, Object> afterKey) {
+		QueryBuilder elasticsearchQuery = query.getQuery() != null ? query.getQuery() : QueryBuilders.matchAllQuery();
+		if (query.getFilter() != null) {
+			elasticsearchQuery = boolQuery().must(elasticsearchQuery).filter(query.getFilter());
+		}
+
+		SearchSourceBuilder searchRequestBuilder = prepareSearchWithoutHits(query, clazz)
+				.from(0)
+				.size(0)
+				.query(elasticsearchQuery)
+				.aggregation(aggregation);
+
+		String source = searchRequestBuilder.toString();
+		if (afterKey != null) {
+			// Set after key in request, aggregation of caller is left as is
+			JsonObject request = new JsonParser().parse(source).getAsJsonObject();
+			request.getAsJsonObject("aggregations").getAsJsonObject(aggregation.getName()).getAsJsonObject("composite")
+					.add("after", new Gson().toJsonTree(afterKey));
+			source = request.toString();
+		}
+
+		AggregatedPage<T> page = resultsMapper.mapResults(executeSearch(prepareQuery(source, query)), clazz, null, Pageable.unpaged());
+		CompositeAggregation composite = page.getAggregation(aggregation.getName(), CompositeAggregation.class);
+		Assert.notNull(composite, "No composite aggregation " + aggregation.getName() + " in response");
+		return composite;
+	}
+
 	private <T> CloseableIterator<T> doStream(final long scrollTimeInMillis, final ScrolledPage<T> page, final Class<T> clazz, final JestResultsMapper mapper) {
 		return new CloseableIterator<T>() {
 
@@ -632,30 +1443,65 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 	@Override
 	public <T> long count(CriteriaQuery criteriaQuery, Class<T> clazz) {
-		QueryBuilder elasticsearchQuery = new CriteriaQueryProcessor().createQueryFromCriteria(criteriaQuery.getCriteria());
-		QueryBuilder elasticsearchFilter = new CriteriaFilterProcessor().createFilterFromCriteria(criteriaQuery.getCriteria());
+		String cachedQuery = renderCachedQuery(criteriaQuery);
+		if (cachedQuery != null) {
+			CountResult result = execute(prepareCount(criteriaQuery, clazz).query(withQuery("{}", cachedQuery)).build());
+			return result.getCount().longValue();
+		}
+
+		QueryPlan plan = QueryPlan.of(criteriaQuery, filterMode);
+		QueryBuilder elasticsearchQuery = plan.getQuery();
+		QueryBuilder elasticsearchFilter = plan.getPostFilter();
 
 		if (elasticsearchFilter == null) {
 			return doCount(prepareCount(criteriaQuery, clazz), elasticsearchQuery);
 		} else {
 			// filter could not be set into CountRequestBuilder, convert request into search request
-			return doCount(prepareSearch(criteriaQuery, clazz), elasticsearchQuery, elasticsearchFilter);
+			return doSearchCount(prepareSearchWithoutHits(criteriaQuery, clazz), criteriaQuery, elasticsearchQuery, elasticsearchFilter, 0).getCount();
 		}
 	}
 
 	@Override
 	public <T> long count(SearchQuery searchQuery, Class<T> clazz) {
-		QueryBuilder elasticsearchQuery = searchQuery.getQuery();
-		QueryBuilder elasticsearchFilter = searchQuery.getFilter();
+		QueryPlan plan = QueryPlan.of(searchQuery, filterMode);
+		QueryBuilder elasticsearchQuery = plan.getQuery();
+		QueryBuilder elasticsearchFilter = plan.getPostFilter();
 
 		if (elasticsearchFilter == null) {
 			return doCount(prepareCount(searchQuery, clazz), elasticsearchQuery);
 		} else {
 			// filter could not be set into CountRequestBuilder, convert request into search request
-			return doCount(prepareSearch(searchQuery, clazz), elasticsearchQuery, elasticsearchFilter);
+			return doSearchCount(prepareSearchWithoutHits(searchQuery, clazz), searchQuery, elasticsearchQuery, elasticsearchFilter, 0).getCount();
 		}
 	}
 
+	/**
+	 * Count documents matching query, stopping count on each shard after limit is reached.
+	 * Count runs as a search without hits, batched with other searches when search batching is enabled.
+	 * @param criteriaQuery Query
+	 * @param clazz Entity class
+	 * @param limit Number of documents after which each shard stops counting
+	 * @return hit count, lower bound of actual count when a shard stopped counting
+	 */
+	public <T> HitCount countUpTo(CriteriaQuery criteriaQuery, Class<T> clazz, int limit) {
+		Assert.isTrue(limit > 0, "Limit must be greater than 0");
+		QueryPlan plan = QueryPlan.of(criteriaQuery, FilterMode.FILTER_CONTEXT);
+		return doSearchCount(prepareSearchWithoutHits(criteriaQuery, clazz), criteriaQuery, plan.getQuery(), plan.getPostFilter(), limit);
+	}
+
+	/**
+	 * Count documents matching query, stopping count on each shard after limit is reached.
+	 * Count runs as a search without hits, batched with other searches when search batching is enabled.
+	 * @param searchQuery Query
+	 * @param clazz Entity class
+	 * @param limit Number of documents after which each shard stops counting
+	 * @return hit count, lower bound of actual count when a shard stopped counting
+	 */
+	public <T> HitCount countUpTo(SearchQuery searchQuery, Class<T> clazz, int limit) {
+		Assert.isTrue(limit > 0, "Limit must be greater than 0");
+		return doSearchCount(prepareSearchWithoutHits(searchQuery, clazz), searchQuery, searchQuery.getQuery(), searchQuery.getFilter(), limit);
+	}
+
 	@Override
 	public <T> long count(CriteriaQuery query) {
 		return count(query, null);
@@ -675,22 +1521,34 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		return result.getCount().longValue();
 	}
 
-	private long doCount(SearchSourceBuilder searchRequestBuilder, QueryBuilder elasticsearchQuery, QueryBuilder elasticsearchFilter) {
-		if (elasticsearchQuery != null) {
-			searchRequestBuilder.query(elasticsearchQuery);
-		} else {
-			searchRequestBuilder.query(QueryBuilders.matchAllQuery());
+	private <T> SearchSourceBuilder prepareSearchWithoutHits(Query query, Class<T> clazz) {
+		setPersistentEntityIndexAndType(query, clazz);
+		SearchSourceBuilder searchRequestBuilder = searchSourceBuilderProvider.get();
+		if (query.getMinScore() > 0) {
+			searchRequestBuilder.minScore(query.getMinScore());
 		}
+		return searchRequestBuilder;
+	}
+
+	private HitCount doSearchCount(SearchSourceBuilder searchRequestBuilder, Query query, QueryBuilder elasticsearchQuery, QueryBuilder elasticsearchFilter, int limit) {
+		// Only number of hits is needed, filter can be applied in filter context
+		QueryBuilder countQuery = elasticsearchQuery != null ? elasticsearchQuery : QueryBuilders.matchAllQuery();
 		if (elasticsearchFilter != null) {
-			searchRequestBuilder.postFilter(elasticsearchFilter);
+			countQuery = boolQuery().must(countQuery).filter(elasticsearchFilter);
 		}
 
-		CountResult result = execute(new Count.Builder().query(searchRequestBuilder.toString()).build());
-		return result.getCount().longValue();
+		searchRequestBuilder.from(0).size(0).trackTotalHits(true).query(countQuery);
+		if (limit > 0) {
+			searchRequestBuilder.terminateAfter(limit);
+		}
+
+		SearchResult result = executeSearch(query, searchRequestBuilder);
+		JsonElement terminatedEarly = result.getJsonObject().get("terminated_early");
+		return new HitCount(result.getTotal(), terminatedEarly == null || !terminatedEarly.getAsBoolean());
 	}
 
 	private <T> Count.Builder prepareCount(Query query, Class<T> clazz) {
-		String indexName[] = !isEmpty(query.getIndices()) ? query.getIndices().toArray(new String[query.getIndices().size()]) : retrieveIndexNameFromPersistentEntity(clazz);
+		String indexName[] = !isEmpty(query.getIndices()) ? query.getIndices().toArray(new String[query.getIndices().size()]) : retrieveSearchIndexNames(query, clazz);
 		String types[] = !isEmpty(query.getTypes()) ? query.getTypes().toArray(new String[query.getTypes().size()]) : retrieveTypeFromPersistentEntity(clazz);
 
 		Assert.notNull(indexName, "No index defined for Query");
@@ -699,6 +1557,17 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		if (types != null) {
 			countRequestBuilder.addTypes(Arrays.asList(types));
 		}
+
+		SearchOptions options = resolveSearchOptions(query);
+		if (options.getPreference() != null) {
+			countRequestBuilder.setParameter(PREFERENCE, options.getPreference());
+		}
+		if (options.getRouting() != null) {
+			countRequestBuilder.setParameter(ROUTING, options.getRouting());
+		}
+		if (isResolvedIndices(Arrays.asList(indexName))) {
+			countRequestBuilder.setParameter(IGNORE_UNAVAILABLE, true);
+		}
 		return countRequestBuilder;
 	}
 
@@ -718,7 +1587,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 	private <T> MultiDocumentResult getMultiResponse(Query searchQuery, Class<T> clazz) {
 
-		String indexName = !isEmpty(searchQuery.getIndices()) ? searchQuery.getIndices().get(0) : getPersistentEntityFor(clazz).getIndexName();
+		String indexName = !isEmpty(searchQuery.getIndices()) ? searchQuery.getIndices().get(0) : retrieveIndexNameForId(clazz, "multi get");
 		String type = !isEmpty(searchQuery.getTypes()) ? searchQuery.getTypes().get(0) : getPersistentEntityFor(clazz).getIndexType();
 
 		Assert.notNull(indexName, "No index defined for Query");
@@ -726,6 +1595,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		Assert.notEmpty(searchQuery.getIds(), "No Id define for Query");
 
 		MultiGet.Builder.ById builder = new MultiGet.Builder.ById(indexName, type).addId(searchQuery.getIds());
+		applyRouting(builder::setParameter, getScopedRouting());
 
 		return new MultiDocumentResult(execute(builder.build()));
 	}
@@ -816,14 +1686,16 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		}
 
 		if (bulkOptions.getRoutingId() != null) {
-			bulkRequest.setParameter("routing_id", bulkOptions.getRoutingId());
+			bulkRequest.setParameter(ROUTING, bulkOptions.getRoutingId());
 		}
 
 	}
 
 	@Override
 	public String delete(String indexName, String type, String id) {
-		return execute(new Delete.Builder(id).index(indexName).type(type).build(), true).getId();
+		Delete.Builder delete = new Delete.Builder(id).index(indexName).type(type);
+		applyRouting(delete::setParameter, getScopedRouting());
+		return execute(delete.build(), true).getId();
 	}
 
 	@Override
@@ -835,10 +1707,29 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		delete(deleteQuery, clazz);
 	}
 
+	/**
+	 * Delete document of entity, from index and with routing of entity (as when entity was indexed).
+	 * Unlike deletes by id, this delete honors the {@link com.github.vanroy.springdata.jest.annotations.Routing} property of entity.
+	 * @param entity Entity to delete
+	 * @return id of deleted document
+	 */
+	public String deleteEntity(Object entity) {
+		Assert.notNull(entity, "Entity must not be null");
+		String id = getPersistentEntityId(entity);
+		Assert.notNull(id, "Entity must have an id");
+
+		Delete.Builder delete = new Delete.Builder(id)
+				.index(retrieveIndexName(entity))
+				.type(retrieveTypeFromPersistentEntity(entity.getClass())[0]);
+		String routing = routingResolver.resolveRouting(entity);
+		applyRouting(delete::setParameter, routing != null ? routing : getScopedRouting());
+		return execute(delete.build(), true).getId();
+	}
+
 	@Override
 	public <T> String delete(Class<T> clazz, String id) {
 		ElasticsearchPersistentEntity persistentEntity = getPersistentEntityFor(clazz);
-		return delete(persistentEntity.getIndexName(), persistentEntity.getIndexType(), id);
+		return delete(retrieveIndexNameForId(clazz, "delete"), persistentEntity.getIndexType(), id);
 	}
 
 	@Override
@@ -904,8 +1795,11 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		if (!ids.isEmpty()) {
 
 			Bulk.Builder bulk = new Bulk.Builder();
+			String routing = getScopedRouting();
 			for (String id : ids) {
-				bulk.addAction(new Delete.Builder(id).index(indexName).type(typeName).build());
+				Delete.Builder delete = new Delete.Builder(id).index(indexName).type(typeName);
+				applyRouting(delete::setParameter, routing);
+				bulk.addAction(delete.build());
 			}
 			execute(bulk.build());
 		}
@@ -928,7 +1822,8 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	@Override
 	public boolean deleteIndex(String indexName) {
 		Assert.notNull(indexName, "No index defined for delete operation");
-		return indexExists(indexName) && executeWithAcknowledge(new DeleteIndex.Builder(indexName).build());
+		// Cached lookups are not used, a stale negative lookup would skip the delete
+		return executeWithAcknowledge(new IndicesExists.Builder(indexName).build()) && executeWithInvalidation(new DeleteIndex.Builder(indexName).build());
 	}
 
 	@Override
@@ -938,11 +1833,19 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 	@Override
 	public boolean indexExists(String indexName) {
+		ClusterMetadataCache cache = this.clusterMetadataCache;
+		if (cache != null) {
+			return cache.indexExists(indexName, () -> executeWithAcknowledge(new IndicesExists.Builder(indexName).build()));
+		}
 		return executeWithAcknowledge(new IndicesExists.Builder(indexName).build());
 	}
 
 	@Override
 	public boolean typeExists(String index, String type) {
+		ClusterMetadataCache cache = this.clusterMetadataCache;
+		if (cache != null) {
+			return cache.typeExists(index, type, () -> executeWithAcknowledge(new TypeExist.Builder(index).addType(type).build()));
+		}
 		return executeWithAcknowledge(new TypeExist.Builder(index).addType(type).build());
 	}
 
@@ -993,8 +1896,9 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		Assert.notNull(criteriaQuery.getTypes(), "No type define for Query");
 		Assert.notNull(criteriaQuery.getPageable(), "Query.pageable is required for scan & scroll");
 
-		QueryBuilder elasticsearchQuery = new CriteriaQueryProcessor().createQueryFromCriteria(criteriaQuery.getCriteria());
-		QueryBuilder elasticsearchFilter = new CriteriaFilterProcessor().createFilterFromCriteria(criteriaQuery.getCriteria());
+		QueryPlan plan = QueryPlan.of(criteriaQuery, filterMode);
+		QueryBuilder elasticsearchQuery = plan.getQuery();
+		QueryBuilder elasticsearchFilter = plan.getPostFilter();
 
 		searchSourceBuilder.query(elasticsearchQuery != null ? elasticsearchQuery : QueryBuilders.matchAllQuery());
 
@@ -1007,6 +1911,11 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 				addIndices(criteriaQuery.getIndices()).
 				setParameter(Parameters.SIZE, criteriaQuery.getPageable().getPageSize()).
 				setParameter(Parameters.SCROLL, scrollTimeInMillis + "ms");
+		// Shard request cache is not allowed on scroll searches
+		applySearchOptions(search::setParameter, resolveSearchOptions(criteriaQuery), false);
+		if (isResolvedIndices(criteriaQuery.getIndices())) {
+			search.setParameter(IGNORE_UNAVAILABLE, true);
+		}
 
 		return new ExtendedSearchResult(execute(search.build()));
 	}
@@ -1016,18 +1925,29 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		Assert.notNull(searchQuery.getTypes(), "No type define for Query");
 		Assert.notNull(searchQuery.getPageable(), "Query.pageable is required for scan & scroll");
 
-		QueryBuilder elasticsearchQuery = searchQuery.getQuery();
+		return doScroll(searchSourceBuilder, searchQuery, searchQuery.getIndices(), searchQuery.getTypes(), searchQuery.getPageable().getPageSize(), scrollTimeInMillis);
+	}
+
+	private SearchResult doScroll(SearchSourceBuilder searchSourceBuilder, SearchQuery searchQuery, List<String> indices, List<String> types, int pageSize,
+			long scrollTimeInMillis) {
+		QueryPlan plan = QueryPlan.of(searchQuery, filterMode);
+		QueryBuilder elasticsearchQuery = plan.getQuery();
 		searchSourceBuilder.query(elasticsearchQuery != null ? elasticsearchQuery : QueryBuilders.matchAllQuery());
 
-		if (searchQuery.getFilter() != null) {
-			searchSourceBuilder.postFilter(searchQuery.getFilter());
+		if (plan.getPostFilter() != null) {
+			searchSourceBuilder.postFilter(plan.getPostFilter());
 		}
 
 		Search.Builder search = new Search.Builder(searchSourceBuilder.toString()).
-				addTypes(searchQuery.getTypes()).
-				addIndices(searchQuery.getIndices()).
-				setParameter(Parameters.SIZE, searchQuery.getPageable().getPageSize()).
+				addTypes(types).
+				addIndices(indices).
+				setParameter(Parameters.SIZE, pageSize).
 				setParameter(Parameters.SCROLL, scrollTimeInMillis + "ms");
+		// Shard request cache is not allowed on scroll searches
+		applySearchOptions(search::setParameter, resolveSearchOptions(searchQuery), false);
+		if (isResolvedIndices(indices)) {
+			search.setParameter(IGNORE_UNAVAILABLE, true);
+		}
 
 		return new ExtendedSearchResult(execute(search.build()));
 	}
@@ -1146,7 +2066,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		} else if (hasText(query.getIndexRouting())) {
 			aliasAction.addIndexRouting(query.getIndexRouting());
 		}
-		return executeWithAcknowledge(new ModifyAliases.Builder(aliasAction.build()).build());
+		return executeWithInvalidation(new ModifyAliases.Builder(aliasAction.build()).build());
 	}
 
 	@Override
@@ -1155,7 +2075,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		Assert.notNull(query.getAliasName(), "No alias defined");
 
 		RemoveAliasMapping removeAlias = new RemoveAliasMapping.Builder(query.getIndexName(), query.getAliasName()).build();
-		return executeWithAcknowledge(new ModifyAliases.Builder(removeAlias).build());
+		return executeWithInvalidation(new ModifyAliases.Builder(removeAlias).build());
 	}
 
 	@Override
@@ -1177,6 +2097,14 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	}
 
 	public Set<String> getIndicesFromAlias(String aliasName) {
+		ClusterMetadataCache cache = this.clusterMetadataCache;
+		if (cache != null) {
+			return Collections.unmodifiableSet(cache.getIndicesFromAlias(aliasName, () -> doGetIndicesFromAlias(aliasName)));
+		}
+		return doGetIndicesFromAlias(aliasName);
+	}
+
+	private Set<String> doGetIndicesFromAlias(String aliasName) {
 		JestResult result = execute(new GetAliases.Builder().addIndex(aliasName).build());
 		if (!result.isSucceeded()) {
 			return Collections.emptySet();
@@ -1190,6 +2118,24 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		return indices;
 	}
 
+	/**
+	 * Execute a change of indices, mappings or aliases, and invalidate cached cluster metadata once applied.
+	 */
+	private boolean executeWithInvalidation(Action<?> action) {
+		try {
+			return executeWithAcknowledge(action);
+		} finally {
+			invalidateClusterMetadata();
+		}
+	}
+
+	private void invalidateClusterMetadata() {
+		ClusterMetadataCache cache = this.clusterMetadataCache;
+		if (cache != null) {
+			cache.invalidate();
+		}
+	}
+
 	@SuppressWarnings("unchecked")
 	public ElasticsearchPersistentEntity<Object> getPersistentEntityFor(Class clazz) {
 		Assert.isTrue(clazz.isAnnotationPresent(Document.class), "Unable to identify index name. " + clazz.getSimpleName()
@@ -1263,8 +2209,9 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	}
 
 	private Search prepareSearch(SearchSourceBuilder searchSourceBuilder, SearchQuery searchQuery) {
-		if (searchQuery.getFilter() != null) {
-			searchSourceBuilder.postFilter(searchQuery.getFilter());
+		QueryPlan plan = QueryPlan.of(searchQuery, filterMode);
+		if (plan.getPostFilter() != null) {
+			searchSourceBuilder.postFilter(plan.getPostFilter());
 		}
 
 		if (!isEmpty(searchQuery.getElasticsearchSorts())) {
@@ -1307,21 +2254,107 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 			searchSourceBuilder.collapse(searchQuery.getCollapseBuilder());
 		}
 
-		SearchSourceBuilder request = searchSourceBuilder.query(searchQuery.getQuery());
+		SearchSourceBuilder request = searchSourceBuilder.query(plan.getQuery());
 		return prepareQuery(request, searchQuery);
 	}
 
 	private Search prepareQuery(SearchSourceBuilder request, Query query) {
-		Search.Builder search = new Search.Builder(request.toString());
+		return prepareQuery(request.toString(), query);
+	}
+
+	private Search prepareQuery(String source, Query query) {
+		Search.Builder search = new Search.Builder(source);
 		if (query != null) {
 			search.
 					addTypes(query.getTypes()).
 					addIndices(query.getIndices()).
 					setSearchType(SearchType.valueOf(query.getSearchType().name()));
 		}
+		applySearchOptions(search::setParameter, resolveSearchOptions(query), true);
+		if (query != null && isResolvedIndices(query.getIndices())) {
+			search.setParameter(IGNORE_UNAVAILABLE, true);
+		}
 		return search.build();
 	}
 
+	private SearchOptions resolveSearchOptions(Query query) {
+		SearchOptions options = searchOptionsPolicy.resolve(query);
+		return options.merge(scopedSearchOptions.get());
+	}
+
+	/**
+	 * @param action Parameter setter of the action builder, Jest builders have no public common type
+	 */
+	private static void applySearchOptions(BiConsumer<String, Object> action, SearchOptions options, boolean requestCache) {
+		if (requestCache && options.getRequestCache() != null) {
+			action.accept(REQUEST_CACHE, options.getRequestCache());
+		}
+		if (options.getPreference() != null) {
+			action.accept(PREFERENCE, options.getPreference());
+		}
+		if (options.getRouting() != null) {
+			action.accept(ROUTING, options.getRouting());
+		}
+		if (options.getBatchedReduceSize() != null) {
+			action.accept(BATCHED_REDUCE_SIZE, options.getBatchedReduceSize());
+		}
+	}
+
+	private String getScopedRouting() {
+		SearchOptions options = scopedSearchOptions.get();
+		return options != null ? options.getRouting() : null;
+	}
+
+	private static void applyRouting(BiConsumer<String, Object> action, String routing) {
+		if (routing != null) {
+			action.accept(ROUTING, routing);
+		}
+	}
+
+	/**
+	 * @return true if search has no option which cannot be sent in a multi search header
+	 */
+	private static boolean isBatchable(Search search) {
+		return search.getParameter(BATCHED_REDUCE_SIZE).isEmpty();
+	}
+
+	private SearchTemplate prepareSearchTemplate(SearchTemplateQuery query, Class<?> clazz) {
+		setPersistentEntityIndexAndType(query, clazz);
+
+		Map<String, Object> params = new LinkedHashMap<>(query.getParams());
+		if (query.getPageable() != null && query.getPageable().isPaged()) {
+			params.putIfAbsent("from", query.getPageable().getOffset());
+			params.putIfAbsent("size", query.getPageable().getPageSize());
+		}
+
+		SearchTemplate.Builder search = new SearchTemplate.Builder(query.getTemplateId())
+				.params(params)
+				.addIndices(query.getIndices())
+				.addTypes(query.getTypes());
+		applySearchOptions(search::setParameter, resolveSearchOptions(query), true);
+		return search.build();
+	}
+
+	/**
+	 * @return query of criteria rendered from cache, or null if cache is disabled or criteria is not cacheable
+	 */
+	private String renderCachedQuery(CriteriaQuery criteriaQuery) {
+		CriteriaQueryCache cache = this.criteriaQueryCache;
+		return cache != null ? cache.render(criteriaQuery.getCriteria(), filterMode) : null;
+	}
+
+	/**
+	 * Add JSON query to JSON search source.
+	 */
+	private static String withQuery(String source, String query) {
+		StringBuilder request = new StringBuilder(source.length() + query.length() + 10).append("{\"query\":").append(query);
+		String remaining = source.substring(source.indexOf('{') + 1).trim();
+		if (!remaining.equals("}")) {
+			request.append(',');
+		}
+		return request.append(remaining).toString();
+	}
+
 	private SearchResult doSearch(SearchSourceBuilder searchSourceBuilder, SearchQuery searchQuery) {
 		return executeSearch(prepareSearch(searchSourceBuilder, searchQuery));
 	}
@@ -1331,16 +2364,20 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	}
 
 	private SearchResult executeSearch(Search search) {
+		MultiSearchBatcher batcher = this.searchBatcher;
+		if (batcher != null && isBatchable(search)) {
+			return batcher.search(search);
+		}
 		return new ExtendedSearchResult(execute(search));
 	}
 
-	private MultiSearchResult executeMultiSearch(MultiSearch search) {
+	private MultiSearchResult executeMultiSearch(Action<MultiSearchResult> search) {
 		return execute(search);
 	}
 
 	private Index prepareIndex(IndexQuery query) {
 		try {
-			String indexName = !hasText(query.getIndexName()) ? retrieveIndexNameFromPersistentEntity(query.getObject().getClass())[0] : query.getIndexName();
+			String indexName = !hasText(query.getIndexName()) ? retrieveIndexName(query.getObject()) : query.getIndexName();
 			String type = !hasText(query.getType()) ? retrieveTypeFromPersistentEntity(query.getObject().getClass())[0]
 					: query.getType();
 
@@ -1379,6 +2416,12 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 				indexBuilder.setParameter(Parameters.PARENT, query.getParentId());
 			}
 
+			String routing = null;
+			if (query.getObject() != null && isDocument(query.getObject().getClass())) {
+				routing = routingResolver.resolveRouting(query.getObject());
+			}
+			applyRouting(indexBuilder::setParameter, routing != null ? routing : getScopedRouting());
+
 			return indexBuilder.build();
 		} catch (IOException e) {
 			throw new ElasticsearchException("failed to index the document [id: " + query.getId() + "]", e);
@@ -1386,7 +2429,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	}
 
 	private Update prepareUpdate(UpdateQuery query) {
-		String indexName = hasText(query.getIndexName()) ? query.getIndexName() : getPersistentEntityFor(query.getClazz()).getIndexName();
+		String indexName = hasText(query.getIndexName()) ? query.getIndexName() : retrieveIndexNameForId(query.getClazz(), "update");
 		String type = hasText(query.getType()) ? query.getType() : getPersistentEntityFor(query.getClazz()).getIndexType();
 		Assert.notNull(indexName, "No index defined for Query");
 		Assert.notNull(type, "No type define for Query");
@@ -1422,6 +2465,8 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 			if(retryOnConflict > 0) {
 				updateBuilder.setParameter("retry_on_conflict", retryOnConflict);
 			}
+			String routing = query.getUpdateRequest().routing();
+			applyRouting(updateBuilder::setParameter, routing != null ? routing : getScopedRouting());
 
 			return updateBuilder.build();
 		} catch (IOException e) {
@@ -1445,18 +2490,22 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	}
 
 	private <T> boolean createIndexWithSettings(Class<T> clazz) {
+		return createIndex(getPersistentEntityFor(clazz).getIndexName(), getSettings(clazz));
+	}
+
+	private <T> Object getSettings(Class<T> clazz) {
 		if (clazz.isAnnotationPresent(Setting.class)) {
 			String settingPath = clazz.getAnnotation(Setting.class).settingPath();
 			if (hasText(settingPath)) {
 				String settings = readFileFromClasspath(settingPath);
 				if (hasText(settings)) {
-					return createIndex(getPersistentEntityFor(clazz).getIndexName(), settings);
+					return settings;
 				}
 			} else {
 				logger.info("settingPath in @Setting has to be defined. Using default instead.");
 			}
 		}
-		return createIndex(getPersistentEntityFor(clazz).getIndexName(), getDefaultSettings(getPersistentEntityFor(clazz)));
+		return getDefaultSettings(getPersistentEntityFor(clazz));
 	}
 
 	@SuppressWarnings("unchecked")
@@ -1496,7 +2545,7 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 
 	private void setPersistentEntityIndexAndType(Query query, Class clazz) {
 		if (query.getIndices().isEmpty()) {
-			query.addIndices(retrieveIndexNameFromPersistentEntity(clazz));
+			query.addIndices(retrieveSearchIndexNames(query, clazz));
 		}
 		if (query.getTypes().isEmpty()) {
 			query.addTypes(retrieveTypeFromPersistentEntity(clazz));
@@ -1504,6 +2553,46 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 	}
 
 
+	private String retrieveIndexName(Object entity) {
+		IndexNameResolver resolver = this.indexNameResolver;
+		String indexName = resolver != null ? resolver.resolveIndexName(entity) : null;
+		return indexName != null ? indexName : retrieveIndexNameFromPersistentEntity(entity.getClass())[0];
+	}
+
+	/**
+	 * @return index of entity class for an operation by id, which cannot find document among indices of a read alias
+	 */
+	private String retrieveIndexNameForId(Class<?> clazz, String operation) {
+		IndexNameResolver resolver = this.indexNameResolver;
+		if (resolver != null && resolver.resolvesIndexNames(clazz)) {
+			throw new IllegalStateException("Entities of " + clazz.getSimpleName() + " are written in several indices, "
+					+ operation + " by id needs the index name of the document");
+		}
+		return getPersistentEntityFor(clazz).getIndexName();
+	}
+
+	/**
+	 * @return true if all indices were resolved by index name resolver, missing ones are then ignored
+	 */
+	private boolean isResolvedIndices(Collection<String> indexNames) {
+		IndexNameResolver resolver = this.indexNameResolver;
+		if (resolver == null || indexNames.isEmpty()) {
+			return false;
+		}
+		for (String indexName : indexNames) {
+			if (!resolver.isResolvedIndexName(indexName)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String[] retrieveSearchIndexNames(Query query, Class clazz) {
+		IndexNameResolver resolver = this.indexNameResolver;
+		String[] indexNames = resolver != null ? resolver.resolveSearchIndexNames(clazz, query) : null;
+		return indexNames != null ? indexNames : retrieveIndexNameFromPersistentEntity(clazz);
+	}
+
 	private String[] retrieveIndexNameFromPersistentEntity(Class clazz) {
 		if (clazz != null) {
 			return new String[]{getPersistentEntityFor(clazz).getIndexName()};
@@ -1517,14 +2606,4 @@ public class JestElasticsearchTemplate implements ElasticsearchOperations, Appli
 		}
 		return null;
 	}
-
-	private List<String> extractIds(SearchResult result) {
-		List<String> ids = new ArrayList<>();
-		for (SearchResult.Hit<JsonObject, Void> hit : result.getHits(JsonObject.class)) {
-			if (hit != null) {
-				ids.add(hit.id);
-			}
-		}
-		return ids;
-	}
 }
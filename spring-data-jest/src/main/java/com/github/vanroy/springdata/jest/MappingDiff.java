@@ -0,0 +1,95 @@
+package com.github.vanroy.springdata.jest;
+
+import java.util.Map;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Structural difference between an expected mapping and an index mapping.
+ *
+ * @author Julien Roy
+ */
+final class MappingDiff {
+
+	private static final String PROPERTIES = "properties";
+	private static final String FIELDS = "fields";
+	private static final String DYNAMIC_TEMPLATES = "dynamic_templates";
+
+	private MappingDiff() {
+	}
+
+	/**
+	 * Fields of expected mapping missing in index mapping, with their parent objects.
+	 * Fields existing in both mappings are not compared, their parameters cannot be updated.
+	 * Dynamic templates are replaced as a whole when different.
+	 * @param expected Expected mapping of a type
+	 * @param actual Index mapping of a type
+	 * @return mapping with missing fields only, or null if nothing is missing
+	 */
+	static JsonObject missing(JsonObject expected, JsonObject actual) {
+		JsonObject missing = new JsonObject();
+
+		JsonObject properties = missingFields(expected.getAsJsonObject(PROPERTIES), actual.getAsJsonObject(PROPERTIES));
+		if (properties != null) {
+			missing.add(PROPERTIES, properties);
+		}
+
+		JsonElement dynamicTemplates = expected.get(DYNAMIC_TEMPLATES);
+		if (dynamicTemplates != null && !dynamicTemplates.equals(actual.get(DYNAMIC_TEMPLATES))) {
+			missing.add(DYNAMIC_TEMPLATES, dynamicTemplates);
+		}
+
+		return missing.entrySet().isEmpty() ? null : missing;
+	}
+
+	private static JsonObject missingFields(JsonObject expected, JsonObject actual) {
+		if (expected == null) {
+			return null;
+		}
+		if (actual == null) {
+			return expected;
+		}
+
+		JsonObject missing = new JsonObject();
+		for (Map.Entry<String, JsonElement> field : expected.entrySet()) {
+			JsonElement actualField = actual.get(field.getKey());
+			if (actualField == null || !actualField.isJsonObject()) {
+				missing.add(field.getKey(), field.getValue());
+				continue;
+			}
+
+			JsonObject missingField = missingField(field.getValue().getAsJsonObject(), actualField.getAsJsonObject());
+			if (missingField != null) {
+				missing.add(field.getKey(), missingField);
+			}
+		}
+		return missing.entrySet().isEmpty() ? null : missing;
+	}
+
+	/**
+	 * Existing field with its missing object properties or sub fields.
+	 */
+	private static JsonObject missingField(JsonObject expected, JsonObject actual) {
+		JsonObject properties = missingFields(expected.getAsJsonObject(PROPERTIES), actual.getAsJsonObject(PROPERTIES));
+		JsonObject fields = missingFields(expected.getAsJsonObject(FIELDS), actual.getAsJsonObject(FIELDS));
+		if (properties == null && fields == null) {
+			return null;
+		}
+
+		// Sub fields are sent with parameters of their field, required by put mapping
+		JsonObject missing = new JsonObject();
+		for (Map.Entry<String, JsonElement> parameter : expected.entrySet()) {
+			if (!PROPERTIES.equals(parameter.getKey()) && !FIELDS.equals(parameter.getKey())) {
+				missing.add(parameter.getKey(), parameter.getValue());
+			}
+		}
+		if (properties != null) {
+			missing.add(PROPERTIES, properties);
+		}
+		if (fields != null) {
+			missing.add(FIELDS, fields);
+		}
+		return missing;
+	}
+}
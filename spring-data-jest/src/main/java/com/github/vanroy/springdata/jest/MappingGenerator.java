@@ -0,0 +1,101 @@
+package com.github.vanroy.springdata.jest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.elasticsearch.annotations.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
+/**
+ * Generate mappings of @Document entities at build time, with same rules as mappings built at runtime by the template.
+ *
+ * Mappings are written as classpath resources with an index of generated entities,
+ * then the template reads them instead of building mappings with reflection.
+ * Run it after compilation, for example in process-classes phase with exec-maven-plugin :
+ * MappingGenerator &lt;output directory&gt; &lt;base package&gt;...
+ *
+ * @author Julien Roy
+ */
+public final class MappingGenerator {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappingGenerator.class);
+
+	private MappingGenerator() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Assert.isTrue(args.length >= 2, "Usage: MappingGenerator <output directory> <base package>...");
+		List<Class<?>> entities = generate(Paths.get(args[0]), Arrays.copyOfRange(args, 1, args.length));
+		logger.info("Generated mappings of {} entities in {}", entities.size(), args[0]);
+	}
+
+	/**
+	 * Generate mappings of @Document entities found in packages.
+	 * @param outputDirectory Root directory of generated resources, usually target/classes
+	 * @param basePackages Packages scanned for entities
+	 * @return entities with generated mapping
+	 * @throws IOException if a resource cannot be written
+	 */
+	public static List<Class<?>> generate(Path outputDirectory, String... basePackages) throws IOException {
+		List<Class<?>> entities = findEntities(basePackages);
+		generate(outputDirectory, entities);
+		return entities;
+	}
+
+	/**
+	 * @param basePackages Packages scanned for entities
+	 * @return concrete @Document entities of packages, sorted by name
+	 */
+	static List<Class<?>> findEntities(String... basePackages) {
+		ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+		scanner.addIncludeFilter(new AnnotationTypeFilter(Document.class));
+
+		Set<String> classNames = new TreeSet<>();
+		for (String basePackage : basePackages) {
+			for (BeanDefinition candidate : scanner.findCandidateComponents(basePackage)) {
+				classNames.add(candidate.getBeanClassName());
+			}
+		}
+
+		List<Class<?>> entities = new ArrayList<>();
+		for (String className : classNames) {
+			entities.add(ClassUtils.resolveClassName(className, ClassUtils.getDefaultClassLoader()));
+		}
+		return entities;
+	}
+
+	/**
+	 * Generate mappings of entities.
+	 * @param outputDirectory Root directory of generated resources, usually target/classes
+	 * @param entities Entity classes
+	 * @throws IOException if a resource cannot be written
+	 */
+	public static void generate(Path outputDirectory, List<Class<?>> entities) throws IOException {
+		SimpleElasticsearchMappingContext mappingContext = new SimpleElasticsearchMappingContext();
+		Path mappingsDirectory = outputDirectory.resolve(GeneratedMappings.MAPPINGS_LOCATION);
+		Files.createDirectories(mappingsDirectory);
+
+		StringBuilder index = new StringBuilder();
+		for (Class<?> entity : entities) {
+			String mapping = JestElasticsearchTemplate.buildMappingForEntity(entity, mappingContext.getRequiredPersistentEntity(entity));
+			Files.write(mappingsDirectory.resolve(entity.getName() + ".json"), mapping.getBytes(StandardCharsets.UTF_8));
+			index.append(entity.getName()).append('\n');
+		}
+		Files.write(outputDirectory.resolve(GeneratedMappings.INDEX_LOCATION), index.toString().getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,190 @@
+package com.github.vanroy.springdata.jest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import com.github.vanroy.springdata.jest.action.MultiSearchWithOptions;
+import com.github.vanroy.springdata.jest.exception.JestElasticsearchException;
+import io.searchbox.action.Action;
+import com.github.vanroy.springdata.jest.internal.ExtendedSearchResult;
+import io.searchbox.core.MultiSearchResult;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+import org.springframework.util.Assert;
+
+/**
+ * Collect searches issued concurrently by different threads and send them as a single MultiSearch.
+ *
+ * A search is sent immediately when no other batch is in flight, so an idle client never waits for the window.
+ * Otherwise, the first thread of a batch waits until the batch window elapses or no batch is in flight anymore,
+ * then sends all searches collected meanwhile.
+ * A batch is sent immediately by the thread which fills it up to max batch size.
+ * No background thread is used, each search is sent by one of the calling threads.
+ * Each search keeps its own options (routing, preference...) in its multi search header.
+ *
+ * @author Julien Roy
+ */
+class MultiSearchBatcher {
+
+	private final int maxBatchSize;
+	private final long windowNanos;
+	private final Function<Action<MultiSearchResult>, MultiSearchResult> executor;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition batchDispatched = lock.newCondition();
+	private List<PendingSearch> pending = new ArrayList<>();
+	private boolean leaderWaiting;
+	private int batchesInFlight;
+
+	/**
+	 * @param maxBatchSize Max number of searches in a MultiSearch
+	 * @param windowNanos Time to wait for other searches before sending a batch
+	 * @param executor Function executing a MultiSearch
+	 */
+	MultiSearchBatcher(int maxBatchSize, long windowNanos, Function<Action<MultiSearchResult>, MultiSearchResult> executor) {
+		Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than 0");
+		Assert.isTrue(windowNanos >= 0, "Batch window must be positive");
+		this.maxBatchSize = maxBatchSize;
+		this.windowNanos = windowNanos;
+		this.executor = executor;
+	}
+
+	/**
+	 * Execute search as part of a batch, blocking until its response is available.
+	 * @param search Search to execute
+	 * @return search result
+	 */
+	SearchResult search(Search search) {
+
+		PendingSearch pendingSearch = new PendingSearch(search);
+		List<PendingSearch> fullBatch = null;
+		boolean leader = false;
+
+		lock.lock();
+		try {
+			pending.add(pendingSearch);
+			if (pending.size() >= maxBatchSize || (batchesInFlight == 0 && !leaderWaiting)) {
+				// Batch is full, or nothing else is pending: no reason to wait
+				fullBatch = drain();
+			} else if (!leaderWaiting) {
+				leaderWaiting = true;
+				leader = true;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		if (fullBatch != null) {
+			execute(fullBatch);
+		}
+
+		if (leader) {
+			execute(awaitBatch(pendingSearch));
+		}
+
+		try {
+			return pendingSearch.future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	private List<PendingSearch> awaitBatch(PendingSearch leaderSearch) {
+		lock.lock();
+		try {
+			long remaining = windowNanos;
+			while (remaining > 0 && !leaderSearch.dispatched && batchesInFlight > 0) {
+				remaining = batchDispatched.awaitNanos(remaining);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		try {
+			leaderWaiting = false;
+			return drain();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Take all pending searches, must be called with lock held.
+	 */
+	private List<PendingSearch> drain() {
+		List<PendingSearch> batch = pending;
+		pending = new ArrayList<>();
+		for (PendingSearch pendingSearch : batch) {
+			pendingSearch.dispatched = true;
+		}
+		if (!batch.isEmpty()) {
+			batchesInFlight++;
+		}
+		batchDispatched.signalAll();
+		return batch;
+	}
+
+	private void completed() {
+		lock.lock();
+		try {
+			batchesInFlight--;
+			// Waiting leader can send its batch right away
+			batchDispatched.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private void execute(List<PendingSearch> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		try {
+			List<Search> searches = new ArrayList<>(batch.size());
+			for (PendingSearch pendingSearch : batch) {
+				searches.add(pendingSearch.search);
+			}
+
+			MultiSearchResult result = executor.apply(new MultiSearchWithOptions.Builder(searches).build());
+			List<MultiSearchResult.MultiSearchResponse> responses = result.getResponses();
+
+			for (int i = 0; i < batch.size(); i++) {
+				CompletableFuture<SearchResult> future = batch.get(i).future;
+				if (i >= responses.size()) {
+					future.completeExceptionally(new ElasticsearchException("No response for search " + i + " of multi search"));
+				} else if (responses.get(i).isError) {
+					future.completeExceptionally(new JestElasticsearchException("Search failed in multi search : " + responses.get(i).errorMessage, result));
+				} else {
+					future.complete(new ExtendedSearchResult(responses.get(i).searchResult));
+				}
+			}
+		} catch (RuntimeException e) {
+			for (PendingSearch pendingSearch : batch) {
+				pendingSearch.future.completeExceptionally(e);
+			}
+		} finally {
+			completed();
+		}
+	}
+
+	private static final class PendingSearch {
+
+		private final Search search;
+		private final CompletableFuture<SearchResult> future = new CompletableFuture<>();
+		private boolean dispatched;
+
+		private PendingSearch(Search search) {
+			this.search = search;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.github.vanroy.springdata.jest;
+
+/**
+ * Outcome of one search of a multi search: its result, or its failure.
+ *
+ * @author Julien Roy
+ */
+public final class MultiSearchItem<T> {
+
+	private final T result;
+	private final RuntimeException failure;
+
+	private MultiSearchItem(T result, RuntimeException failure) {
+		this.result = result;
+		this.failure = failure;
+	}
+
+	public static <T> MultiSearchItem<T> success(T result) {
+		return new MultiSearchItem<>(result, null);
+	}
+
+	public static <T> MultiSearchItem<T> failure(RuntimeException failure) {
+		return new MultiSearchItem<>(null, failure);
+	}
+
+	/**
+	 * @return true if search failed
+	 */
+	public boolean isFailed() {
+		return failure != null;
+	}
+
+	/**
+	 * @return result of search, null if search failed
+	 */
+	public T getResult() {
+		return result;
+	}
+
+	/**
+	 * @return failure of search, null if search succeeded
+	 */
+	public RuntimeException getFailure() {
+		return failure;
+	}
+
+	@Override
+	public String toString() {
+		return failure != null ? "failure: " + failure.getMessage() : "success: " + result;
+	}
+}
@@ -0,0 +1,95 @@
+package com.github.vanroy.springdata.jest;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.springframework.util.CollectionUtils.isEmpty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+
+/**
+ * Query and post filter of a search request, placed according to {@link FilterMode}.
+ *
+ * @author Julien Roy
+ */
+final class QueryPlan {
+
+	private final QueryBuilder query;
+	private final QueryBuilder postFilter;
+
+	private QueryPlan(QueryBuilder query, QueryBuilder postFilter) {
+		this.query = query;
+		this.postFilter = postFilter;
+	}
+
+	static QueryPlan of(CriteriaQuery criteriaQuery, FilterMode filterMode) {
+		return of(criteriaQuery.getCriteria(), filterMode, new CriteriaQueryProcessor());
+	}
+
+	static QueryPlan of(Criteria criteria, FilterMode filterMode, CriteriaQueryProcessor queryProcessor) {
+		if (filterMode == FilterMode.POST_FILTER) {
+			return new QueryPlan(
+					queryProcessor.createQueryFromCriteria(criteria),
+					new CriteriaFilterProcessor().createFilterFromCriteria(criteria)
+			);
+		}
+
+		List<QueryBuilder> filterClauses = new ArrayList<>();
+		QueryBuilder query = queryProcessor.createQueryFromCriteria(criteria, filterClauses);
+		filterClauses.add(new CriteriaFilterProcessor().createFilterFromCriteria(criteria));
+		filterClauses.removeIf(QueryPlan::isEmptyClause);
+
+		if (filterClauses.isEmpty()) {
+			return new QueryPlan(query, null);
+		}
+
+		// Query built from criteria is always a new bool query, filter clauses can be added to it
+		BoolQueryBuilder boolQuery = query != null ? (BoolQueryBuilder) query : boolQuery();
+		for (QueryBuilder filterClause : filterClauses) {
+			boolQuery.filter(filterClause);
+		}
+		return new QueryPlan(boolQuery, null);
+	}
+
+	static QueryPlan of(SearchQuery searchQuery, FilterMode filterMode) {
+		QueryBuilder query = searchQuery.getQuery();
+		QueryBuilder filter = searchQuery.getFilter();
+
+		// Aggregations are computed before post filter, moving filter into query would change their results
+		if (filter == null || filterMode == FilterMode.POST_FILTER || !isEmpty(searchQuery.getAggregations())) {
+			return new QueryPlan(query, filter);
+		}
+
+		BoolQueryBuilder boolQuery = boolQuery().filter(filter);
+		if (query != null) {
+			boolQuery.must(query);
+		}
+		return new QueryPlan(boolQuery, null);
+	}
+
+	/**
+	 * @return true if clause is missing, or is a bool query without clause (filter processor creates one for criteria without filter)
+	 */
+	private static boolean isEmptyClause(QueryBuilder clause) {
+		return clause == null || (clause instanceof BoolQueryBuilder && !((BoolQueryBuilder) clause).hasClauses());
+	}
+
+	/**
+	 * @return query, null if request has no query
+	 */
+	QueryBuilder getQuery() {
+		return query;
+	}
+
+	/**
+	 * @return post filter, null if request has no post filter
+	 */
+	QueryBuilder getPostFilter() {
+		return postFilter;
+	}
+}
@@ -0,0 +1,101 @@
+package com.github.vanroy.springdata.jest;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * Options of a reindex of an alias in a new index.
+ *
+ * @author Julien Roy
+ */
+public final class ReindexOptions {
+
+	private final int slices;
+	private final float requestsPerSecond;
+	private final long pollIntervalMillis;
+	private final boolean deleteSourceIndices;
+
+	private ReindexOptions(Builder builder) {
+		this.slices = builder.slices;
+		this.requestsPerSecond = builder.requestsPerSecond;
+		this.pollIntervalMillis = builder.pollIntervalMillis;
+		this.deleteSourceIndices = builder.deleteSourceIndices;
+	}
+
+	/**
+	 * @return options with automatic slicing, no throttle and a poll each second
+	 */
+	public static ReindexOptions defaults() {
+		return builder().build();
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return number of parallel slices, 0 to let Elasticsearch choose
+	 */
+	public int getSlices() {
+		return slices;
+	}
+
+	/**
+	 * @return throttle of reindex sub requests, negative for no throttle
+	 */
+	public float getRequestsPerSecond() {
+		return requestsPerSecond;
+	}
+
+	/**
+	 * @return time between two polls of reindex task, in milliseconds
+	 */
+	public long getPollIntervalMillis() {
+		return pollIntervalMillis;
+	}
+
+	/**
+	 * @return true to delete indices previously pointed by alias once alias is swapped
+	 */
+	public boolean isDeleteSourceIndices() {
+		return deleteSourceIndices;
+	}
+
+	public static final class Builder {
+
+		private int slices = 0;
+		private float requestsPerSecond = -1;
+		private long pollIntervalMillis = 1000;
+		private boolean deleteSourceIndices = false;
+
+		private Builder() {
+		}
+
+		public Builder slices(int slices) {
+			Assert.isTrue(slices >= 0, "Slices must not be negative");
+			this.slices = slices;
+			return this;
+		}
+
+		public Builder requestsPerSecond(float requestsPerSecond) {
+			this.requestsPerSecond = requestsPerSecond;
+			return this;
+		}
+
+		public Builder pollInterval(long pollInterval, TimeUnit unit) {
+			Assert.isTrue(pollInterval >= 0, "Poll interval must not be negative");
+			this.pollIntervalMillis = unit.toMillis(pollInterval);
+			return this;
+		}
+
+		public Builder deleteSourceIndices(boolean deleteSourceIndices) {
+			this.deleteSourceIndices = deleteSourceIndices;
+			return this;
+		}
+
+		public ReindexOptions build() {
+			return new ReindexOptions(this);
+		}
+	}
+}
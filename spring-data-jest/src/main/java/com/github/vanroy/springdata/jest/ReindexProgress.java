@@ -0,0 +1,124 @@
+package com.github.vanroy.springdata.jest;
+
+import java.util.Collections;
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Progress of a reindex of an alias in a new index, updated at each poll of reindex task.
+ *
+ * @author Julien Roy
+ */
+public final class ReindexProgress {
+
+	private final String alias;
+	private final Set<String> sourceIndices;
+	private final String destIndex;
+	private final long startTime = System.currentTimeMillis();
+
+	private volatile long total;
+	private volatile long created;
+	private volatile long updated;
+	private volatile long deleted;
+	private volatile long versionConflicts;
+	private volatile long batches;
+	private volatile boolean completed;
+	private volatile long endTime;
+
+	ReindexProgress(String alias, Set<String> sourceIndices, String destIndex) {
+		this.alias = alias;
+		this.sourceIndices = Collections.unmodifiableSet(sourceIndices);
+		this.destIndex = destIndex;
+	}
+
+	/**
+	 * Update counts from status of reindex task.
+	 */
+	void update(JsonObject status) {
+		this.total = getLong(status, "total");
+		this.created = getLong(status, "created");
+		this.updated = getLong(status, "updated");
+		this.deleted = getLong(status, "deleted");
+		this.versionConflicts = getLong(status, "version_conflicts");
+		this.batches = getLong(status, "batches");
+	}
+
+	void complete() {
+		this.endTime = System.currentTimeMillis();
+		this.completed = true;
+	}
+
+	private static long getLong(JsonObject status, String name) {
+		JsonElement value = status.get(name);
+		return value == null || value.isJsonNull() ? 0 : value.getAsLong();
+	}
+
+	public String getAlias() {
+		return alias;
+	}
+
+	public Set<String> getSourceIndices() {
+		return sourceIndices;
+	}
+
+	public String getDestIndex() {
+		return destIndex;
+	}
+
+	/**
+	 * @return number of documents to reindex
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * @return number of documents created, updated or deleted in destination index
+	 */
+	public long getProcessed() {
+		return created + updated + deleted;
+	}
+
+	public long getCreated() {
+		return created;
+	}
+
+	public long getUpdated() {
+		return updated;
+	}
+
+	public long getDeleted() {
+		return deleted;
+	}
+
+	public long getVersionConflicts() {
+		return versionConflicts;
+	}
+
+	public long getBatches() {
+		return batches;
+	}
+
+	/**
+	 * @return ratio of processed documents, between 0 and 1
+	 */
+	public double getRatio() {
+		return completed ? 1 : total == 0 ? 0 : (double) getProcessed() / total;
+	}
+
+	/**
+	 * @return duration of reindex, elapsed until now if not completed, in milliseconds
+	 */
+	public long getElapsedMillis() {
+		return (completed ? endTime : System.currentTimeMillis()) - startTime;
+	}
+
+	/**
+	 * @return true once alias is swapped to destination index
+	 */
+	public boolean isCompleted() {
+		return completed;
+	}
+}
@@ -0,0 +1,16 @@
+package com.github.vanroy.springdata.jest;
+
+/**
+ * Resolve routing of documents from entities.
+ *
+ * @author Julien Roy
+ */
+@FunctionalInterface
+public interface RoutingResolver {
+
+	/**
+	 * @param entity Entity
+	 * @return routing of entity, or null for default routing (by id)
+	 */
+	String resolveRouting(Object entity);
+}
@@ -0,0 +1,87 @@
+package com.github.vanroy.springdata.jest;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Ids and scores of search hits, read from response without mapping hits.
+ *
+ * @author Julien Roy
+ */
+public final class SearchHitIds {
+
+	private static final SearchHitIds EMPTY = new SearchHitIds(new String[0], new float[0], 0);
+
+	private final String[] ids;
+	private final float[] scores;
+	private final long total;
+
+	SearchHitIds(String[] ids, float[] scores, long total) {
+		this.ids = ids;
+		this.scores = scores;
+		this.total = total;
+	}
+
+	/**
+	 * @param response JSON search or scroll response
+	 * @return ids and scores of hits of response
+	 */
+	static SearchHitIds from(JsonObject response) {
+		JsonObject hits = response != null ? response.getAsJsonObject("hits") : null;
+		if (hits == null) {
+			return EMPTY;
+		}
+
+		JsonElement totalElement = hits.get("total");
+		long total = totalElement == null || totalElement.isJsonNull() ? 0 : totalElement.isJsonObject() ? totalElement.getAsJsonObject().get("value").getAsLong() : totalElement.getAsLong();
+
+		JsonArray hitArray = hits.getAsJsonArray("hits");
+		if (hitArray == null || hitArray.size() == 0) {
+			return new SearchHitIds(EMPTY.ids, EMPTY.scores, total);
+		}
+
+		String[] ids = new String[hitArray.size()];
+		float[] scores = new float[hitArray.size()];
+		for (int i = 0; i < ids.length; i++) {
+			JsonObject hit = hitArray.get(i).getAsJsonObject();
+			ids[i] = hit.get("_id").getAsString();
+			JsonElement score = hit.get("_score");
+			scores[i] = score == null || score.isJsonNull() ? Float.NaN : score.getAsFloat();
+		}
+		return new SearchHitIds(ids, scores, total);
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	/**
+	 * @return ids of hits, array must not be modified
+	 */
+	public String[] getIds() {
+		return ids;
+	}
+
+	public List<String> getIdList() {
+		return ids.length == 0 ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(ids));
+	}
+
+	/**
+	 * @return scores of hits, NaN when scores are not computed, array must not be modified
+	 */
+	public float[] getScores() {
+		return scores;
+	}
+
+	/**
+	 * @return total number of hits matching query
+	 */
+	public long getTotal() {
+		return total;
+	}
+}
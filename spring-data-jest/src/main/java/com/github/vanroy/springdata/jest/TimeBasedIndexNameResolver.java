@@ -0,0 +1,264 @@
+package com.github.vanroy.springdata.jest;
+
+import java.text.ParsePosition;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.util.Assert;
+
+/**
+ * Resolve index names of append only entities written in time based indices (hourly, daily, monthly...).
+ *
+ * Entities are written in index named by formatting their time property (in UTC) with pattern of their class.
+ * Criteria queries with a range on time property only search indices of this range,
+ * other queries search index of entity class, which should be an alias of all time based indices.
+ *
+ * @author Julien Roy
+ */
+public class TimeBasedIndexNameResolver implements IndexNameResolver {
+
+	private static final int MAX_CACHED_NAMES = 10_000;
+
+	private final MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext;
+	private final Clock clock;
+	private final Map<Class<?>, TimeBasedIndex> indices = new ConcurrentHashMap<>();
+	private int maxSearchIndices = 100;
+
+	public TimeBasedIndexNameResolver(MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext) {
+		this(mappingContext, Clock.systemUTC());
+	}
+
+	public TimeBasedIndexNameResolver(MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext, Clock clock) {
+		this.mappingContext = mappingContext;
+		this.clock = clock;
+	}
+
+	/**
+	 * Write entities of class in time based indices.
+	 * @param clazz Entity class
+	 * @param timeProperty Name of time property (Date, Instant, java.time date, or epoch millis)
+	 * @param indexPattern Pattern of index names (DateTimeFormatter pattern, ex : 'events-'yyyy.MM.dd)
+	 * @param unit Period of an index, must match most precise field of pattern
+	 * @return this resolver
+	 */
+	public TimeBasedIndexNameResolver register(Class<?> clazz, String timeProperty, String indexPattern, ChronoUnit unit) {
+		Assert.hasText(timeProperty, "Time property must not be empty");
+		Assert.hasText(indexPattern, "Index pattern must not be empty");
+		Assert.notNull(unit, "Unit must not be null");
+
+		ElasticsearchPersistentProperty property = mappingContext.getRequiredPersistentEntity(clazz).getRequiredPersistentProperty(timeProperty);
+		indices.put(clazz, new TimeBasedIndex(property, DateTimeFormatter.ofPattern(indexPattern).withZone(ZoneOffset.UTC), unit, wildcardPattern(indexPattern)));
+		return this;
+	}
+
+	/**
+	 * @param maxSearchIndices Max number of indices searched by a query with a range, index of entity class is searched above
+	 */
+	public void setMaxSearchIndices(int maxSearchIndices) {
+		Assert.isTrue(maxSearchIndices > 0, "Max search indices must be greater than 0");
+		this.maxSearchIndices = maxSearchIndices;
+	}
+
+	@Override
+	public String resolveIndexName(Object entity) {
+		TimeBasedIndex index = entity != null ? indices.get(entity.getClass()) : null;
+		if (index == null) {
+			return null;
+		}
+
+		Object value = mappingContext.getRequiredPersistentEntity(entity.getClass()).getPropertyAccessor(entity).getProperty(index.property);
+		Instant time = toInstant(value);
+		return time != null ? index.format(time) : null;
+	}
+
+	@Override
+	public String[] resolveSearchIndexNames(Class<?> clazz, Query query) {
+		TimeBasedIndex index = clazz != null ? indices.get(clazz) : null;
+		if (index == null || !(query instanceof CriteriaQuery) || ((CriteriaQuery) query).getCriteria() == null) {
+			return null;
+		}
+
+		Instant from = null;
+		Instant to = null;
+		for (Criteria criteria : ((CriteriaQuery) query).getCriteria().getCriteriaChain()) {
+			if (criteria.isOr()) {
+				// Range may not restrict all results
+				return null;
+			}
+			if (criteria.isNegating() || criteria.getField() == null || !index.property.getName().equals(criteria.getField().getName())) {
+				continue;
+			}
+			for (Criteria.CriteriaEntry entry : criteria.getQueryCriteriaEntries()) {
+				switch (entry.getKey()) {
+					case BETWEEN:
+						Object[] bounds = (Object[]) entry.getValue();
+						from = max(from, toInstant(bounds[0]));
+						to = min(to, toInstant(bounds[1]));
+						break;
+					case GREATER:
+					case GREATER_EQUAL:
+						from = max(from, toInstant(entry.getValue()));
+						break;
+					case LESS:
+					case LESS_EQUAL:
+						to = min(to, toInstant(entry.getValue()));
+						break;
+					default:
+						break;
+				}
+			}
+		}
+
+		if (from == null) {
+			return null;
+		}
+		// Entities are append only, there is no index after current period
+		Instant now = clock.instant();
+		if (to == null || to.isAfter(now)) {
+			to = now;
+		}
+		if (to.isBefore(from)) {
+			return new String[]{index.format(from)};
+		}
+
+		Set<String> names = new LinkedHashSet<>();
+		for (ZonedDateTime time = from.atZone(ZoneOffset.UTC); !time.toInstant().isAfter(to); time = time.plus(1, index.unit)) {
+			names.add(index.format(time.toInstant()));
+			if (names.size() > maxSearchIndices) {
+				return null;
+			}
+		}
+		names.add(index.format(to));
+		return names.size() > maxSearchIndices ? null : names.toArray(new String[0]);
+	}
+
+	@Override
+	public boolean resolvesIndexNames(Class<?> clazz) {
+		return clazz != null && indices.containsKey(clazz);
+	}
+
+	/**
+	 * @return leading quoted literal of index pattern followed by a wildcard (ex : events-* for 'events-'yyyy.MM.dd),
+	 * null if index pattern does not start with a literal
+	 */
+	@Override
+	public String getIndexPattern(Class<?> clazz) {
+		TimeBasedIndex index = clazz != null ? indices.get(clazz) : null;
+		return index != null ? index.wildcardPattern : null;
+	}
+
+	@Override
+	public boolean isResolvedIndexName(String indexName) {
+		for (TimeBasedIndex index : indices.values()) {
+			if (index.matches(indexName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return leading quoted literal of a DateTimeFormatter pattern followed by a wildcard, null if pattern starts with a field
+	 */
+	private static String wildcardPattern(String indexPattern) {
+		StringBuilder prefix = new StringBuilder();
+		int position = 0;
+		while (position < indexPattern.length() && indexPattern.charAt(position) == '\'') {
+			int end = indexPattern.indexOf('\'', position + 1);
+			if (end < 0) {
+				break;
+			}
+			// Two quotes are an escaped quote
+			prefix.append(end == position + 1 ? "'" : indexPattern.substring(position + 1, end));
+			position = end + 1;
+		}
+		// A bare wildcard would match indices of other entities
+		return prefix.length() > 0 ? prefix + "*" : null;
+	}
+
+	private static Instant max(Instant current, Instant value) {
+		return current == null || (value != null && value.isAfter(current)) ? value : current;
+	}
+
+	private static Instant min(Instant current, Instant value) {
+		return current == null || (value != null && value.isBefore(current)) ? value : current;
+	}
+
+	private static Instant toInstant(Object value) {
+		if (value instanceof Date) {
+			return ((Date) value).toInstant();
+		} else if (value instanceof Instant) {
+			return (Instant) value;
+		} else if (value instanceof Number) {
+			return Instant.ofEpochMilli(((Number) value).longValue());
+		} else if (value instanceof LocalDateTime) {
+			return ((LocalDateTime) value).toInstant(ZoneOffset.UTC);
+		} else if (value instanceof LocalDate) {
+			return ((LocalDate) value).atStartOfDay(ZoneOffset.UTC).toInstant();
+		} else if (value instanceof TemporalAccessor) {
+			return Instant.from((TemporalAccessor) value);
+		}
+		return null;
+	}
+
+	private static final class TimeBasedIndex {
+
+		private final ElasticsearchPersistentProperty property;
+		private final DateTimeFormatter formatter;
+		private final ChronoUnit unit;
+		private final long periodMillis;
+		private final String wildcardPattern;
+		private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+		private TimeBasedIndex(ElasticsearchPersistentProperty property, DateTimeFormatter formatter, ChronoUnit unit, String wildcardPattern) {
+			this.property = property;
+			this.formatter = formatter;
+			this.unit = unit;
+			this.wildcardPattern = wildcardPattern;
+			// In UTC, periods up to a day have a fixed duration, names of longer periods are not cached
+			this.periodMillis = unit.getDuration().compareTo(ChronoUnit.DAYS.getDuration()) <= 0 ? unit.getDuration().toMillis() : 0;
+		}
+
+		boolean matches(String indexName) {
+			// Parse without resolving fields, nor throwing exceptions
+			ParsePosition position = new ParsePosition(0);
+			return formatter.parseUnresolved(indexName, position) != null
+					&& position.getErrorIndex() < 0 && position.getIndex() == indexName.length();
+		}
+
+		String format(Instant time) {
+			if (periodMillis == 0) {
+				return formatter.format(time);
+			}
+
+			long period = Math.floorDiv(time.toEpochMilli(), periodMillis);
+			String name = names.get(period);
+			if (name == null) {
+				name = formatter.format(time);
+				if (names.size() >= MAX_CACHED_NAMES) {
+					names.clear();
+				}
+				names.put(period, name);
+			}
+			return name;
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package com.github.vanroy.springdata.jest.action;
+
+import com.google.gson.Gson;
+import io.searchbox.action.AbstractAction;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.config.ElasticsearchVersion;
+import org.springframework.util.Assert;
+
+/**
+ * Get status of a task (_tasks/{taskId}).
+ *
+ * @author Julien Roy
+ */
+public class GetTask extends AbstractAction<JestResult> {
+
+	private final String taskId;
+
+	protected GetTask(Builder builder) {
+		super(builder);
+		this.taskId = builder.taskId;
+	}
+
+	@Override
+	public JestResult createNewElasticSearchResult(String responseBody, int statusCode, String reasonPhrase, Gson gson) {
+		return createNewElasticSearchResult(new JestResult(gson), responseBody, statusCode, reasonPhrase, gson);
+	}
+
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		return super.buildURI(elasticsearchVersion) + "/_tasks/" + taskId;
+	}
+
+	@Override
+	public String getRestMethodName() {
+		return "GET";
+	}
+
+	public static class Builder extends AbstractAction.Builder<GetTask, Builder> {
+
+		private final String taskId;
+
+		/**
+		 * @param taskId Task id (node:id)
+		 */
+		public Builder(String taskId) {
+			Assert.hasText(taskId, "Task id must not be empty");
+			this.taskId = taskId;
+		}
+
+		@Override
+		public GetTask build() {
+			return new GetTask(this);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.github.vanroy.springdata.jest.action;
+
+import com.google.gson.Gson;
+import io.searchbox.action.AbstractAction;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.config.ElasticsearchVersion;
+
+/**
+ * List all indices with their aliases (_aliases), indices without alias included.
+ *
+ * @author Julien Roy
+ */
+public class ListAliases extends AbstractAction<JestResult> {
+
+	protected ListAliases(Builder builder) {
+		super(builder);
+	}
+
+	@Override
+	public JestResult createNewElasticSearchResult(String responseBody, int statusCode, String reasonPhrase, Gson gson) {
+		return createNewElasticSearchResult(new JestResult(gson), responseBody, statusCode, reasonPhrase, gson);
+	}
+
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		return super.buildURI(elasticsearchVersion) + "/_aliases";
+	}
+
+	@Override
+	public String getRestMethodName() {
+		return "GET";
+	}
+
+	public static class Builder extends AbstractAction.Builder<ListAliases, Builder> {
+
+		@Override
+		public ListAliases build() {
+			return new ListAliases(this);
+		}
+	}
+}
@@ -0,0 +1,84 @@
+package com.github.vanroy.springdata.jest.action;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import io.searchbox.action.AbstractAction;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.core.MultiSearchResult;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Several searches with stored search templates in a single request (_msearch/template).
+ *
+ * @author Julien Roy
+ */
+public class MultiSearchTemplate extends AbstractAction<MultiSearchResult> {
+
+	private final List<SearchTemplate> searches;
+
+	protected MultiSearchTemplate(Builder builder) {
+		super(builder);
+		this.searches = builder.searches;
+	}
+
+	@Override
+	public MultiSearchResult createNewElasticSearchResult(String responseBody, int statusCode, String reasonPhrase, Gson gson) {
+		return createNewElasticSearchResult(new MultiSearchResult(gson), responseBody, statusCode, reasonPhrase, gson);
+	}
+
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		return super.buildURI(elasticsearchVersion) + "/_msearch/template";
+	}
+
+	@Override
+	public String getRestMethodName() {
+		return "POST";
+	}
+
+	@Override
+	public String getData(Gson gson) {
+		StringBuilder data = new StringBuilder();
+		for (SearchTemplate search : searches) {
+			JsonObject header = new JsonObject();
+			if (StringUtils.hasText(search.getIndices())) {
+				header.addProperty("index", search.getIndices());
+			}
+			if (StringUtils.hasText(search.getTypes())) {
+				header.addProperty("type", search.getTypes());
+			}
+			data.append(gson.toJson(header)).append('\n')
+					.append(gson.toJson(search.getBody())).append('\n');
+		}
+		return data.toString();
+	}
+
+	public static class Builder extends AbstractAction.Builder<MultiSearchTemplate, Builder> {
+
+		private final List<SearchTemplate> searches = new ArrayList<>();
+
+		public Builder(SearchTemplate search) {
+			this.searches.add(search);
+		}
+
+		public Builder(Collection<? extends SearchTemplate> searches) {
+			Assert.notEmpty(searches, "Searches must not be empty");
+			this.searches.addAll(searches);
+		}
+
+		public Builder addSearch(SearchTemplate search) {
+			this.searches.add(search);
+			return this;
+		}
+
+		@Override
+		public MultiSearchTemplate build() {
+			return new MultiSearchTemplate(this);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.github.vanroy.springdata.jest.action;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.action.AbstractAction;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.core.MultiSearchResult;
+import io.searchbox.core.Search;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Several searches in a single request (_msearch), each one keeping its own options in its header.
+ *
+ * Only options supported by multi search headers are sent, see {@link #HEADER_PARAMETERS}.
+ *
+ * @author Julien Roy
+ */
+public class MultiSearchWithOptions extends AbstractAction<MultiSearchResult> {
+
+	/**
+	 * Search parameters which can be sent in a multi search header.
+	 */
+	public static final List<String> HEADER_PARAMETERS = Arrays.asList("search_type", "request_cache", "preference",
+			"routing", "ignore_unavailable", "allow_no_indices", "expand_wildcards");
+
+	private final List<Search> searches;
+
+	protected MultiSearchWithOptions(Builder builder) {
+		super(builder);
+		this.searches = builder.searches;
+	}
+
+	@Override
+	public MultiSearchResult createNewElasticSearchResult(String responseBody, int statusCode, String reasonPhrase, Gson gson) {
+		return createNewElasticSearchResult(new MultiSearchResult(gson), responseBody, statusCode, reasonPhrase, gson);
+	}
+
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		return super.buildURI(elasticsearchVersion) + "/_msearch";
+	}
+
+	@Override
+	public String getRestMethodName() {
+		return "POST";
+	}
+
+	@Override
+	public String getData(Gson gson) {
+		StringBuilder data = new StringBuilder();
+		for (Search search : searches) {
+			JsonObject header = new JsonObject();
+			if (StringUtils.hasText(search.getIndex())) {
+				header.addProperty("index", search.getIndex());
+			}
+			if (StringUtils.hasText(search.getType())) {
+				header.addProperty("type", search.getType());
+			}
+			for (String parameter : HEADER_PARAMETERS) {
+				Collection<Object> values = search.getParameter(parameter);
+				if (!values.isEmpty()) {
+					header.addProperty(parameter, StringUtils.collectionToCommaDelimitedString(values));
+				}
+			}
+			// Body must fit on a single line
+			data.append(gson.toJson(header)).append('\n')
+					.append(gson.toJson(new JsonParser().parse(search.getData(gson)))).append('\n');
+		}
+		return data.toString();
+	}
+
+	public static class Builder extends AbstractAction.Builder<MultiSearchWithOptions, Builder> {
+
+		private final List<Search> searches = new ArrayList<>();
+
+		public Builder(Collection<? extends Search> searches) {
+			Assert.notEmpty(searches, "Searches must not be empty");
+			this.searches.addAll(searches);
+		}
+
+		@Override
+		public MultiSearchWithOptions build() {
+			return new MultiSearchWithOptions(this);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.github.vanroy.springdata.jest.action;
+
+import com.google.gson.Gson;
+import io.searchbox.action.AbstractAction;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.config.ElasticsearchVersion;
+
+/**
+ * Cheapest request of a node (HEAD /), without response body.
+ *
+ * @author Julien Roy
+ */
+public class Ping extends AbstractAction<JestResult> {
+
+	protected Ping(Builder builder) {
+		super(builder);
+	}
+
+	@Override
+	public JestResult createNewElasticSearchResult(String responseBody, int statusCode, String reasonPhrase, Gson gson) {
+		return createNewElasticSearchResult(new JestResult(gson), responseBody, statusCode, reasonPhrase, gson);
+	}
+
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		return super.buildURI(elasticsearchVersion) + "/";
+	}
+
+	@Override
+	public String getRestMethodName() {
+		return "HEAD";
+	}
+
+	public static class Builder extends AbstractAction.Builder<Ping, Builder> {
+
+		@Override
+		public Ping build() {
+			return new Ping(this);
+		}
+	}
+}
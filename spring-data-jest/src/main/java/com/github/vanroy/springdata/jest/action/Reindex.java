@@ -0,0 +1,93 @@
+package com.github.vanroy.springdata.jest.action;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import io.searchbox.action.AbstractAction;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.config.ElasticsearchVersion;
+import org.springframework.util.Assert;
+
+/**
+ * Copy documents of source indices to a destination index on server side (_reindex), run as a task.
+ *
+ * @author Julien Roy
+ */
+public class Reindex extends AbstractAction<JestResult> {
+
+	protected Reindex(Builder builder) {
+		super(builder);
+
+		Map<String, Object> source = new LinkedHashMap<>();
+		source.put("index", builder.sourceIndices);
+		Map<String, Object> dest = new LinkedHashMap<>();
+		dest.put("index", builder.destIndex);
+
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("source", source);
+		body.put("dest", dest);
+		this.payload = body;
+	}
+
+	@Override
+	public JestResult createNewElasticSearchResult(String responseBody, int statusCode, String reasonPhrase, Gson gson) {
+		return createNewElasticSearchResult(new JestResult(gson), responseBody, statusCode, reasonPhrase, gson);
+	}
+
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		return super.buildURI(elasticsearchVersion) + "/_reindex";
+	}
+
+	@Override
+	public String getRestMethodName() {
+		return "POST";
+	}
+
+	public static class Builder extends AbstractAction.Builder<Reindex, Builder> {
+
+		private final List<String> sourceIndices;
+		private final String destIndex;
+
+		/**
+		 * @param sourceIndices Indices copied
+		 * @param destIndex Index receiving documents
+		 */
+		public Builder(Collection<String> sourceIndices, String destIndex) {
+			Assert.notEmpty(sourceIndices, "Source indices must not be empty");
+			Assert.hasText(destIndex, "Destination index must not be empty");
+			this.sourceIndices = new ArrayList<>(sourceIndices);
+			this.destIndex = destIndex;
+		}
+
+		/**
+		 * @param slices Number of parallel slices, 0 to let Elasticsearch choose
+		 */
+		public Builder slices(int slices) {
+			return setParameter("slices", slices > 0 ? String.valueOf(slices) : "auto");
+		}
+
+		/**
+		 * @param requestsPerSecond Throttle of sub requests, negative for no throttle
+		 */
+		public Builder requestsPerSecond(float requestsPerSecond) {
+			return setParameter("requests_per_second", requestsPerSecond > 0 ? requestsPerSecond : -1);
+		}
+
+		/**
+		 * @param waitForCompletion false to return task id immediately
+		 */
+		public Builder waitForCompletion(boolean waitForCompletion) {
+			return setParameter("wait_for_completion", waitForCompletion);
+		}
+
+		@Override
+		public Reindex build() {
+			return new Reindex(this);
+		}
+	}
+}
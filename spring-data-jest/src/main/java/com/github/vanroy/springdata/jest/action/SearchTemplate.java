@@ -0,0 +1,113 @@
+package com.github.vanroy.springdata.jest.action;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import io.searchbox.action.AbstractAction;
+import io.searchbox.action.AbstractMultiTypeActionBuilder;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.core.SearchResult;
+import org.springframework.util.Assert;
+
+/**
+ * Search with a stored search template (_search/template).
+ *
+ * @author Julien Roy
+ */
+public class SearchTemplate extends AbstractAction<SearchResult> {
+
+	private final String indices;
+	private final String types;
+	private final Map<String, Object> body;
+
+	protected SearchTemplate(Builder builder) {
+		super(builder);
+		this.indexName = builder.getJoinedIndices();
+		this.typeName = builder.getJoinedTypes();
+		// an empty index list is joined as "_all", needed in the URI but not in a multi search header
+		this.indices = builder.hasIndices() ? builder.getJoinedIndices() : "";
+		this.types = builder.getJoinedTypes();
+
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("id", builder.templateId);
+		body.put("params", builder.params);
+		this.body = Collections.unmodifiableMap(body);
+		this.payload = this.body;
+	}
+
+	@Override
+	public SearchResult createNewElasticSearchResult(String responseBody, int statusCode, String reasonPhrase, Gson gson) {
+		return createNewElasticSearchResult(new SearchResult(gson), responseBody, statusCode, reasonPhrase, gson);
+	}
+
+	@Override
+	protected String buildURI(ElasticsearchVersion elasticsearchVersion) {
+		return super.buildURI(elasticsearchVersion) + "/_search/template";
+	}
+
+	@Override
+	public String getPathToResult() {
+		return "hits/hits/_source";
+	}
+
+	@Override
+	public String getRestMethodName() {
+		return "POST";
+	}
+
+	/**
+	 * @return comma separated indices, empty if search targets all indices
+	 */
+	String getIndices() {
+		return indices;
+	}
+
+	/**
+	 * @return comma separated types, empty if search targets all types
+	 */
+	String getTypes() {
+		return types;
+	}
+
+	/**
+	 * @return request body, template id and params
+	 */
+	Map<String, Object> getBody() {
+		return body;
+	}
+
+	public static class Builder extends AbstractMultiTypeActionBuilder<SearchTemplate, Builder> {
+
+		private final String templateId;
+		private final Map<String, Object> params = new LinkedHashMap<>();
+
+		/**
+		 * @param templateId Id of stored search template
+		 */
+		public Builder(String templateId) {
+			Assert.hasText(templateId, "Template id must not be empty");
+			this.templateId = templateId;
+		}
+
+		public Builder param(String name, Object value) {
+			this.params.put(name, value);
+			return this;
+		}
+
+		public Builder params(Map<String, ?> params) {
+			this.params.putAll(params);
+			return this;
+		}
+
+		private boolean hasIndices() {
+			return !indexNames.isEmpty();
+		}
+
+		@Override
+		public SearchTemplate build() {
+			return new SearchTemplate(this);
+		}
+	}
+}
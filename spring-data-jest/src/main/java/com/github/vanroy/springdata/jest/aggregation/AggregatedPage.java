@@ -17,4 +17,19 @@ public interface AggregatedPage<T> extends Page<T>, ScrolledPage<T> {
 	List<? extends Aggregation> getAggregations(Map<String, Class> nameToTypeMap);
 
 	<A extends Aggregation> A getAggregation(String aggName, Class<A> aggType);
+
+	/**
+	 * @return typed results of aggregations, parsed once when response was mapped
+	 */
+	default TypedAggregations getTypedAggregations() {
+		return TypedAggregations.empty();
+	}
+
+	/**
+	 * @param aggNames Names of aggregations, all aggregations if empty
+	 * @return typed results of aggregations
+	 */
+	default TypedAggregations getTypedAggregations(String... aggNames) {
+		return getTypedAggregations().select(aggNames);
+	}
 }
@@ -0,0 +1,140 @@
+package com.github.vanroy.springdata.jest.aggregation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.searchbox.core.search.aggregation.Aggregation;
+import io.searchbox.core.search.aggregation.Bucket;
+
+/**
+ * Page of buckets of a composite aggregation, with key of last bucket to request next page.
+ *
+ * @author Julien Roy
+ */
+public class CompositeAggregation extends Aggregation {
+
+	public static final String TYPE = "composite";
+
+	private final List<Entry> buckets;
+	private final Map<String, Object> afterKey;
+
+	public CompositeAggregation(String name, JsonObject compositeAggregation) {
+		super(name, compositeAggregation);
+
+		List<Entry> buckets = new ArrayList<>();
+		if (compositeAggregation.has("buckets")) {
+			for (JsonElement bucket : compositeAggregation.getAsJsonArray("buckets")) {
+				JsonObject bucketObject = bucket.getAsJsonObject();
+				buckets.add(new Entry(bucketObject, toMap(bucketObject.getAsJsonObject("key")), bucketObject.get("doc_count").getAsLong()));
+			}
+		}
+		this.buckets = Collections.unmodifiableList(buckets);
+		this.afterKey = compositeAggregation.has("after_key") ? toMap(compositeAggregation.getAsJsonObject("after_key")) : null;
+	}
+
+	/**
+	 * @return buckets of page
+	 */
+	public List<Entry> getBuckets() {
+		return buckets;
+	}
+
+	/**
+	 * @return key after which next page starts, null if there is no more bucket
+	 */
+	public Map<String, Object> getAfterKey() {
+		return afterKey;
+	}
+
+	private static Map<String, Object> toMap(JsonObject key) {
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (Map.Entry<String, JsonElement> value : key.entrySet()) {
+			values.put(value.getKey(), toValue(value.getValue()));
+		}
+		return Collections.unmodifiableMap(values);
+	}
+
+	private static Object toValue(JsonElement value) {
+		if (value == null || value.isJsonNull()) {
+			return null;
+		}
+		JsonPrimitive primitive = value.getAsJsonPrimitive();
+		if (primitive.isBoolean()) {
+			return primitive.getAsBoolean();
+		} else if (primitive.isNumber()) {
+			String number = primitive.getAsString();
+			boolean decimal = number.indexOf('.') >= 0 || number.indexOf('e') >= 0 || number.indexOf('E') >= 0;
+			return decimal ? (Object) primitive.getAsDouble() : (Object) primitive.getAsLong();
+		}
+		return primitive.getAsString();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == null) {
+			return false;
+		}
+		if (obj == this) {
+			return true;
+		}
+		if (obj.getClass() != getClass()) {
+			return false;
+		}
+
+		CompositeAggregation rhs = (CompositeAggregation) obj;
+		return super.equals(obj) && Objects.equals(buckets, rhs.buckets) && Objects.equals(afterKey, rhs.afterKey);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(super.hashCode(), buckets, afterKey);
+	}
+
+	/**
+	 * Bucket of a composite aggregation, sub aggregations are available with {@link #getAggregation(String, Class)}.
+	 */
+	public static class Entry extends Bucket {
+
+		private final Map<String, Object> key;
+
+		public Entry(JsonObject bucket, Map<String, Object> key, Long count) {
+			super(bucket, count);
+			this.key = key;
+		}
+
+		/**
+		 * @return values of bucket, by name of source
+		 */
+		public Map<String, Object> getKey() {
+			return key;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == null) {
+				return false;
+			}
+			if (obj == this) {
+				return true;
+			}
+			if (obj.getClass() != getClass()) {
+				return false;
+			}
+
+			Entry rhs = (Entry) obj;
+			return super.equals(obj) && Objects.equals(key, rhs.key);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(super.hashCode(), key);
+		}
+	}
+}
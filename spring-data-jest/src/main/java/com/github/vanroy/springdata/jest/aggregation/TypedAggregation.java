@@ -0,0 +1,92 @@
+package com.github.vanroy.springdata.jest.aggregation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Aggregation result parsed into primitive values : numeric fields (value, doc_count, stats...), sub aggregations and buckets.
+ *
+ * @author Julien Roy
+ */
+public final class TypedAggregation {
+
+	private final String name;
+	private final String[] fieldNames;
+	private final double[] fieldValues;
+	private final Map<String, TypedAggregation> aggregations;
+	private final TypedBuckets buckets;
+
+	TypedAggregation(String name, String[] fieldNames, double[] fieldValues, Map<String, TypedAggregation> aggregations, TypedBuckets buckets) {
+		this.name = name;
+		this.fieldNames = fieldNames;
+		this.fieldValues = fieldValues;
+		this.aggregations = aggregations;
+		this.buckets = buckets;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return value of single value metric (avg, sum, cardinality...), NaN if absent
+	 */
+	public double getValue() {
+		return get("value");
+	}
+
+	/**
+	 * @return number of documents of single bucket aggregation (filter, nested...), 0 if absent
+	 */
+	public long getDocCount() {
+		double docCount = get("doc_count");
+		return Double.isNaN(docCount) ? 0 : (long) docCount;
+	}
+
+	/**
+	 * @param field Numeric field (count, min, max, avg, sum, value...), fields of nested objects are named parent.field
+	 * @return value of field, NaN if absent or null
+	 */
+	public double get(String field) {
+		for (int i = 0; i < fieldNames.length; i++) {
+			if (fieldNames[i].equals(field)) {
+				return fieldValues[i];
+			}
+		}
+		return Double.NaN;
+	}
+
+	/**
+	 * @return sub aggregation of single bucket aggregation, null if absent
+	 */
+	public TypedAggregation getAggregation(String name) {
+		return aggregations.get(name);
+	}
+
+	public Map<String, TypedAggregation> getAggregations() {
+		return Collections.unmodifiableMap(aggregations);
+	}
+
+	/**
+	 * @return buckets of multi bucket aggregation (terms, histogram, range...), null if not a multi bucket aggregation
+	 */
+	public TypedBuckets getBuckets() {
+		return buckets;
+	}
+
+	int fieldCount() {
+		return fieldNames.length;
+	}
+
+	String fieldName(int field) {
+		return fieldNames[field];
+	}
+
+	double fieldValue(int field) {
+		return fieldValues[field];
+	}
+
+	boolean isSingleValue() {
+		return buckets == null && aggregations.isEmpty() && fieldNames.length == 1 && "value".equals(fieldNames[0]);
+	}
+}
@@ -0,0 +1,317 @@
+package com.github.vanroy.springdata.jest.aggregation;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+
+/**
+ * Typed aggregations of a search response, parsed in a single pass over response.
+ * Only requested aggregations are parsed, others are skipped.
+ *
+ * @author Julien Roy
+ */
+public final class TypedAggregations {
+
+	private static final TypedAggregations EMPTY = new TypedAggregations(Collections.emptyMap());
+
+	private final Map<String, TypedAggregation> aggregations;
+
+	private TypedAggregations(Map<String, TypedAggregation> aggregations) {
+		this.aggregations = aggregations;
+	}
+
+	public static TypedAggregations empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @param response JSON search response
+	 * @param names Names of top level aggregations to parse, all aggregations if empty
+	 * @return typed aggregations
+	 */
+	public static TypedAggregations parse(String response, String... names) {
+		if (response == null) {
+			return EMPTY;
+		}
+
+		Set<String> requested = names.length == 0 ? null : new HashSet<>(Arrays.asList(names));
+		try (JsonReader reader = new JsonReader(new StringReader(response))) {
+			return new TypedAggregations(new TypedAggregationParser(reader).parseResponse(requested));
+		} catch (IOException | IllegalStateException e) {
+			throw new ElasticsearchException("Unable to parse aggregations", e);
+		}
+	}
+
+	/**
+	 * @param names Names of top level aggregations, all aggregations if empty
+	 * @return selected aggregations
+	 */
+	public TypedAggregations select(String... names) {
+		if (names.length == 0) {
+			return this;
+		}
+		Map<String, TypedAggregation> selected = new LinkedHashMap<>();
+		for (String name : names) {
+			TypedAggregation aggregation = aggregations.get(name);
+			if (aggregation != null) {
+				selected.put(name, aggregation);
+			}
+		}
+		return new TypedAggregations(selected);
+	}
+
+	/**
+	 * @return aggregation, null if absent or not requested
+	 */
+	public TypedAggregation get(String name) {
+		return aggregations.get(name);
+	}
+
+	public Map<String, TypedAggregation> asMap() {
+		return Collections.unmodifiableMap(aggregations);
+	}
+
+	public boolean isEmpty() {
+		return aggregations.isEmpty();
+	}
+
+	/**
+	 * Stream parser of aggregations.
+	 */
+	private static final class TypedAggregationParser {
+
+		private final JsonReader reader;
+
+		private TypedAggregationParser(JsonReader reader) {
+			this.reader = reader;
+		}
+
+		Map<String, TypedAggregation> parseResponse(Set<String> requested) throws IOException {
+			Map<String, TypedAggregation> aggregations = Collections.emptyMap();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				if ("aggregations".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+					aggregations = parseAggregations(requested);
+				} else {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return aggregations;
+		}
+
+		private Map<String, TypedAggregation> parseAggregations(Set<String> requested) throws IOException {
+			Map<String, TypedAggregation> aggregations = new LinkedHashMap<>();
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String name = reader.nextName();
+				if ((requested == null || requested.contains(name)) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+					aggregations.put(name, parseAggregation(name));
+				} else {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+			return aggregations;
+		}
+
+		private TypedAggregation parseAggregation(String name) throws IOException {
+			Fields fields = new Fields();
+			Map<String, TypedAggregation> aggregations = new LinkedHashMap<>();
+			TypedBuckets buckets = null;
+
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String field = reader.nextName();
+				JsonToken token = reader.peek();
+				if ("buckets".equals(field) && (token == JsonToken.BEGIN_ARRAY || token == JsonToken.BEGIN_OBJECT)) {
+					buckets = parseBuckets(token == JsonToken.BEGIN_OBJECT);
+				} else if ("meta".equals(field)) {
+					reader.skipValue();
+				} else if (token == JsonToken.BEGIN_OBJECT) {
+					TypedAggregation aggregation = parseAggregation(field);
+					if (aggregation.getBuckets() == null && aggregation.getAggregations().isEmpty() && isNested(aggregation)) {
+						// Nested numeric object of a metric (std_deviation_bounds...)
+						for (int i = 0; i < aggregation.fieldCount(); i++) {
+							fields.add(field + "." + aggregation.fieldName(i), aggregation.fieldValue(i));
+						}
+					}
+					aggregations.put(field, aggregation);
+				} else {
+					readNumber(field, token, fields);
+				}
+			}
+			reader.endObject();
+
+			return new TypedAggregation(name, fields.names(), fields.values(), aggregations, buckets);
+		}
+
+		private TypedBuckets parseBuckets(boolean keyed) throws IOException {
+			Columns columns = new Columns();
+			if (keyed) {
+				reader.beginObject();
+				while (reader.hasNext()) {
+					String key = reader.nextName();
+					parseBucket(columns, key);
+				}
+				reader.endObject();
+			} else {
+				reader.beginArray();
+				while (reader.hasNext()) {
+					parseBucket(columns, null);
+				}
+				reader.endArray();
+			}
+			return columns.toBuckets();
+		}
+
+		private void parseBucket(Columns columns, String key) throws IOException {
+			int bucket = columns.addBucket();
+			String keyAsString = null;
+			String keyValue = key;
+			double numericKey = Double.NaN;
+
+			reader.beginObject();
+			while (reader.hasNext()) {
+				String field = reader.nextName();
+				JsonToken token = reader.peek();
+				if ("key".equals(field)) {
+					if (token == JsonToken.NUMBER) {
+						String number = reader.nextString();
+						keyValue = number;
+						numericKey = Double.parseDouble(number);
+					} else if (token == JsonToken.NULL) {
+						reader.nextNull();
+					} else if (token == JsonToken.BEGIN_OBJECT) {
+						// Composite key
+						reader.skipValue();
+					} else {
+						keyValue = reader.nextString();
+					}
+				} else if ("key_as_string".equals(field) && token == JsonToken.STRING) {
+					keyAsString = reader.nextString();
+				} else if ("doc_count".equals(field) && token == JsonToken.NUMBER) {
+					columns.docCounts[bucket] = reader.nextLong();
+				} else if (token == JsonToken.BEGIN_OBJECT) {
+					TypedAggregation aggregation = parseAggregation(field);
+					if (aggregation.isSingleValue()) {
+						columns.value(field, bucket, aggregation.getValue());
+					} else {
+						columns.aggregation(field, bucket, aggregation);
+					}
+				} else if (token == JsonToken.NUMBER) {
+					columns.value(field, bucket, reader.nextDouble());
+				} else {
+					reader.skipValue();
+				}
+			}
+			reader.endObject();
+
+			columns.keys[bucket] = keyAsString != null ? keyAsString : keyValue;
+			columns.numericKeys[bucket] = numericKey;
+		}
+
+		private void readNumber(String field, JsonToken token, Fields fields) throws IOException {
+			if (token == JsonToken.NUMBER) {
+				fields.add(field, reader.nextDouble());
+			} else if (token == JsonToken.NULL) {
+				reader.nextNull();
+				fields.add(field, Double.NaN);
+			} else {
+				reader.skipValue();
+			}
+		}
+
+		private static boolean isNested(TypedAggregation aggregation) {
+			return aggregation.fieldCount() > 0 && Double.isNaN(aggregation.get("doc_count"));
+		}
+	}
+
+	/**
+	 * Growable numeric fields.
+	 */
+	private static final class Fields {
+
+		private String[] names = new String[4];
+		private double[] values = new double[4];
+		private int size;
+
+		void add(String name, double value) {
+			if (size == names.length) {
+				names = Arrays.copyOf(names, size * 2);
+				values = Arrays.copyOf(values, size * 2);
+			}
+			names[size] = name;
+			values[size++] = value;
+		}
+
+		String[] names() {
+			return Arrays.copyOf(names, size);
+		}
+
+		double[] values() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+
+	/**
+	 * Growable bucket columns.
+	 */
+	private static final class Columns {
+
+		private int size;
+		private int capacity = 16;
+		private String[] keys = new String[capacity];
+		private double[] numericKeys = new double[capacity];
+		private long[] docCounts = new long[capacity];
+		private final Map<String, double[]> values = new LinkedHashMap<>();
+		private final Map<String, TypedAggregation[]> aggregations = new LinkedHashMap<>();
+
+		int addBucket() {
+			if (size == capacity) {
+				capacity *= 2;
+				keys = Arrays.copyOf(keys, capacity);
+				numericKeys = Arrays.copyOf(numericKeys, capacity);
+				docCounts = Arrays.copyOf(docCounts, capacity);
+				for (Map.Entry<String, double[]> column : values.entrySet()) {
+					double[] grown = Arrays.copyOf(column.getValue(), capacity);
+					Arrays.fill(grown, size, capacity, Double.NaN);
+					column.setValue(grown);
+				}
+				for (Map.Entry<String, TypedAggregation[]> column : aggregations.entrySet()) {
+					column.setValue(Arrays.copyOf(column.getValue(), capacity));
+				}
+			}
+			return size++;
+		}
+
+		void value(String name, int bucket, double value) {
+			double[] column = values.get(name);
+			if (column == null) {
+				column = new double[capacity];
+				Arrays.fill(column, Double.NaN);
+				values.put(name, column);
+			}
+			column[bucket] = value;
+		}
+
+		void aggregation(String name, int bucket, TypedAggregation aggregation) {
+			aggregations.computeIfAbsent(name, n -> new TypedAggregation[capacity])[bucket] = aggregation;
+		}
+
+		TypedBuckets toBuckets() {
+			values.replaceAll((name, column) -> Arrays.copyOf(column, size));
+			aggregations.replaceAll((name, column) -> Arrays.copyOf(column, size));
+			return new TypedBuckets(Arrays.copyOf(keys, size), Arrays.copyOf(numericKeys, size), Arrays.copyOf(docCounts, size), values, aggregations);
+		}
+	}
+}
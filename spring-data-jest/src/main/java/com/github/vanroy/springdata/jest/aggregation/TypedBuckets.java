@@ -0,0 +1,83 @@
+package com.github.vanroy.springdata.jest.aggregation;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Buckets of a multi bucket aggregation, stored by column.
+ *
+ * Keys, document counts and values of single value sub aggregations are primitive arrays indexed by bucket,
+ * other sub aggregations are kept per bucket.
+ * Returned arrays are not copied and must not be modified.
+ *
+ * @author Julien Roy
+ */
+public final class TypedBuckets {
+
+	private final String[] keys;
+	private final double[] numericKeys;
+	private final long[] docCounts;
+	private final Map<String, double[]> values;
+	private final Map<String, TypedAggregation[]> aggregations;
+
+	TypedBuckets(String[] keys, double[] numericKeys, long[] docCounts, Map<String, double[]> values, Map<String, TypedAggregation[]> aggregations) {
+		this.keys = keys;
+		this.numericKeys = numericKeys;
+		this.docCounts = docCounts;
+		this.values = values;
+		this.aggregations = aggregations;
+	}
+
+	public int size() {
+		return keys.length;
+	}
+
+	/**
+	 * @return keys of buckets (key_as_string if present)
+	 */
+	public String[] getKeys() {
+		return keys;
+	}
+
+	/**
+	 * @return numeric keys of buckets (histogram, date histogram...), NaN for non numeric keys
+	 */
+	public double[] getNumericKeys() {
+		return numericKeys;
+	}
+
+	public long[] getDocCounts() {
+		return docCounts;
+	}
+
+	public String getKey(int bucket) {
+		return keys[bucket];
+	}
+
+	public long getDocCount(int bucket) {
+		return docCounts[bucket];
+	}
+
+	/**
+	 * @param name Name of single value sub aggregation, or numeric field of bucket (from, to...)
+	 * @return values by bucket, NaN for buckets without value, null if absent
+	 */
+	public double[] getValues(String name) {
+		return values.get(name);
+	}
+
+	public Set<String> getValueNames() {
+		return Collections.unmodifiableSet(values.keySet());
+	}
+
+	/**
+	 * @param bucket Index of bucket
+	 * @param name Name of sub aggregation which is not a single value metric
+	 * @return sub aggregation of bucket, null if absent
+	 */
+	public TypedAggregation getAggregation(int bucket, String name) {
+		TypedAggregation[] bucketAggregations = aggregations.get(name);
+		return bucketAggregations != null ? bucketAggregations[bucket] : null;
+	}
+}
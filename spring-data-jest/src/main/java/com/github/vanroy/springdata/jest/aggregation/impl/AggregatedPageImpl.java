@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Objects;
 
 import com.github.vanroy.springdata.jest.aggregation.AggregatedPage;
+import com.github.vanroy.springdata.jest.aggregation.TypedAggregations;
 import io.searchbox.core.search.aggregation.Aggregation;
 import io.searchbox.core.search.aggregation.MetricAggregation;
 import org.springframework.data.domain.PageImpl;
@@ -20,6 +21,7 @@ public class AggregatedPageImpl<T> extends PageImpl<T> implements AggregatedPage
 
 	private final MetricAggregation aggregations;
 	private String scrollId;
+	private TypedAggregations typedAggregations = TypedAggregations.empty();
 
 	public AggregatedPageImpl(List<T> content) {
 		super(content);
@@ -54,6 +56,11 @@ public class AggregatedPageImpl<T> extends PageImpl<T> implements AggregatedPage
 		this.scrollId = scrollId;
 	}
 
+	public AggregatedPageImpl(List<T> content, Pageable pageable, long total, MetricAggregation aggregations, String scrollId, TypedAggregations typedAggregations) {
+		this(content, pageable, total, aggregations, scrollId);
+		this.typedAggregations = typedAggregations;
+	}
+
 	@Override
 	public boolean hasAggregations() {
 		return !Objects.isNull(aggregations);
@@ -69,6 +76,11 @@ public class AggregatedPageImpl<T> extends PageImpl<T> implements AggregatedPage
 		return hasAggregations() ? aggregations.getAggregation(aggName, aggType) : null;
 	}
 
+	@Override
+	public TypedAggregations getTypedAggregations() {
+		return typedAggregations;
+	}
+
 	@Override
 	public String getScrollId() {
 		return scrollId;
@@ -0,0 +1,21 @@
+package com.github.vanroy.springdata.jest.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Property of an entity used as routing of document, when indexed or deleted as entity.
+ * Operations by id cannot read this property, they must run with
+ * {@link com.github.vanroy.springdata.jest.JestElasticsearchTemplate#withRouting} to reach routed documents.
+ *
+ * @author Julien Roy
+ * @see com.github.vanroy.springdata.jest.RoutingResolver
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Documented
+public @interface Routing {
+}
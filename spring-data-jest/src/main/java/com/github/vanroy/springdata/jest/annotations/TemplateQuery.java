@@ -0,0 +1,30 @@
+package com.github.vanroy.springdata.jest.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.data.annotation.QueryAnnotation;
+
+/**
+ * Execute repository method with a stored search template.
+ * Method parameters are sent as template params, by name (compile with -parameters or use @Param).
+ * A Pageable parameter is sent as params "from" and "size".
+ *
+ * Requires repositories created by {@link com.github.vanroy.springdata.jest.repository.support.JestElasticsearchRepositoryFactoryBean}.
+ *
+ * @author Julien Roy
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+@QueryAnnotation
+public @interface TemplateQuery {
+
+	/**
+	 * @return id of stored search template
+	 */
+	String id();
+}
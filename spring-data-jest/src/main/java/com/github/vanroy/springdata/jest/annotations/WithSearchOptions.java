@@ -0,0 +1,42 @@
+package com.github.vanroy.springdata.jest.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Search options of repository method, overriding default options of template.
+ * Empty values are not set.
+ *
+ * Requires repositories created by {@link com.github.vanroy.springdata.jest.repository.support.JestElasticsearchRepositoryFactoryBean}.
+ *
+ * @author Julien Roy
+ * @see com.github.vanroy.springdata.jest.query.SearchOptions
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+@Documented
+public @interface WithSearchOptions {
+
+	/**
+	 * @return "true" to use shard request cache, "false" to skip it
+	 */
+	String requestCache() default "";
+
+	/**
+	 * @return shards or replicas preference
+	 */
+	String preference() default "";
+
+	/**
+	 * @return routing values (comma separated)
+	 */
+	String routing() default "";
+
+	/**
+	 * @return number of shard results reduced at once on coordinating node, 0 for default
+	 */
+	int batchedReduceSize() default 0;
+}
@@ -0,0 +1,64 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.github.vanroy.springdata.jest.action.Ping;
+import io.searchbox.action.Action;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.cluster.Health;
+import io.searchbox.cluster.NodesInfo;
+
+/**
+ * Category of a Jest action, used to isolate read and write traffic.
+ * Monitoring actions (ping, cluster health, nodes info) are light and must reach the cluster when it is overloaded,
+ * so they are never limited nor rejected by a circuit breaker.
+ *
+ * @author Julien Roy
+ */
+public enum ActionCategory {
+
+	READ,
+	WRITE,
+	MONITORING;
+
+	private static final Set<String> READ_ENDPOINTS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList("_search", "_msearch", "_count", "_mget")));
+
+	/**
+	 * Classify an action by its REST method and URI, so custom actions (multi search with options, search templates) are classified too.
+	 * GET and HEAD requests, and POST requests to a search, count or multi get endpoint are reads, every other request is a write.
+	 * @param action Action to classify
+	 * @return category of action
+	 */
+	public static ActionCategory of(Action<?> action) {
+		if (action instanceof Ping
+				|| action instanceof Health
+				|| action instanceof NodesInfo) {
+			return MONITORING;
+		}
+		String method = action.getRestMethodName();
+		if ("GET".equals(method) || "HEAD".equals(method)) {
+			return READ;
+		}
+		if ("POST".equals(method) && isReadEndpoint(action.getURI(ElasticsearchVersion.UNKNOWN))) {
+			return READ;
+		}
+		return WRITE;
+	}
+
+	private static boolean isReadEndpoint(String uri) {
+		if (uri == null) {
+			return false;
+		}
+		int query = uri.indexOf('?');
+		String path = query >= 0 ? uri.substring(0, query) : uri;
+		for (String segment : path.split("/")) {
+			if (READ_ENDPOINTS.contains(segment)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
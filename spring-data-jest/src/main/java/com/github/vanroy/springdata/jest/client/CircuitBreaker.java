@@ -0,0 +1,298 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Count based circuit breaker.
+ *
+ * The circuit opens when failure rate or slow call rate of the last calls exceeds the configured thresholds.
+ * While open, calls are not permitted. After the configured wait duration, a limited number of probe calls
+ * is permitted (half open), the circuit closes if probes are successful, or opens again otherwise.
+ *
+ * @author Julien Roy
+ */
+public class CircuitBreaker {
+
+	private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+	public enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN
+	}
+
+	private final String name;
+	private final CircuitBreakerConfig config;
+	private final LongSupplier nanoClock;
+
+	// Use explicit lock rather than monitor so callers never pin a carrier thread
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Window window;
+	private final Window probeWindow;
+	private volatile State state = State.CLOSED;
+	private volatile long generation;
+	private long openedAt;
+	private int probesInFlight;
+	private final AtomicLong notPermitted = new AtomicLong();
+
+	public CircuitBreaker(String name, CircuitBreakerConfig config) {
+		this(name, config, System::nanoTime);
+	}
+
+	CircuitBreaker(String name, CircuitBreakerConfig config, LongSupplier nanoClock) {
+		this.name = name;
+		this.config = config;
+		this.nanoClock = nanoClock;
+		this.window = new Window(config.getSlidingWindowSize());
+		this.probeWindow = new Window(config.getPermittedCallsInHalfOpenState());
+	}
+
+	/**
+	 * Try to obtain the permission to execute a call.
+	 * Each permit must be released with {@link Permit#onSuccess(long)}, {@link Permit#onError(long)} or {@link Permit#onIgnore()}.
+	 * @return permit of call, null if call is not permitted
+	 */
+	public Permit tryAcquirePermission() {
+		// Read generation before state, so a permit acquired during a transition belongs to the previous state
+		long currentGeneration = generation;
+		if (state == State.CLOSED) {
+			return new Permit(currentGeneration, false);
+		}
+
+		lock.lock();
+		try {
+			if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= config.getWaitDurationInOpenStateNanos()) {
+				transitionTo(State.HALF_OPEN);
+			}
+
+			switch (state) {
+				case CLOSED:
+					return new Permit(generation, false);
+				case HALF_OPEN:
+					if (probesInFlight + probeWindow.size() < config.getPermittedCallsInHalfOpenState()) {
+						probesInFlight++;
+						return new Permit(generation, true);
+					}
+					break;
+				default:
+					break;
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		notPermitted.incrementAndGet();
+		return null;
+	}
+
+	private void release(Permit permit, boolean failure, boolean slow, boolean ignored) {
+		lock.lock();
+		try {
+			if (permit.generation != generation) {
+				// Call started in a previous state (closed before circuit opened, or previous half open), ignore it
+				return;
+			}
+			if (permit.probe && probesInFlight > 0) {
+				probesInFlight--;
+			}
+			if (ignored) {
+				return;
+			}
+
+			switch (state) {
+				case CLOSED:
+					window.record(failure, slow);
+					if (window.size() >= config.getMinimumNumberOfCalls() && isAboveThresholds(window)) {
+						transitionTo(State.OPEN);
+					}
+					break;
+				case HALF_OPEN:
+					if (permit.probe) {
+						probeWindow.record(failure, slow);
+						if (probeWindow.size() >= config.getPermittedCallsInHalfOpenState()) {
+							transitionTo(isAboveThresholds(probeWindow) ? State.OPEN : State.CLOSED);
+						}
+					}
+					break;
+				default:
+					break;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean isAboveThresholds(Window calls) {
+		return calls.getFailureRate() >= config.getFailureRateThreshold()
+				|| calls.getSlowCallRate() >= config.getSlowCallRateThreshold();
+	}
+
+	private void transitionTo(State newState) {
+		State previousState = state;
+		generation++;
+		state = newState;
+		window.reset();
+		probeWindow.reset();
+		probesInFlight = 0;
+		if (newState == State.OPEN) {
+			openedAt = nanoClock.getAsLong();
+			logger.warn("Circuit breaker '{}' changed state from {} to {}", name, previousState, newState);
+		} else {
+			logger.info("Circuit breaker '{}' changed state from {} to {}", name, previousState, newState);
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public State getState() {
+		if (state == State.OPEN) {
+			lock.lock();
+			try {
+				if (state == State.OPEN && nanoClock.getAsLong() - openedAt >= config.getWaitDurationInOpenStateNanos()) {
+					transitionTo(State.HALF_OPEN);
+				}
+			} finally {
+				lock.unlock();
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * @return failure rate in percent of recorded calls, -1 if not enough calls are recorded
+	 */
+	public float getFailureRate() {
+		lock.lock();
+		try {
+			return window.size() >= config.getMinimumNumberOfCalls() ? window.getFailureRate() : -1;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return slow call rate in percent of recorded calls, -1 if not enough calls are recorded
+	 */
+	public float getSlowCallRate() {
+		lock.lock();
+		try {
+			return window.size() >= config.getMinimumNumberOfCalls() ? window.getSlowCallRate() : -1;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * @return number of calls not permitted since creation
+	 */
+	public long getNotPermittedCount() {
+		return notPermitted.get();
+	}
+
+	/**
+	 * Permission of one call, tagged with the state it was acquired in.
+	 */
+	public final class Permit {
+
+		private final long generation;
+		private final boolean probe;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit(long generation, boolean probe) {
+			this.generation = generation;
+			this.probe = probe;
+		}
+
+		/**
+		 * Record a successful call.
+		 * @param durationNanos Duration of call
+		 */
+		public void onSuccess(long durationNanos) {
+			if (released.compareAndSet(false, true)) {
+				release(this, false, durationNanos > config.getSlowCallDurationThresholdNanos(), false);
+			}
+		}
+
+		/**
+		 * Record a failed call.
+		 * @param durationNanos Duration of call
+		 */
+		public void onError(long durationNanos) {
+			if (released.compareAndSet(false, true)) {
+				release(this, true, durationNanos > config.getSlowCallDurationThresholdNanos(), false);
+			}
+		}
+
+		/**
+		 * Release the permit without recording the call.
+		 */
+		public void onIgnore() {
+			if (released.compareAndSet(false, true)) {
+				release(this, false, false, true);
+			}
+		}
+	}
+
+	/**
+	 * Ring buffer of call outcomes.
+	 */
+	private static final class Window {
+
+		private static final byte FAILURE = 1;
+		private static final byte SLOW = 2;
+
+		private final byte[] outcomes;
+		private int position;
+		private int size;
+		private int failures;
+		private int slowCalls;
+
+		Window(int capacity) {
+			this.outcomes = new byte[capacity];
+		}
+
+		void record(boolean failure, boolean slow) {
+			if (size == outcomes.length) {
+				byte evicted = outcomes[position];
+				failures -= (evicted & FAILURE) != 0 ? 1 : 0;
+				slowCalls -= (evicted & SLOW) != 0 ? 1 : 0;
+			} else {
+				size++;
+			}
+
+			byte outcome = (byte) ((failure ? FAILURE : 0) | (slow ? SLOW : 0));
+			outcomes[position] = outcome;
+			failures += failure ? 1 : 0;
+			slowCalls += slow ? 1 : 0;
+			position = (position + 1) % outcomes.length;
+		}
+
+		void reset() {
+			position = 0;
+			size = 0;
+			failures = 0;
+			slowCalls = 0;
+		}
+
+		int size() {
+			return size;
+		}
+
+		float getFailureRate() {
+			return size == 0 ? 0 : failures * 100f / size;
+		}
+
+		float getSlowCallRate() {
+			return size == 0 ? 0 : slowCalls * 100f / size;
+		}
+	}
+}
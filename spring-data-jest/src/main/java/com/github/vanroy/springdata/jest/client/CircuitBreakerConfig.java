@@ -0,0 +1,149 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of {@link CircuitBreaker}.
+ *
+ * @author Julien Roy
+ */
+public class CircuitBreakerConfig {
+
+	private final float failureRateThreshold;
+	private final float slowCallRateThreshold;
+	private final long slowCallDurationThresholdNanos;
+	private final int slidingWindowSize;
+	private final int minimumNumberOfCalls;
+	private final long waitDurationInOpenStateNanos;
+	private final int permittedCallsInHalfOpenState;
+
+	private CircuitBreakerConfig(Builder builder) {
+		this.failureRateThreshold = builder.failureRateThreshold;
+		this.slowCallRateThreshold = builder.slowCallRateThreshold;
+		this.slowCallDurationThresholdNanos = builder.slowCallDurationThresholdNanos;
+		this.slidingWindowSize = builder.slidingWindowSize;
+		this.minimumNumberOfCalls = builder.minimumNumberOfCalls;
+		this.waitDurationInOpenStateNanos = builder.waitDurationInOpenStateNanos;
+		this.permittedCallsInHalfOpenState = builder.permittedCallsInHalfOpenState;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static CircuitBreakerConfig defaults() {
+		return builder().build();
+	}
+
+	/**
+	 * @return failure rate, in percent, above which circuit is opened
+	 */
+	public float getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	/**
+	 * @return slow call rate, in percent, above which circuit is opened
+	 */
+	public float getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	/**
+	 * @return duration above which a call is considered as slow
+	 */
+	public long getSlowCallDurationThresholdNanos() {
+		return slowCallDurationThresholdNanos;
+	}
+
+	/**
+	 * @return number of last calls used to compute failure and slow call rates
+	 */
+	public int getSlidingWindowSize() {
+		return slidingWindowSize;
+	}
+
+	/**
+	 * @return number of calls required before rates are evaluated
+	 */
+	public int getMinimumNumberOfCalls() {
+		return minimumNumberOfCalls;
+	}
+
+	/**
+	 * @return time the circuit stays open before allowing probe calls
+	 */
+	public long getWaitDurationInOpenStateNanos() {
+		return waitDurationInOpenStateNanos;
+	}
+
+	/**
+	 * @return number of probe calls permitted when circuit is half open
+	 */
+	public int getPermittedCallsInHalfOpenState() {
+		return permittedCallsInHalfOpenState;
+	}
+
+	/**
+	 * Builder of {@link CircuitBreakerConfig}.
+	 */
+	public static class Builder {
+
+		private float failureRateThreshold = 50;
+		private float slowCallRateThreshold = 100;
+		private long slowCallDurationThresholdNanos = TimeUnit.SECONDS.toNanos(5);
+		private int slidingWindowSize = 100;
+		private int minimumNumberOfCalls = 20;
+		private long waitDurationInOpenStateNanos = TimeUnit.SECONDS.toNanos(10);
+		private int permittedCallsInHalfOpenState = 5;
+
+		private Builder() {
+		}
+
+		public Builder failureRateThreshold(float failureRateThreshold) {
+			this.failureRateThreshold = failureRateThreshold;
+			return this;
+		}
+
+		public Builder slowCallRateThreshold(float slowCallRateThreshold) {
+			this.slowCallRateThreshold = slowCallRateThreshold;
+			return this;
+		}
+
+		public Builder slowCallDurationThreshold(long slowCallDurationThreshold, TimeUnit unit) {
+			this.slowCallDurationThresholdNanos = unit.toNanos(slowCallDurationThreshold);
+			return this;
+		}
+
+		public Builder slidingWindowSize(int slidingWindowSize) {
+			this.slidingWindowSize = slidingWindowSize;
+			return this;
+		}
+
+		public Builder minimumNumberOfCalls(int minimumNumberOfCalls) {
+			this.minimumNumberOfCalls = minimumNumberOfCalls;
+			return this;
+		}
+
+		public Builder waitDurationInOpenState(long waitDurationInOpenState, TimeUnit unit) {
+			this.waitDurationInOpenStateNanos = unit.toNanos(waitDurationInOpenState);
+			return this;
+		}
+
+		public Builder permittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+			this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+			return this;
+		}
+
+		public CircuitBreakerConfig build() {
+			Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 100, "Failure rate threshold must be between 0 and 100");
+			Assert.isTrue(slowCallRateThreshold > 0 && slowCallRateThreshold <= 100, "Slow call rate threshold must be between 0 and 100");
+			Assert.isTrue(slidingWindowSize > 0, "Sliding window size must be greater than 0");
+			Assert.isTrue(minimumNumberOfCalls > 0 && minimumNumberOfCalls <= slidingWindowSize, "Minimum number of calls must be between 1 and sliding window size");
+			Assert.isTrue(permittedCallsInHalfOpenState > 0, "Permitted calls in half open state must be greater than 0");
+			return new CircuitBreakerConfig(this);
+		}
+	}
+}
@@ -0,0 +1,243 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import com.github.vanroy.springdata.jest.exception.CircuitBreakerOpenException;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.JestResultHandler;
+import io.searchbox.client.config.ElasticsearchVersion;
+import org.springframework.util.Assert;
+
+/**
+ * JestClient failing fast when cluster (or index) is unavailable, using a circuit breaker per cluster and optionally per index.
+ * Actions on several indices use the cluster circuit breaker, and only the most recently used index circuit breakers are kept.
+ *
+ * Network errors and server errors (5xx, 429) are recorded as failures, client errors (4xx) are recorded as successes.
+ * Monitoring actions (see {@link ActionCategory#MONITORING}) are always sent and never recorded.
+ *
+ * @author Julien Roy
+ */
+public class CircuitBreakingJestClient extends ForwardingJestClient {
+
+	/** Default max number of index circuit breakers, least recently used are evicted beyond. */
+	public static final int DEFAULT_MAX_INDEX_CIRCUIT_BREAKERS = 100;
+
+	private final String clusterName;
+	private final CircuitBreakerConfig config;
+	private final boolean perIndex;
+	private final int maxIndexCircuitBreakers;
+	private final CircuitBreaker clusterCircuitBreaker;
+	// Access ordered, guarded by lock
+	private final Map<String, CircuitBreaker> indexCircuitBreakers = new LinkedHashMap<>(16, 0.75f, true);
+	private final ReentrantLock lock = new ReentrantLock();
+	private final List<Consumer<CircuitBreaker>> creationListeners = new CopyOnWriteArrayList<>();
+	private final List<Consumer<CircuitBreaker>> evictionListeners = new CopyOnWriteArrayList<>();
+
+	public CircuitBreakingJestClient(JestClient delegate, CircuitBreakerConfig config) {
+		this(delegate, "cluster", config, false);
+	}
+
+	/**
+	 * @param delegate Decorated client
+	 * @param clusterName Name of cluster, used as circuit breaker name
+	 * @param config Configuration of circuit breakers
+	 * @param perIndex Use a circuit breaker per index instead of one for whole cluster
+	 */
+	public CircuitBreakingJestClient(JestClient delegate, String clusterName, CircuitBreakerConfig config, boolean perIndex) {
+		this(delegate, clusterName, config, perIndex, DEFAULT_MAX_INDEX_CIRCUIT_BREAKERS);
+	}
+
+	/**
+	 * @param delegate Decorated client
+	 * @param clusterName Name of cluster, used as circuit breaker name
+	 * @param config Configuration of circuit breakers
+	 * @param perIndex Use a circuit breaker per index instead of one for whole cluster
+	 * @param maxIndexCircuitBreakers Max number of index circuit breakers, least recently used are evicted beyond
+	 */
+	public CircuitBreakingJestClient(JestClient delegate, String clusterName, CircuitBreakerConfig config, boolean perIndex, int maxIndexCircuitBreakers) {
+		super(delegate);
+		Assert.hasText(clusterName, "Cluster name must not be empty");
+		Assert.notNull(config, "Circuit breaker config must not be null");
+		Assert.isTrue(maxIndexCircuitBreakers > 0, "Max number of index circuit breakers must be greater than 0");
+		this.clusterName = clusterName;
+		this.config = config;
+		this.perIndex = perIndex;
+		this.maxIndexCircuitBreakers = maxIndexCircuitBreakers;
+		this.clusterCircuitBreaker = new CircuitBreaker(clusterName, config);
+	}
+
+	/**
+	 * @return all circuit breakers created so far
+	 */
+	public Collection<CircuitBreaker> getCircuitBreakers() {
+		List<CircuitBreaker> circuitBreakers = new ArrayList<>();
+		circuitBreakers.add(clusterCircuitBreaker);
+		lock.lock();
+		try {
+			circuitBreakers.addAll(indexCircuitBreakers.values());
+		} finally {
+			lock.unlock();
+		}
+		return Collections.unmodifiableList(circuitBreakers);
+	}
+
+	/**
+	 * Register a listener called for existing and each new circuit breaker.
+	 * @param listener Listener
+	 */
+	public void onCircuitBreakerCreated(Consumer<CircuitBreaker> listener) {
+		creationListeners.add(listener);
+		getCircuitBreakers().forEach(listener);
+	}
+
+	/**
+	 * Register a listener called for each evicted index circuit breaker.
+	 * @param listener Listener
+	 */
+	public void onCircuitBreakerEvicted(Consumer<CircuitBreaker> listener) {
+		evictionListeners.add(listener);
+	}
+
+	@Override
+	public <T extends JestResult> T execute(Action<T> clientRequest) throws IOException {
+
+		if (ActionCategory.of(clientRequest) == ActionCategory.MONITORING) {
+			return super.execute(clientRequest);
+		}
+
+		CircuitBreaker.Permit permit = acquirePermission(clientRequest);
+		long start = System.nanoTime();
+		try {
+			T result = super.execute(clientRequest);
+			record(permit, result, System.nanoTime() - start);
+			return result;
+		} catch (IOException e) {
+			permit.onError(System.nanoTime() - start);
+			throw e;
+		} catch (RuntimeException e) {
+			permit.onIgnore();
+			throw e;
+		}
+	}
+
+	@Override
+	public <T extends JestResult> void executeAsync(Action<T> clientRequest, JestResultHandler<? super T> jestResultHandler) {
+
+		if (ActionCategory.of(clientRequest) == ActionCategory.MONITORING) {
+			super.executeAsync(clientRequest, jestResultHandler);
+			return;
+		}
+
+		CircuitBreaker.Permit permit = acquirePermission(clientRequest);
+		long start = System.nanoTime();
+		try {
+			super.executeAsync(clientRequest, new JestResultHandler<T>() {
+				@Override
+				public void completed(T result) {
+					record(permit, result, System.nanoTime() - start);
+					jestResultHandler.completed(result);
+				}
+
+				@Override
+				public void failed(Exception ex) {
+					permit.onError(System.nanoTime() - start);
+					jestResultHandler.failed(ex);
+				}
+			});
+		} catch (RuntimeException e) {
+			permit.onIgnore();
+			throw e;
+		}
+	}
+
+	private CircuitBreaker.Permit acquirePermission(Action<?> action) {
+		CircuitBreaker circuitBreaker = getCircuitBreaker(action);
+		CircuitBreaker.Permit permit = circuitBreaker.tryAcquirePermission();
+		if (permit == null) {
+			throw new CircuitBreakerOpenException(circuitBreaker.getName());
+		}
+		return permit;
+	}
+
+	private CircuitBreaker getCircuitBreaker(Action<?> action) {
+		String index = perIndex ? getIndex(action) : null;
+		if (index == null) {
+			return clusterCircuitBreaker;
+		}
+
+		String name = clusterName + "/" + index;
+		CircuitBreaker circuitBreaker;
+		CircuitBreaker evicted = null;
+		lock.lock();
+		try {
+			circuitBreaker = indexCircuitBreakers.get(name);
+			if (circuitBreaker != null) {
+				return circuitBreaker;
+			}
+			circuitBreaker = new CircuitBreaker(name, config);
+			indexCircuitBreakers.put(name, circuitBreaker);
+			if (indexCircuitBreakers.size() > maxIndexCircuitBreakers) {
+				// Least recently used index, daily indices of past days first
+				Iterator<CircuitBreaker> eldest = indexCircuitBreakers.values().iterator();
+				evicted = eldest.next();
+				eldest.remove();
+			}
+		} finally {
+			lock.unlock();
+		}
+
+		CircuitBreaker created = circuitBreaker;
+		creationListeners.forEach(listener -> listener.accept(created));
+		if (evicted != null) {
+			CircuitBreaker removed = evicted;
+			evictionListeners.forEach(listener -> listener.accept(removed));
+		}
+		return circuitBreaker;
+	}
+
+	/**
+	 * @return single index targeted by action (first segment of URI), or null for cluster level and multi index actions
+	 */
+	private static String getIndex(Action<?> action) {
+		String uri = action.getURI(ElasticsearchVersion.UNKNOWN);
+		if (uri == null) {
+			return null;
+		}
+
+		int start = uri.startsWith("/") ? 1 : 0;
+		int end = start;
+		while (end < uri.length() && uri.charAt(end) != '/' && uri.charAt(end) != '?') {
+			end++;
+		}
+
+		String index = uri.substring(start, end);
+		if (index.isEmpty() || index.startsWith("_") || index.indexOf(',') >= 0 || index.indexOf("%2C") >= 0) {
+			return null;
+		}
+		return index;
+	}
+
+	private static void record(CircuitBreaker.Permit permit, JestResult result, long durationNanos) {
+		if (result != null && isServerError(result.getResponseCode())) {
+			permit.onError(durationNanos);
+		} else {
+			permit.onSuccess(durationNanos);
+		}
+	}
+
+	private static boolean isServerError(int statusCode) {
+		return statusCode >= 500 || statusCode == 429;
+	}
+}
@@ -0,0 +1,268 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.github.vanroy.springdata.jest.exception.ConcurrencyLimitExceededException;
+import org.springframework.util.Assert;
+
+/**
+ * Concurrency limiter with an AIMD (additive increase, multiplicative decrease) limit.
+ *
+ * The limit grows by one while requests complete under the latency threshold and the limiter is used,
+ * and is multiplied by the backoff ratio as soon as a request is dropped or exceeds the latency threshold.
+ * When the limit is reached, callers wait in a bounded queue, requests which cannot be queued are rejected
+ * with a {@link ConcurrencyLimitExceededException}.
+ *
+ * @author Julien Roy
+ */
+public class ConcurrencyLimiter {
+
+	public static final int DEFAULT_INITIAL_LIMIT = 20;
+	public static final int DEFAULT_MIN_LIMIT = 1;
+	public static final int DEFAULT_MAX_LIMIT = 50;
+	public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+	public static final long DEFAULT_LATENCY_THRESHOLD_MILLIS = 1000;
+
+	private final String name;
+	private final int minLimit;
+	private final int maxLimit;
+	private final double backoffRatio;
+	private final long latencyThresholdNanos;
+	private final int maxQueueDepth;
+	private final long maxWaitNanos;
+
+	// Use explicit lock rather than monitor so waiting threads never pin a carrier thread
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition permitReleased = lock.newCondition();
+
+	private volatile int limit;
+	private volatile int inFlight;
+	private volatile int queueDepth;
+	private final AtomicLong rejected = new AtomicLong();
+
+	private ConcurrencyLimiter(Builder builder) {
+		this.name = builder.name;
+		this.minLimit = builder.minLimit;
+		this.maxLimit = builder.maxLimit;
+		this.backoffRatio = builder.backoffRatio;
+		this.latencyThresholdNanos = builder.latencyThresholdNanos;
+		this.maxQueueDepth = builder.maxQueueDepth;
+		this.maxWaitNanos = builder.maxWaitNanos;
+		this.limit = builder.initialLimit;
+	}
+
+	public static Builder builder(String name) {
+		return new Builder(name);
+	}
+
+	/**
+	 * Acquire a permit, waiting at most the configured max wait time if limit is reached.
+	 * @return Permit to release when request is done
+	 * @throws ConcurrencyLimitExceededException if no permit could be acquired
+	 */
+	public Permit acquire() {
+		lock.lock();
+		try {
+			if (inFlight < limit) {
+				inFlight++;
+				return new Permit();
+			}
+
+			if (queueDepth >= maxQueueDepth || maxWaitNanos <= 0) {
+				throw reject();
+			}
+
+			queueDepth++;
+			try {
+				long remaining = maxWaitNanos;
+				while (inFlight >= limit) {
+					if (remaining <= 0) {
+						throw reject();
+					}
+					remaining = permitReleased.awaitNanos(remaining);
+				}
+				inFlight++;
+				return new Permit();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw reject();
+			} finally {
+				queueDepth--;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private ConcurrencyLimitExceededException reject() {
+		rejected.incrementAndGet();
+		return new ConcurrencyLimitExceededException(name, limit);
+	}
+
+	private void release(long latencyNanos, boolean dropped) {
+		lock.lock();
+		try {
+			int currentInFlight = inFlight;
+			inFlight = currentInFlight - 1;
+
+			if (dropped || latencyNanos > latencyThresholdNanos) {
+				limit = Math.max(minLimit, (int) (limit * backoffRatio));
+			} else if (currentInFlight * 2 >= limit) {
+				// Only grow when limit is really used, to avoid unbounded growth on idle limiter
+				limit = Math.min(maxLimit, limit + 1);
+			}
+
+			permitReleased.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return current concurrency limit
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @return number of requests currently in flight
+	 */
+	public int getInFlight() {
+		return inFlight;
+	}
+
+	/**
+	 * @return number of requests waiting for a permit
+	 */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * @return number of requests rejected since creation
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	/**
+	 * Permit acquired for one request.
+	 */
+	public final class Permit {
+
+		private final long startNanos = System.nanoTime();
+		// Completion callback and cancellation may release concurrently
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		private Permit() {
+		}
+
+		/**
+		 * Release the permit after a successful request.
+		 */
+		public void onSuccess() {
+			release(false);
+		}
+
+		/**
+		 * Release the permit after a request dropped because cluster is overloaded (timeout, 429, 503...).
+		 */
+		public void onDropped() {
+			release(true);
+		}
+
+		/**
+		 * Release the permit without taking the request into account for the limit.
+		 */
+		public void onIgnore() {
+			if (released.compareAndSet(false, true)) {
+				lock.lock();
+				try {
+					inFlight--;
+					permitReleased.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+
+		private void release(boolean dropped) {
+			if (released.compareAndSet(false, true)) {
+				ConcurrencyLimiter.this.release(System.nanoTime() - startNanos, dropped);
+			}
+		}
+	}
+
+	/**
+	 * Builder of {@link ConcurrencyLimiter}.
+	 */
+	public static class Builder {
+
+		private final String name;
+		private int initialLimit = DEFAULT_INITIAL_LIMIT;
+		private int minLimit = DEFAULT_MIN_LIMIT;
+		private int maxLimit = DEFAULT_MAX_LIMIT;
+		private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+		private long latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_LATENCY_THRESHOLD_MILLIS);
+		private int maxQueueDepth = 0;
+		private long maxWaitNanos = 0;
+
+		private Builder(String name) {
+			Assert.hasText(name, "Limiter name must not be empty");
+			this.name = name;
+		}
+
+		public Builder initialLimit(int initialLimit) {
+			this.initialLimit = initialLimit;
+			return this;
+		}
+
+		public Builder minLimit(int minLimit) {
+			this.minLimit = minLimit;
+			return this;
+		}
+
+		public Builder maxLimit(int maxLimit) {
+			this.maxLimit = maxLimit;
+			return this;
+		}
+
+		public Builder backoffRatio(double backoffRatio) {
+			this.backoffRatio = backoffRatio;
+			return this;
+		}
+
+		public Builder latencyThreshold(long latencyThreshold, TimeUnit unit) {
+			this.latencyThresholdNanos = unit.toNanos(latencyThreshold);
+			return this;
+		}
+
+		public Builder maxQueueDepth(int maxQueueDepth) {
+			this.maxQueueDepth = maxQueueDepth;
+			return this;
+		}
+
+		public Builder maxWait(long maxWait, TimeUnit unit) {
+			this.maxWaitNanos = unit.toNanos(maxWait);
+			return this;
+		}
+
+		public ConcurrencyLimiter build() {
+			Assert.isTrue(minLimit > 0, "Min limit must be greater than 0");
+			Assert.isTrue(minLimit <= maxLimit, "Min limit must be lower or equal than max limit");
+			Assert.isTrue(initialLimit >= minLimit && initialLimit <= maxLimit, "Initial limit must be between min and max limit");
+			Assert.isTrue(backoffRatio > 0 && backoffRatio < 1, "Backoff ratio must be between 0 and 1");
+			Assert.isTrue(maxQueueDepth >= 0, "Max queue depth must be positive");
+			return new ConcurrencyLimiter(this);
+		}
+	}
+}
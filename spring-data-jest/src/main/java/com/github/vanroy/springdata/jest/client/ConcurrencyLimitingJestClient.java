@@ -0,0 +1,129 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.JestResultHandler;
+
+/**
+ * JestClient limiting the number of concurrent requests sent to the cluster, with separate limiters for reads and writes.
+ * Monitoring actions (see {@link ActionCategory#MONITORING}) are never limited.
+ *
+ * @author Julien Roy
+ */
+public class ConcurrencyLimitingJestClient extends ForwardingJestClient {
+
+	private final ConcurrencyLimiter readLimiter;
+	private final ConcurrencyLimiter writeLimiter;
+
+	/**
+	 * @param delegate Decorated client
+	 * @param readLimiter Limiter for read actions (search, count, get), null for unlimited
+	 * @param writeLimiter Limiter for other actions, null for unlimited
+	 */
+	public ConcurrencyLimitingJestClient(JestClient delegate, ConcurrencyLimiter readLimiter, ConcurrencyLimiter writeLimiter) {
+		super(delegate);
+		this.readLimiter = readLimiter;
+		this.writeLimiter = writeLimiter;
+	}
+
+	public ConcurrencyLimiter getReadLimiter() {
+		return readLimiter;
+	}
+
+	public ConcurrencyLimiter getWriteLimiter() {
+		return writeLimiter;
+	}
+
+	@Override
+	public <T extends JestResult> T execute(Action<T> clientRequest) throws IOException {
+
+		ConcurrencyLimiter limiter = getLimiter(clientRequest);
+		if (limiter == null) {
+			return super.execute(clientRequest);
+		}
+
+		ConcurrencyLimiter.Permit permit = limiter.acquire();
+		try {
+			T result = super.execute(clientRequest);
+			release(permit, result);
+			return result;
+		} catch (IOException e) {
+			releaseOnFailure(permit, e);
+			throw e;
+		} catch (RuntimeException e) {
+			permit.onIgnore();
+			throw e;
+		}
+	}
+
+	@Override
+	public <T extends JestResult> void executeAsync(Action<T> clientRequest, JestResultHandler<? super T> jestResultHandler) {
+
+		ConcurrencyLimiter limiter = getLimiter(clientRequest);
+		if (limiter == null) {
+			super.executeAsync(clientRequest, jestResultHandler);
+			return;
+		}
+
+		ConcurrencyLimiter.Permit permit = limiter.acquire();
+		try {
+			super.executeAsync(clientRequest, new JestResultHandler<T>() {
+				@Override
+				public void completed(T result) {
+					release(permit, result);
+					jestResultHandler.completed(result);
+				}
+
+				@Override
+				public void failed(Exception ex) {
+					releaseOnFailure(permit, ex);
+					jestResultHandler.failed(ex);
+				}
+			});
+		} catch (RuntimeException e) {
+			permit.onIgnore();
+			throw e;
+		}
+	}
+
+	private ConcurrencyLimiter getLimiter(Action<?> action) {
+		switch (ActionCategory.of(action)) {
+			case READ:
+				return readLimiter;
+			case WRITE:
+				return writeLimiter;
+			default:
+				return null;
+		}
+	}
+
+	private static void release(ConcurrencyLimiter.Permit permit, JestResult result) {
+		if (result != null && isOverloaded(result.getResponseCode())) {
+			permit.onDropped();
+		} else {
+			permit.onSuccess();
+		}
+	}
+
+	/**
+	 * Only timeouts mean that the cluster is overloaded, other failures (DNS, connection refused...) don't change the limit.
+	 */
+	private static void releaseOnFailure(ConcurrencyLimiter.Permit permit, Exception e) {
+		if (e instanceof InterruptedIOException) {
+			permit.onDropped();
+		} else {
+			permit.onIgnore();
+		}
+	}
+
+	/**
+	 * @return true if status code indicates that the cluster is overloaded (Too many requests, Unavailable, Gateway timeout)
+	 */
+	private static boolean isOverloaded(int statusCode) {
+		return statusCode == 429 || statusCode == 503 || statusCode == 504;
+	}
+}
@@ -0,0 +1,171 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.vanroy.springdata.jest.action.Ping;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.cluster.NodesInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.Assert;
+
+/**
+ * Open connections of the client pool before first requests, so they don't pay for TCP and TLS handshakes.
+ *
+ * Concurrent pings (HEAD /) are sent, as many as connections to open, so each of them needs its own pooled connection.
+ * Jest sends requests to servers in turn, so connections are spread over nodes.
+ * Number of connections opened, and so of warm-up threads, is capped by max connections.
+ * Pings are monitoring actions, never limited nor recorded by client decorators (see {@link ActionCategory#MONITORING}).
+ * Failed pings are logged and ignored, warm-up never fails.
+ *
+ * @author Julien Roy
+ */
+public class ConnectionPoolWarmer {
+
+	/** Default max number of connections opened by warm-up. */
+	public static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+	private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolWarmer.class);
+
+	private final JestClient client;
+	private final int connectionsPerNode;
+	private final int maxConnections;
+	private final long timeoutNanos;
+
+	/**
+	 * @param client Client to warm up
+	 * @param connectionsPerNode Number of connections to open per node
+	 * @param timeout Max duration of warm-up
+	 * @param unit Unit of timeout
+	 */
+	public ConnectionPoolWarmer(JestClient client, int connectionsPerNode, long timeout, TimeUnit unit) {
+		this(client, connectionsPerNode, DEFAULT_MAX_CONNECTIONS, timeout, unit);
+	}
+
+	/**
+	 * @param client Client to warm up
+	 * @param connectionsPerNode Number of connections to open per node
+	 * @param maxConnections Max number of connections to open, for all nodes
+	 * @param timeout Max duration of warm-up
+	 * @param unit Unit of timeout
+	 */
+	public ConnectionPoolWarmer(JestClient client, int connectionsPerNode, int maxConnections, long timeout, TimeUnit unit) {
+		Assert.notNull(client, "JestClient must not be null");
+		Assert.isTrue(connectionsPerNode > 0, "Connections per node must be greater than 0");
+		Assert.isTrue(maxConnections > 0, "Max connections must be greater than 0");
+		this.client = client;
+		this.connectionsPerNode = connectionsPerNode;
+		this.maxConnections = maxConnections;
+		this.timeoutNanos = unit.toNanos(timeout);
+	}
+
+	/**
+	 * Open connections to nodes of cluster with HTTP enabled (discovered nodes).
+	 * @return number of successful pings
+	 */
+	public int warmUpDiscoveredNodes() {
+		int nodes;
+		try {
+			nodes = countHttpNodes();
+		} catch (IOException | RuntimeException e) {
+			logger.warn("Cannot list nodes of cluster, connection pool is not warmed up", e);
+			return 0;
+		}
+		return warmUp(nodes);
+	}
+
+	/**
+	 * Open connections to nodes.
+	 * @param nodes Number of nodes used by client
+	 * @return number of successful pings
+	 */
+	public int warmUp(int nodes) {
+		int connections = Math.min(nodes * connectionsPerNode, maxConnections);
+		if (connections <= 0) {
+			return 0;
+		}
+
+		long start = System.nanoTime();
+		CountDownLatch ready = new CountDownLatch(connections);
+		CountDownLatch done = new CountDownLatch(connections);
+		AtomicInteger succeeded = new AtomicInteger();
+
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "jest-connection-warm-up-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		ExecutorService executor = Executors.newFixedThreadPool(connections, threadFactory);
+		try {
+			for (int i = 0; i < connections; i++) {
+				executor.execute(() -> {
+					try {
+						// Wait for all pings, so none of them reuses a connection released by another
+						ready.countDown();
+						if (ready.await(timeoutNanos, TimeUnit.NANOSECONDS) && ping()) {
+							succeeded.incrementAndGet();
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					} finally {
+						done.countDown();
+					}
+				});
+			}
+			if (!done.await(timeoutNanos, TimeUnit.NANOSECONDS)) {
+				logger.warn("Connection pool warm-up timed out after {} ms", TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+
+		logger.info("Warmed up {} of {} connections to {} nodes in {} ms", succeeded.get(), connections, nodes,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return succeeded.get();
+	}
+
+	private boolean ping() {
+		try {
+			JestResult result = client.execute(new Ping.Builder().build());
+			if (result.isSucceeded()) {
+				return true;
+			}
+			logger.debug("Connection warm-up ping failed with status {}", result.getResponseCode());
+		} catch (IOException | RuntimeException e) {
+			logger.debug("Connection warm-up ping failed", e);
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of nodes with HTTP enabled
+	 */
+	private int countHttpNodes() throws IOException {
+		JestResult result = client.execute(new NodesInfo.Builder().withHttp().build());
+		if (!result.isSucceeded() || result.getJsonObject() == null || !result.getJsonObject().has("nodes")) {
+			throw new IOException("Cannot list nodes: " + result.getErrorMessage());
+		}
+
+		int nodes = 0;
+		for (Map.Entry<String, JsonElement> node : result.getJsonObject().getAsJsonObject("nodes").entrySet()) {
+			JsonObject info = node.getValue().getAsJsonObject();
+			if (info.has("http")) {
+				nodes++;
+			}
+		}
+		return nodes;
+	}
+}
@@ -0,0 +1,75 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.io.IOException;
+import java.util.Set;
+
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.JestResultHandler;
+import org.springframework.util.Assert;
+
+/**
+ * JestClient which forwards all its calls to another JestClient.
+ * Subclasses override the calls they want to decorate.
+ *
+ * @author Julien Roy
+ */
+public abstract class ForwardingJestClient implements JestClient {
+
+	private final JestClient delegate;
+
+	protected ForwardingJestClient(JestClient delegate) {
+		Assert.notNull(delegate, "Delegate JestClient must not be null");
+		this.delegate = delegate;
+	}
+
+	/**
+	 * @return the decorated client
+	 */
+	public JestClient getDelegate() {
+		return delegate;
+	}
+
+	@Override
+	public <T extends JestResult> T execute(Action<T> clientRequest) throws IOException {
+		return delegate.execute(clientRequest);
+	}
+
+	@Override
+	public <T extends JestResult> void executeAsync(Action<T> clientRequest, JestResultHandler<? super T> jestResultHandler) {
+		delegate.executeAsync(clientRequest, jestResultHandler);
+	}
+
+	@SuppressWarnings("deprecation")
+	public void shutdownClient() {
+		delegate.shutdownClient();
+	}
+
+	public void setServers(Set<String> servers) {
+		delegate.setServers(servers);
+	}
+
+	@Override
+	public void close() throws IOException {
+		delegate.close();
+	}
+
+	/**
+	 * Walk through a chain of forwarding clients and return the first one of the given type.
+	 * @param client Client to inspect
+	 * @param type Searched decorator type
+	 * @param <C> Searched decorator type
+	 * @return the decorator or null if it's not part of the chain
+	 */
+	public static <C extends JestClient> C unwrap(JestClient client, Class<C> type) {
+		JestClient current = client;
+		while (current != null) {
+			if (type.isInstance(current)) {
+				return type.cast(current);
+			}
+			current = (current instanceof ForwardingJestClient) ? ((ForwardingJestClient) current).getDelegate() : null;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,131 @@
+package com.github.vanroy.springdata.jest.client;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.JestResultHandler;
+import org.springframework.util.Assert;
+
+/**
+ * JestClient created on first use, so HTTP client and node discovery are not started with the application.
+ * Client can also be created in background with {@link #initializeAsync(Executor)}.
+ * If creation fails, it's tried again on next use.
+ *
+ * @author Julien Roy
+ */
+public class LazyJestClient implements JestClient {
+
+	private final Supplier<JestClient> factory;
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private volatile JestClient delegate;
+	private volatile long initializationNanos = -1;
+	private volatile boolean closed;
+
+	/**
+	 * @param factory Factory of client, called once on first use
+	 */
+	public LazyJestClient(Supplier<JestClient> factory) {
+		Assert.notNull(factory, "JestClient factory must not be null");
+		this.factory = factory;
+	}
+
+	/**
+	 * Create client in background, if not already created.
+	 * @param executor Executor running creation
+	 * @return future completed with created client
+	 */
+	public CompletableFuture<JestClient> initializeAsync(Executor executor) {
+		return CompletableFuture.supplyAsync(this::getClient, executor);
+	}
+
+	/**
+	 * @return true if client is created
+	 */
+	public boolean isInitialized() {
+		return delegate != null;
+	}
+
+	/**
+	 * @return duration of client creation in nanoseconds, -1 if not created
+	 */
+	public long getInitializationNanos() {
+		return initializationNanos;
+	}
+
+	/**
+	 * @return the client, created on first call
+	 */
+	public JestClient getClient() {
+		JestClient client = delegate;
+		if (client != null) {
+			return client;
+		}
+
+		lock.lock();
+		try {
+			Assert.state(!closed, "JestClient is closed");
+			if (delegate == null) {
+				long start = System.nanoTime();
+				JestClient created = factory.get();
+				Assert.state(created != null, "JestClient factory returned null");
+				initializationNanos = System.nanoTime() - start;
+				delegate = created;
+			}
+			return delegate;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public <T extends JestResult> T execute(Action<T> clientRequest) throws IOException {
+		return getClient().execute(clientRequest);
+	}
+
+	@Override
+	public <T extends JestResult> void executeAsync(Action<T> clientRequest, JestResultHandler<? super T> jestResultHandler) {
+		getClient().executeAsync(clientRequest, jestResultHandler);
+	}
+
+	@SuppressWarnings("deprecation")
+	public void shutdownClient() {
+		JestClient client = markClosed();
+		if (client != null) {
+			client.shutdownClient();
+		}
+	}
+
+	public void setServers(Set<String> servers) {
+		getClient().setServers(servers);
+	}
+
+	@Override
+	public void close() throws IOException {
+		JestClient client = markClosed();
+		if (client != null) {
+			client.close();
+		}
+	}
+
+	/**
+	 * Mark client as closed, a client not yet created is never created.
+	 * @return created client to close, or null
+	 */
+	private JestClient markClosed() {
+		lock.lock();
+		try {
+			closed = true;
+			return delegate;
+		} finally {
+			lock.unlock();
+		}
+	}
+}
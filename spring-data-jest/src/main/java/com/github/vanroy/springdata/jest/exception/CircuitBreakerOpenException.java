@@ -0,0 +1,20 @@
+package com.github.vanroy.springdata.jest.exception;
+
+/**
+ * Exception thrown when a request is not sent because the circuit breaker is open.
+ *
+ * @author Julien Roy
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+	private final String circuitBreakerName;
+
+	public CircuitBreakerOpenException(String circuitBreakerName) {
+		super(String.format("Circuit breaker '%s' is open, request not permitted", circuitBreakerName));
+		this.circuitBreakerName = circuitBreakerName;
+	}
+
+	public String getCircuitBreakerName() {
+		return circuitBreakerName;
+	}
+}
@@ -0,0 +1,26 @@
+package com.github.vanroy.springdata.jest.exception;
+
+/**
+ * Exception thrown when a request is rejected because too many requests are already in flight.
+ *
+ * @author Julien Roy
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+	private final String limiterName;
+	private final int limit;
+
+	public ConcurrencyLimitExceededException(String limiterName, int limit) {
+		super(String.format("Concurrency limit of '%s' reached (limit : %d), request rejected", limiterName, limit));
+		this.limiterName = limiterName;
+		this.limit = limit;
+	}
+
+	public String getLimiterName() {
+		return limiterName;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+}
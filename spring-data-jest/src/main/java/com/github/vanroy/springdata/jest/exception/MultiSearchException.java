@@ -0,0 +1,42 @@
+package com.github.vanroy.springdata.jest.exception;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exception thrown when some searches of a multi search failed.
+ * Results of successful searches are still available, in request order.
+ * Use {@link com.github.vanroy.springdata.jest.JestElasticsearchTemplate#queryForPageItems} to get partial results without exception.
+ *
+ * @author Julien Roy
+ */
+public class MultiSearchException extends RuntimeException {
+
+	private final List<?> results;
+	private final Map<Integer, RuntimeException> failures;
+
+	/**
+	 * @param results Results in request order, null for failed searches
+	 * @param failures Failures by position of search in request
+	 */
+	public MultiSearchException(List<?> results, Map<Integer, RuntimeException> failures) {
+		super(String.format("%d of %d searches failed in multi search", failures.size(), results.size()), failures.values().iterator().next());
+		this.results = Collections.unmodifiableList(results);
+		this.failures = Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * @return results in request order, null for failed searches
+	 */
+	public List<?> getResults() {
+		return results;
+	}
+
+	/**
+	 * @return failures by position of search in request
+	 */
+	public Map<Integer, RuntimeException> getFailures() {
+		return failures;
+	}
+}
@@ -0,0 +1,33 @@
+package com.github.vanroy.springdata.jest.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Execution strategy running tasks directly on caller thread.
+ *
+ * @author Julien Roy
+ */
+class CallerThreadExecutionStrategy implements ExecutionStrategy {
+
+	static final CallerThreadExecutionStrategy INSTANCE = new CallerThreadExecutionStrategy();
+
+	private CallerThreadExecutionStrategy() {
+	}
+
+	@Override
+	public <T> CompletableFuture<T> submit(Supplier<T> task) {
+		CompletableFuture<T> future = new CompletableFuture<>();
+		try {
+			future.complete(task.get());
+		} catch (Throwable e) {
+			future.completeExceptionally(e);
+		}
+		return future;
+	}
+
+	@Override
+	public String toString() {
+		return "CallerThreadExecutionStrategy";
+	}
+}
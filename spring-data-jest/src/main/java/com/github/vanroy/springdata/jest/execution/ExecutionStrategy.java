@@ -0,0 +1,60 @@
+package com.github.vanroy.springdata.jest.execution;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Strategy used to run blocking template operations.
+ *
+ * @author Julien Roy
+ */
+public interface ExecutionStrategy extends AutoCloseable {
+
+	/**
+	 * Run a blocking task.
+	 * @param task Task to run
+	 * @param <T> Type of result
+	 * @return Future completed with task result
+	 */
+	<T> CompletableFuture<T> submit(Supplier<T> task);
+
+	/**
+	 * Release resources owned by this strategy.
+	 */
+	@Override
+	default void close() {
+	}
+
+	/**
+	 * @return strategy running tasks directly on caller thread
+	 */
+	static ExecutionStrategy callerThread() {
+		return CallerThreadExecutionStrategy.INSTANCE;
+	}
+
+	/**
+	 * @param poolSize Number of platform threads
+	 * @return strategy running tasks on a dedicated pool of platform threads, closed with the strategy
+	 */
+	static ExecutionStrategy platformThreads(int poolSize) {
+		return ExecutorExecutionStrategy.platformThreads(poolSize);
+	}
+
+	/**
+	 * @param executor Executor to use, its lifecycle is not managed by the strategy
+	 * @return strategy running tasks on provided executor
+	 */
+	static ExecutionStrategy executor(Executor executor) {
+		return new ExecutorExecutionStrategy(executor, false);
+	}
+
+	/**
+	 * Virtual threads require Java 21 or later.
+	 * @return strategy running each task on a new virtual thread, closed with the strategy
+	 * @throws IllegalStateException if virtual threads are not supported by current JVM
+	 */
+	static ExecutionStrategy virtualThreads() {
+		return ExecutorExecutionStrategy.virtualThreads();
+	}
+}
@@ -0,0 +1,69 @@
+package com.github.vanroy.springdata.jest.execution;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.util.Assert;
+
+/**
+ * Execution strategy running tasks on an executor.
+ *
+ * @author Julien Roy
+ */
+class ExecutorExecutionStrategy implements ExecutionStrategy {
+
+	private final Executor executor;
+	private final boolean managed;
+
+	ExecutorExecutionStrategy(Executor executor, boolean managed) {
+		Assert.notNull(executor, "Executor must not be null");
+		this.executor = executor;
+		this.managed = managed;
+	}
+
+	static ExecutorExecutionStrategy platformThreads(int poolSize) {
+		Assert.isTrue(poolSize > 0, "Pool size must be greater than 0");
+		AtomicInteger threadCount = new AtomicInteger();
+		ThreadFactory threadFactory = runnable -> {
+			Thread thread = new Thread(runnable, "jest-template-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		return new ExecutorExecutionStrategy(Executors.newFixedThreadPool(poolSize, threadFactory), true);
+	}
+
+	static ExecutorExecutionStrategy virtualThreads() {
+		try {
+			// Resolved by reflection to keep Java 8 compatibility
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return new ExecutorExecutionStrategy((ExecutorService) factory.invoke(null), true);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("Virtual threads are not supported by this JVM (" + System.getProperty("java.version") + "), Java 21 or later is required", e);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Unable to create virtual thread executor", e);
+		}
+	}
+
+	@Override
+	public <T> CompletableFuture<T> submit(Supplier<T> task) {
+		return CompletableFuture.supplyAsync(task, executor);
+	}
+
+	@Override
+	public void close() {
+		if (managed && executor instanceof ExecutorService) {
+			((ExecutorService) executor).shutdown();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ExecutorExecutionStrategy{executor=" + executor + "}";
+	}
+}
@@ -13,6 +13,7 @@ import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.github.vanroy.springdata.jest.aggregation.AggregatedPage;
+import com.github.vanroy.springdata.jest.aggregation.TypedAggregations;
 import com.github.vanroy.springdata.jest.aggregation.impl.AggregatedPageImpl;
 import com.github.vanroy.springdata.jest.internal.ExtendedSearchResult;
 import com.github.vanroy.springdata.jest.internal.MultiDocumentResult;
@@ -118,7 +119,24 @@ public class DefaultJestResultsMapper implements JestResultsMapper {
 			scrollId = ((ExtendedSearchResult) response).getScrollId();
 		}
 
-		return new AggregatedPageImpl<>(results, pageable, response.getTotal(), response.getAggregations(), scrollId);
+		return new AggregatedPageImpl<>(results, pageable, response.getTotal(), response.getAggregations(), scrollId,
+				parseTypedAggregations(response, aggregations));
+	}
+
+	/**
+	 * Parse requested aggregations once, page only keeps their typed results.
+	 */
+	private static TypedAggregations parseTypedAggregations(SearchResult response, List<AbstractAggregationBuilder> aggregations) {
+		JsonObject json = response.getJsonObject();
+		if (json == null || !json.has("aggregations")) {
+			return TypedAggregations.empty();
+		}
+
+		String[] names = new String[aggregations != null ? aggregations.size() : 0];
+		for (int i = 0; i < names.length; i++) {
+			names[i] = aggregations.get(i).getName();
+		}
+		return TypedAggregations.parse(response.getJsonString() != null ? response.getJsonString() : json.toString(), names);
 	}
 
 	private <T> T mapSource(JsonObject source, Class<T> clazz) {
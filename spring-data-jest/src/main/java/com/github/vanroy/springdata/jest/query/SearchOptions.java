@@ -0,0 +1,152 @@
+package com.github.vanroy.springdata.jest.query;
+
+import java.util.Objects;
+
+import org.springframework.util.Assert;
+
+/**
+ * Request parameters of a search : shard request cache, preference, routing and batched reduce size.
+ * Options not set are not sent, Elasticsearch defaults apply.
+ *
+ * @author Julien Roy
+ */
+public final class SearchOptions {
+
+	private static final SearchOptions NONE = new SearchOptions(null, null, null, null);
+
+	private final Boolean requestCache;
+	private final String preference;
+	private final String routing;
+	private final Integer batchedReduceSize;
+
+	private SearchOptions(Boolean requestCache, String preference, String routing, Integer batchedReduceSize) {
+		this.requestCache = requestCache;
+		this.preference = preference;
+		this.routing = routing;
+		this.batchedReduceSize = batchedReduceSize;
+	}
+
+	/**
+	 * @return options without any parameter
+	 */
+	public static SearchOptions none() {
+		return NONE;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * @return true to use shard request cache, false to skip it, null for index setting
+	 */
+	public Boolean getRequestCache() {
+		return requestCache;
+	}
+
+	/**
+	 * @return shards or replicas preference (_local, _only_nodes, custom string...), null for default
+	 */
+	public String getPreference() {
+		return preference;
+	}
+
+	/**
+	 * @return routing values (comma separated), null to search all shards
+	 */
+	public String getRouting() {
+		return routing;
+	}
+
+	/**
+	 * @return number of shard results reduced at once on coordinating node, null for default
+	 */
+	public Integer getBatchedReduceSize() {
+		return batchedReduceSize;
+	}
+
+	public boolean isEmpty() {
+		return requestCache == null && preference == null && routing == null && batchedReduceSize == null;
+	}
+
+	/**
+	 * @param other Options overriding these options
+	 * @return options of other, with options of this instance for options not set in other
+	 */
+	public SearchOptions merge(SearchOptions other) {
+		if (other == null || other.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return other;
+		}
+		return new SearchOptions(
+				other.requestCache != null ? other.requestCache : requestCache,
+				other.preference != null ? other.preference : preference,
+				other.routing != null ? other.routing : routing,
+				other.batchedReduceSize != null ? other.batchedReduceSize : batchedReduceSize
+		);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || getClass() != o.getClass()) {
+			return false;
+		}
+		SearchOptions that = (SearchOptions) o;
+		return Objects.equals(requestCache, that.requestCache) &&
+				Objects.equals(preference, that.preference) &&
+				Objects.equals(routing, that.routing) &&
+				Objects.equals(batchedReduceSize, that.batchedReduceSize);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(requestCache, preference, routing, batchedReduceSize);
+	}
+
+	@Override
+	public String toString() {
+		return "SearchOptions{requestCache=" + requestCache + ", preference='" + preference + "', routing='" + routing + "', batchedReduceSize=" + batchedReduceSize + '}';
+	}
+
+	public static final class Builder {
+
+		private Boolean requestCache;
+		private String preference;
+		private String routing;
+		private Integer batchedReduceSize;
+
+		private Builder() {
+		}
+
+		public Builder requestCache(Boolean requestCache) {
+			this.requestCache = requestCache;
+			return this;
+		}
+
+		public Builder preference(String preference) {
+			this.preference = preference;
+			return this;
+		}
+
+		public Builder routing(String routing) {
+			this.routing = routing;
+			return this;
+		}
+
+		public Builder batchedReduceSize(Integer batchedReduceSize) {
+			Assert.isTrue(batchedReduceSize == null || batchedReduceSize >= 2, "Batched reduce size must be greater than 1");
+			this.batchedReduceSize = batchedReduceSize;
+			return this;
+		}
+
+		public SearchOptions build() {
+			SearchOptions options = new SearchOptions(requestCache, preference, routing, batchedReduceSize);
+			return options.isEmpty() ? NONE : options;
+		}
+	}
+}
@@ -0,0 +1,44 @@
+package com.github.vanroy.springdata.jest.query;
+
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Default search options of a template, resolved for each query.
+ * Options set with {@link com.github.vanroy.springdata.jest.JestElasticsearchTemplate#withSearchOptions} override default options.
+ *
+ * @author Julien Roy
+ */
+@FunctionalInterface
+public interface SearchOptionsPolicy {
+
+	/**
+	 * @param query Query, null for searches without query (ids, scroll continuation)
+	 * @return options of query, never null
+	 */
+	SearchOptions resolve(Query query);
+
+	/**
+	 * @return policy using same options for all queries
+	 */
+	static SearchOptionsPolicy of(SearchOptions options) {
+		return query -> options;
+	}
+
+	/**
+	 * @return policy enabling shard request cache for queries with aggregations
+	 */
+	static SearchOptionsPolicy requestCacheForAggregations() {
+		SearchOptions options = SearchOptions.builder().requestCache(true).build();
+		return query -> query instanceof SearchQuery && !CollectionUtils.isEmpty(((SearchQuery) query).getAggregations()) ? options : SearchOptions.none();
+	}
+
+	/**
+	 * @param other Policy overriding options of this policy
+	 * @return policy merging options of both policies
+	 */
+	default SearchOptionsPolicy andThen(SearchOptionsPolicy other) {
+		return query -> resolve(query).merge(other.resolve(query));
+	}
+}
@@ -0,0 +1,166 @@
+package com.github.vanroy.springdata.jest.query;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.action.support.IndicesOptions;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.util.Assert;
+
+/**
+ * Query executed with a stored search template.
+ *
+ * When query is paged, page offset and size are sent as template params "from" and "size", unless these params are already set.
+ * Sort, fields and source filter are defined by the template itself, so they are ignored.
+ *
+ * @author Julien Roy
+ */
+public class SearchTemplateQuery implements Query {
+
+	private final String templateId;
+	private final Map<String, Object> params;
+	private final List<String> indices = new ArrayList<>();
+	private final List<String> types = new ArrayList<>();
+	private Pageable pageable = Pageable.unpaged();
+	private String preference;
+
+	public SearchTemplateQuery(String templateId) {
+		this(templateId, Collections.emptyMap());
+	}
+
+	public SearchTemplateQuery(String templateId, Map<String, ?> params) {
+		Assert.hasText(templateId, "Template id must not be empty");
+		Assert.notNull(params, "Params must not be null");
+		this.templateId = templateId;
+		this.params = new LinkedHashMap<>(params);
+	}
+
+	public SearchTemplateQuery(String templateId, Map<String, ?> params, Pageable pageable) {
+		this(templateId, params);
+		this.setPageable(pageable);
+	}
+
+	public String getTemplateId() {
+		return templateId;
+	}
+
+	public Map<String, Object> getParams() {
+		return Collections.unmodifiableMap(params);
+	}
+
+	public SearchTemplateQuery addParam(String name, Object value) {
+		this.params.put(name, value);
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T extends Query> T setPageable(Pageable pageable) {
+		Assert.notNull(pageable, "Pageable must not be null");
+		this.pageable = pageable;
+		return (T) this;
+	}
+
+	@Override
+	public Pageable getPageable() {
+		return pageable;
+	}
+
+	@Override
+	public <T extends Query> T addSort(Sort sort) {
+		throw new UnsupportedOperationException("Sort of a search template query is defined by its template");
+	}
+
+	@Override
+	public Sort getSort() {
+		return Sort.unsorted();
+	}
+
+	@Override
+	public List<String> getIndices() {
+		return indices;
+	}
+
+	@Override
+	public void addIndices(String... indices) {
+		Collections.addAll(this.indices, indices);
+	}
+
+	@Override
+	public void addTypes(String... types) {
+		Collections.addAll(this.types, types);
+	}
+
+	@Override
+	public List<String> getTypes() {
+		return types;
+	}
+
+	@Override
+	public void addFields(String... fields) {
+		throw new UnsupportedOperationException("Fields of a search template query are defined by its template");
+	}
+
+	@Override
+	public List<String> getFields() {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public void addSourceFilter(SourceFilter sourceFilter) {
+		throw new UnsupportedOperationException("Source filter of a search template query is defined by its template");
+	}
+
+	@Override
+	public SourceFilter getSourceFilter() {
+		return null;
+	}
+
+	@Override
+	public float getMinScore() {
+		return 0;
+	}
+
+	@Override
+	public boolean getTrackScores() {
+		return false;
+	}
+
+	@Override
+	public Collection<String> getIds() {
+		return null;
+	}
+
+	@Override
+	public String getRoute() {
+		return null;
+	}
+
+	@Override
+	public SearchType getSearchType() {
+		return SearchType.DFS_QUERY_THEN_FETCH;
+	}
+
+	@Override
+	public IndicesOptions getIndicesOptions() {
+		return null;
+	}
+
+	@Override
+	public String getPreference() {
+		return preference;
+	}
+
+	@Override
+	public void setPreference(String preference) {
+		this.preference = preference;
+	}
+}
@@ -0,0 +1,34 @@
+package com.github.vanroy.springdata.jest.repository.query;
+
+import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
+import com.github.vanroy.springdata.jest.query.SearchOptions;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+/**
+ * Repository query executed with search options overriding default options of template.
+ *
+ * @author Julien Roy
+ */
+public class SearchOptionsRepositoryQuery implements RepositoryQuery {
+
+	private final RepositoryQuery delegate;
+	private final JestElasticsearchTemplate elasticsearchTemplate;
+	private final SearchOptions searchOptions;
+
+	public SearchOptionsRepositoryQuery(RepositoryQuery delegate, JestElasticsearchTemplate elasticsearchTemplate, SearchOptions searchOptions) {
+		this.delegate = delegate;
+		this.elasticsearchTemplate = elasticsearchTemplate;
+		this.searchOptions = searchOptions;
+	}
+
+	@Override
+	public Object execute(Object[] parameters) {
+		return elasticsearchTemplate.withSearchOptions(searchOptions, () -> delegate.execute(parameters));
+	}
+
+	@Override
+	public QueryMethod getQueryMethod() {
+		return delegate.getQueryMethod();
+	}
+}
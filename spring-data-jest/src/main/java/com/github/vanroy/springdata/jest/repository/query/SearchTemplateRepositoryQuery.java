@@ -0,0 +1,65 @@
+package com.github.vanroy.springdata.jest.repository.query;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
+import com.github.vanroy.springdata.jest.query.SearchTemplateQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.repository.query.ElasticsearchQueryMethod;
+import org.springframework.data.repository.query.Parameter;
+import org.springframework.data.repository.query.ParametersParameterAccessor;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+
+/**
+ * Repository query executed with a stored search template, method parameters are sent as template params.
+ *
+ * @author Julien Roy
+ */
+public class SearchTemplateRepositoryQuery implements RepositoryQuery {
+
+	private final ElasticsearchQueryMethod queryMethod;
+	private final JestElasticsearchTemplate elasticsearchTemplate;
+	private final String templateId;
+
+	public SearchTemplateRepositoryQuery(ElasticsearchQueryMethod queryMethod, JestElasticsearchTemplate elasticsearchTemplate, String templateId) {
+		this.queryMethod = queryMethod;
+		this.elasticsearchTemplate = elasticsearchTemplate;
+		this.templateId = templateId;
+	}
+
+	@Override
+	public Object execute(Object[] parameters) {
+		ParametersParameterAccessor accessor = new ParametersParameterAccessor(queryMethod.getParameters(), parameters);
+
+		Map<String, Object> params = new LinkedHashMap<>();
+		for (Parameter parameter : queryMethod.getParameters().getBindableParameters()) {
+			String name = parameter.getName().orElseThrow(() -> new IllegalStateException(
+					"Name of parameter " + parameter.getIndex() + " of " + queryMethod.getName() + " is not available, compile with -parameters or use @Param"));
+			params.put(name, parameters[parameter.getIndex()]);
+		}
+
+		Pageable pageable = accessor.getPageable();
+		SearchTemplateQuery query = new SearchTemplateQuery(templateId, params);
+		if (pageable.isPaged()) {
+			query.setPageable(pageable);
+		}
+
+		Class<?> clazz = queryMethod.getEntityInformation().getJavaType();
+		Page<?> page = elasticsearchTemplate.queryForPage(query, clazz);
+
+		if (queryMethod.isPageQuery()) {
+			return page;
+		} else if (queryMethod.isCollectionQuery()) {
+			return page.getContent();
+		}
+		return page.getContent().isEmpty() ? null : page.getContent().get(0);
+	}
+
+	@Override
+	public QueryMethod getQueryMethod() {
+		return queryMethod;
+	}
+}
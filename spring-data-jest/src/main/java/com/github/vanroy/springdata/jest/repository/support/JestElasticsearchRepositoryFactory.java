@@ -0,0 +1,76 @@
+package com.github.vanroy.springdata.jest.repository.support;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+
+import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
+import com.github.vanroy.springdata.jest.annotations.TemplateQuery;
+import com.github.vanroy.springdata.jest.annotations.WithSearchOptions;
+import com.github.vanroy.springdata.jest.query.SearchOptions;
+import com.github.vanroy.springdata.jest.repository.query.SearchOptionsRepositoryQuery;
+import com.github.vanroy.springdata.jest.repository.query.SearchTemplateRepositoryQuery;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.repository.query.ElasticsearchQueryMethod;
+import org.springframework.data.elasticsearch.repository.support.ElasticsearchRepositoryFactory;
+import org.springframework.data.repository.query.QueryLookupStrategy;
+import org.springframework.data.repository.query.QueryMethodEvaluationContextProvider;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Elasticsearch repository factory adding support of {@link TemplateQuery} and {@link WithSearchOptions} methods.
+ *
+ * @author Julien Roy
+ */
+public class JestElasticsearchRepositoryFactory extends ElasticsearchRepositoryFactory {
+
+	private final ElasticsearchOperations elasticsearchOperations;
+
+	public JestElasticsearchRepositoryFactory(ElasticsearchOperations elasticsearchOperations) {
+		super(elasticsearchOperations);
+		this.elasticsearchOperations = elasticsearchOperations;
+	}
+
+	@Override
+	protected Optional<QueryLookupStrategy> getQueryLookupStrategy(@Nullable QueryLookupStrategy.Key key, QueryMethodEvaluationContextProvider evaluationContextProvider) {
+		Optional<QueryLookupStrategy> delegate = super.getQueryLookupStrategy(key, evaluationContextProvider);
+
+		return Optional.of((method, metadata, factory, namedQueries) -> {
+			RepositoryQuery query;
+			TemplateQuery templateQuery = findTemplateQuery(method);
+			if (templateQuery == null) {
+				query = delegate.orElseThrow(() -> new IllegalStateException("No query lookup strategy"))
+						.resolveQuery(method, metadata, factory, namedQueries);
+			} else {
+				Assert.isInstanceOf(JestElasticsearchTemplate.class, elasticsearchOperations, "TemplateQuery requires a JestElasticsearchTemplate");
+				ElasticsearchQueryMethod queryMethod = new ElasticsearchQueryMethod(method, metadata, factory,
+						elasticsearchOperations.getElasticsearchConverter().getMappingContext());
+				query = new SearchTemplateRepositoryQuery(queryMethod, (JestElasticsearchTemplate) elasticsearchOperations, templateQuery.id());
+			}
+
+			WithSearchOptions searchOptions = AnnotatedElementUtils.findMergedAnnotation(method, WithSearchOptions.class);
+			if (searchOptions == null) {
+				return query;
+			}
+
+			Assert.isInstanceOf(JestElasticsearchTemplate.class, elasticsearchOperations, "WithSearchOptions requires a JestElasticsearchTemplate");
+			return new SearchOptionsRepositoryQuery(query, (JestElasticsearchTemplate) elasticsearchOperations, toSearchOptions(searchOptions));
+		});
+	}
+
+	private static TemplateQuery findTemplateQuery(Method method) {
+		return AnnotatedElementUtils.findMergedAnnotation(method, TemplateQuery.class);
+	}
+
+	private static SearchOptions toSearchOptions(WithSearchOptions annotation) {
+		return SearchOptions.builder()
+				.requestCache(StringUtils.hasText(annotation.requestCache()) ? Boolean.valueOf(annotation.requestCache()) : null)
+				.preference(StringUtils.hasText(annotation.preference()) ? annotation.preference() : null)
+				.routing(StringUtils.hasText(annotation.routing()) ? annotation.routing() : null)
+				.batchedReduceSize(annotation.batchedReduceSize() > 0 ? annotation.batchedReduceSize() : null)
+				.build();
+	}
+}
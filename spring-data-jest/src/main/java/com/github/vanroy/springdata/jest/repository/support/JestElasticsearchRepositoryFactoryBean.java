@@ -0,0 +1,35 @@
+package com.github.vanroy.springdata.jest.repository.support;
+
+import java.io.Serializable;
+
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.repository.support.ElasticsearchRepositoryFactoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+
+/**
+ * Repository factory bean creating {@link JestElasticsearchRepositoryFactory}.
+ *
+ * Use it with {@code @EnableElasticsearchRepositories(repositoryFactoryBeanClass = JestElasticsearchRepositoryFactoryBean.class)}.
+ *
+ * @author Julien Roy
+ */
+public class JestElasticsearchRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable> extends ElasticsearchRepositoryFactoryBean<T, S, ID> {
+
+	private ElasticsearchOperations operations;
+
+	public JestElasticsearchRepositoryFactoryBean(Class<? extends T> repositoryInterface) {
+		super(repositoryInterface);
+	}
+
+	@Override
+	public void setElasticsearchOperations(ElasticsearchOperations operations) {
+		super.setElasticsearchOperations(operations);
+		this.operations = operations;
+	}
+
+	@Override
+	protected RepositoryFactorySupport createRepositoryFactory() {
+		return new JestElasticsearchRepositoryFactory(operations);
+	}
+}
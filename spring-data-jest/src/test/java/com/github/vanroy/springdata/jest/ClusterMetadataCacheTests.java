@@ -0,0 +1,169 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.result;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.github.vanroy.springdata.jest.action.ListAliases;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.client.JestClient;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.DeleteIndex;
+import io.searchbox.indices.IndicesExists;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class ClusterMetadataCacheTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	public void shouldCacheLookupUntilTimeToLive() {
+		// given
+		ClusterMetadataCache cache = new ClusterMetadataCache(100, clock::get);
+		AtomicInteger lookups = new AtomicInteger();
+
+		// when
+		cache.indexExists("test-index", () -> lookups.incrementAndGet() > 0);
+		clock.set(99);
+		cache.indexExists("test-index", () -> lookups.incrementAndGet() > 0);
+		clock.set(100);
+		cache.indexExists("test-index", () -> lookups.incrementAndGet() > 0);
+
+		// then
+		assertThat(lookups.get(), is(2));
+	}
+
+	@Test
+	public void shouldAnswerLookupsFromSnapshot() {
+		// given
+		ClusterMetadataCache cache = new ClusterMetadataCache(100, clock::get);
+		cache.load(json("{\"index-1\":{\"aliases\":{\"alias\":{}}},\"index-2\":{\"aliases\":{\"alias\":{}}},\"index-3\":{\"aliases\":{}}}"), cache.generation());
+
+		// then
+		assertThat(cache.indexExists("index-3", () -> { throw new IllegalStateException(); }), is(true));
+		assertThat(cache.indexExists("alias", () -> { throw new IllegalStateException(); }), is(true));
+		assertThat(cache.indexExists("missing", () -> { throw new IllegalStateException(); }), is(false));
+		assertThat(cache.getIndicesFromAlias("alias", () -> { throw new IllegalStateException(); }), containsInAnyOrder("index-1", "index-2"));
+		assertThat(cache.indexExists("index-*", () -> false), is(false));
+	}
+
+	@Test
+	public void shouldNotCacheLookupRacingWithInvalidation() {
+		// given
+		ClusterMetadataCache cache = new ClusterMetadataCache(100, clock::get);
+		AtomicInteger lookups = new AtomicInteger();
+
+		// when
+		cache.indexExists("test-index", () -> {
+			lookups.incrementAndGet();
+			cache.invalidate();
+			return false;
+		});
+		boolean exists = cache.indexExists("test-index", () -> lookups.incrementAndGet() > 0);
+
+		// then
+		assertThat(exists, is(true));
+		assertThat(lookups.get(), is(2));
+	}
+
+	@Test
+	public void shouldIgnoreSnapshotRequestedBeforeInvalidation() {
+		// given
+		ClusterMetadataCache cache = new ClusterMetadataCache(100, clock::get);
+		long generation = cache.generation();
+		cache.invalidate();
+
+		// when
+		cache.load(json("{\"index-1\":{\"aliases\":{}}}"), generation);
+
+		// then
+		assertThat(cache.indexExists("index-1", () -> false), is(false));
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedLookupsBeyondMaxEntries() {
+		// given
+		ClusterMetadataCache cache = new ClusterMetadataCache(100, 2, clock::get);
+		AtomicInteger lookups = new AtomicInteger();
+
+		// when
+		cache.indexExists("index-1", () -> lookups.incrementAndGet() > 0);
+		cache.indexExists("index-2", () -> lookups.incrementAndGet() > 0);
+		cache.indexExists("index-1", () -> lookups.incrementAndGet() > 0);
+		cache.indexExists("index-3", () -> lookups.incrementAndGet() > 0);
+		cache.indexExists("index-1", () -> lookups.incrementAndGet() > 0);
+		cache.indexExists("index-2", () -> lookups.incrementAndGet() > 0);
+
+		// then
+		assertThat(lookups.get(), is(4));
+	}
+
+	@Test
+	public void shouldInvalidateLookupsOnIndexCreation() throws Exception {
+		// given
+		JestClient client = mock(JestClient.class);
+		when(client.execute(isA(IndicesExists.class))).thenReturn(result(404, "{}"));
+		when(client.execute(isA(CreateIndex.class))).thenReturn(result(200, "{\"acknowledged\":true}"));
+		JestElasticsearchTemplate template = new JestElasticsearchTemplate(client);
+		template.setClusterMetadataCacheTtl(1, TimeUnit.HOURS);
+
+		// when
+		template.indexExists("test-index");
+		template.indexExists("test-index");
+		template.createIndex("test-index");
+		template.indexExists("test-index");
+
+		// then
+		verify(client, times(2)).execute(isA(IndicesExists.class));
+	}
+
+	@Test
+	public void shouldNotUseCachedLookupToDeleteIndex() throws Exception {
+		// given
+		JestClient client = mock(JestClient.class);
+		when(client.execute(isA(IndicesExists.class))).thenReturn(result(404, "{}"), result(200, "{}"));
+		when(client.execute(isA(DeleteIndex.class))).thenReturn(result(200, "{\"acknowledged\":true}"));
+		JestElasticsearchTemplate template = new JestElasticsearchTemplate(client);
+		template.setClusterMetadataCacheTtl(1, TimeUnit.HOURS);
+		template.indexExists("test-index");
+
+		// when
+		boolean deleted = template.deleteIndex("test-index");
+
+		// then
+		assertThat(deleted, is(true));
+		verify(client).execute(isA(DeleteIndex.class));
+	}
+
+	@Test
+	public void shouldLoadSnapshotInSingleRequest() throws Exception {
+		// given
+		JestClient client = mock(JestClient.class);
+		when(client.execute(isA(ListAliases.class))).thenReturn(result(200, "{\"test-index\":{\"aliases\":{\"test-alias\":{}}}}"));
+		JestElasticsearchTemplate template = new JestElasticsearchTemplate(client);
+		template.setClusterMetadataCacheTtl(1, TimeUnit.HOURS);
+
+		// when
+		template.refreshClusterMetadata();
+
+		// then
+		assertThat(template.indexExists("test-index"), is(true));
+		assertThat(template.getIndicesFromAlias("test-alias"), contains("test-index"));
+		verify(client, never()).execute(isA(IndicesExists.class));
+	}
+
+	private static JsonObject json(String json) {
+		return new JsonParser().parse(json).getAsJsonObject();
+	}
+}
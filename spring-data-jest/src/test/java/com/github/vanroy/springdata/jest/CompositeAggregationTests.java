@@ -0,0 +1,126 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.searchResult;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.vanroy.springdata.jest.aggregation.CompositeAggregation;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.composite.CompositeAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.composite.TermsValuesSourceBuilder;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * @author Julien Roy
+ */
+public class CompositeAggregationTests {
+
+	private final Gson gson = new Gson();
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() {
+		client = mock(JestClient.class);
+		template = new JestElasticsearchTemplate(client);
+	}
+
+	@Test
+	public void shouldIterateBucketsOfAllPagesUntilPartialPage() throws Exception {
+		// given
+		when(client.execute(isA(Search.class))).thenReturn(
+				result("[{\"key\":{\"message\":\"a\"},\"doc_count\":3},{\"key\":{\"message\":\"b\"},\"doc_count\":1}]", "{\"message\":\"b\"}"),
+				result("[{\"key\":{\"message\":\"c\"},\"doc_count\":2}]", "{\"message\":\"c\"}")
+		);
+		CompositeAggregationBuilder aggregation = AggregationBuilders.composite("messages",
+				Collections.singletonList(new TermsValuesSourceBuilder("message").field("message"))).size(2);
+
+		// when
+		List<String> keys = new ArrayList<>();
+		long count = 0;
+		try (CloseableIterator<CompositeAggregation.Entry> buckets = template.streamCompositeAggregation(
+				new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withFilter(termQuery("rate", 10)).build(), SampleEntity.class, aggregation)) {
+			while (buckets.hasNext()) {
+				CompositeAggregation.Entry bucket = buckets.next();
+				keys.add((String) bucket.getKey().get("message"));
+				count += bucket.getCount();
+			}
+		}
+
+		// then
+		assertThat(keys, contains("a", "b", "c"));
+		assertThat(count, is(6L));
+
+		ArgumentCaptor<Search> searches = ArgumentCaptor.forClass(Search.class);
+		verify(client, times(2)).execute(searches.capture());
+		JsonObject lastRequest = new JsonParser().parse(searches.getAllValues().get(1).getData(gson)).getAsJsonObject();
+		assertThat(lastRequest.get("size").getAsInt(), is(0));
+		assertThat(lastRequest.getAsJsonObject("query").getAsJsonObject("bool").has("filter"), is(true));
+		assertThat(lastRequest.getAsJsonObject("aggregations").getAsJsonObject("messages").getAsJsonObject("composite")
+				.getAsJsonObject("after").get("message").getAsString(), is("b"));
+		assertThat(Strings.toString(aggregation), not(containsString("after")));
+	}
+
+	@Test
+	public void shouldStopWithoutAfterKey() throws Exception {
+		// given
+		when(client.execute(isA(Search.class))).thenReturn(
+				result("[{\"key\":{\"message\":\"a\"},\"doc_count\":3},{\"key\":{\"message\":\"b\"},\"doc_count\":1}]", null));
+		CompositeAggregationBuilder aggregation = AggregationBuilders.composite("messages",
+				Collections.singletonList(new TermsValuesSourceBuilder("message").field("message"))).size(2);
+
+		// when
+		List<String> keys = new ArrayList<>();
+		try (CloseableIterator<CompositeAggregation.Entry> buckets = template.streamCompositeAggregation(
+				new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build(), SampleEntity.class, aggregation)) {
+			buckets.forEachRemaining(bucket -> keys.add((String) bucket.getKey().get("message")));
+		}
+
+		// then
+		assertThat(keys, contains("a", "b"));
+		verify(client, times(1)).execute(isA(Search.class));
+	}
+
+	@Test
+	public void shouldParseCompositeKeyValues() {
+		// given
+		JsonObject json = new JsonParser().parse("{\"after_key\":{\"day\":1574208000000,\"rate\":1.5,\"tag\":null},"
+				+ "\"buckets\":[{\"key\":{\"day\":1574208000000,\"rate\":1.5,\"tag\":null},\"doc_count\":4,\"avg\":{\"value\":2.0}}]}").getAsJsonObject();
+
+		// when
+		CompositeAggregation aggregation = new CompositeAggregation("composite", json);
+
+		// then
+		assertThat(aggregation.getBuckets(), hasSize(1));
+		assertThat(aggregation.getBuckets().get(0).getKey().get("day"), is((Object) 1574208000000L));
+		assertThat(aggregation.getBuckets().get(0).getKey().get("rate"), is((Object) 1.5));
+		assertThat(aggregation.getBuckets().get(0).getKey().get("tag"), is(nullValue()));
+		assertThat(aggregation.getBuckets().get(0).getCount(), is(4L));
+		assertThat(aggregation.getAfterKey().get("day"), is((Object) 1574208000000L));
+	}
+
+	private SearchResult result(String buckets, String afterKey) {
+		String composite = "{\"buckets\":" + buckets + (afterKey != null ? ",\"after_key\":" + afterKey : "") + "}";
+		return searchResult("{\"hits\":{\"total\":6,\"max_score\":0.0,\"hits\":[]},\"aggregations\":{\"messages\":" + composite + "}}");
+	}
+}
@@ -0,0 +1,93 @@
+package com.github.vanroy.springdata.jest;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import org.elasticsearch.common.Strings;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.junit.Test;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+
+/**
+ * @author Julien Roy
+ */
+public class CriteriaQueryCacheTests {
+
+	private final CriteriaQueryCache cache = new CriteriaQueryCache(10);
+
+	@Test
+	public void shouldRenderSameQueryAsProcessor() {
+		for (FilterMode filterMode : FilterMode.values()) {
+			assertRenderedAsProcessor(new Criteria("message").is("some \"quoted\" message"), filterMode);
+			assertRenderedAsProcessor(new Criteria("message").contains("test").and(new Criteria("rate").between(1, null)), filterMode);
+			assertRenderedAsProcessor(new Criteria("rate").greaterThan(10L).or(new Criteria("type").in(Arrays.asList("a", "b"))), filterMode);
+			assertRenderedAsProcessor(new Criteria("message").startsWith("test").boost(2).and(new Criteria("type").is("a").not()), filterMode);
+		}
+	}
+
+	@Test
+	public void shouldReuseCompiledQueryForSameShape() {
+		// when
+		String first = cache.render(new Criteria("message").is("first").and(new Criteria("rate").lessThan(10)), FilterMode.POST_FILTER);
+		String second = cache.render(new Criteria("message").is("second").and(new Criteria("rate").lessThan(20)), FilterMode.POST_FILTER);
+
+		// then
+		assertThat(cache.size(), is(1));
+		assertThat(first, containsString("first"));
+		assertThat(second, containsString("second"));
+		assertThat(second, containsString("20"));
+	}
+
+	@Test
+	public void shouldNotRenderCriteriaWithFilter() {
+		// when
+		String query = cache.render(new Criteria("location").within("0,0", "10km"), FilterMode.POST_FILTER);
+
+		// then
+		assertThat(query, is(nullValue()));
+	}
+
+	@Test
+	public void shouldUseDistinctShapesForCollectionsOfDifferentSize() {
+		// when
+		cache.render(new Criteria("type").in(Arrays.asList("a", "b")), FilterMode.POST_FILTER);
+		cache.render(new Criteria("type").in(Arrays.asList("a", "b", "c")), FilterMode.POST_FILTER);
+
+		// then
+		assertThat(cache.size(), is(2));
+	}
+
+	@Test
+	public void shouldEvictShapesBeyondMaxSize() {
+		// given
+		CriteriaQueryCache smallCache = new CriteriaQueryCache(2);
+
+		// when
+		smallCache.render(new Criteria("message").is("a"), FilterMode.POST_FILTER);
+		smallCache.render(new Criteria("type").is("a"), FilterMode.POST_FILTER);
+		String query = smallCache.render(new Criteria("rate").is(1), FilterMode.POST_FILTER);
+
+		// then
+		assertThat(smallCache.size(), is(2));
+		assertThat(query, containsString("rate"));
+	}
+
+	private void assertRenderedAsProcessor(Criteria criteria, FilterMode filterMode) {
+		QueryBuilder expected = QueryPlan.of(new CriteriaQuery(criteria), filterMode).getQuery();
+
+		// Render twice, from compilation and from cache
+		cache.render(criteria, filterMode);
+		String rendered = cache.render(criteria, filterMode);
+
+		assertThat(parse(rendered), is(parse(Strings.toString(expected))));
+	}
+
+	private static JsonElement parse(String json) {
+		return new JsonParser().parse(json);
+	}
+}
@@ -0,0 +1,104 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.searchResult;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+
+/**
+ * @author Julien Roy
+ */
+public class HitCountTests {
+
+	private final Gson gson = new Gson();
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() {
+		client = mock(JestClient.class);
+		template = new JestElasticsearchTemplate(client);
+	}
+
+	@Test
+	public void shouldCountUpToLimitWithSearchWithoutHits() throws Exception {
+		// given
+		when(client.execute(any(Search.class))).thenReturn(result(1000, true));
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withFilter(termQuery("message", "test")).build();
+
+		// when
+		HitCount count = template.countUpTo(searchQuery, SampleEntity.class, 1000);
+
+		// then
+		assertThat(count.getCount(), is(1000L));
+		assertThat(count.isExact(), is(false));
+		assertThat(count.toString(), is("1000+"));
+
+		JsonObject body = sentBody();
+		assertThat(body.get("size").getAsInt(), is(0));
+		assertThat(body.get("terminate_after").getAsInt(), is(1000));
+		// total hits are tracked by default, track_total_hits is only written when disabled
+		assertThat(body.has("track_total_hits"), is(false));
+		assertThat(body.has("post_filter"), is(false));
+		assertThat(body.getAsJsonObject("query").getAsJsonObject("bool").has("filter"), is(true));
+	}
+
+	@Test
+	public void shouldReturnExactCountWhenNotTerminatedEarly() throws Exception {
+		// given
+		when(client.execute(any(Search.class))).thenReturn(result(12, false));
+		CriteriaQuery criteriaQuery = new CriteriaQuery(new Criteria("message").is("test"));
+
+		// when
+		HitCount count = template.countUpTo(criteriaQuery, SampleEntity.class, 1000);
+
+		// then
+		assertThat(count, is(new HitCount(12, true)));
+		assertThat(count.toString(), is("12"));
+	}
+
+	@Test
+	public void shouldCountFilteredQueryWithSearchOnEntityIndex() throws Exception {
+		// given
+		when(client.execute(any(Search.class))).thenReturn(result(3, false));
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withFilter(termQuery("message", "test")).build();
+
+		// when
+		long count = template.count(searchQuery, SampleEntity.class);
+
+		// then
+		assertThat(count, is(3L));
+		JsonObject body = sentBody();
+		assertThat(body.get("size").getAsInt(), is(0));
+		assertThat(body.has("terminate_after"), is(false));
+		assertThat(body.has("post_filter"), is(false));
+	}
+
+	private JsonObject sentBody() throws Exception {
+		ArgumentCaptor<Search> search = ArgumentCaptor.forClass(Search.class);
+		verify(client).execute(search.capture());
+		return new JsonParser().parse(search.getValue().getData(gson)).getAsJsonObject();
+	}
+
+	private SearchResult result(long total, boolean terminatedEarly) {
+		return searchResult("{\"terminated_early\":" + terminatedEarly + ",\"hits\":{\"total\":" + total + ",\"max_score\":0.0,\"hits\":[]}}");
+	}
+}
@@ -0,0 +1,149 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.acknowledged;
+import static com.github.vanroy.springdata.jest.utils.JestResults.result;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.vanroy.springdata.jest.action.ListAliases;
+import com.github.vanroy.springdata.jest.entities.Book;
+import com.github.vanroy.springdata.jest.entities.EventEntity;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.IndicesExists;
+import io.searchbox.indices.mapping.GetMapping;
+import io.searchbox.indices.mapping.PutMapping;
+import io.searchbox.indices.template.PutTemplate;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+/**
+ * @author Julien Roy
+ */
+public class IndexBootstrapperTests {
+
+	private final Gson gson = new Gson();
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() throws Exception {
+		client = mock(JestClient.class);
+		template = new JestElasticsearchTemplate(client);
+		when(client.execute(isA(ListAliases.class))).thenReturn(result("{\"test-index\":{\"aliases\":{}},\"other-index\":{\"aliases\":{\"other\":{}}}}"));
+		when(client.execute(isA(CreateIndex.class))).thenReturn(acknowledged());
+		when(client.execute(isA(PutMapping.class))).thenReturn(acknowledged());
+		when(client.execute(isA(GetMapping.class))).thenReturn(result("{\"test-index\":{\"mappings\":{}}}"));
+	}
+
+	@Test
+	public void shouldCreateMissingIndicesWithInlinedMapping() throws Exception {
+		// when
+		List<Class<?>> created = new IndexBootstrapper(template, 2).bootstrap(Arrays.asList(SampleEntity.class, Book.class));
+
+		// then
+		assertThat(created, contains((Object) Book.class));
+
+		List<CreateIndex> createIndices = executed(CreateIndex.class);
+		assertThat(createIndices, hasSize(1));
+		JsonObject payload = new JsonParser().parse(createIndices.get(0).getData(gson)).getAsJsonObject();
+		assertThat(createIndices.get(0).getURI(ElasticsearchVersion.UNKNOWN), containsString("test-index-book-core-template"));
+		assertThat(payload.has("settings"), is(true));
+		assertThat(payload.getAsJsonObject("mappings").getAsJsonObject("book").has("properties"), is(true));
+
+		List<PutMapping> putMappings = executed(PutMapping.class);
+		assertThat(putMappings, hasSize(1));
+		assertThat(putMappings.get(0).getURI(ElasticsearchVersion.UNKNOWN), startsWith("test-index/"));
+	}
+
+	@Test
+	public void shouldSkipDeferredCreationsUntilBootstrap() throws Exception {
+		// given
+		IndexBootstrapper bootstrapper = new IndexBootstrapper(template, 2);
+		template.deferIndexCreation(Arrays.asList(SampleEntity.class, Book.class));
+
+		// when
+		template.createIndex(Book.class);
+		template.putMapping(Book.class);
+
+		// then
+		verify(client, never()).execute(isA(IndicesExists.class));
+		verify(client, never()).execute(isA(CreateIndex.class));
+		verify(client, never()).execute(isA(PutMapping.class));
+
+		// when
+		bootstrapper.bootstrapDeferred();
+
+		// then
+		verify(client, times(1)).execute(isA(CreateIndex.class));
+		verify(client, times(1)).execute(isA(PutMapping.class));
+	}
+
+	@Test
+	public void shouldSendCreationsAfterBootstrap() throws Exception {
+		// given
+		template.deferIndexCreation(Arrays.asList(SampleEntity.class, Book.class));
+		new IndexBootstrapper(template, 2).bootstrapDeferred();
+
+		// when
+		template.putMapping(Book.class);
+
+		// then
+		assertThat(template.getDeferredEntities(), is(empty()));
+		verify(client, times(2)).execute(isA(PutMapping.class));
+	}
+
+	@Test
+	public void shouldPutIndexTemplateOfTimeBasedEntities() throws Exception {
+		// given
+		when(client.execute(isA(PutTemplate.class))).thenReturn(acknowledged());
+		template.setIndexNameResolver(new TimeBasedIndexNameResolver(new SimpleElasticsearchMappingContext())
+				.register(EventEntity.class, "timestamp", "'test-events-'yyyy.MM.dd", ChronoUnit.DAYS));
+
+		// when
+		List<Class<?>> created = new IndexBootstrapper(template, 2).bootstrap(Arrays.asList(EventEntity.class));
+
+		// then
+		assertThat(created, is(empty()));
+		verify(client, never()).execute(isA(CreateIndex.class));
+
+		PutTemplate putTemplate = executed(PutTemplate.class).get(0);
+		JsonObject payload = new JsonParser().parse(putTemplate.getData(gson)).getAsJsonObject();
+		String alias = template.getPersistentEntityFor(EventEntity.class).getIndexName();
+		assertThat(putTemplate.getURI(ElasticsearchVersion.UNKNOWN), is("_template/" + alias));
+		assertThat(payload.get("index_patterns").toString(), is("[\"test-events-*\"]"));
+		assertThat(payload.getAsJsonObject("aliases").has(alias), is(true));
+		assertThat(payload.has("settings"), is(true));
+		assertThat(payload.getAsJsonObject("mappings").size(), is(1));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<T> executed(Class<T> actionType) throws Exception {
+		ArgumentCaptor<Action> actions = ArgumentCaptor.forClass(Action.class);
+		verify(client, atLeastOnce()).execute(actions.capture());
+		List<T> executed = new ArrayList<>();
+		for (Action action : actions.getAllValues()) {
+			if (actionType.isInstance(action)) {
+				executed.add((T) action);
+			}
+		}
+		return executed;
+	}
+}
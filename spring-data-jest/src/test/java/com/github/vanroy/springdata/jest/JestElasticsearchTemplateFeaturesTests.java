@@ -0,0 +1,182 @@
+package com.github.vanroy.springdata.jest;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.entities.AliasedEntity;
+import com.github.vanroy.springdata.jest.entities.EventEntity;
+import com.github.vanroy.springdata.jest.entities.RoutedEntity;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.elasticsearch.core.query.AliasQuery;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Template features tested against the embedded node, request building is tested with a mocked client in feature tests.
+ *
+ * @author Julien Roy
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-jest-template-test.xml")
+public class JestElasticsearchTemplateFeaturesTests {
+
+	@Autowired
+	private JestElasticsearchTemplate elasticsearchTemplate;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.putMapping(SampleEntity.class);
+		elasticsearchTemplate.refresh(SampleEntity.class);
+	}
+
+	@Test
+	public void shouldCountFilteredQueryWithSearchWithoutHits() {
+		// given
+		indexSampleEntities("some message", 3, 2);
+		indexSampleEntities("other message", 2, 5);
+
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withFilter(termQuery("rate", 2)).build();
+		CriteriaQuery criteriaQuery = new CriteriaQuery(new Criteria("rate").is(5));
+
+		// when
+		long count = elasticsearchTemplate.count(searchQuery, SampleEntity.class);
+		HitCount hitCount = elasticsearchTemplate.countUpTo(criteriaQuery, SampleEntity.class, 1000);
+		HitCount limitedHitCount = elasticsearchTemplate.countUpTo(new CriteriaQuery(new Criteria("rate").greaterThan(0)), SampleEntity.class, 1);
+
+		// then
+		assertThat(count, is(3L));
+		assertThat(hitCount, is(new HitCount(2, true)));
+		assertThat(limitedHitCount.getCount(), is(1L));
+		assertThat(limitedHitCount.isExact(), is(false));
+	}
+
+	@Test
+	public void shouldGetAndDeleteEntityOnShardOfItsRouting() {
+		// given
+		elasticsearchTemplate.deleteIndex(RoutedEntity.class);
+		elasticsearchTemplate.createIndex(RoutedEntity.class);
+		elasticsearchTemplate.putMapping(RoutedEntity.class);
+		RoutedEntity entity = new RoutedEntity("1", "tenant-1", "message");
+		elasticsearchTemplate.index(new IndexQueryBuilder().withObject(entity).build());
+		elasticsearchTemplate.refresh(RoutedEntity.class);
+
+		GetQuery getQuery = new GetQuery();
+		getQuery.setId("1");
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+
+		// when
+		RoutedEntity found = elasticsearchTemplate.withRouting("tenant-1", () -> elasticsearchTemplate.queryForObject(getQuery, RoutedEntity.class));
+		elasticsearchTemplate.deleteEntity(entity);
+		elasticsearchTemplate.refresh(RoutedEntity.class);
+
+		// then
+		assertThat(found, is(entity));
+		assertThat(elasticsearchTemplate.count(searchQuery, RoutedEntity.class), is(0L));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	public void shouldPutOnlyMissingMappingFields() {
+		// given
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.putMapping("test-index", "test-type", "{\"properties\":{\"message\":{\"type\":\"keyword\"}}}");
+
+		// when
+		boolean updated = elasticsearchTemplate.ensureMapping(SampleEntity.class);
+		boolean upToDate = elasticsearchTemplate.ensureMapping(SampleEntity.class);
+
+		// then
+		assertThat(updated, is(true));
+		assertThat(upToDate, is(true));
+		Map<String, Map<String, Map<String, Object>>> mapping = elasticsearchTemplate.getMapping(SampleEntity.class);
+		assertThat(mapping.get("properties").get("message").get("type"), is("keyword"));
+		assertThat(mapping.get("properties").get("location").get("type"), is("geo_point"));
+	}
+
+	@Test
+	public void shouldReindexInNewIndexThenSwapAlias() {
+		// given
+		if (elasticsearchTemplate.indexExists("test-index-aliased")) {
+			for (String index : elasticsearchTemplate.getIndicesFromAlias("test-index-aliased")) {
+				elasticsearchTemplate.deleteIndex(index);
+			}
+		}
+		elasticsearchTemplate.deleteIndex("test-index-aliased_v0");
+		elasticsearchTemplate.createIndex("test-index-aliased_v0");
+		AliasQuery aliasQuery = new AliasQuery();
+		aliasQuery.setIndexName("test-index-aliased_v0");
+		aliasQuery.setAliasName("test-index-aliased");
+		elasticsearchTemplate.addAlias(aliasQuery);
+
+		List<IndexQuery> indexQueries = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			indexQueries.add(new IndexQueryBuilder().withObject(new AliasedEntity(String.valueOf(i), "message")).build());
+		}
+		elasticsearchTemplate.bulkIndex(indexQueries);
+		elasticsearchTemplate.refresh("test-index-aliased_v0");
+
+		ReindexOptions options = ReindexOptions.builder().pollInterval(100, TimeUnit.MILLISECONDS).deleteSourceIndices(true).build();
+		SearchQuery searchQuery = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+
+		// when
+		String index = elasticsearchTemplate.reindexAndSwapAlias(AliasedEntity.class, options);
+
+		// then
+		assertThat(index, startsWith("test-index-aliased_"));
+		assertThat(elasticsearchTemplate.getIndicesFromAlias("test-index-aliased"), contains(index));
+		assertThat(elasticsearchTemplate.indexExists("test-index-aliased_v0"), is(false));
+		assertThat(elasticsearchTemplate.count(searchQuery, AliasedEntity.class), is(3L));
+	}
+
+	@Test
+	public void shouldCreateTimeBasedIndexFromIndexTemplate() {
+		// given
+		elasticsearchTemplate.deleteIndex("test-events-2019.11.18");
+		elasticsearchTemplate.setIndexNameResolver(new TimeBasedIndexNameResolver(elasticsearchTemplate.getElasticsearchConverter().getMappingContext())
+				.register(EventEntity.class, "timestamp", "'test-events-'yyyy.MM.dd", ChronoUnit.DAYS));
+		try {
+			// when
+			boolean put = elasticsearchTemplate.putIndexTemplate(EventEntity.class);
+			elasticsearchTemplate.index(new IndexQueryBuilder().withObject(new EventEntity("1", new Date(1574080000000L), "message")).build());
+
+			// then
+			assertThat(put, is(true));
+			assertThat(elasticsearchTemplate.getIndicesFromAlias("test-events"), contains("test-events-2019.11.18"));
+			assertThat(elasticsearchTemplate.getMapping("test-events-2019.11.18", "test-type").get("properties"), is(notNullValue()));
+		} finally {
+			elasticsearchTemplate.setIndexNameResolver(null);
+		}
+	}
+
+	private void indexSampleEntities(String message, int count, int rate) {
+		List<IndexQuery> indexQueries = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			SampleEntity entity = SampleEntity.builder().id(message + "-" + i).message(message).rate(rate).build();
+			indexQueries.add(new IndexQueryBuilder().withId(entity.getId()).withObject(entity).build());
+		}
+		elasticsearchTemplate.bulkIndex(indexQueries);
+		elasticsearchTemplate.refresh(SampleEntity.class);
+	}
+}
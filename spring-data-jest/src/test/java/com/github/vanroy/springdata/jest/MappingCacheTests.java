@@ -0,0 +1,65 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.acknowledged;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.google.gson.Gson;
+import io.searchbox.client.JestClient;
+import io.searchbox.indices.mapping.PutMapping;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * @author Julien Roy
+ */
+public class MappingCacheTests {
+
+	private final Gson gson = new Gson();
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() throws Exception {
+		client = mock(JestClient.class);
+		template = new JestElasticsearchTemplate(client);
+		when(client.execute(isA(PutMapping.class))).thenReturn(acknowledged());
+	}
+
+	@Test
+	public void shouldBuildMappingOnceForAllIndices() throws Exception {
+		// when
+		template.putMapping("tenant-1", "test-type", SampleEntity.class);
+		template.putMapping("tenant-2", "test-type", SampleEntity.class);
+
+		// then
+		List<PutMapping> requests = putMappings(2);
+		assertThat(requests.get(1).getData(gson), is(sameInstance(requests.get(0).getData(gson))));
+	}
+
+	@Test
+	public void shouldRebuildMappingAfterEviction() throws Exception {
+		// when
+		template.putMapping("tenant-1", "test-type", SampleEntity.class);
+		template.evictMapping(SampleEntity.class);
+		template.putMapping("tenant-2", "test-type", SampleEntity.class);
+
+		// then
+		List<PutMapping> requests = putMappings(2);
+		assertThat(requests.get(1).getData(gson), is(not(sameInstance(requests.get(0).getData(gson)))));
+		assertThat(requests.get(1).getData(gson), is(requests.get(0).getData(gson)));
+	}
+
+	private List<PutMapping> putMappings(int count) throws Exception {
+		ArgumentCaptor<PutMapping> requests = ArgumentCaptor.forClass(PutMapping.class);
+		verify(client, times(count)).execute(requests.capture());
+		return requests.getAllValues();
+	}
+}
@@ -0,0 +1,75 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.result;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.client.JestClient;
+import io.searchbox.indices.mapping.GetMapping;
+import io.searchbox.indices.mapping.PutMapping;
+import org.junit.Test;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+/**
+ * @author Julien Roy
+ */
+public class MappingDiffTests {
+
+	@Test
+	public void shouldFindNothingMissingInSameMapping() {
+		// given
+		JsonObject mapping = json("{\"properties\":{\"message\":{\"type\":\"text\",\"fields\":{\"raw\":{\"type\":\"keyword\"}}}}}");
+
+		// when
+		JsonObject missing = MappingDiff.missing(mapping, json("{\"properties\":{\"message\":{\"type\":\"text\",\"fields\":{\"raw\":{\"type\":\"keyword\"}}}}}"));
+
+		// then
+		assertThat(missing, is(nullValue()));
+	}
+
+	@Test
+	public void shouldKeepOnlyMissingFields() {
+		// given
+		JsonObject expected = json("{\"properties\":{"
+				+ "\"message\":{\"type\":\"text\",\"fields\":{\"raw\":{\"type\":\"keyword\"}}},"
+				+ "\"rate\":{\"type\":\"integer\"},"
+				+ "\"author\":{\"type\":\"object\",\"properties\":{\"name\":{\"type\":\"keyword\"},\"email\":{\"type\":\"keyword\"}}}}}");
+		JsonObject actual = json("{\"properties\":{"
+				+ "\"message\":{\"type\":\"text\"},"
+				+ "\"author\":{\"properties\":{\"name\":{\"type\":\"keyword\"}}}}}");
+
+		// when
+		JsonObject missing = MappingDiff.missing(expected, actual);
+
+		// then
+		assertThat(missing, is(json("{\"properties\":{"
+				+ "\"message\":{\"type\":\"text\",\"fields\":{\"raw\":{\"type\":\"keyword\"}}},"
+				+ "\"rate\":{\"type\":\"integer\"},"
+				+ "\"author\":{\"type\":\"object\",\"properties\":{\"email\":{\"type\":\"keyword\"}}}}}")));
+	}
+
+	@Test
+	public void shouldNotPutMappingWhenIndexMappingIsUpToDate() throws Exception {
+		// given
+		JestClient client = mock(JestClient.class);
+		String mapping = JestElasticsearchTemplate.buildMappingForEntity(SampleEntity.class,
+				new SimpleElasticsearchMappingContext().getRequiredPersistentEntity(SampleEntity.class));
+		when(client.execute(isA(GetMapping.class))).thenReturn(result("{\"test-index\":{\"mappings\":" + mapping + "}}"));
+
+		// when
+		boolean upToDate = new JestElasticsearchTemplate(client).ensureMapping(SampleEntity.class);
+
+		// then
+		assertThat(upToDate, is(true));
+		verify(client, never()).execute(isA(PutMapping.class));
+	}
+
+	private static JsonObject json(String json) {
+		return new JsonParser().parse(json).getAsJsonObject();
+	}
+}
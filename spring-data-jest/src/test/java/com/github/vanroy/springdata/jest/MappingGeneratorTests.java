@@ -0,0 +1,72 @@
+package com.github.vanroy.springdata.jest;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import com.github.vanroy.springdata.jest.entities.Book;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+/**
+ * @author Julien Roy
+ */
+public class MappingGeneratorTests {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void shouldGenerateSameMappingAsRuntime() throws Exception {
+		// given
+		Path output = folder.getRoot().toPath();
+
+		// when
+		MappingGenerator.generate(output, Collections.singletonList(SampleEntity.class));
+
+		// then
+		String expected = JestElasticsearchTemplate.buildMappingForEntity(SampleEntity.class,
+				new SimpleElasticsearchMappingContext().getRequiredPersistentEntity(SampleEntity.class));
+		String generated = new String(Files.readAllBytes(output.resolve(GeneratedMappings.MAPPINGS_LOCATION + SampleEntity.class.getName() + ".json")), StandardCharsets.UTF_8);
+		assertThat(generated, is(expected));
+		assertThat(Files.readAllLines(output.resolve(GeneratedMappings.INDEX_LOCATION)), contains(SampleEntity.class.getName()));
+	}
+
+	@Test
+	public void shouldGenerateMappingsOfEntitiesOfPackages() throws Exception {
+		// given
+		Path output = folder.getRoot().toPath();
+
+		// when
+		MappingGenerator.main(new String[]{output.toString(), SampleEntity.class.getPackage().getName()});
+
+		// then
+		assertThat(Files.readAllLines(output.resolve(GeneratedMappings.INDEX_LOCATION)), hasItems(SampleEntity.class.getName(), Book.class.getName()));
+		assertThat(Files.exists(output.resolve(GeneratedMappings.MAPPINGS_LOCATION + Book.class.getName() + ".json")), is(true));
+	}
+
+	@Test
+	public void shouldReadOnlyIndexedMappings() throws Exception {
+		// given
+		Path output = folder.getRoot().toPath();
+		MappingGenerator.generate(output, Collections.singletonList(SampleEntity.class));
+
+		// when
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[]{output.toUri().toURL()}, null)) {
+			GeneratedMappings mappings = new GeneratedMappings(classLoader);
+
+			// then
+			assertThat(mappings.get(SampleEntity.class), containsString("\"properties\""));
+			assertThat(mappings.get(Book.class), is(nullValue()));
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.multiSearchResult;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.github.vanroy.springdata.jest.exception.JestElasticsearchException;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.action.Action;
+import io.searchbox.core.MultiSearchResult;
+import io.searchbox.core.Search;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class MultiSearchBatcherTests {
+
+	private final Gson gson = new Gson();
+	private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+	private final AtomicBoolean first = new AtomicBoolean(true);
+	private final CountDownLatch firstStarted = new CountDownLatch(1);
+	private final CountDownLatch releaseFirst = new CountDownLatch(1);
+
+	@After
+	public void after() {
+		releaseFirst.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldSendLoneSearchImmediately() {
+		// given
+		MultiSearchBatcher batcher = new MultiSearchBatcher(10, TimeUnit.SECONDS.toNanos(10), this::execute);
+
+		// when
+		long start = System.nanoTime();
+		Long total = batcher.search(search(7)).getTotal();
+
+		// then
+		assertThat(total, is(7L));
+		assertThat(batchSizes, contains(1));
+		assertThat(System.nanoTime() - start, lessThan(TimeUnit.SECONDS.toNanos(5)));
+	}
+
+	@Test
+	public void shouldSendConcurrentSearchesInOneMultiSearch() throws Exception {
+		// given
+		MultiSearchBatcher batcher = new MultiSearchBatcher(3, TimeUnit.SECONDS.toNanos(10), this::executeBlockingFirst);
+		CompletableFuture<Long> inFlight = CompletableFuture.supplyAsync(() -> batcher.search(search(0)).getTotal(), executor);
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+		// when
+		List<CompletableFuture<Long>> results = new ArrayList<>();
+		for (int i = 1; i <= 3; i++) {
+			Search search = search(i);
+			results.add(CompletableFuture.supplyAsync(() -> batcher.search(search).getTotal(), executor));
+		}
+
+		// then
+		for (int i = 1; i <= 3; i++) {
+			assertThat(results.get(i - 1).get(5, TimeUnit.SECONDS), is((long) i));
+		}
+		releaseFirst.countDown();
+		assertThat(inFlight.get(5, TimeUnit.SECONDS), is(0L));
+		assertThat(batchSizes, contains(3, 1));
+	}
+
+	@Test
+	public void shouldSendBatchAfterWindow() throws Exception {
+		// given
+		MultiSearchBatcher batcher = new MultiSearchBatcher(10, TimeUnit.MILLISECONDS.toNanos(5), this::executeBlockingFirst);
+		CompletableFuture<Long> inFlight = CompletableFuture.supplyAsync(() -> batcher.search(search(0)).getTotal(), executor);
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+
+		// when
+		Long total = batcher.search(search(7)).getTotal();
+
+		// then
+		assertThat(total, is(7L));
+		assertThat(inFlight.isDone(), is(false));
+		releaseFirst.countDown();
+		inFlight.get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void shouldSendPendingSearchesWhenBatchInFlightCompletes() throws Exception {
+		// given
+		MultiSearchBatcher batcher = new MultiSearchBatcher(10, TimeUnit.SECONDS.toNanos(30), this::executeBlockingFirst);
+		CompletableFuture<Long> inFlight = CompletableFuture.supplyAsync(() -> batcher.search(search(0)).getTotal(), executor);
+		assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+		CompletableFuture<Long> pending = CompletableFuture.supplyAsync(() -> batcher.search(search(7)).getTotal(), executor);
+
+		// when
+		releaseFirst.countDown();
+
+		// then
+		assertThat(pending.get(5, TimeUnit.SECONDS), is(7L));
+		assertThat(inFlight.get(5, TimeUnit.SECONDS), is(0L));
+	}
+
+	@Test
+	public void shouldKeepSearchOptionsInMultiSearchHeader() {
+		// given
+		List<String> data = new CopyOnWriteArrayList<>();
+		MultiSearchBatcher batcher = new MultiSearchBatcher(10, 0, request -> {
+			data.add(request.getData(gson));
+			return execute(request);
+		});
+		Search search = new Search.Builder("{\n  \"id\" : 1\n}").addIndex("test-index")
+				.setParameter("routing", "user-1")
+				.setParameter("ignore_unavailable", true)
+				.build();
+
+		// when
+		batcher.search(search);
+
+		// then
+		JsonObject header = new JsonParser().parse(data.get(0).split("\n")[0]).getAsJsonObject();
+		assertThat(header.get("index").getAsString(), is("test-index"));
+		assertThat(header.get("routing").getAsString(), is("user-1"));
+		assertThat(header.get("ignore_unavailable").getAsString(), is("true"));
+	}
+
+	@Test
+	public void shouldRouteErrorToItsCaller() throws Exception {
+		// given
+		MultiSearchBatcher batcher = new MultiSearchBatcher(2, TimeUnit.SECONDS.toNanos(10), this::execute);
+
+		// when
+		CompletableFuture<Long> success = CompletableFuture.supplyAsync(() -> batcher.search(search(1)).getTotal(), executor);
+		CompletableFuture<Long> failure = CompletableFuture.supplyAsync(() -> batcher.search(search(-1)).getTotal(), executor);
+
+		// then
+		assertThat(success.get(5, TimeUnit.SECONDS), is(1L));
+		try {
+			failure.get(5, TimeUnit.SECONDS);
+			fail("Expected JestElasticsearchException");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(JestElasticsearchException.class));
+		}
+	}
+
+	@Test
+	public void shouldFailAllCallersWhenMultiSearchFails() {
+		// given
+		MultiSearchBatcher batcher = new MultiSearchBatcher(1, 0, request -> {
+			throw new IllegalStateException("failure");
+		});
+
+		// when
+		try {
+			batcher.search(search(1));
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			// then
+			assertThat(e.getMessage(), is("failure"));
+		}
+	}
+
+	private Search search(int id) {
+		return new Search.Builder("{\"id\":" + id + "}").addIndex("test-index").build();
+	}
+
+	/**
+	 * Keep first multi search in flight until it is released.
+	 */
+	private MultiSearchResult executeBlockingFirst(Action<MultiSearchResult> request) {
+		if (first.compareAndSet(true, false)) {
+			firstStarted.countDown();
+			try {
+				releaseFirst.await(10, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return execute(request);
+	}
+
+	/**
+	 * Respond to each search with its id as total hits, or an error if id is negative.
+	 */
+	private MultiSearchResult execute(Action<MultiSearchResult> request) {
+		String[] lines = request.getData(gson).split("\n");
+		JsonArray responses = new JsonArray();
+		for (int i = 1; i < lines.length; i += 2) {
+			long id = new JsonParser().parse(lines[i]).getAsJsonObject().get("id").getAsLong();
+			JsonObject response = new JsonObject();
+			if (id < 0) {
+				response.addProperty("error", "invalid search");
+			} else {
+				JsonObject hits = new JsonObject();
+				hits.addProperty("total", id);
+				hits.add("hits", new JsonArray());
+				response.add("hits", hits);
+			}
+			responses.add(response);
+		}
+		batchSizes.add(responses.size());
+
+		JsonObject json = new JsonObject();
+		json.add("responses", responses);
+		return multiSearchResult(json.toString());
+	}
+}
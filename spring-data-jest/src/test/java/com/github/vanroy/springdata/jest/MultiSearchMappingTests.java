@@ -0,0 +1,117 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.multiSearchResult;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.github.vanroy.springdata.jest.exception.JestElasticsearchException;
+import com.github.vanroy.springdata.jest.exception.MultiSearchException;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.MultiSearch;
+import io.searchbox.core.MultiSearchResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+
+/**
+ * @author Julien Roy
+ */
+public class MultiSearchMappingTests {
+
+	private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() {
+		client = mock(JestClient.class);
+		template = new JestElasticsearchTemplate(client);
+		template.setMultiSearchMappingExecutor(executor);
+	}
+
+	@After
+	public void after() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void shouldMapResponsesInRequestOrder() throws Exception {
+		// given
+		when(client.execute(any(MultiSearch.class))).thenReturn(result(hit("1"), hit("2"), hit("3")));
+
+		// when
+		List<Page<SampleEntity>> pages = template.queryForPage(queries(3), SampleEntity.class);
+
+		// then
+		assertThat(pages, hasSize(3));
+		assertThat(pages.get(0).getContent().get(0).getId(), is("1"));
+		assertThat(pages.get(1).getContent().get(0).getId(), is("2"));
+		assertThat(pages.get(2).getContent().get(0).getId(), is("3"));
+	}
+
+	@Test
+	public void shouldReportFailedResponsesAndKeepOthers() throws Exception {
+		// given
+		when(client.execute(any(MultiSearch.class))).thenReturn(result(hit("1"), "{\"error\":\"failure\"}", hit("3")));
+
+		// when
+		try {
+			template.queryForPage(queries(3), SampleEntity.class);
+			fail("Expected MultiSearchException");
+		} catch (MultiSearchException e) {
+			// then
+			assertThat(e.getFailures().keySet(), contains(1));
+			assertThat(e.getFailures().get(1), instanceOf(JestElasticsearchException.class));
+			assertThat(e.getResults(), hasSize(3));
+			assertThat(e.getResults().get(0), is(notNullValue()));
+			assertThat(e.getResults().get(1), is(nullValue()));
+			assertThat(e.getResults().get(2), is(notNullValue()));
+		}
+	}
+
+	@Test
+	public void shouldReturnPageOrFailureOfEachQuery() throws Exception {
+		// given
+		when(client.execute(any(MultiSearch.class))).thenReturn(result(hit("1"), "{\"error\":\"failure\"}", hit("3")));
+
+		// when
+		List<MultiSearchItem<Page<SampleEntity>>> items = template.queryForPageItems(queries(3), SampleEntity.class);
+
+		// then
+		assertThat(items, hasSize(3));
+		assertThat(items.get(0).isFailed(), is(false));
+		assertThat(items.get(0).getResult().getContent().get(0).getId(), is("1"));
+		assertThat(items.get(1).isFailed(), is(true));
+		assertThat(items.get(1).getFailure(), instanceOf(JestElasticsearchException.class));
+		assertThat(items.get(2).getResult().getContent().get(0).getId(), is("3"));
+	}
+
+	private static List<SearchQuery> queries(int count) {
+		SearchQuery[] queries = new SearchQuery[count];
+		for (int i = 0; i < count; i++) {
+			queries[i] = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+		}
+		return Arrays.asList(queries);
+	}
+
+	private static String hit(String id) {
+		return "{\"hits\":{\"total\":1,\"max_score\":1.0,\"hits\":[{\"_index\":\"test-index\",\"_type\":\"test-type\",\"_id\":\"" + id + "\",\"_score\":1.0,\"_source\":{\"id\":\"" + id + "\"}}]}}";
+	}
+
+	private static MultiSearchResult result(String... responses) {
+		return multiSearchResult("{\"responses\":[" + String.join(",", responses) + "]}");
+	}
+}
@@ -0,0 +1,98 @@
+package com.github.vanroy.springdata.jest;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.junit.Test;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+
+/**
+ * @author Julien Roy
+ */
+public class QueryPlanTests {
+
+	@Test
+	public void shouldKeepPostFilterInPostFilterMode() {
+		// given
+		CriteriaQuery query = new CriteriaQuery(new Criteria("message").contains("test").and(new Criteria("location").within("0,0", "10km")));
+
+		// when
+		QueryPlan plan = QueryPlan.of(query, FilterMode.POST_FILTER);
+
+		// then
+		assertThat(plan.getPostFilter(), is(notNullValue()));
+		assertThat(((BoolQueryBuilder) plan.getQuery()).filter(), is(empty()));
+	}
+
+	@Test
+	public void shouldMoveFilterAndNonScoringCriteriaToFilterContext() {
+		// given
+		CriteriaQuery query = new CriteriaQuery(new Criteria("message").contains("test")
+				.and(new Criteria("rate").between(1, 10))
+				.and(new Criteria("location").within("0,0", "10km")));
+
+		// when
+		QueryPlan plan = QueryPlan.of(query, FilterMode.FILTER_CONTEXT);
+
+		// then
+		BoolQueryBuilder boolQuery = (BoolQueryBuilder) plan.getQuery();
+		assertThat(plan.getPostFilter(), is(nullValue()));
+		assertThat(boolQuery.must(), hasSize(1));
+		assertThat(boolQuery.filter(), hasSize(2));
+	}
+
+	@Test
+	public void shouldKeepDisjunctionInQuery() {
+		// given
+		CriteriaQuery query = new CriteriaQuery(new Criteria("rate").between(1, 10).or(new Criteria("type").is("test")));
+
+		// when
+		QueryPlan plan = QueryPlan.of(query, FilterMode.FILTER_CONTEXT);
+
+		// then
+		BoolQueryBuilder boolQuery = (BoolQueryBuilder) plan.getQuery();
+		assertThat(boolQuery.should(), hasSize(2));
+		assertThat(boolQuery.filter(), is(empty()));
+	}
+
+	@Test
+	public void shouldKeepPostFilterWhenQueryHasAggregations() {
+		// given
+		SearchQuery query = new NativeSearchQueryBuilder()
+				.withQuery(matchAllQuery())
+				.withFilter(termQuery("type", "test"))
+				.addAggregation(AggregationBuilders.terms("types").field("type"))
+				.build();
+
+		// when
+		QueryPlan plan = QueryPlan.of(query, FilterMode.FILTER_CONTEXT);
+
+		// then
+		assertThat(plan.getPostFilter(), is(notNullValue()));
+		assertThat(plan.getQuery(), is(query.getQuery()));
+	}
+
+	@Test
+	public void shouldMoveSearchQueryFilterToFilterContextWithoutAggregations() {
+		// given
+		SearchQuery query = new NativeSearchQueryBuilder()
+				.withQuery(matchAllQuery())
+				.withFilter(termQuery("type", "test"))
+				.build();
+
+		// when
+		QueryPlan plan = QueryPlan.of(query, FilterMode.FILTER_CONTEXT);
+
+		// then
+		BoolQueryBuilder boolQuery = (BoolQueryBuilder) plan.getQuery();
+		assertThat(plan.getPostFilter(), is(nullValue()));
+		assertThat(boolQuery.must(), contains(query.getQuery()));
+		assertThat(boolQuery.filter(), contains(query.getFilter()));
+	}
+}
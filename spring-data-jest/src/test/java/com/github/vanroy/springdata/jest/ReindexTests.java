@@ -0,0 +1,162 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.acknowledged;
+import static com.github.vanroy.springdata.jest.utils.JestResults.result;
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.action.CancelTask;
+import com.github.vanroy.springdata.jest.action.GetTask;
+import com.github.vanroy.springdata.jest.action.Reindex;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.github.vanroy.springdata.jest.exception.JestElasticsearchException;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.JestResult;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.indices.CreateIndex;
+import io.searchbox.indices.DeleteIndex;
+import io.searchbox.indices.IndicesExists;
+import io.searchbox.indices.Refresh;
+import io.searchbox.indices.aliases.GetAliases;
+import io.searchbox.indices.aliases.ModifyAliases;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.ElasticsearchException;
+
+/**
+ * @author Julien Roy
+ */
+public class ReindexTests {
+
+	private final Gson gson = new Gson();
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+	private final ReindexOptions options = ReindexOptions.builder().slices(2).requestsPerSecond(500).pollInterval(0, TimeUnit.MILLISECONDS).build();
+
+	@Before
+	public void before() throws Exception {
+		client = mock(JestClient.class);
+		template = new JestElasticsearchTemplate(client);
+		when(client.execute(isA(GetAliases.class))).thenReturn(result("{\"test-index_v0\":{\"aliases\":{\"test-index\":{}}}}"));
+		when(client.execute(isA(CreateIndex.class))).thenReturn(acknowledged());
+		when(client.execute(isA(Reindex.class))).thenReturn(result("{\"task\":\"node:1\"}"));
+		when(client.execute(isA(Refresh.class))).thenReturn(result("{}"));
+		when(client.execute(isA(ModifyAliases.class))).thenReturn(acknowledged());
+		when(client.execute(isA(IndicesExists.class))).thenReturn(result("{}"));
+		when(client.execute(isA(DeleteIndex.class))).thenReturn(acknowledged());
+	}
+
+	@Test
+	public void shouldReindexThenSwapAliasAtomically() throws Exception {
+		// given
+		when(client.execute(isA(GetTask.class))).thenReturn(
+				result("{\"completed\":false,\"task\":{\"status\":{\"total\":10,\"created\":4}}}"),
+				result("{\"completed\":true,\"task\":{\"status\":{\"total\":10,\"created\":10}},\"response\":{\"total\":10,\"created\":10,\"failures\":[]}}"));
+		List<Long> processed = new ArrayList<>();
+		template.setReindexProgressListener(progress -> processed.add(progress.getProcessed()));
+
+		// when
+		String index = template.reindexAndSwapAlias(SampleEntity.class, options);
+
+		// then
+		assertThat(index, startsWith("test-index_"));
+		assertThat(processed, contains(4L, 10L));
+
+		JsonObject reindex = json(executed(Reindex.class).get(0).getData(gson));
+		assertThat(reindex.getAsJsonObject("source").get("index").toString(), is("[\"test-index_v0\"]"));
+		assertThat(reindex.getAsJsonObject("dest").get("index").getAsString(), is(index));
+		assertThat(executed(Reindex.class).get(0).getURI(ElasticsearchVersion.UNKNOWN), allOf(containsString("slices=2"), containsString("wait_for_completion=false")));
+
+		List<ModifyAliases> modifyAliases = executed(ModifyAliases.class);
+		assertThat(modifyAliases, hasSize(1));
+		String actions = modifyAliases.get(0).getData(gson);
+		assertThat(actions, allOf(containsString("\"add\""), containsString("\"remove\""), containsString("test-index_v0"), containsString(index)));
+	}
+
+	@Test
+	public void shouldNotSwapAliasWhenReindexFails() throws Exception {
+		// given
+		when(client.execute(isA(GetTask.class))).thenReturn(
+				result("{\"completed\":true,\"task\":{\"status\":{\"total\":10,\"created\":9}},\"response\":{\"failures\":[{\"cause\":\"mapper_parsing_exception\"}]}}"));
+
+		// when
+		try {
+			template.reindexAndSwapAlias(SampleEntity.class, options);
+			fail("Expected ElasticsearchException");
+		} catch (ElasticsearchException e) {
+			// then
+			assertThat(e.getMessage(), containsString("mapper_parsing_exception"));
+		}
+		verify(client, never()).execute(isA(ModifyAliases.class));
+		assertThat(executed(DeleteIndex.class).get(0).getURI(ElasticsearchVersion.UNKNOWN), is(executed(CreateIndex.class).get(0).getURI(ElasticsearchVersion.UNKNOWN)));
+	}
+
+	@Test
+	public void shouldCancelTaskAndDeleteNewIndexWhenInterrupted() throws Exception {
+		// given
+		when(client.execute(isA(GetTask.class))).thenReturn(result("{\"completed\":false,\"task\":{\"status\":{\"total\":10,\"created\":4}}}"));
+		when(client.execute(isA(CancelTask.class))).thenReturn(result("{\"nodes\":{}}"));
+
+		// when
+		Thread.currentThread().interrupt();
+		try {
+			template.reindexAndSwapAlias(SampleEntity.class, options);
+			fail("Expected ElasticsearchException");
+		} catch (ElasticsearchException e) {
+			// then
+			assertThat(e.getMessage(), containsString("cancelled"));
+		} finally {
+			assertThat(Thread.interrupted(), is(true));
+		}
+		assertThat(executed(CancelTask.class).get(0).getURI(ElasticsearchVersion.UNKNOWN), containsString("_tasks/node:1/_cancel"));
+		assertThat(executed(DeleteIndex.class), hasSize(1));
+		verify(client, never()).execute(isA(ModifyAliases.class));
+	}
+
+	@Test
+	public void shouldFailWithResultWhenReindexReturnsNoTask() throws Exception {
+		// given
+		JestResult started = result("{\"error\":\"no task\"}");
+		when(client.execute(isA(Reindex.class))).thenReturn(started);
+
+		// when
+		try {
+			template.reindexAndSwapAlias(SampleEntity.class, options);
+			fail("Expected JestElasticsearchException");
+		} catch (JestElasticsearchException e) {
+			// then
+			assertThat(e.getResult(), is(started));
+		}
+		assertThat(executed(DeleteIndex.class), hasSize(1));
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> List<T> executed(Class<T> actionType) throws Exception {
+		ArgumentCaptor<Action> actions = ArgumentCaptor.forClass(Action.class);
+		verify(client, atLeastOnce()).execute(actions.capture());
+		List<T> executed = new ArrayList<>();
+		for (Action action : actions.getAllValues()) {
+			if (actionType.isInstance(action)) {
+				executed.add((T) action);
+			}
+		}
+		return executed;
+	}
+
+	private static JsonObject json(String json) {
+		return new JsonParser().parse(json).getAsJsonObject();
+	}
+}
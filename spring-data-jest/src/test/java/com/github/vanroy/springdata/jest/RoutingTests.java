@@ -0,0 +1,135 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.documentResult;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+
+import com.github.vanroy.springdata.jest.entities.RoutedEntity;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.core.Delete;
+import io.searchbox.core.Get;
+import io.searchbox.core.Index;
+import io.searchbox.core.Update;
+import org.elasticsearch.action.update.UpdateRequest;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.UpdateQueryBuilder;
+
+/**
+ * @author Julien Roy
+ */
+public class RoutingTests {
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() throws Exception {
+		client = mock(JestClient.class);
+		when(client.execute(isA(Index.class))).thenReturn(documentResult(
+				"{\"_index\":\"test-index-routed\",\"_type\":\"test-type\",\"_id\":\"1\",\"_version\":1,\"result\":\"created\"}"));
+		when(client.execute(isA(Get.class))).thenReturn(documentResult(
+				"{\"_index\":\"test-index-routed\",\"_type\":\"test-type\",\"_id\":\"1\",\"_version\":1,\"_routing\":\"tenant-1\",\"found\":true,"
+						+ "\"_source\":{\"id\":\"1\",\"tenant\":\"tenant-1\",\"message\":\"message\"}}"));
+		when(client.execute(isA(Delete.class))).thenReturn(documentResult(
+				"{\"_index\":\"test-index-routed\",\"_type\":\"test-type\",\"_id\":\"1\",\"_version\":2,\"result\":\"deleted\"}"));
+		when(client.execute(isA(Update.class))).thenReturn(documentResult(
+				"{\"_index\":\"test-index-routed\",\"_type\":\"test-type\",\"_id\":\"1\",\"_version\":2,\"result\":\"updated\"}"));
+		template = new JestElasticsearchTemplate(client);
+	}
+
+	@Test
+	public void shouldIndexEntityWithRoutingOfAnnotatedProperty() throws Exception {
+		// given
+		RoutedEntity entity = new RoutedEntity("1", "tenant-1", "message");
+
+		// when
+		template.index(new IndexQueryBuilder().withObject(entity).build());
+
+		// then
+		assertThat(sent(Index.class).getURI(ElasticsearchVersion.UNKNOWN), containsString("routing=tenant-1"));
+	}
+
+	@Test
+	public void shouldIndexEntityWithResolverRouting() throws Exception {
+		// given
+		template.setRoutingResolver(entity -> "custom");
+
+		// when
+		template.index(new IndexQueryBuilder().withObject(new RoutedEntity("1", "tenant-1", "message")).build());
+
+		// then
+		assertThat(sent(Index.class).getURI(ElasticsearchVersion.UNKNOWN), containsString("routing=custom"));
+	}
+
+	@Test
+	public void shouldGetAndDeleteWithScopedRouting() throws Exception {
+		// given
+		GetQuery query = new GetQuery();
+		query.setId("1");
+
+		// when
+		RoutedEntity entity = template.withRouting("tenant-1", () -> template.queryForObject(query, RoutedEntity.class));
+		template.withRouting("tenant-1", () -> template.delete(RoutedEntity.class, "1"));
+
+		// then
+		assertThat(entity.getTenant(), is("tenant-1"));
+		assertThat(sent(Get.class).getURI(ElasticsearchVersion.UNKNOWN), containsString("routing=tenant-1"));
+		assertThat(sent(Delete.class).getURI(ElasticsearchVersion.UNKNOWN), containsString("routing=tenant-1"));
+	}
+
+	@Test
+	public void shouldDeleteEntityWithRoutingOfAnnotatedProperty() throws Exception {
+		// when
+		template.deleteEntity(new RoutedEntity("1", "tenant-1", "message"));
+
+		// then
+		assertThat(sent(Delete.class).getURI(ElasticsearchVersion.UNKNOWN), containsString("routing=tenant-1"));
+	}
+
+	@Test
+	public void shouldUpdateWithRoutingOfUpdateRequest() throws Exception {
+		// given
+		UpdateRequest request = new UpdateRequest().doc(Collections.singletonMap("message", "updated")).routing("tenant-1");
+
+		// when
+		template.update(new UpdateQueryBuilder().withId("1").withClass(RoutedEntity.class).withUpdateRequest(request).build());
+
+		// then
+		assertThat(sent(Update.class).getURI(ElasticsearchVersion.UNKNOWN), containsString("routing=tenant-1"));
+	}
+
+	@Test
+	public void shouldNotRouteOutsideScope() throws Exception {
+		// given
+		GetQuery query = new GetQuery();
+		query.setId("1");
+		template.withRouting("tenant-1", () -> Collections.emptyList());
+
+		// when
+		template.queryForObject(query, RoutedEntity.class);
+
+		// then
+		assertThat(sent(Get.class).getURI(ElasticsearchVersion.UNKNOWN), not(containsString("routing")));
+	}
+
+	private <A extends Action<?>> A sent(Class<A> actionClass) throws Exception {
+		ArgumentCaptor<Action> action = ArgumentCaptor.forClass(Action.class);
+		verify(client, atLeastOnce()).execute(action.capture());
+		for (Action<?> value : action.getAllValues()) {
+			if (actionClass.isInstance(value)) {
+				return actionClass.cast(value);
+			}
+		}
+		throw new AssertionError("No " + actionClass.getSimpleName() + " sent");
+	}
+}
@@ -0,0 +1,143 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.result;
+import static com.github.vanroy.springdata.jest.utils.JestResults.searchResult;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.action.Action;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.core.ClearScroll;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchScroll;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+import org.springframework.data.util.CloseableIterator;
+
+/**
+ * @author Julien Roy
+ */
+public class SearchHitIdsTests {
+
+	private final Gson gson = new Gson();
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() {
+		client = mock(JestClient.class);
+		template = new JestElasticsearchTemplate(client);
+	}
+
+	@Test
+	public void shouldReadIdsAndScoresWithoutSource() throws Exception {
+		// given
+		when(client.execute(isA(Search.class))).thenReturn(searchResult("{\"hits\":{\"total\":5,\"max_score\":2.0,\"hits\":["
+				+ "{\"_index\":\"test-index\",\"_type\":\"test-type\",\"_id\":\"1\",\"_score\":2.0},"
+				+ "{\"_index\":\"test-index\",\"_type\":\"test-type\",\"_id\":\"2\",\"_score\":null}]}}"));
+
+		// when
+		SearchHitIds hitIds = template.queryForHitIds(query(10));
+
+		// then
+		assertThat(hitIds.getIdList(), contains("1", "2"));
+		assertThat(hitIds.getScores()[0], is(2.0f));
+		assertThat(Float.isNaN(hitIds.getScores()[1]), is(true));
+		assertThat(hitIds.getTotal(), is(5L));
+
+		ArgumentCaptor<Search> search = ArgumentCaptor.forClass(Search.class);
+		verify(client).execute(search.capture());
+		JsonObject request = new JsonParser().parse(search.getValue().getData(gson)).getAsJsonObject();
+		assertThat(request.get("_source").getAsBoolean(), is(false));
+		// stored fields are not disabled, they would hide ids of hits
+		assertThat(request.has("stored_fields"), is(false));
+	}
+
+	@Test
+	public void shouldStreamIdsOfAllScrollPages() throws Exception {
+		// given
+		when(client.execute(isA(Search.class))).thenReturn(searchResult("{\"_scroll_id\":\"scroll-1\",\"hits\":{\"total\":3,\"hits\":[{\"_id\":\"1\",\"_score\":null},{\"_id\":\"2\",\"_score\":null}]}}"));
+		when(client.execute(isA(SearchScroll.class))).thenReturn(
+				result("{\"_scroll_id\":\"scroll-2\",\"hits\":{\"total\":3,\"hits\":[{\"_id\":\"3\",\"_score\":null}]}}"),
+				result("{\"_scroll_id\":\"scroll-3\",\"hits\":{\"total\":3,\"hits\":[]}}"));
+
+		// when
+		List<String> ids = new ArrayList<>();
+		try (CloseableIterator<String> stream = template.streamIds(query(2), SampleEntity.class)) {
+			stream.forEachRemaining(ids::add);
+		}
+
+		// then
+		assertThat(ids, contains("1", "2", "3"));
+		verify(client, never()).execute(isA(ClearScroll.class));
+
+		ArgumentCaptor<Action> actions = ArgumentCaptor.forClass(Action.class);
+		verify(client, atLeastOnce()).execute(actions.capture());
+		for (Action action : actions.getAllValues()) {
+			if (action instanceof Search) {
+				JsonObject request = new JsonParser().parse(((Search) action).getData(gson)).getAsJsonObject();
+				assertThat(request.get("sort").toString(), containsString("_doc"));
+				assertThat(request.get("_source").getAsBoolean(), is(false));
+			}
+		}
+	}
+
+	@Test
+	public void shouldClearScrollWhenStreamIsClosedBeforeEnd() throws Exception {
+		// given
+		when(client.execute(isA(Search.class))).thenReturn(searchResult("{\"_scroll_id\":\"scroll-1\",\"hits\":{\"total\":3,\"hits\":[{\"_id\":\"1\",\"_score\":null}]}}"));
+		when(client.execute(isA(ClearScroll.class))).thenReturn(result("{\"succeeded\":true}"));
+
+		// when
+		try (CloseableIterator<String> stream = template.streamIds(query(1), SampleEntity.class)) {
+			assertThat(stream.next(), is("1"));
+		}
+
+		// then
+		verify(client).execute(isA(ClearScroll.class));
+	}
+
+	@Test
+	public void shouldNotChangeQueryWhenStreamingIds() throws Exception {
+		// given
+		when(client.execute(isA(Search.class))).thenReturn(searchResult("{\"_scroll_id\":\"scroll-1\",\"hits\":{\"total\":0,\"hits\":[]}}"));
+		SearchQuery query = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withPageable(Pageable.unpaged()).build();
+
+		// when
+		try (CloseableIterator<String> stream = template.streamIds(query, SampleEntity.class)) {
+			assertThat(stream.hasNext(), is(false));
+		}
+
+		// then
+		assertThat(query.getIndices(), is(empty()));
+		assertThat(query.getTypes(), is(empty()));
+		assertThat(query.getPageable().isUnpaged(), is(true));
+
+		ArgumentCaptor<Search> search = ArgumentCaptor.forClass(Search.class);
+		verify(client).execute(search.capture());
+		String uri = search.getValue().getURI(ElasticsearchVersion.UNKNOWN);
+		assertThat(uri, containsString("test-index/test-type/_search"));
+		assertThat(uri, containsString("size=1000"));
+	}
+
+	private static SearchQuery query(int size) {
+		return new NativeSearchQueryBuilder().withQuery(matchAllQuery()).withPageable(PageRequest.of(0, size)).build();
+	}
+}
@@ -0,0 +1,143 @@
+package com.github.vanroy.springdata.jest;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.multiSearchResult;
+import static com.github.vanroy.springdata.jest.utils.JestResults.searchResult;
+import static org.elasticsearch.index.query.QueryBuilders.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.action.MultiSearchWithOptions;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import com.github.vanroy.springdata.jest.query.SearchOptions;
+import com.github.vanroy.springdata.jest.query.SearchOptionsPolicy;
+import com.google.gson.Gson;
+import io.searchbox.client.JestClient;
+import io.searchbox.client.config.ElasticsearchVersion;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchResult;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.data.elasticsearch.core.query.SearchQuery;
+
+/**
+ * @author Julien Roy
+ */
+public class SearchOptionsTests {
+
+	private JestClient client;
+	private JestElasticsearchTemplate template;
+
+	@Before
+	public void before() throws Exception {
+		client = mock(JestClient.class);
+		when(client.execute(any(Search.class))).thenReturn(result());
+		template = new JestElasticsearchTemplate(client);
+	}
+
+	@Test
+	public void shouldNotSendOptionsByDefault() throws Exception {
+		// when
+		template.queryForPage(query(), SampleEntity.class);
+
+		// then
+		String uri = sentSearch().getURI(ElasticsearchVersion.UNKNOWN);
+		assertThat(uri, not(containsString("request_cache")));
+		assertThat(uri, not(containsString("preference")));
+	}
+
+	@Test
+	public void shouldSendOptionsOfPolicy() throws Exception {
+		// given
+		template.setSearchOptionsPolicy(SearchOptionsPolicy.of(SearchOptions.builder().preference("_local").batchedReduceSize(64).build())
+				.andThen(SearchOptionsPolicy.requestCacheForAggregations()));
+		SearchQuery query = new NativeSearchQueryBuilder().withQuery(matchAllQuery()).addAggregation(AggregationBuilders.terms("messages").field("message")).build();
+
+		// when
+		template.queryForPage(query, SampleEntity.class);
+
+		// then
+		String uri = sentSearch().getURI(ElasticsearchVersion.UNKNOWN);
+		assertThat(uri, containsString("request_cache=true"));
+		assertThat(uri, containsString("preference=_local"));
+		assertThat(uri, containsString("batched_reduce_size=64"));
+	}
+
+	@Test
+	public void shouldOverridePolicyWithScopedOptions() throws Exception {
+		// given
+		template.setSearchOptionsPolicy(SearchOptionsPolicy.of(SearchOptions.builder().preference("_local").build()));
+
+		// when
+		template.withSearchOptions(SearchOptions.builder().preference("session-1").routing("user-1").build(),
+				() -> template.queryForPage(query(), SampleEntity.class));
+
+		// then
+		String uri = sentSearch().getURI(ElasticsearchVersion.UNKNOWN);
+		assertThat(uri, containsString("preference=session-1"));
+		assertThat(uri, containsString("routing=user-1"));
+		assertThat(uri, not(containsString("_local")));
+	}
+
+	@Test
+	public void shouldBatchSearchWithOptionsInHeader() throws Exception {
+		// given
+		when(client.execute(isA(MultiSearchWithOptions.class))).thenReturn(multiSearchResult("{\"responses\":[{\"hits\":{\"total\":0,\"hits\":[]}}]}"));
+		template.enableSearchBatching(10, 0, TimeUnit.MILLISECONDS);
+
+		// when
+		template.withSearchOptions(SearchOptions.builder().requestCache(true).build(), () -> template.queryForPage(query(), SampleEntity.class));
+
+		// then
+		ArgumentCaptor<MultiSearchWithOptions> multiSearch = ArgumentCaptor.forClass(MultiSearchWithOptions.class);
+		verify(client).execute(multiSearch.capture());
+		assertThat(multiSearch.getValue().getData(new Gson()), containsString("\"request_cache\":\"true\""));
+	}
+
+	@Test
+	public void shouldNotBatchSearchWithBatchedReduceSize() throws Exception {
+		// given
+		template.enableSearchBatching(10, 0, TimeUnit.MILLISECONDS);
+
+		// when
+		template.withSearchOptions(SearchOptions.builder().batchedReduceSize(64).build(), () -> template.queryForPage(query(), SampleEntity.class));
+
+		// then
+		assertThat(sentSearch().getURI(ElasticsearchVersion.UNKNOWN), containsString("batched_reduce_size=64"));
+		verify(client, never()).execute(isA(MultiSearchWithOptions.class));
+	}
+
+	@Test
+	public void shouldMergeOptions() {
+		// given
+		SearchOptions defaults = SearchOptions.builder().requestCache(true).preference("_local").build();
+
+		// when
+		SearchOptions options = defaults.merge(SearchOptions.builder().preference("session-1").build());
+
+		// then
+		assertThat(options, is(SearchOptions.builder().requestCache(true).preference("session-1").build()));
+		assertThat(SearchOptions.builder().build().isEmpty(), is(true));
+	}
+
+	private static SearchQuery query() {
+		return new NativeSearchQueryBuilder().withQuery(matchAllQuery()).build();
+	}
+
+	private Search sentSearch() throws Exception {
+		ArgumentCaptor<Search> search = ArgumentCaptor.forClass(Search.class);
+		verify(client).execute(search.capture());
+		return search.getValue();
+	}
+
+	private static SearchResult result() {
+		return searchResult("{\"hits\":{\"total\":0,\"max_score\":0.0,\"hits\":[]}}");
+	}
+}
@@ -0,0 +1,143 @@
+package com.github.vanroy.springdata.jest;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import com.github.vanroy.springdata.jest.entities.EventEntity;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import io.searchbox.client.JestClient;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.GetQuery;
+
+/**
+ * @author Julien Roy
+ */
+public class TimeBasedIndexNameResolverTests {
+
+	private static final Instant NOW = Instant.parse("2019-11-20T10:15:00Z");
+
+	private TimeBasedIndexNameResolver resolver;
+
+	@Before
+	public void before() {
+		resolver = new TimeBasedIndexNameResolver(new SimpleElasticsearchMappingContext(), Clock.fixed(NOW, ZoneOffset.UTC))
+				.register(EventEntity.class, "timestamp", "'test-events-'yyyy.MM.dd", ChronoUnit.DAYS);
+	}
+
+	@Test
+	public void shouldResolveIndexNameFromTimeProperty() {
+		// given
+		EventEntity event = new EventEntity("1", Date.from(Instant.parse("2019-11-18T23:59:59Z")), "message");
+
+		// when
+		String indexName = resolver.resolveIndexName(event);
+
+		// then
+		assertThat(indexName, is("test-events-2019.11.18"));
+	}
+
+	@Test
+	public void shouldResolveIndexPatternFromLiteralPrefix() {
+		// given
+		TimeBasedIndexNameResolver withoutPrefix = new TimeBasedIndexNameResolver(new SimpleElasticsearchMappingContext())
+				.register(EventEntity.class, "timestamp", "yyyy.MM.dd", ChronoUnit.DAYS);
+
+		// then
+		assertThat(resolver.getIndexPattern(EventEntity.class), is("test-events-*"));
+		assertThat(resolver.getIndexPattern(SampleEntity.class), is(nullValue()));
+		assertThat(withoutPrefix.getIndexPattern(EventEntity.class), is(nullValue()));
+	}
+
+	@Test
+	public void shouldNotResolveIndexNameOfUnregisteredEntityOrWithoutTime() {
+		assertThat(resolver.resolveIndexName(new EventEntity("1", null, "message")), is(nullValue()));
+		assertThat(resolver.resolveIndexName("not an entity"), is(nullValue()));
+	}
+
+	@Test
+	public void shouldNarrowSearchIndicesToRange() {
+		// given
+		CriteriaQuery query = new CriteriaQuery(new Criteria("message").is("test")
+				.and(new Criteria("timestamp").between(Date.from(Instant.parse("2019-11-17T12:00:00Z")), Date.from(Instant.parse("2019-11-19T01:00:00Z")))));
+
+		// when
+		String[] indexNames = resolver.resolveSearchIndexNames(EventEntity.class, query);
+
+		// then
+		assertThat(indexNames, arrayContaining("test-events-2019.11.17", "test-events-2019.11.18", "test-events-2019.11.19"));
+	}
+
+	@Test
+	public void shouldNarrowSearchIndicesUpToNow() {
+		// given
+		CriteriaQuery query = new CriteriaQuery(new Criteria("timestamp").greaterThanEqual(NOW.minus(1, ChronoUnit.HOURS).toEpochMilli()));
+
+		// when
+		String[] indexNames = resolver.resolveSearchIndexNames(EventEntity.class, query);
+
+		// then
+		assertThat(indexNames, arrayContaining("test-events-2019.11.20"));
+	}
+
+	@Test
+	public void shouldSearchEntityIndexWhenRangeIsNotRestrictive() {
+		// given
+		Criteria range = new Criteria("timestamp").greaterThan(NOW.minus(1, ChronoUnit.HOURS).toEpochMilli());
+
+		// then
+		assertThat(resolver.resolveSearchIndexNames(EventEntity.class, new CriteriaQuery(new Criteria("message").is("test"))), is(nullValue()));
+		assertThat(resolver.resolveSearchIndexNames(EventEntity.class, new CriteriaQuery(new Criteria("message").is("test").or(range))), is(nullValue()));
+		assertThat(resolver.resolveSearchIndexNames(EventEntity.class, new CriteriaQuery(new Criteria("timestamp").lessThan(NOW.toEpochMilli()))), is(nullValue()));
+	}
+
+	@Test
+	public void shouldSearchEntityIndexAboveMaxSearchIndices() {
+		// given
+		resolver.setMaxSearchIndices(30);
+		CriteriaQuery query = new CriteriaQuery(new Criteria("timestamp").greaterThan(NOW.minus(365, ChronoUnit.DAYS).toEpochMilli()));
+
+		// when
+		String[] indexNames = resolver.resolveSearchIndexNames(EventEntity.class, query);
+
+		// then
+		assertThat(indexNames, is(nullValue()));
+	}
+
+	@Test
+	public void shouldRecognizeResolvedIndexNames() {
+		assertThat(resolver.isResolvedIndexName("test-events-2019.11.18"), is(true));
+		assertThat(resolver.isResolvedIndexName("test-events"), is(false));
+		assertThat(resolver.isResolvedIndexName("test-events-2019.11.18-backup"), is(false));
+		assertThat(resolver.resolvesIndexNames(EventEntity.class), is(true));
+		assertThat(resolver.resolvesIndexNames(SampleEntity.class), is(false));
+	}
+
+	@Test
+	public void shouldFailGetByIdOfEntityWrittenInSeveralIndices() {
+		// given
+		JestElasticsearchTemplate template = new JestElasticsearchTemplate(mock(JestClient.class));
+		template.setIndexNameResolver(resolver);
+		GetQuery query = new GetQuery();
+		query.setId("1");
+
+		// when
+		try {
+			template.queryForObject(query, EventEntity.class);
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			// then
+			assertThat(e.getMessage(), containsString("get by id needs the index name"));
+		}
+	}
+}
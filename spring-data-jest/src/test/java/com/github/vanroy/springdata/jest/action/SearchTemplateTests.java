@@ -0,0 +1,60 @@
+package com.github.vanroy.springdata.jest.action;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.searchbox.client.config.ElasticsearchVersion;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class SearchTemplateTests {
+
+	private final Gson gson = new Gson();
+
+	@Test
+	public void shouldBuildSearchTemplateRequest() {
+		// when
+		SearchTemplate search = new SearchTemplate.Builder("my-template")
+				.param("message", "test")
+				.param("size", 10)
+				.addIndex("test-index")
+				.addType("test-type")
+				.build();
+
+		// then
+		assertThat(search.getRestMethodName(), is("POST"));
+		assertThat(search.getURI(ElasticsearchVersion.UNKNOWN), is("test-index/test-type/_search/template"));
+
+		JsonObject body = new JsonParser().parse(search.getData(gson)).getAsJsonObject();
+		assertThat(body.get("id").getAsString(), is("my-template"));
+		assertThat(body.getAsJsonObject("params").get("message").getAsString(), is("test"));
+		assertThat(body.getAsJsonObject("params").get("size").getAsInt(), is(10));
+	}
+
+	@Test
+	public void shouldBuildMultiSearchTemplateRequest() {
+		// given
+		SearchTemplate first = new SearchTemplate.Builder("first-template").addIndex("first-index").build();
+		SearchTemplate second = new SearchTemplate.Builder("second-template").param("id", 1).build();
+
+		// when
+		MultiSearchTemplate search = new MultiSearchTemplate.Builder(Arrays.asList(first, second)).build();
+
+		// then
+		assertThat(search.getURI(ElasticsearchVersion.UNKNOWN), is("/_msearch/template"));
+
+		String[] lines = search.getData(gson).split("\n");
+		assertThat(lines.length, is(4));
+		assertThat(new JsonParser().parse(lines[0]).getAsJsonObject().get("index").getAsString(), is("first-index"));
+		assertThat(new JsonParser().parse(lines[1]).getAsJsonObject().get("id").getAsString(), is("first-template"));
+		assertThat(new JsonParser().parse(lines[2]).getAsJsonObject().entrySet(), is(empty()));
+		assertThat(new JsonParser().parse(lines[3]).getAsJsonObject().getAsJsonObject("params").get("id").getAsInt(), is(1));
+	}
+}
@@ -0,0 +1,95 @@
+package com.github.vanroy.springdata.jest.aggregation;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class TypedAggregationsTests {
+
+	private static final String RESPONSE = "{\"took\":3,\"hits\":{\"total\":10,\"hits\":[]},\"aggregations\":{"
+			+ "\"avg_rate\":{\"value\":2.5},"
+			+ "\"empty_avg\":{\"value\":null},"
+			+ "\"stats\":{\"count\":10,\"min\":1.0,\"max\":4.0,\"avg\":2.5,\"sum\":25.0,\"std_deviation_bounds\":{\"upper\":5.0,\"lower\":0.0}},"
+			+ "\"messages\":{\"doc_count_error_upper_bound\":0,\"sum_other_doc_count\":2,\"buckets\":["
+			+ "{\"key\":\"a\",\"doc_count\":5,\"avg_rate\":{\"value\":3.0},\"tags\":{\"buckets\":[{\"key\":\"x\",\"doc_count\":5}]}},"
+			+ "{\"key\":\"b\",\"doc_count\":3,\"avg_rate\":{\"value\":null},\"tags\":{\"buckets\":[]}}]},"
+			+ "\"days\":{\"buckets\":[{\"key_as_string\":\"2019-11-20\",\"key\":1574208000000,\"doc_count\":7}]},"
+			+ "\"available\":{\"doc_count\":4,\"avg_rate\":{\"value\":1.5}},"
+			+ "\"ignored\":{\"buckets\":[{\"key\":\"z\",\"doc_count\":1}]}"
+			+ "}}";
+
+	@Test
+	public void shouldParseMetrics() {
+		// when
+		TypedAggregations aggregations = TypedAggregations.parse(RESPONSE);
+
+		// then
+		assertThat(aggregations.get("avg_rate").getValue(), is(2.5));
+		assertThat(Double.isNaN(aggregations.get("empty_avg").getValue()), is(true));
+		assertThat(aggregations.get("stats").get("count"), is(10.0));
+		assertThat(aggregations.get("stats").get("sum"), is(25.0));
+		assertThat(aggregations.get("stats").get("std_deviation_bounds.upper"), is(5.0));
+	}
+
+	@Test
+	public void shouldParseBucketsByColumn() {
+		// when
+		TypedBuckets buckets = TypedAggregations.parse(RESPONSE, "messages").get("messages").getBuckets();
+
+		// then
+		assertThat(buckets.size(), is(2));
+		assertThat(buckets.getKeys(), arrayContaining("a", "b"));
+		assertThat(buckets.getDocCounts()[0], is(5L));
+		assertThat(buckets.getDocCount(1), is(3L));
+		assertThat(buckets.getValues("avg_rate")[0], is(3.0));
+		assertThat(Double.isNaN(buckets.getValues("avg_rate")[1]), is(true));
+		assertThat(buckets.getAggregation(0, "tags").getBuckets().getKey(0), is("x"));
+		assertThat(buckets.getAggregation(1, "tags").getBuckets().size(), is(0));
+	}
+
+	@Test
+	public void shouldParseHistogramKeysAndSingleBucket() {
+		// when
+		TypedAggregations aggregations = TypedAggregations.parse(RESPONSE, "days", "available");
+
+		// then
+		TypedBuckets days = aggregations.get("days").getBuckets();
+		assertThat(days.getKey(0), is("2019-11-20"));
+		assertThat(days.getNumericKeys()[0], is(1574208000000.0));
+		assertThat(aggregations.get("available").getDocCount(), is(4L));
+		assertThat(aggregations.get("available").getAggregation("avg_rate").getValue(), is(1.5));
+	}
+
+	@Test
+	public void shouldOnlyParseRequestedAggregations() {
+		// when
+		TypedAggregations aggregations = TypedAggregations.parse(RESPONSE, "avg_rate");
+
+		// then
+		assertThat(aggregations.asMap().keySet(), contains("avg_rate"));
+		assertThat(aggregations.get("messages"), is(nullValue()));
+	}
+
+	@Test
+	public void shouldSelectParsedAggregations() {
+		// given
+		TypedAggregations aggregations = TypedAggregations.parse(RESPONSE, "avg_rate", "days");
+
+		// when
+		TypedAggregations selected = aggregations.select("days", "messages");
+
+		// then
+		assertThat(selected.asMap().keySet(), contains("days"));
+		assertThat(aggregations.select(), is(sameInstance(aggregations)));
+	}
+
+	@Test
+	public void shouldReturnEmptyAggregationsWithoutAggregations() {
+		assertThat(TypedAggregations.parse("{\"hits\":{\"total\":0,\"hits\":[]}}").isEmpty(), is(true));
+		assertThat(TypedAggregations.parse(null).isEmpty(), is(true));
+	}
+}
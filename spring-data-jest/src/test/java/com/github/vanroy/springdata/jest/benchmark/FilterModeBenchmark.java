@@ -0,0 +1,102 @@
+package com.github.vanroy.springdata.jest.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.FilterMode;
+import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+/**
+ * Compare search latency of criteria queries with filters sent as post filter or in filter context.
+ *
+ * Not run with the test suite, run it with : mvn test -Dtest=FilterModeBenchmark
+ *
+ * @author Julien Roy
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration("classpath:elasticsearch-jest-template-test.xml")
+public class FilterModeBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(FilterModeBenchmark.class);
+
+	private static final int DOCUMENTS = 50_000;
+	private static final int WARMUP_ITERATIONS = 200;
+	private static final int ITERATIONS = 1_000;
+
+	@Autowired
+	private JestElasticsearchTemplate elasticsearchTemplate;
+
+	@Before
+	public void before() {
+		elasticsearchTemplate.deleteIndex(SampleEntity.class);
+		elasticsearchTemplate.createIndex(SampleEntity.class);
+		elasticsearchTemplate.putMapping(SampleEntity.class);
+
+		List<IndexQuery> indexQueries = new ArrayList<>();
+		for (int i = 0; i < DOCUMENTS; i++) {
+			SampleEntity sampleEntity = SampleEntity.builder()
+					.id(String.valueOf(i))
+					.type(i % 10 == 0 ? "rare" : "common")
+					.message("message " + i)
+					.rate(i % 100)
+					.available(i % 2 == 0)
+					.build();
+			IndexQuery indexQuery = new IndexQuery();
+			indexQuery.setId(sampleEntity.getId());
+			indexQuery.setObject(sampleEntity);
+			indexQueries.add(indexQuery);
+
+			if (indexQueries.size() == 1_000) {
+				elasticsearchTemplate.bulkIndex(indexQueries);
+				indexQueries.clear();
+			}
+		}
+		elasticsearchTemplate.refresh(SampleEntity.class);
+	}
+
+	@Test
+	public void compareFilterModes() {
+		for (FilterMode filterMode : FilterMode.values()) {
+			elasticsearchTemplate.setFilterMode(filterMode);
+			run(WARMUP_ITERATIONS);
+			long[] latencies = run(ITERATIONS);
+			Arrays.sort(latencies);
+			logger.info("{} : p50 = {} us, p90 = {} us, p99 = {} us", filterMode,
+					percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99));
+		}
+	}
+
+	private long[] run(int iterations) {
+		long[] latencies = new long[iterations];
+		for (int i = 0; i < iterations; i++) {
+			CriteriaQuery query = new CriteriaQuery(new Criteria("message").contains("message")
+					.and(new Criteria("rate").between(i % 50, i % 50 + 10))
+					.and(new Criteria("type").is("rare")))
+					.setPageable(PageRequest.of(0, 20));
+
+			long start = System.nanoTime();
+			elasticsearchTemplate.queryForPage(query, SampleEntity.class);
+			latencies[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+		}
+		return latencies;
+	}
+
+	private static long percentile(long[] sortedLatencies, int percentile) {
+		return sortedLatencies[Math.min(sortedLatencies.length - 1, sortedLatencies.length * percentile / 100)];
+	}
+}
@@ -0,0 +1,65 @@
+package com.github.vanroy.springdata.jest.benchmark;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.acknowledged;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.JestElasticsearchTemplate;
+import com.github.vanroy.springdata.jest.entities.SampleEntity;
+import io.searchbox.client.JestClient;
+import io.searchbox.indices.mapping.PutMapping;
+import org.junit.Before;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compare time spent building mappings when putting mapping of an entity in many per tenant indices,
+ * with mapping cached per entity class or rebuilt for each index.
+ * Cluster round-trips are excluded, client is a mock.
+ *
+ * Not run with the test suite, run it with : mvn test -Dtest=MappingCacheBenchmark
+ *
+ * @author Julien Roy
+ */
+public class MappingCacheBenchmark {
+
+	private static final Logger logger = LoggerFactory.getLogger(MappingCacheBenchmark.class);
+
+	private static final int TENANTS = 500;
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int ITERATIONS = 20;
+
+	private JestElasticsearchTemplate elasticsearchTemplate;
+
+	@Before
+	public void before() throws Exception {
+		JestClient client = mock(JestClient.class);
+		when(client.execute(isA(PutMapping.class))).thenReturn(acknowledged());
+		elasticsearchTemplate = new JestElasticsearchTemplate(client);
+	}
+
+	@Test
+	public void compareCachedAndRebuiltMappings() {
+		for (boolean cached : new boolean[]{false, true}) {
+			run(cached, WARMUP_ITERATIONS);
+			long micros = run(cached, ITERATIONS);
+			logger.info("{} : {} us for {} indices", cached ? "cached" : "rebuilt", micros / ITERATIONS, TENANTS);
+		}
+	}
+
+	private long run(boolean cached, int iterations) {
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			elasticsearchTemplate.clearMappings();
+			for (int tenant = 0; tenant < TENANTS; tenant++) {
+				if (!cached) {
+					elasticsearchTemplate.evictMapping(SampleEntity.class);
+				}
+				elasticsearchTemplate.putMapping("tenant-" + tenant, "test-type", SampleEntity.class);
+			}
+		}
+		return TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+	}
+}
@@ -0,0 +1,55 @@
+package com.github.vanroy.springdata.jest.client;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import com.github.vanroy.springdata.jest.action.MultiSearchTemplate;
+import com.github.vanroy.springdata.jest.action.MultiSearchWithOptions;
+import com.github.vanroy.springdata.jest.action.Ping;
+import com.github.vanroy.springdata.jest.action.SearchTemplate;
+import io.searchbox.core.Count;
+import io.searchbox.core.Delete;
+import io.searchbox.core.DeleteByQuery;
+import io.searchbox.core.Get;
+import io.searchbox.core.Index;
+import io.searchbox.core.Search;
+import io.searchbox.core.SearchScroll;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class ActionCategoryTests {
+
+	@Test
+	public void shouldClassifySearchesAndGetsAsReads() {
+		// given
+		Search search = new Search.Builder("{}").addIndex("test-index").build();
+		SearchTemplate template = new SearchTemplate.Builder("test-template").build();
+
+		// when / then
+		assertThat(ActionCategory.of(search), is(ActionCategory.READ));
+		assertThat(ActionCategory.of(new MultiSearchWithOptions.Builder(Collections.singletonList(search)).build()), is(ActionCategory.READ));
+		assertThat(ActionCategory.of(template), is(ActionCategory.READ));
+		assertThat(ActionCategory.of(new MultiSearchTemplate.Builder(template).build()), is(ActionCategory.READ));
+		assertThat(ActionCategory.of(new SearchScroll.Builder("scroll-id", "1m").build()), is(ActionCategory.READ));
+		assertThat(ActionCategory.of(new Count.Builder().addIndex("test-index").build()), is(ActionCategory.READ));
+		assertThat(ActionCategory.of(new Get.Builder("test-index", "1").build()), is(ActionCategory.READ));
+	}
+
+	@Test
+	public void shouldClassifyOtherActionsAsWrites() {
+		// when / then
+		assertThat(ActionCategory.of(new Index.Builder("{}").index("test-index").type("test-type").build()), is(ActionCategory.WRITE));
+		assertThat(ActionCategory.of(new Delete.Builder("1").index("test-index").type("test-type").build()), is(ActionCategory.WRITE));
+		assertThat(ActionCategory.of(new DeleteByQuery.Builder("{}").addIndex("test-index").build()), is(ActionCategory.WRITE));
+	}
+
+	@Test
+	public void shouldClassifyPingAsMonitoring() {
+		// when / then
+		assertThat(ActionCategory.of(new Ping.Builder().build()), is(ActionCategory.MONITORING));
+	}
+}
@@ -0,0 +1,129 @@
+package com.github.vanroy.springdata.jest.client;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class CircuitBreakerTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	private CircuitBreaker circuitBreaker;
+
+	@Before
+	public void before() {
+		CircuitBreakerConfig config = CircuitBreakerConfig.builder()
+				.slidingWindowSize(10)
+				.minimumNumberOfCalls(4)
+				.failureRateThreshold(50)
+				.slowCallRateThreshold(50)
+				.slowCallDurationThreshold(1, TimeUnit.SECONDS)
+				.waitDurationInOpenState(10, TimeUnit.SECONDS)
+				.permittedCallsInHalfOpenState(2)
+				.build();
+		circuitBreaker = new CircuitBreaker("test", config, clock::get);
+	}
+
+	@Test
+	public void shouldStayClosedUnderMinimumNumberOfCalls() {
+		// when
+		for (int i = 0; i < 3; i++) {
+			circuitBreaker.tryAcquirePermission().onError(0);
+		}
+
+		// then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+		assertThat(circuitBreaker.getFailureRate(), is(-1f));
+	}
+
+	@Test
+	public void shouldOpenOnFailureRate() {
+		// when
+		recordCalls(2, 2, 0);
+
+		// then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+		assertThat(circuitBreaker.tryAcquirePermission(), is(nullValue()));
+		assertThat(circuitBreaker.getNotPermittedCount(), is(1L));
+	}
+
+	@Test
+	public void shouldOpenOnSlowCallRate() {
+		// when
+		recordCalls(2, 0, 2);
+
+		// then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+	}
+
+	@Test
+	public void shouldCloseAfterSuccessfulProbes() {
+		// given
+		recordCalls(0, 4, 0);
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+		// when
+		CircuitBreaker.Permit first = circuitBreaker.tryAcquirePermission();
+		CircuitBreaker.Permit second = circuitBreaker.tryAcquirePermission();
+		assertThat(circuitBreaker.tryAcquirePermission(), is(nullValue()));
+		first.onSuccess(0);
+		second.onSuccess(0);
+
+		// then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.CLOSED));
+	}
+
+	@Test
+	public void shouldReopenAfterFailedProbes() {
+		// given
+		recordCalls(0, 4, 0);
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+		// when
+		CircuitBreaker.Permit first = circuitBreaker.tryAcquirePermission();
+		CircuitBreaker.Permit second = circuitBreaker.tryAcquirePermission();
+		first.onSuccess(0);
+		second.onError(0);
+
+		// then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.OPEN));
+	}
+
+	@Test
+	public void shouldNotCountCallsStartedBeforeHalfOpenAsProbes() {
+		// given
+		CircuitBreaker.Permit startedWhileClosed = circuitBreaker.tryAcquirePermission();
+		recordCalls(0, 4, 0);
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+		CircuitBreaker.Permit probe = circuitBreaker.tryAcquirePermission();
+
+		// when
+		startedWhileClosed.onError(0);
+		probe.onSuccess(0);
+
+		// then
+		assertThat(circuitBreaker.getState(), is(CircuitBreaker.State.HALF_OPEN));
+		assertThat(circuitBreaker.tryAcquirePermission(), is(notNullValue()));
+		assertThat(circuitBreaker.tryAcquirePermission(), is(nullValue()));
+	}
+
+	private void recordCalls(int successes, int failures, int slowCalls) {
+		for (int i = 0; i < successes; i++) {
+			circuitBreaker.tryAcquirePermission().onSuccess(0);
+		}
+		for (int i = 0; i < failures; i++) {
+			circuitBreaker.tryAcquirePermission().onError(0);
+		}
+		for (int i = 0; i < slowCalls; i++) {
+			circuitBreaker.tryAcquirePermission().onSuccess(TimeUnit.SECONDS.toNanos(2));
+		}
+	}
+}
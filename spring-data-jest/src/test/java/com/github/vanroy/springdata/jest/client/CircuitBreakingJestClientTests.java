@@ -0,0 +1,88 @@
+package com.github.vanroy.springdata.jest.client;
+
+import static org.hamcrest.Matchers.*;
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.vanroy.springdata.jest.action.Ping;
+import com.github.vanroy.springdata.jest.exception.CircuitBreakerOpenException;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Search;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class CircuitBreakingJestClientTests {
+
+	private final JestClient delegate = mock(JestClient.class);
+
+	@Test
+	public void shouldUseClusterCircuitBreakerForMultiIndexActions() throws Exception {
+		// given
+		CircuitBreakingJestClient client = new CircuitBreakingJestClient(delegate, "test", CircuitBreakerConfig.builder().build(), true);
+
+		// when
+		client.execute(new Search.Builder("{}").addIndex("logs-2019.01.01").addIndex("logs-2019.01.02").build());
+
+		// then
+		assertThat(names(client), contains("test"));
+	}
+
+	@Test
+	public void shouldEvictLeastRecentlyUsedIndexCircuitBreakers() throws Exception {
+		// given
+		CircuitBreakingJestClient client = new CircuitBreakingJestClient(delegate, "test", CircuitBreakerConfig.builder().build(), true, 2);
+		List<String> evicted = new ArrayList<>();
+		client.onCircuitBreakerEvicted(circuitBreaker -> evicted.add(circuitBreaker.getName()));
+
+		// when
+		client.execute(new Search.Builder("{}").addIndex("logs-2019.01.01").build());
+		client.execute(new Search.Builder("{}").addIndex("logs-2019.01.02").build());
+		client.execute(new Search.Builder("{}").addIndex("logs-2019.01.01").build());
+		client.execute(new Search.Builder("{}").addIndex("logs-2019.01.03").build());
+
+		// then
+		assertThat(names(client), contains("test", "test/logs-2019.01.01", "test/logs-2019.01.03"));
+		assertThat(evicted, contains("test/logs-2019.01.02"));
+	}
+
+	@Test
+	public void shouldSendMonitoringActionsWhenCircuitIsOpen() throws Exception {
+		// given
+		when(delegate.execute(isA(Search.class))).thenThrow(new IOException("failure"));
+		CircuitBreakerConfig config = CircuitBreakerConfig.builder().slidingWindowSize(2).minimumNumberOfCalls(2).failureRateThreshold(50).build();
+		CircuitBreakingJestClient client = new CircuitBreakingJestClient(delegate, "test", config, false);
+		for (int i = 0; i < 2; i++) {
+			try {
+				client.execute(new Search.Builder("{}").build());
+			} catch (IOException e) {
+				// expected
+			}
+		}
+
+		// when
+		client.execute(new Ping.Builder().build());
+
+		// then
+		verify(delegate).execute(isA(Ping.class));
+		try {
+			client.execute(new Search.Builder("{}").build());
+			fail("Circuit should be open");
+		} catch (CircuitBreakerOpenException e) {
+			// expected
+		}
+	}
+
+	private static List<String> names(CircuitBreakingJestClient client) {
+		List<String> names = new ArrayList<>();
+		client.getCircuitBreakers().forEach(circuitBreaker -> names.add(circuitBreaker.getName()));
+		return names;
+	}
+}
@@ -0,0 +1,148 @@
+package com.github.vanroy.springdata.jest.client;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.exception.ConcurrencyLimitExceededException;
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Get;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class ConcurrencyLimiterTests {
+
+	@Test
+	public void shouldRejectWhenLimitIsReachedAndQueueIsDisabled() {
+		// given
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder("test").initialLimit(2).minLimit(1).maxLimit(10).build();
+		limiter.acquire();
+		limiter.acquire();
+
+		// when
+		try {
+			limiter.acquire();
+			fail("Expected ConcurrencyLimitExceededException");
+		} catch (ConcurrencyLimitExceededException e) {
+			// then
+			assertThat(e.getLimiterName(), is("test"));
+			assertThat(limiter.getRejectedCount(), is(1L));
+			assertThat(limiter.getInFlight(), is(2));
+		}
+	}
+
+	@Test
+	public void shouldIncreaseLimitOnFastRequests() {
+		// given
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder("test").initialLimit(2).maxLimit(10)
+				.latencyThreshold(1, TimeUnit.MINUTES).build();
+
+		// when
+		ConcurrencyLimiter.Permit first = limiter.acquire();
+		ConcurrencyLimiter.Permit second = limiter.acquire();
+		first.onSuccess();
+		second.onSuccess();
+
+		// then
+		assertThat(limiter.getLimit(), is(3));
+		assertThat(limiter.getInFlight(), is(0));
+	}
+
+	@Test
+	public void shouldDecreaseLimitOnDroppedRequests() {
+		// given
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder("test").initialLimit(10).maxLimit(10).backoffRatio(0.5).build();
+
+		// when
+		limiter.acquire().onDropped();
+
+		// then
+		assertThat(limiter.getLimit(), is(5));
+	}
+
+	@Test
+	public void shouldNotDecreaseLimitUnderMinLimit() {
+		// given
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder("test").initialLimit(2).minLimit(2).backoffRatio(0.5).build();
+
+		// when
+		limiter.acquire().onDropped();
+
+		// then
+		assertThat(limiter.getLimit(), is(2));
+	}
+
+	@Test
+	public void shouldReleasePermitOnlyOnce() {
+		// given
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder("test").initialLimit(2).build();
+		limiter.acquire();
+		ConcurrencyLimiter.Permit permit = limiter.acquire();
+
+		// when
+		permit.onIgnore();
+		permit.onIgnore();
+
+		// then
+		assertThat(limiter.getInFlight(), is(1));
+	}
+
+	@Test
+	public void shouldWaitForReleasedPermitWhenQueueIsEnabled() throws InterruptedException {
+		// given
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder("test").initialLimit(1).maxLimit(1)
+				.maxQueueDepth(1).maxWait(5, TimeUnit.SECONDS).build();
+		ConcurrencyLimiter.Permit permit = limiter.acquire();
+
+		Thread waiting = new Thread(() -> limiter.acquire().onSuccess());
+		waiting.start();
+		while (limiter.getQueueDepth() == 0) {
+			Thread.sleep(5);
+		}
+
+		// when
+		permit.onSuccess();
+		waiting.join(5000);
+
+		// then
+		assertThat(limiter.getQueueDepth(), is(0));
+		assertThat(limiter.getInFlight(), is(0));
+		assertThat(limiter.getRejectedCount(), is(0L));
+	}
+
+	@Test
+	public void shouldDecreaseLimitOnTimeoutOnly() throws Exception {
+		// given
+		ConcurrencyLimiter limiter = ConcurrencyLimiter.builder("test").initialLimit(10).maxLimit(10).backoffRatio(0.5).build();
+		JestClient delegate = mock(JestClient.class);
+		Get get = new Get.Builder("test-index", "1").build();
+		when(delegate.execute(get)).thenThrow(new ConnectException("refused")).thenThrow(new SocketTimeoutException("timeout"));
+		ConcurrencyLimitingJestClient client = new ConcurrencyLimitingJestClient(delegate, limiter, limiter);
+
+		// when
+		executeIgnoringFailure(client, get);
+		int limitAfterRefused = limiter.getLimit();
+		executeIgnoringFailure(client, get);
+
+		// then
+		assertThat(limitAfterRefused, is(10));
+		assertThat(limiter.getLimit(), is(5));
+		assertThat(limiter.getInFlight(), is(0));
+	}
+
+	private static void executeIgnoringFailure(JestClient client, Get get) {
+		try {
+			client.execute(get);
+			fail("Expected IOException");
+		} catch (IOException e) {
+			// expected
+		}
+	}
+}
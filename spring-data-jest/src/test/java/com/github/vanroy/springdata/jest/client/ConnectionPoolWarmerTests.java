@@ -0,0 +1,96 @@
+package com.github.vanroy.springdata.jest.client;
+
+import static com.github.vanroy.springdata.jest.utils.JestResults.result;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.isA;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.github.vanroy.springdata.jest.action.Ping;
+import io.searchbox.client.JestClient;
+import io.searchbox.cluster.NodesInfo;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class ConnectionPoolWarmerTests {
+
+	private final JestClient client = mock(JestClient.class);
+
+	@Test
+	public void shouldPingConnectionsOfEachNode() throws Exception {
+		// given
+		when(client.execute(isA(Ping.class))).thenReturn(result(200, null));
+		ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(client, 3, 5, TimeUnit.SECONDS);
+
+		// when
+		int succeeded = warmer.warmUp(2);
+
+		// then
+		assertThat(succeeded, is(6));
+		verify(client, times(6)).execute(isA(Ping.class));
+	}
+
+	@Test
+	public void shouldCapConnections() throws Exception {
+		// given
+		when(client.execute(isA(Ping.class))).thenReturn(result(200, null));
+		ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(client, 3, 4, 5, TimeUnit.SECONDS);
+
+		// when
+		int succeeded = warmer.warmUp(2);
+
+		// then
+		assertThat(succeeded, is(4));
+		verify(client, times(4)).execute(isA(Ping.class));
+	}
+
+	@Test
+	public void shouldWarmUpDiscoveredNodesWithHttp() throws Exception {
+		// given
+		when(client.execute(isA(NodesInfo.class))).thenReturn(result(200,
+				"{\"nodes\":{\"a\":{\"http\":{}},\"b\":{\"http\":{}},\"c\":{}}}"));
+		when(client.execute(isA(Ping.class))).thenReturn(result(200, null));
+		ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(client, 2, 5, TimeUnit.SECONDS);
+
+		// when
+		int succeeded = warmer.warmUpDiscoveredNodes();
+
+		// then
+		assertThat(succeeded, is(4));
+	}
+
+	@Test
+	public void shouldIgnoreFailedPings() throws Exception {
+		// given
+		when(client.execute(isA(Ping.class)))
+				.thenReturn(result(200, null))
+				.thenReturn(result(503, null))
+				.thenThrow(new IOException("failure"));
+		ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(client, 3, 5, TimeUnit.SECONDS);
+
+		// when
+		int succeeded = warmer.warmUp(1);
+
+		// then
+		assertThat(succeeded, is(1));
+	}
+
+	@Test
+	public void shouldNotPingWhenNodesCannotBeListed() throws Exception {
+		// given
+		when(client.execute(isA(NodesInfo.class))).thenThrow(new IOException("failure"));
+		ConnectionPoolWarmer warmer = new ConnectionPoolWarmer(client, 2, 5, TimeUnit.SECONDS);
+
+		// when
+		int succeeded = warmer.warmUpDiscoveredNodes();
+
+		// then
+		assertThat(succeeded, is(0));
+		verify(client, never()).execute(isA(Ping.class));
+	}
+}
@@ -0,0 +1,114 @@
+package com.github.vanroy.springdata.jest.client;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.searchbox.client.JestClient;
+import io.searchbox.core.Get;
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class LazyJestClientTests {
+
+	private final JestClient client = mock(JestClient.class);
+	private final AtomicInteger creations = new AtomicInteger();
+
+	@Test
+	public void shouldCreateClientOnFirstUseOnly() throws Exception {
+		// given
+		LazyJestClient lazyClient = new LazyJestClient(this::create);
+		Get get = new Get.Builder("test-index", "1").build();
+
+		// when
+		boolean initializedBeforeUse = lazyClient.isInitialized();
+		lazyClient.execute(get);
+		lazyClient.execute(get);
+
+		// then
+		assertThat(initializedBeforeUse, is(false));
+		assertThat(lazyClient.isInitialized(), is(true));
+		assertThat(lazyClient.getInitializationNanos(), is(greaterThanOrEqualTo(0L)));
+		assertThat(creations.get(), is(1));
+		verify(client, times(2)).execute(get);
+	}
+
+	@Test
+	public void shouldCreateClientInBackground() throws Exception {
+		// given
+		LazyJestClient lazyClient = new LazyJestClient(this::create);
+
+		// when
+		JestClient created = lazyClient.initializeAsync(Runnable::run).get(5, TimeUnit.SECONDS);
+
+		// then
+		assertThat(created, is(sameInstance(client)));
+		assertThat(lazyClient.getClient(), is(sameInstance(client)));
+		assertThat(creations.get(), is(1));
+	}
+
+	@Test
+	public void shouldRetryCreationAfterFailure() {
+		// given
+		LazyJestClient lazyClient = new LazyJestClient(() -> {
+			if (creations.incrementAndGet() == 1) {
+				throw new IllegalStateException("failure");
+			}
+			return client;
+		});
+
+		// when
+		try {
+			lazyClient.getClient();
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(), is("failure"));
+		}
+		JestClient created = lazyClient.getClient();
+
+		// then
+		assertThat(created, is(sameInstance(client)));
+		assertThat(creations.get(), is(2));
+	}
+
+	@Test
+	public void shouldNotCreateClientWhenClosed() throws Exception {
+		// given
+		LazyJestClient lazyClient = new LazyJestClient(this::create);
+
+		// when
+		lazyClient.close();
+
+		// then
+		assertThat(creations.get(), is(0));
+		try {
+			lazyClient.getClient();
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			assertThat(creations.get(), is(0));
+		}
+	}
+
+	@Test
+	public void shouldCloseCreatedClient() throws Exception {
+		// given
+		LazyJestClient lazyClient = new LazyJestClient(this::create);
+		lazyClient.getClient();
+
+		// when
+		lazyClient.close();
+
+		// then
+		verify(client).close();
+	}
+
+	private JestClient create() {
+		creations.incrementAndGet();
+		return client;
+	}
+}
@@ -0,0 +1,23 @@
+package com.github.vanroy.springdata.jest.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+
+/**
+ * Entity whose index name is an alias of a versioned index.
+ *
+ * @author Julien Roy
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "test-index-aliased", type = "test-type", shards = 1, replicas = 0, refreshInterval = "-1")
+public class AliasedEntity {
+
+	@Id
+	private String id;
+	private String message;
+}
@@ -0,0 +1,24 @@
+package com.github.vanroy.springdata.jest.entities;
+
+import java.util.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+
+/**
+ * @author Julien Roy
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "test-events", type = "test-type", shards = 1, replicas = 0, refreshInterval = "-1")
+public class EventEntity {
+
+	@Id
+	private String id;
+	private Date timestamp;
+	private String message;
+}
@@ -0,0 +1,24 @@
+package com.github.vanroy.springdata.jest.entities;
+
+import com.github.vanroy.springdata.jest.annotations.Routing;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.Document;
+
+/**
+ * @author Julien Roy
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(indexName = "test-index-routed", type = "test-type", shards = 2, replicas = 0, refreshInterval = "-1")
+public class RoutedEntity {
+
+	@Id
+	private String id;
+	@Routing
+	private String tenant;
+	private String message;
+}
@@ -0,0 +1,57 @@
+package com.github.vanroy.springdata.jest.execution;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+/**
+ * @author Julien Roy
+ */
+public class ExecutionStrategyTests {
+
+	@Test
+	public void shouldRunOnCallerThread() throws Exception {
+		// given
+		Thread caller = Thread.currentThread();
+
+		// when
+		CompletableFuture<Thread> result = ExecutionStrategy.callerThread().submit(Thread::currentThread);
+
+		// then
+		assertThat(result.isDone(), is(true));
+		assertThat(result.get(), is(caller));
+	}
+
+	@Test
+	public void shouldPropagateExceptionOfCallerThreadTask() throws InterruptedException {
+		// when
+		CompletableFuture<Object> result = ExecutionStrategy.callerThread().submit(() -> {
+			throw new IllegalStateException("failure");
+		});
+
+		// then
+		try {
+			result.get();
+			fail("Expected ExecutionException");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+		}
+	}
+
+	@Test
+	public void shouldRunOnPlatformThreadPool() throws Exception {
+		// given
+		try (ExecutionStrategy strategy = ExecutionStrategy.platformThreads(2)) {
+
+			// when
+			String threadName = strategy.submit(() -> Thread.currentThread().getName()).get();
+
+			// then
+			assertThat(threadName, startsWith("jest-template-"));
+		}
+	}
+}
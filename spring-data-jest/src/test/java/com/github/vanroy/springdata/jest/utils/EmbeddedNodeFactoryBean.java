@@ -0,0 +1,80 @@
+package com.github.vanroy.springdata.jest.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.logging.LogConfigurator;
+import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.index.reindex.ReindexPlugin;
+import org.elasticsearch.node.InternalSettingsPreparer;
+import org.elasticsearch.node.Node;
+import org.elasticsearch.plugins.Plugin;
+import org.elasticsearch.transport.Netty4Plugin;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Embedded Elasticsearch node for tests, with HTTP and reindex modules.
+ * Node of Spring Data Elasticsearch only loads HTTP module, so reindex requests are rejected.
+ *
+ * @author Julien Roy
+ */
+public class EmbeddedNodeFactoryBean implements FactoryBean<Client>, InitializingBean, DisposableBean {
+
+	private String pathHome;
+	private String pathData;
+	private Node node;
+
+	public void setPathHome(String pathHome) {
+		this.pathHome = pathHome;
+	}
+
+	public void setPathData(String pathData) {
+		this.pathData = pathData;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		Settings settings = Settings.builder()
+				.put("transport.type", "netty4")
+				.put("http.type", "netty4")
+				.put("path.home", pathHome)
+				.put("path.data", pathData)
+				.put("cluster.name", UUID.randomUUID().toString())
+				.put("node.max_local_storage_nodes", 100)
+				.build();
+		node = new PluginNode(settings, Arrays.asList(Netty4Plugin.class, ReindexPlugin.class)).start();
+	}
+
+	@Override
+	public Client getObject() {
+		return node.client();
+	}
+
+	@Override
+	public Class<?> getObjectType() {
+		return Client.class;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (node != null) {
+			node.close();
+		}
+	}
+
+	private static class PluginNode extends Node {
+
+		PluginNode(Settings settings, Collection<Class<? extends Plugin>> plugins) {
+			super(InternalSettingsPreparer.prepareEnvironment(settings, null), plugins, false);
+		}
+
+		@Override
+		protected void registerDerivedNodeNameWithLogger(String nodeName) {
+			LogConfigurator.setNodeName(nodeName);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package com.github.vanroy.springdata.jest.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import io.searchbox.client.JestResult;
+import io.searchbox.core.DocumentResult;
+import io.searchbox.core.MultiSearchResult;
+import io.searchbox.core.SearchResult;
+
+/**
+ * Factory of Jest results, as returned by a mocked client.
+ *
+ * @author Julien Roy
+ */
+public final class JestResults {
+
+	private static final Gson GSON = new Gson();
+
+	private JestResults() {
+	}
+
+	/**
+	 * @param json Response body
+	 * @return succeeded result
+	 */
+	public static JestResult result(String json) {
+		return result(200, json);
+	}
+
+	/**
+	 * @param status HTTP status, result is succeeded only on 200
+	 * @param json Response body, or null for a response without body
+	 * @return result
+	 */
+	public static JestResult result(int status, String json) {
+		return fill(new JestResult(GSON), status, json);
+	}
+
+	/**
+	 * @return succeeded result of an acknowledged change (index, mapping, alias)
+	 */
+	public static JestResult acknowledged() {
+		return result("{\"acknowledged\":true}");
+	}
+
+	public static SearchResult searchResult(String json) {
+		return fill(new SearchResult(GSON), 200, json);
+	}
+
+	public static MultiSearchResult multiSearchResult(String json) {
+		return fill(new MultiSearchResult(GSON), 200, json);
+	}
+
+	/**
+	 * @param json Response body
+	 * @return succeeded document result, with source read from "_source" like results of document actions
+	 */
+	public static DocumentResult documentResult(String json) {
+		DocumentResult result = fill(new DocumentResult(GSON), 200, json);
+		result.setPathToResult("_source");
+		return result;
+	}
+
+	private static <R extends JestResult> R fill(R result, int status, String json) {
+		result.setResponseCode(status);
+		result.setSucceeded(status == 200);
+		if (json != null) {
+			result.setJsonObject(new JsonParser().parse(json).getAsJsonObject());
+			result.setJsonString(json);
+		}
+		return result;
+	}
+}